@@ -0,0 +1,23 @@
+-- ============================================
+-- Student Management System - Migration
+-- Widen students.id to BIGINT for application-assigned (Snowflake) IDs
+-- Version: 2.0
+-- ============================================
+--
+-- Version 2.0 assigns student IDs in the application (time + node + sequence) instead
+-- of through an IDENTITY / AUTO_INCREMENT column. The IDs are 64-bit (around 3.7e17
+-- today), so an existing INT id column overflows on the first insert.
+-- spring.jpa.hibernate.ddl-auto=update never widens an existing column, and the
+-- application refuses to start while students.id is narrower than BIGINT.
+--
+-- Run the statement for your database once, before starting version 2.0.
+-- Existing IDs keep their values; new IDs are always larger than any INT.
+
+-- MySQL / MariaDB (also drops AUTO_INCREMENT, which the application no longer uses)
+ALTER TABLE students MODIFY id BIGINT NOT NULL;
+
+-- PostgreSQL
+-- ALTER TABLE students ALTER COLUMN id TYPE BIGINT;
+
+-- H2 (file databases only; the default in-memory database is recreated on every start)
+-- ALTER TABLE students ALTER COLUMN id SET DATA TYPE BIGINT;
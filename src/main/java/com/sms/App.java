@@ -1,7 +1,21 @@
 package com.sms;
 
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.sms.dao.DaoException;
+import com.sms.dao.StudentDao;
 import com.sms.dao.StudentDaoMemoryImpl;
+import com.sms.dao.StudentDaoWalImpl;
 import com.sms.service.StudentService;
+import com.sms.ui.CommandRunner;
 import com.sms.ui.ConsoleUI;
 
 /**
@@ -15,34 +29,30 @@ import com.sms.ui.ConsoleUI;
  */
 public class App {
 
+    /** System property naming the directory for the durable in-memory store */
+    public static final String DATA_DIR_PROPERTY = "sms.data.dir";
+
+    /** System property read by logback.xml for the console appender target */
+    public static final String LOG_TARGET_PROPERTY = "sms.log.target";
+
+    private static final String DEFAULT_DATA_DIR = "data";
+
     /**
-     * Main method - entry point of the application.
+     * Main method - entry point of the application. Without arguments the
+     * interactive console starts; with arguments a single command (or a batch
+     * of commands) runs non-interactively, see {@link CommandRunner}.
      * 
      * @param args command line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(runCommands(args));
+        }
+
         System.out.println("Starting Student Management System Application");
 
         try {
-            com.sms.dao.StudentDao studentDao = null;
-
-            try {
-                // Initializing Database Schema
-                System.out.println("Initializing database connection...");
-                com.sms.util.DatabaseInitializer.initialize();
-
-                // Phase 2: Initialize with JDBC DAO (Database persistence)
-                studentDao = new com.sms.dao.StudentDaoJdbcImpl();
-                System.out.println("Database mode initialized successfully.");
-
-            } catch (Exception dbEx) {
-                System.err.println("WARNING: Failed to connect to database: " + dbEx.getMessage());
-                System.err.println(
-                        "Check application.properties credentials. Falling back to In-Memory mode (data will not be saved).");
-
-                // Fallback to Phase 1: In-Memory DAO
-                studentDao = new StudentDaoMemoryImpl();
-            }
+            StudentDao studentDao = openDao(System.out);
 
             // Initialize service layer
             StudentService studentService = new StudentService(studentDao);
@@ -51,6 +61,9 @@ public class App {
             ConsoleUI ui = new ConsoleUI(studentService);
             ui.start();
 
+            if (studentDao instanceof AutoCloseable) {
+                ((AutoCloseable) studentDao).close();
+            }
             System.out.println("Application terminated normally");
 
         } catch (Exception e) {
@@ -59,4 +72,81 @@ public class App {
             System.exit(1);
         }
     }
+
+    /**
+     * Runs the command mode. Standard output carries only command results, so
+     * status messages and console logging go to standard error.
+     *
+     * @param args command line arguments
+     * @return the process exit code
+     */
+    private static int runCommands(String[] args) {
+        // Must be set before logback initializes
+        System.setProperty(LOG_TARGET_PROPERTY, "System.err");
+        StudentDao studentDao = null;
+        try {
+            studentDao = openDao(System.err);
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            Reader in = new InputStreamReader(System.in, StandardCharsets.UTF_8);
+            Writer err = new OutputStreamWriter(System.err, StandardCharsets.UTF_8);
+            return CommandRunner.run(args, new StudentService(studentDao), out, in, err);
+        } catch (Exception e) {
+            System.err.println("Fatal error: " + e.getMessage());
+            e.printStackTrace();
+            return CommandRunner.EXIT_FAILED;
+        } finally {
+            if (studentDao instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) studentDao).close();
+                } catch (Exception e) {
+                    System.err.println("WARNING: Failed to close the data store: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the JDBC DAO, or the fallback DAO if the database is unreachable.
+     *
+     * @param status where progress messages are printed
+     * @return the DAO
+     */
+    private static StudentDao openDao(PrintStream status) {
+        try {
+            // Initializing Database Schema
+            status.println("Initializing database connection...");
+            com.sms.util.DatabaseInitializer.initialize();
+
+            // Phase 2: Initialize with JDBC DAO (Database persistence)
+            StudentDao studentDao = new com.sms.dao.StudentDaoJdbcImpl();
+            status.println("Database mode initialized successfully.");
+            return studentDao;
+
+        } catch (Exception dbEx) {
+            System.err.println("WARNING: Failed to connect to database: " + dbEx.getMessage());
+            return openFallbackDao();
+        }
+    }
+
+    /**
+     * Opens the fallback DAO used when the database is unreachable: the durable
+     * in-memory store journaled under {@code sms.data.dir} (default {@code data}),
+     * or the plain in-memory store if even that cannot be opened.
+     *
+     * @return the fallback DAO
+     */
+    private static StudentDao openFallbackDao() {
+        Path dataDir = Paths.get(System.getProperty(DATA_DIR_PROPERTY, DEFAULT_DATA_DIR));
+        try {
+            StudentDao dao = new StudentDaoWalImpl(dataDir);
+            System.err.println("Check application.properties credentials. Falling back to durable In-Memory mode "
+                    + "(changes are journaled to " + dataDir.toAbsolutePath() + ").");
+            return dao;
+        } catch (DaoException walEx) {
+            System.err.println("WARNING: Failed to open durable store: " + walEx.getMessage());
+            System.err.println(
+                    "Check application.properties credentials. Falling back to In-Memory mode (data will not be saved).");
+            return new StudentDaoMemoryImpl();
+        }
+    }
 }
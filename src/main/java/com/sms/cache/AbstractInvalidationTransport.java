@@ -0,0 +1,125 @@
+package com.sms.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Loss detection shared by the invalidation transports.
+ *
+ * Every node sends a heartbeat carrying the last sequence number it published.
+ * A receiver that sees a peer's sequence jump, or hears a heartbeat ahead of the
+ * last message it got, has lost messages and delivers an invalidate-all instead.
+ * Peers not heard from within three heartbeat intervals count as unreachable.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public abstract class AbstractInvalidationTransport implements InvalidationTransport {
+
+    private final long heartbeatIntervalNanos;
+    private final long peerTimeoutNanos;
+    // Per peer: last sequence number seen and when it was last heard from; guarded by this
+    private final Map<String, long[]> peers = new HashMap<>();
+    private ScheduledExecutorService heartbeats;
+    private volatile String nodeId;
+    private volatile Consumer<InvalidationMessage> receiver;
+    private volatile long lastPublished;
+
+    protected AbstractInvalidationTransport(Duration heartbeatInterval) {
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.peerTimeoutNanos = 3 * heartbeatIntervalNanos;
+    }
+
+    @Override
+    public void start(String nodeId, Consumer<InvalidationMessage> receiver) {
+        this.nodeId = nodeId;
+        this.receiver = receiver;
+        open();
+        heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-invalidation-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        lastPublished = message.getSequence();
+        send(message);
+    }
+
+    @Override
+    public boolean isConnected() {
+        long now = System.nanoTime();
+        int reachable = 0;
+        synchronized (this) {
+            for (long[] peer : peers.values()) {
+                if (now - peer[1] < peerTimeoutNanos) {
+                    reachable++;
+                }
+            }
+        }
+        return reachable >= expectedPeers();
+    }
+
+    @Override
+    public void close() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+    }
+
+    /**
+     * Send this node's heartbeat now
+     */
+    public void heartbeat() {
+        if (nodeId != null) {
+            send(InvalidationMessage.heartbeat(nodeId, lastPublished));
+        }
+    }
+
+    /**
+     * Hand a message received from a peer to the local node, replacing it with an
+     * invalidate-all if messages from that peer were lost
+     */
+    protected void deliver(InvalidationMessage message) {
+        if (message.getNodeId().equals(nodeId)) {
+            return;
+        }
+        boolean lost;
+        synchronized (this) {
+            long[] peer = peers.computeIfAbsent(message.getNodeId(), id -> new long[2]);
+            long expected = peer[0] + (message.isHeartbeat() ? 0 : 1);
+            lost = message.getSequence() > expected;
+            peer[0] = Math.max(peer[0], message.getSequence());
+            peer[1] = System.nanoTime();
+        }
+        if (lost) {
+            receiver.accept(InvalidationMessage.all(message.getNodeId(), message.getSequence()));
+        } else if (!message.isHeartbeat()) {
+            receiver.accept(message);
+        }
+    }
+
+    /**
+     * Open the underlying channel; called once from {@link #start}
+     */
+    protected abstract void open();
+
+    /**
+     * Send a message to every peer, best effort
+     */
+    protected abstract void send(InvalidationMessage message);
+
+    /**
+     * @return number of peers this node should hear from
+     */
+    protected abstract int expectedPeers();
+}
@@ -0,0 +1,176 @@
+package com.sms.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to peer nodes and applies theirs locally.
+ *
+ * Local listeners see an invalidation at once. Invalidations for peers are
+ * coalesced: the first one starts a short window, further ones during the window
+ * join it, and the batch goes out as one message when the window closes. A write
+ * burst that touches the same student many times costs one entry in one message.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class InvalidationBus implements AutoCloseable {
+
+    /** Default number of student IDs per message, about 20 KB encoded */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private final String nodeId;
+    private final InvalidationTransport transport;
+    private final long coalesceWindowNanos;
+    private final int maxBatchSize;
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    // Pending invalidations for peers; guarded by this
+    private Set<Long> pendingIds = new LinkedHashSet<>();
+    private boolean pendingAggregates;
+    private boolean flushScheduled;
+
+    /**
+     * Creates a bus and starts its transport.
+     *
+     * @param nodeId identity of this node, unique per process start
+     * @param transport channel to the peers
+     * @param coalesceWindow how long invalidations are collected before they are sent
+     * @param maxBatchSize most student IDs in one message
+     */
+    public InvalidationBus(String nodeId, InvalidationTransport transport, Duration coalesceWindow, int maxBatchSize) {
+        if (nodeId.indexOf('|') >= 0) {
+            throw new IllegalArgumentException("Node ID must not contain '|': " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.coalesceWindowNanos = coalesceWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-invalidation-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transport.start(nodeId, this::receive);
+    }
+
+    /**
+     * Register a local cache
+     */
+    public void addListener(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Invalidate one student and, if requested, the aggregates, here and on every peer
+     */
+    public void invalidate(long studentId, boolean aggregates) {
+        notifyListeners(InvalidationMessage.of(nodeId, 0, new long[] {studentId}, aggregates));
+        synchronized (this) {
+            pendingIds.add(studentId);
+            pendingAggregates |= aggregates;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Invalidate the aggregates here and on every peer
+     */
+    public void invalidateAggregates() {
+        notifyListeners(InvalidationMessage.of(nodeId, 0, new long[0], true));
+        synchronized (this) {
+            pendingAggregates = true;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Send the pending invalidations now
+     */
+    public void flush() {
+        Set<Long> ids;
+        boolean aggregates;
+        synchronized (this) {
+            ids = pendingIds;
+            aggregates = pendingAggregates;
+            pendingIds = new LinkedHashSet<>();
+            pendingAggregates = false;
+            flushScheduled = false;
+            if (ids.isEmpty() && !aggregates) {
+                return;
+            }
+            // Sequence numbers are taken under the lock so messages go out in order
+            long[] all = ids.stream().mapToLong(Long::longValue).toArray();
+            int offset = 0;
+            do {
+                int end = Math.min(all.length, offset + maxBatchSize);
+                long[] batch = Arrays.copyOfRange(all, offset, end);
+                boolean last = end == all.length;
+                transport.publish(InvalidationMessage.of(nodeId, sequence.incrementAndGet(), batch,
+                        aggregates && last));
+                messagesSent.incrementAndGet();
+                offset = end;
+            } while (offset < all.length);
+        }
+    }
+
+    /**
+     * @return true if every peer is reachable; when false caches should not
+     *         rely on invalidations arriving
+     */
+    public boolean isConnected() {
+        return transport.isConnected();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.get();
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived.get();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        flusher.shutdownNow();
+        transport.close();
+    }
+
+    private void scheduleFlush() {
+        if (pendingIds.size() >= maxBatchSize) {
+            flusher.execute(this::flush);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flush, coalesceWindowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void receive(InvalidationMessage message) {
+        messagesReceived.incrementAndGet();
+        notifyListeners(message);
+    }
+
+    private void notifyListeners(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> listener : listeners) {
+            listener.accept(message);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.sms.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A batch of cache invalidations broadcast from one node to its peers.
+ *
+ * A message names student IDs whose cached entities are stale, whether cached
+ * aggregates (statistics) are stale, or that everything is stale. Each node numbers
+ * its messages so receivers can tell when one went missing.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public final class InvalidationMessage {
+
+    private static final byte FLAG_AGGREGATES = 1;
+    private static final byte FLAG_ALL = 2;
+    private static final byte FLAG_HEARTBEAT = 4;
+    private static final char SEPARATOR = '|';
+
+    private final String nodeId;
+    private final long sequence;
+    private final long[] studentIds;
+    private final boolean aggregates;
+    private final boolean all;
+    private final boolean heartbeat;
+
+    private InvalidationMessage(String nodeId, long sequence, long[] studentIds,
+                                boolean aggregates, boolean all, boolean heartbeat) {
+        this.nodeId = nodeId;
+        this.sequence = sequence;
+        this.studentIds = studentIds;
+        this.aggregates = aggregates;
+        this.all = all;
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Invalidates the given students, and the aggregates if requested
+     */
+    public static InvalidationMessage of(String nodeId, long sequence, long[] studentIds, boolean aggregates) {
+        return new InvalidationMessage(nodeId, sequence, studentIds.clone(), aggregates, false, false);
+    }
+
+    /**
+     * Invalidates every cached entry
+     */
+    public static InvalidationMessage all(String nodeId, long sequence) {
+        return new InvalidationMessage(nodeId, sequence, new long[0], true, true, false);
+    }
+
+    /**
+     * Invalidates nothing; tells peers the sender is reachable and which sequence
+     * number it last used
+     */
+    public static InvalidationMessage heartbeat(String nodeId, long sequence) {
+        return new InvalidationMessage(nodeId, sequence, new long[0], false, false, true);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long[] getStudentIds() {
+        return studentIds.clone();
+    }
+
+    public boolean isAggregates() {
+        return aggregates;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean isHeartbeat() {
+        return heartbeat;
+    }
+
+    /**
+     * @return compact text form: {@code nodeId|sequence|flags|id,id,...}
+     */
+    public byte[] encode() {
+        int flags = (aggregates ? FLAG_AGGREGATES : 0) | (all ? FLAG_ALL : 0) | (heartbeat ? FLAG_HEARTBEAT : 0);
+        StringBuilder text = new StringBuilder(32 + studentIds.length * 20)
+                .append(nodeId).append(SEPARATOR).append(sequence).append(SEPARATOR).append(flags).append(SEPARATOR);
+        for (int i = 0; i < studentIds.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(studentIds[i]);
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not an encoded message
+     */
+    public static InvalidationMessage decode(byte[] data, int length) {
+        String text = new String(data, 0, length, StandardCharsets.UTF_8);
+        int first = text.indexOf(SEPARATOR);
+        int second = text.indexOf(SEPARATOR, first + 1);
+        int third = text.indexOf(SEPARATOR, second + 1);
+        if (first <= 0 || second < 0 || third < 0) {
+            throw new IllegalArgumentException("Malformed invalidation message");
+        }
+        int flags = Integer.parseInt(text.substring(second + 1, third));
+        String ids = text.substring(third + 1);
+        long[] studentIds = ids.isEmpty() ? new long[0]
+                : Arrays.stream(ids.split(",")).mapToLong(Long::parseLong).toArray();
+        return new InvalidationMessage(text.substring(0, first), Long.parseLong(text.substring(first + 1, second)),
+                studentIds, (flags & FLAG_AGGREGATES) != 0, (flags & FLAG_ALL) != 0, (flags & FLAG_HEARTBEAT) != 0);
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationMessage{nodeId=" + nodeId + ", sequence=" + sequence
+                + ", studentIds=" + studentIds.length + ", aggregates=" + aggregates
+                + ", all=" + all + ", heartbeat=" + heartbeat + '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.sms.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidation messages between application nodes.
+ *
+ * A transport either delivers every message a peer published, or, when it may
+ * have missed some (a gap in a peer's sequence numbers, a peer that fell silent),
+ * delivers an invalidate-all message in their place. While a peer is unreachable
+ * {@link #isConnected()} is false and caches expire entries on a short TTL instead
+ * of trusting invalidations to arrive.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Start exchanging messages.
+     *
+     * @param nodeId identity of the local node, unique per process start
+     * @param receiver called with each message from a peer
+     */
+    void start(String nodeId, Consumer<InvalidationMessage> receiver);
+
+    /**
+     * Send a message to all peers. Messages from one node carry consecutive
+     * sequence numbers starting at 1.
+     */
+    void publish(InvalidationMessage message);
+
+    /**
+     * @return true if every expected peer has been heard from recently
+     */
+    boolean isConnected();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,76 @@
+package com.sms.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process transport: nodes that share a {@link Hub} receive each other's messages
+ * directly. Used for a single node and for multi-node tests in one JVM, where
+ * {@link #setConnected(boolean)} simulates a network partition.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class LoopbackInvalidationTransport extends AbstractInvalidationTransport {
+
+    private final Hub hub;
+    private volatile boolean connected = true;
+
+    public LoopbackInvalidationTransport(Hub hub, Duration heartbeatInterval) {
+        super(heartbeatInterval);
+        this.hub = hub;
+    }
+
+    /**
+     * Cut this node off from the hub, or reconnect it. Messages sent either way
+     * while cut off are dropped, as on a real partition.
+     */
+    public void setConnected(boolean connected) {
+        this.connected = connected;
+        if (connected) {
+            heartbeat();
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected && super.isConnected();
+    }
+
+    @Override
+    protected void open() {
+        hub.members.add(this);
+    }
+
+    @Override
+    protected void send(InvalidationMessage message) {
+        if (!connected) {
+            return;
+        }
+        for (LoopbackInvalidationTransport member : hub.members) {
+            if (member != this && member.connected) {
+                member.deliver(message);
+            }
+        }
+    }
+
+    @Override
+    protected int expectedPeers() {
+        return hub.members.size() - 1;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        hub.members.remove(this);
+    }
+
+    /**
+     * The shared in-process channel
+     */
+    public static class Hub {
+        private final List<LoopbackInvalidationTransport> members = new CopyOnWriteArrayList<>();
+    }
+}
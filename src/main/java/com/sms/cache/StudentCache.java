@@ -0,0 +1,171 @@
+package com.sms.cache;
+
+import com.sms.controller.StudentStatistics;
+import com.sms.model.StudentEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of students by ID and of the student statistics, kept coherent
+ * across nodes by an {@link InvalidationBus}. The database is the second level.
+ *
+ * Entries live for the TTL while the bus is connected. While any peer is
+ * unreachable an invalidation may be missing, so entries older than the (much
+ * shorter) partition TTL count as expired. A load that overlaps an invalidation is
+ * returned but not cached, so a slow read can never put a value back that a write
+ * has just invalidated. That check only holds if the loader reads committed state:
+ * with read replicas, loaders must read from the primary, since a lagging replica
+ * would return the invalidated value after the invalidation has arrived. Cached
+ * entities are shared; callers must not modify them.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class StudentCache implements Consumer<InvalidationMessage> {
+
+    private final InvalidationBus bus;
+    private final long ttlNanos;
+    private final long partitionTtlNanos;
+    private final int maxEntries;
+    private final Map<Long, Entry<StudentEntity>> students = new ConcurrentHashMap<>();
+    private volatile Entry<StudentStatistics> statistics;
+    // Bumped by every invalidation; loads that straddle one are not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param bus invalidation bus; the cache registers itself as a listener
+     * @param ttl entry lifetime while all peers are reachable
+     * @param partitionTtl entry lifetime while a peer is unreachable
+     * @param maxEntries most students kept
+     */
+    public StudentCache(InvalidationBus bus, Duration ttl, Duration partitionTtl, int maxEntries) {
+        this.bus = bus;
+        this.ttlNanos = ttl.toNanos();
+        this.partitionTtlNanos = partitionTtl.toNanos();
+        this.maxEntries = maxEntries;
+        bus.addListener(this);
+    }
+
+    /**
+     * Get a student, loading it on a miss. Absent students are not cached.
+     */
+    public Optional<StudentEntity> getStudent(Long id, Supplier<Optional<StudentEntity>> loader) {
+        Entry<StudentEntity> entry = students.get(id);
+        if (entry != null && isFresh(entry)) {
+            hits.incrementAndGet();
+            return Optional.of(entry.value);
+        }
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        Optional<StudentEntity> loaded = loader.get();
+        loaded.ifPresent(student -> {
+            if (students.size() >= maxEntries) {
+                evictOne();
+            }
+            students.put(id, new Entry<>(student));
+            // An invalidation that raced with the load wins
+            if (generation.get() != loadGeneration) {
+                students.remove(id);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Get the statistics, computing them on a miss
+     */
+    public StudentStatistics getStatistics(Supplier<StudentStatistics> loader) {
+        Entry<StudentStatistics> entry = statistics;
+        if (entry != null && isFresh(entry)) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        StudentStatistics loaded = loader.get();
+        statistics = new Entry<>(loaded);
+        if (generation.get() != loadGeneration) {
+            statistics = null;
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidate a student and the statistics on every node once the current
+     * transaction commits (at once if there is none), so no node re-caches the
+     * value the transaction is replacing
+     */
+    public void invalidateAfterCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bus.invalidate(id, true);
+                }
+            });
+        } else {
+            bus.invalidate(id, true);
+        }
+    }
+
+    @Override
+    public void accept(InvalidationMessage message) {
+        generation.incrementAndGet();
+        if (message.isAll()) {
+            students.clear();
+        } else {
+            for (long id : message.getStudentIds()) {
+                students.remove(id);
+            }
+        }
+        if (message.isAggregates() || message.isAll()) {
+            statistics = null;
+        }
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private boolean isFresh(Entry<?> entry) {
+        long age = System.nanoTime() - entry.loadedAtNanos;
+        return age < (bus.isConnected() ? ttlNanos : partitionTtlNanos);
+    }
+
+    private void evictOne() {
+        Iterator<Long> keys = students.keySet().iterator();
+        if (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class Entry<T> {
+        final T value;
+        final long loadedAtNanos = System.nanoTime();
+
+        Entry(T value) {
+            this.value = value;
+        }
+    }
+}
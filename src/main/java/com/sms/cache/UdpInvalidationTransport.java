@@ -0,0 +1,107 @@
+package com.sms.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sends invalidation messages as UDP datagrams to a fixed list of peers.
+ *
+ * UDP may drop or reorder datagrams; lost messages are detected from the sequence
+ * numbers and heartbeats (see {@link AbstractInvalidationTransport}) and turned into
+ * an invalidate-all, so the worst case is a cold cache, never a stale one beyond the
+ * partition TTL. Works across hosts and between processes on localhost.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class UdpInvalidationTransport extends AbstractInvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(UdpInvalidationTransport.class);
+
+    /** Largest datagram accepted; the bus keeps messages well below it */
+    static final int MAX_DATAGRAM_BYTES = 65_000;
+
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private Thread receiverThread;
+
+    /**
+     * @param port local UDP port to listen on
+     * @param peers addresses of the other nodes
+     */
+    public UdpInvalidationTransport(int port, List<InetSocketAddress> peers, Duration heartbeatInterval)
+            throws SocketException {
+        this(new DatagramSocket(port), peers, heartbeatInterval);
+    }
+
+    /**
+     * @param socket bound socket to listen on
+     * @param peers addresses of the other nodes
+     */
+    public UdpInvalidationTransport(DatagramSocket socket, List<InetSocketAddress> peers, Duration heartbeatInterval) {
+        super(heartbeatInterval);
+        this.socket = socket;
+        this.peers = List.copyOf(peers);
+    }
+
+    @Override
+    protected void open() {
+        receiverThread = new Thread(this::receiveLoop, "cache-invalidation-receiver");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+    }
+
+    @Override
+    protected void send(InvalidationMessage message) {
+        byte[] data = message.encode();
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(data, data.length, peer));
+            } catch (IOException e) {
+                // Dropped like any lost datagram; the peer detects the gap
+                logger.debug("Invalidation to {} not sent: {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    protected int expectedPeers() {
+        return peers.size();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        socket.close();
+    }
+
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[MAX_DATAGRAM_BYTES];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                deliver(InvalidationMessage.decode(packet.getData(), packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.warn("Invalidation receive failed", e);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring malformed invalidation datagram from {}", packet.getSocketAddress(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sms.config;
+
+import com.sms.cache.InvalidationBus;
+import com.sms.cache.InvalidationTransport;
+import com.sms.cache.LoopbackInvalidationTransport;
+import com.sms.cache.StudentCache;
+import com.sms.cache.UdpInvalidationTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Node-local student cache with cross-node invalidation.
+ * Active when {@code app.cache.enabled=true}.
+ *
+ * With {@code app.cache.invalidation.peers} set, invalidations travel as UDP datagrams
+ * between the listed nodes; without peers the node runs on its own (loopback transport).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true")
+public class CacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public InvalidationTransport invalidationTransport(
+            @Value("${app.cache.invalidation.port:7800}") int port,
+            @Value("${app.cache.invalidation.peers:}") String peers,
+            @Value("${app.cache.invalidation.heartbeat-interval:1s}") Duration heartbeatInterval) throws SocketException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String peer : peers.split(",")) {
+            if (!peer.isBlank()) {
+                int colon = peer.lastIndexOf(':');
+                addresses.add(new InetSocketAddress(peer.substring(0, colon).trim(),
+                        Integer.parseInt(peer.substring(colon + 1).trim())));
+            }
+        }
+        return addresses.isEmpty()
+                ? new LoopbackInvalidationTransport(new LoopbackInvalidationTransport.Hub(), heartbeatInterval)
+                : new UdpInvalidationTransport(port, addresses, heartbeatInterval);
+    }
+
+    @Bean(destroyMethod = "close")
+    public InvalidationBus invalidationBus(InvalidationTransport invalidationTransport,
+            @Value("${app.cache.invalidation.coalesce-window:50ms}") Duration coalesceWindow) {
+        String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        return new InvalidationBus(nodeId, invalidationTransport, coalesceWindow,
+                InvalidationBus.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    @Bean
+    public StudentCache studentCache(InvalidationBus invalidationBus,
+            @Value("${app.cache.ttl:10m}") Duration ttl,
+            @Value("${app.cache.partition-ttl:5s}") Duration partitionTtl,
+            @Value("${app.cache.max-entries:10000}") int maxEntries) {
+        return new StudentCache(invalidationBus, ttl, partitionTtl, maxEntries);
+    }
+}
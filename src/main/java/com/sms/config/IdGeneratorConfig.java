@@ -0,0 +1,61 @@
+package com.sms.config;
+
+import com.sms.model.StudentIdGenerator;
+import com.sms.util.IdGenerator;
+import com.sms.util.NodeIdLease;
+import com.sms.util.SnowflakeIdGenerator;
+import com.sms.util.StudentIdColumnCheck;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Student ID generation.
+ * Every node issues Snowflake IDs (see {@link SnowflakeIdGenerator}) without contacting
+ * the database. The node ID is either fixed with {@code app.id.node-id} or, by default,
+ * leased from the {@code id_node_lease} table in the primary database.
+ * IDs need a BIGINT {@code students.id} column; older databases must be migrated first
+ * (see {@link StudentIdColumnCheck}).
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    /**
+     * Node ID lease, only when no fixed node ID is configured
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${app.id.node-id:-1} < 0")
+    public NodeIdLease nodeIdLease(DataSource dataSource,
+                                   @Value("${app.id.lease-duration:30s}") Duration leaseDuration) throws SQLException {
+        NodeIdLease lease = new NodeIdLease(dataSource,
+                ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID(), leaseDuration);
+        lease.acquire();
+        return lease;
+    }
+
+    /**
+     * Refuses to run against a students table whose id column predates 64-bit IDs
+     */
+    @Bean
+    public ApplicationRunner studentIdColumnCheck(DataSource dataSource) {
+        return args -> StudentIdColumnCheck.verify(dataSource);
+    }
+
+    @Bean
+    public IdGenerator studentIdGenerator(ObjectProvider<NodeIdLease> nodeIdLease,
+                                          @Value("${app.id.node-id:-1}") int nodeId) {
+        NodeIdLease lease = nodeIdLease.getIfAvailable();
+        IdGenerator generator = lease != null ? new SnowflakeIdGenerator(lease) : new SnowflakeIdGenerator(nodeId);
+        StudentIdGenerator.use(generator);
+        return generator;
+    }
+}
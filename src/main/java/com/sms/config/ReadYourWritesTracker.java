@@ -0,0 +1,100 @@
+package com.sms.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which client sessions wrote recently, so their reads can stay on the
+ * primary until replicas have had time to catch up.
+ *
+ * The session of the current thread is set per request by {@link ReplicaRoutingConfig};
+ * a thread without a session gets no stickiness. {@link #readFromPrimary} pins a single
+ * read to the primary regardless of the session.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class ReadYourWritesTracker {
+
+    // Expired entries are purged when the map grows past this size
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ThreadLocal<String> currentSession = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> primaryRead = new ThreadLocal<>();
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    /**
+     * @param window how long a session reads from the primary after its last write
+     */
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Binds a session to the current thread; null clears it.
+     */
+    public void setCurrentSession(String session) {
+        if (session == null) {
+            currentSession.remove();
+        } else {
+            currentSession.set(session);
+        }
+    }
+
+    public String getCurrentSession() {
+        return currentSession.get();
+    }
+
+    /**
+     * Records a committed write by the current thread's session.
+     */
+    public void recordWrite() {
+        String session = currentSession.get();
+        if (session == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        stickyUntil.put(session, now + windowNanos);
+        if (stickyUntil.size() > PURGE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    /**
+     * Runs a read with the primary serving any connection it opens, for reads whose
+     * result outlives the request (cache loads), which a lagging replica would leave
+     * stale for far longer than the window. The connection must not be open yet: with
+     * the lazy proxy, the read has to be the transaction's first statement.
+     */
+    public <T> T readFromPrimary(Supplier<T> read) {
+        Boolean outer = primaryRead.get();
+        primaryRead.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outer == null) {
+                primaryRead.remove();
+            }
+        }
+    }
+
+    /**
+     * @return true inside {@link #readFromPrimary} or if the current thread's session
+     *         wrote within the window
+     */
+    public boolean mustReadFromPrimary() {
+        if (primaryRead.get() != null) {
+            return true;
+        }
+        String session = currentSession.get();
+        if (session == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(session);
+        return until != null && until - System.nanoTime() > 0;
+    }
+}
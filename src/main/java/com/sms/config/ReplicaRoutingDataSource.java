@@ -0,0 +1,261 @@
+package com.sms.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource that sends read-only transactions to read replicas.
+ *
+ * <ul>
+ *   <li>Connections for {@code @Transactional(readOnly = true)} work come from a healthy
+ *       replica, picked round-robin. A replica that fails to hand out a connection is
+ *       marked down and the next one is tried; with no healthy replica the primary serves
+ *       the read.</li>
+ *   <li>Everything else (read-write transactions, work outside a transaction) goes to the
+ *       primary.</li>
+ *   <li>After a read-write transaction commits, reads from the same client session stay on
+ *       the primary for the read-your-writes window (see {@link ReadYourWritesTracker}).</li>
+ *   <li>A background check validates every replica periodically and brings recovered
+ *       replicas back into rotation.</li>
+ * </ul>
+ *
+ * The routing decision needs the transaction's read-only flag, which Spring publishes only
+ * after the transaction manager has asked for a connection; wrap this DataSource in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the real
+ * connection is fetched at the first statement.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder primaryStickyReads = new LongAdder();
+    private final LongAdder primaryFallbackReads = new LongAdder();
+    private final LongAdder replicaFailures = new LongAdder();
+
+    /**
+     * Creates a routing DataSource.
+     *
+     * @param primary the writable database
+     * @param replicas read replicas by name
+     * @param tracker read-your-writes state
+     * @param healthCheckInterval time between replica checks; zero or negative disables them
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker tracker, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.tracker = tracker;
+        List<Replica> list = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> list.add(new Replica(name, dataSource)));
+        this.replicas = Collections.unmodifiableList(list);
+
+        if (healthCheckInterval.isZero() || healthCheckInterval.isNegative() || list.isEmpty()) {
+            this.healthChecker = null;
+        } else {
+            this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = healthCheckInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routes like {@link #getConnection()} and opens the chosen target's connection with
+     * the given credentials.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> target.getConnection(username, password));
+    }
+
+    /**
+     * Picks the target for the current transaction and opens a connection on it.
+     */
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            primaryConnections.increment();
+            recordWriteOnCommit();
+            return opener.open(primary);
+        }
+        if (tracker.mustReadFromPrimary()) {
+            primaryStickyReads.increment();
+            return opener.open(primary);
+        }
+
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = opener.open(replica.dataSource);
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replicaFailures.increment();
+                replica.healthy = false;
+                logger.warn("Replica {} unavailable, taking it out of rotation: {}", replica.name, e.getMessage());
+            }
+        }
+        primaryFallbackReads.increment();
+        return opener.open(primary);
+    }
+
+    /**
+     * Validates every replica and updates its health flag.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.info("Replica {} is now {}", replica.name, healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Routing counters and replica health, for the metrics endpoint.
+     *
+     * @return counter name to value, plus a "replicas" entry per replica
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("primaryConnections", primaryConnections.sum());
+        metrics.put("primaryStickyReads", primaryStickyReads.sum());
+        metrics.put("primaryFallbackReads", primaryFallbackReads.sum());
+        long replicaReads = 0;
+        List<Map<String, Object>> replicaMetrics = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", replica.name);
+            entry.put("healthy", replica.healthy);
+            entry.put("reads", replica.reads.sum());
+            replicaReads += replica.reads.sum();
+            replicaMetrics.add(entry);
+        }
+        metrics.put("replicaReads", replicaReads);
+        metrics.put("replicaFailures", replicaFailures.sum());
+        metrics.put("replicas", replicaMetrics);
+        return metrics;
+    }
+
+    /**
+     * Stops the health checks and closes the pools this DataSource owns. Every pool is
+     * closed even if an earlier one fails.
+     *
+     * @throws SQLException if any pool fails to close; further failures are suppressed
+     */
+    @Override
+    public void close() throws SQLException {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        SQLException failure = null;
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica.dataSource).close();
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (failure == null) {
+                        failure = new SQLException("Failed to close replica pool " + replica.name, e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Starts the read-your-writes window once the current read-write transaction commits.
+     * Counts every read-write transaction as a write, even one that only read.
+     */
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || tracker.getCurrentSession() == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite();
+            }
+        });
+    }
+
+    /**
+     * Opens a connection on a routing target.
+     */
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource target) throws SQLException;
+    }
+
+    /**
+     * A replica and its routing state.
+     */
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        final LongAdder reads = new LongAdder();
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
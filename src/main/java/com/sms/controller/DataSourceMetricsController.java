@@ -0,0 +1,47 @@
+package com.sms.controller;
+
+import com.sms.config.ReplicaRoutingDataSource;
+import com.sms.util.ApiResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * REST API Controller for database routing metrics.
+ *
+ * Base URL: /api/v1/datasource
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@RestController
+@RequestMapping("/api/v1/datasource")
+@Tag(name = "Data Source", description = "Database routing metrics")
+public class DataSourceMetricsController {
+
+    @Autowired
+    private ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+
+    /**
+     * Get read-replica routing counters and replica health
+     */
+    @GetMapping("/routing")
+    @Operation(summary = "Get routing metrics",
+            description = "Connections routed to the primary and each read replica, and replica health")
+    public ResponseEntity<?> getRoutingMetrics() {
+        ReplicaRoutingDataSource dataSource = routingDataSource.getIfAvailable();
+        Map<String, Object> metrics = dataSource != null
+                ? dataSource.getMetrics()
+                : Collections.singletonMap("replicasConfigured", false);
+        return ResponseEntity.ok(new ApiResponseWrapper(true, "Routing metrics retrieved", metrics));
+    }
+}
@@ -1,12 +1,28 @@
 package com.sms.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.dto.PageDTO;
 import com.sms.dto.StudentDTO;
+import com.sms.dto.StudentDeltaDTO;
+import com.sms.dto.StudentMatchDTO;
+import com.sms.dto.StudentMergePatch;
 import com.sms.dto.StudentSearchRequest;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.exception.BatchValidationException;
+import com.sms.exception.FieldValidationException;
 import com.sms.exception.ResourceNotFoundException;
 import com.sms.model.StudentEntity;
 import com.sms.model.StudentStatus;
 import com.sms.service.StudentApiService;
+import com.sms.service.StudentNameSearchService;
+import com.sms.service.StudentSuggestService;
+import com.sms.service.StudentSyncService;
 import com.sms.util.ApiResponseWrapper;
+import com.sms.util.BatchValidator;
+import com.sms.util.ETagUtil;
+import com.sms.util.SyncWatermark;
+import com.sms.util.ValidationReport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,12 +31,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -30,8 +54,15 @@ import java.util.stream.Collectors;
  * 
  * Features:
  * - CRUD operations via REST endpoints
- * - Advanced search and filtering
+ * - Partial updates via JSON Merge Patch (PATCH)
+ * - Bulk create and dry-run validation with per-record field errors
+ * - Advanced search and filtering, including misspelling-tolerant name search
+ * - Type-ahead suggestions for names and emails from an in-memory prefix index
  * - Pagination support
+ * - Conditional GET (ETag / If-None-Match) and optimistic writes (If-Match)
+ * - Delta sync (changes and tombstones since a watermark)
+ * - Lean representation via ?view=lean or Accept: application/vnd.sms.lean+json
+ * - CBOR / Smile binary formats via Accept and Content-Type (JSON remains the default)
  * - Swagger/OpenAPI documentation
  * 
  * @author SMS Development Team
@@ -44,9 +75,37 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class StudentApiController {
     
+    /** Media type that selects the lean representation (no wrapper, minimal page envelope) */
+    public static final String LEAN_MEDIA_TYPE = "application/vnd.sms.lean+json";
+    
+    private static final String VIEW_PARAM = "view";
+    private static final String VIEW_LEAN = "lean";
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    
+    private static final int MAX_DELTA_BATCH_SIZE = 1000;
+    private static final int MAX_BULK_BATCH_SIZE = 10_000;
+    private static final int MAX_FUZZY_RESULTS = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    
     @Autowired
     private StudentApiService studentApiService;
     
+    @Autowired
+    private StudentSyncService studentSyncService;
+    
+    @Autowired
+    private StudentNameSearchService studentNameSearchService;
+    
+    @Autowired
+    private StudentSuggestService studentSuggestService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
     /**
      * Get all students with pagination
      */
@@ -55,10 +114,10 @@ public class StudentApiController {
     @ApiResponse(responseCode = "200", description = "Students retrieved successfully")
     public ResponseEntity<?> getAllStudents(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Page<StudentEntity> students = studentApiService.getAllStudents(PageRequest.of(page, size));
-        Page<StudentDTO> dtoPage = students.map(this::convertToDTO);
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "Students retrieved successfully", dtoPage));
+        return pageResponse(students, "Students retrieved successfully", request);
     }
     
     /**
@@ -68,12 +127,18 @@ public class StudentApiController {
     @Operation(summary = "Get student by ID", description = "Retrieve a specific student by their ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student found"),
+        @ApiResponse(responseCode = "304", description = "Student not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
-    public ResponseEntity<?> getStudentById(@PathVariable Integer id) {
+    public ResponseEntity<?> getStudentById(@PathVariable Long id, WebRequest request) {
         StudentEntity student = studentApiService.getStudentById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + id));
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "Student retrieved successfully", convertToDTO(student)));
+        String eTag = ETagUtil.strongETag(student, representation(request));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(envelope(request, "Student retrieved successfully", convertToDTO(student)));
     }
     
     /**
@@ -82,10 +147,50 @@ public class StudentApiController {
     @PostMapping
     @Operation(summary = "Create new student", description = "Add a new student to the system")
     @ApiResponse(responseCode = "201", description = "Student created successfully")
-    public ResponseEntity<?> createStudent(@Valid @RequestBody StudentDTO studentDTO) {
+    public ResponseEntity<?> createStudent(@Valid @RequestBody StudentDTO studentDTO, WebRequest request) {
         StudentEntity student = studentApiService.createStudent(convertToEntity(studentDTO));
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new ApiResponseWrapper(true, "Student created successfully", convertToDTO(student)));
+                .eTag(ETagUtil.strongETag(student, representation(request)))
+                .body(envelope(request, "Student created successfully", convertToDTO(student)));
+    }
+    
+    /**
+     * Create many students at once; the batch is rejected as a whole if any record is invalid
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Create students in bulk",
+            description = "Validate all students in one pass and create them in one transaction. "
+                    + "If any record is invalid nothing is created and every field error of every "
+                    + "invalid record is returned by its index in the batch.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Students created successfully"),
+        @ApiResponse(responseCode = "400", description = "Per-record field errors")
+    })
+    public ResponseEntity<?> createStudents(@RequestBody List<StudentDTO> studentDTOs, WebRequest request) {
+        ValidationReport report = validateBatch(studentDTOs);
+        if (!report.isValid()) {
+            throw new BatchValidationException("Validation failed for " + report.getInvalidCount()
+                    + " of " + report.getRecordCount() + " students", report);
+        }
+        List<StudentEntity> students = studentApiService.createStudents(
+                studentDTOs.stream().map(this::convertToEntity).collect(Collectors.toList()));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(envelope(request, students.size() + " students created successfully",
+                        students.stream().map(this::convertToDTO).collect(Collectors.toList())));
+    }
+    
+    /**
+     * Validate many students without creating them
+     */
+    @PostMapping("/bulk/validate")
+    @Operation(summary = "Validate students in bulk",
+            description = "Dry run of the bulk create: report every field error of every invalid record")
+    @ApiResponse(responseCode = "200", description = "Validation report")
+    public ResponseEntity<?> validateStudents(@RequestBody List<StudentDTO> studentDTOs, WebRequest request) {
+        ValidationReport report = validateBatch(studentDTOs);
+        return ResponseEntity.ok(envelope(request,
+                report.isValid() ? "All students are valid" : report.getInvalidCount() + " invalid students",
+                report));
     }
     
     /**
@@ -95,14 +200,43 @@ public class StudentApiController {
     @Operation(summary = "Update student", description = "Update an existing student's information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Student not found")
+        @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
     public ResponseEntity<?> updateStudent(
-            @PathVariable Integer id,
-            @Valid @RequestBody StudentDTO studentDTO) {
-        StudentEntity student = studentApiService.updateStudent(id, convertToEntity(studentDTO))
+            @PathVariable Long id,
+            @Valid @RequestBody StudentDTO studentDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest request) {
+        Long expectedVersion = ETagUtil.expectedVersion(ifMatch, id);
+        StudentEntity student = studentApiService.updateStudent(id, convertToEntity(studentDTO), expectedVersion)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + id));
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "Student updated successfully", convertToDTO(student)));
+        return ResponseEntity.ok().eTag(ETagUtil.strongETag(student, representation(request)))
+                .body(envelope(request, "Student updated successfully", convertToDTO(student)));
+    }
+    
+    /**
+     * Partially update a student (JSON Merge Patch)
+     */
+    @PatchMapping(value = "/{id}", consumes = {StudentMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Patch student", description = "Update only the supplied fields of a student (RFC 7396)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Student patched successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid patch"),
+        @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
+    })
+    public ResponseEntity<?> patchStudent(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest request) {
+        Long expectedVersion = ETagUtil.expectedVersion(ifMatch, id);
+        StudentMergePatch mergePatch = StudentMergePatch.from(patch, objectMapper, validator);
+        StudentEntity student = studentApiService.patchStudent(id, mergePatch.getChanges(), expectedVersion)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + id));
+        return ResponseEntity.ok().eTag(ETagUtil.strongETag(student, representation(request)))
+                .body(envelope(request, "Student patched successfully", convertToDTO(student)));
     }
     
     /**
@@ -112,10 +246,13 @@ public class StudentApiController {
     @Operation(summary = "Delete student", description = "Remove a student from the system")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Student deleted successfully"),
-        @ApiResponse(responseCode = "404", description = "Student not found")
+        @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
-    public ResponseEntity<?> deleteStudent(@PathVariable Integer id) {
-        boolean deleted = studentApiService.deleteStudent(id);
+    public ResponseEntity<?> deleteStudent(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted = studentApiService.deleteStudent(id, ETagUtil.expectedVersion(ifMatch, id));
         if (!deleted) {
             throw new ResourceNotFoundException("Student not found with ID: " + id);
         }
@@ -124,17 +261,65 @@ public class StudentApiController {
     }
     
     /**
-     * Search students by name
+     * Search students by name (substring match in the database; use /suggest for type-ahead)
      */
     @GetMapping("/search/name")
     @Operation(summary = "Search by name", description = "Search students by name (case-insensitive)")
     public ResponseEntity<?> searchByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Page<StudentEntity> students = studentApiService.searchByName(name, PageRequest.of(page, size));
-        Page<StudentDTO> dtoPage = students.map(this::convertToDTO);
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "Search results", dtoPage));
+        return pageResponse(students, "Search results", request);
+    }
+    
+    /**
+     * Search students by name, tolerating misspellings and spellings that sound alike
+     */
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Fuzzy search by name",
+               description = "Find students whose name words are within a small edit distance of, "
+                       + "or sound like, every query word; closest matches first")
+    public ResponseEntity<?> fuzzySearchByName(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        if (query.isBlank()) {
+            throw new FieldValidationException("Invalid search", Map.of("q", "must not be blank"));
+        }
+        List<StudentMatchDTO> matches = studentNameSearchService
+                .search(query, Math.max(1, Math.min(limit, MAX_FUZZY_RESULTS))).stream()
+                .map(ranked -> new StudentMatchDTO(convertToDTO(ranked.getStudent()),
+                        ranked.getMatch().getDistance(), ranked.getMatch().isPhonetic()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(envelope(request, matches.size() + " matches", matches));
+    }
+    
+    /**
+     * Type-ahead suggestions; a bare array of {id, name, email} to keep keystroke responses tiny
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest students",
+               description = "Students whose name words or email start with the prefix, best ranked first; "
+                       + "served from memory for type-ahead")
+    public ResponseEntity<List<StudentSuggestionDTO>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "ALL") StudentSuggestService.Field field,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(studentSuggestService.suggest(prefix, field,
+                Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+    }
+    
+    /**
+     * Size and estimated memory footprint of the suggest index
+     */
+    @GetMapping("/suggest/index")
+    @Operation(summary = "Get suggest index statistics",
+               description = "Entries and estimated heap footprint of the type-ahead index")
+    public ResponseEntity<?> getSuggestIndexStats(WebRequest request) {
+        return ResponseEntity.ok(envelope(request, "Suggest index statistics retrieved",
+                studentSuggestService.getIndexStats()));
     }
     
     /**
@@ -145,10 +330,10 @@ public class StudentApiController {
     public ResponseEntity<?> searchByStatus(
             @RequestParam StudentStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Page<StudentEntity> students = studentApiService.getStudentsByStatus(status, PageRequest.of(page, size));
-        Page<StudentDTO> dtoPage = students.map(this::convertToDTO);
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "Students with status: " + status, dtoPage));
+        return pageResponse(students, "Students with status: " + status, request);
     }
     
     /**
@@ -160,10 +345,10 @@ public class StudentApiController {
             @RequestParam Double minGpa,
             @RequestParam Double maxGpa,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Page<StudentEntity> students = studentApiService.filterByGpaRange(minGpa, maxGpa, PageRequest.of(page, size));
-        Page<StudentDTO> dtoPage = students.map(this::convertToDTO);
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "GPA Range: " + minGpa + " - " + maxGpa, dtoPage));
+        return pageResponse(students, "GPA Range: " + minGpa + " - " + maxGpa, request);
     }
     
     /**
@@ -171,9 +356,129 @@ public class StudentApiController {
      */
     @GetMapping("/statistics")
     @Operation(summary = "Get statistics", description = "Get system statistics about students")
-    public ResponseEntity<?> getStatistics() {
+    public ResponseEntity<?> getStatistics(WebRequest request) {
         StudentStatistics stats = studentApiService.getStatistics();
-        return ResponseEntity.ok(new ApiResponseWrapper(true, "Statistics retrieved", stats));
+        return ResponseEntity.ok(envelope(request, "Statistics retrieved", stats));
+    }
+    
+    /**
+     * Get students created, updated or deleted since a watermark
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get changes since watermark",
+            description = "Delta sync: students changed and tombstones for students deleted since the watermark "
+                    + "of a previous response (omit it for a full sync). Repeat with the returned watermark "
+                    + "while hasMore is true.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes retrieved"),
+        @ApiResponse(responseCode = "400", description = "Malformed watermark")
+    })
+    public ResponseEntity<?> getChangesSince(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest request) {
+        SyncWatermark watermark;
+        try {
+            watermark = since != null ? SyncWatermark.decode(since) : null;
+        } catch (IllegalArgumentException e) {
+            throw new FieldValidationException("Invalid watermark", Map.of("since", e.getMessage()));
+        }
+        StudentSyncService.Delta delta = studentSyncService.changesSince(watermark,
+                Math.max(1, Math.min(limit, MAX_DELTA_BATCH_SIZE)));
+        StudentDeltaDTO body = new StudentDeltaDTO(
+                delta.getUpserts().stream().map(this::convertToDTO).collect(Collectors.toList()),
+                delta.getDeletes().stream()
+                        .map(event -> new StudentDeltaDTO.Tombstone(event.getStudentId(), event.getOccurredAt()))
+                        .collect(Collectors.toList()),
+                delta.getWatermark().encode(),
+                delta.isHasMore());
+        return ResponseEntity.ok(envelope(request, "Changes retrieved", body));
+    }
+    
+    /**
+     * Check a batch against the StudentDTO constraints, the same ones @Valid applies
+     */
+    private ValidationReport validateBatch(List<StudentDTO> studentDTOs) {
+        if (studentDTOs.size() > MAX_BULK_BATCH_SIZE) {
+            throw new FieldValidationException("Batch too large",
+                    Map.of("students", "At most " + MAX_BULK_BATCH_SIZE + " students per request"));
+        }
+        return new BatchValidator<StudentDTO>((dto, errors) -> {
+            if (dto == null) {
+                errors.add("student", "must not be null");
+                return;
+            }
+            for (ConstraintViolation<StudentDTO> violation : validator.validate(dto)) {
+                errors.add(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+        }).validateAll(studentDTOs);
+    }
+    
+    /**
+     * Build a conditional page response in the negotiated representation
+     */
+    private ResponseEntity<?> pageResponse(Page<StudentEntity> students, String message, WebRequest request) {
+        String eTag = ETagUtil.weakETag(students);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        Page<StudentDTO> dtoPage = students.map(this::convertToDTO);
+        Object body = isLean(request) ? PageDTO.of(dtoPage) : new ApiResponseWrapper(true, message, dtoPage);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+    
+    /**
+     * Wrap data in ApiResponseWrapper unless the lean representation was requested
+     */
+    private Object envelope(WebRequest request, String message, Object data) {
+        return isLean(request) ? data : new ApiResponseWrapper(true, message, data);
+    }
+    
+    /**
+     * Lean mode is selected by ?view=lean or by accepting the lean media type
+     */
+    private boolean isLean(WebRequest request) {
+        if (VIEW_LEAN.equalsIgnoreCase(request.getParameter(VIEW_PARAM))) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(LEAN_MEDIA_TYPE);
+    }
+    
+    /**
+     * ETag suffix of the representation this request negotiates: lean and/or the
+     * binary format its most preferred Accept type selects; null for the default JSON body
+     */
+    private String representation(WebRequest request) {
+        String format = null;
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null) {
+            try {
+                List<MediaType> accepted = MediaType.parseMediaTypes(accept).stream()
+                        .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                        .collect(Collectors.toList());
+                for (MediaType type : accepted) {
+                    if (type.isCompatibleWith(CBOR) && !type.isWildcardSubtype()) {
+                        format = ETagUtil.CBOR;
+                        break;
+                    }
+                    if (type.isCompatibleWith(SMILE) && !type.isWildcardSubtype()) {
+                        format = ETagUtil.SMILE;
+                        break;
+                    }
+                    if (type.isCompatibleWith(MediaType.APPLICATION_JSON)
+                            || type.isCompatibleWith(MediaType.valueOf(LEAN_MEDIA_TYPE))) {
+                        break;
+                    }
+                }
+            } catch (InvalidMediaTypeException e) {
+                // Negotiation rejects the request before the tag is ever sent
+            }
+        }
+        if (!isLean(request)) {
+            return format;
+        }
+        return format == null ? ETagUtil.LEAN : ETagUtil.LEAN + "-" + format;
     }
     
     /**
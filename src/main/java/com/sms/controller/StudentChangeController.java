@@ -0,0 +1,187 @@
+package com.sms.controller;
+
+import com.sms.dto.StudentChangeEventDTO;
+import com.sms.service.StudentChangeRelay;
+import com.sms.util.ApiResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * REST API Controller for the student change event stream.
+ * 
+ * Base URL: /api/v1/students/events
+ * 
+ * Consumers resume from the last sequence number they processed, either by
+ * long-polling for the next batch or by holding an SSE stream open. Events are
+ * ordered by sequence number and delivered in batches.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@RestController
+@RequestMapping("/api/v1/students/events")
+@Tag(name = "Student Change Events", description = "Ordered stream of student creates, updates and deletes")
+public class StudentChangeController {
+    
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_WAIT_SECONDS = 60;
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    
+    @Autowired
+    private StudentChangeRelay changeRelay;
+    
+    // SSE writes may block on slow clients, so they stay off the relay thread
+    private final ExecutorService streamExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "student-change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+    
+    /**
+     * Long-poll for the next batch of events after a sequence number
+     */
+    @GetMapping
+    @Operation(summary = "Poll change events",
+            description = "Returns up to limit events after the given sequence number, waiting up to "
+                    + "waitSeconds for the first one. Pass nextAfter back as after to resume.")
+    public DeferredResult<ResponseEntity<?>> pollEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "25") int waitSeconds) {
+        int batchSize = clamp(limit, 1, MAX_BATCH_SIZE);
+        long waitMillis = TimeUnit.SECONDS.toMillis(clamp(waitSeconds, 0, MAX_WAIT_SECONDS));
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(waitMillis + 1000,
+                () -> batchResponse(after, List.of()));
+        
+        if (waitMillis > 0) {
+            // Subscribe before the first read so an event published in between is not missed
+            Runnable unsubscribe = changeRelay.subscribe(published -> {
+                List<StudentChangeEventDTO> events = continuation(after, batchSize, published);
+                if (!events.isEmpty()) {
+                    result.setResult(batchResponse(after, events));
+                }
+            });
+            result.onCompletion(unsubscribe);
+        }
+        List<StudentChangeEventDTO> events = changeRelay.eventsAfter(after, batchSize);
+        if (!events.isEmpty() || waitMillis == 0) {
+            result.setResult(batchResponse(after, events));
+        }
+        return result;
+    }
+    
+    /**
+     * Server-sent event stream of batches, resuming after a sequence number
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream change events",
+            description = "SSE stream; each message is a batch of events with the last sequence number "
+                    + "as its id. Reconnecting clients resume from Last-Event-ID.")
+    public SseEmitter streamEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int batchSize,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        StreamSubscription subscription = new StreamSubscription(emitter,
+                lastEventId != null ? lastEventId : after, clamp(batchSize, 1, MAX_BATCH_SIZE));
+        
+        Runnable unsubscribe = changeRelay.subscribe(
+                published -> streamExecutor.execute(() -> subscription.deliver(published)));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        streamExecutor.execute(() -> subscription.deliver(List.of()));
+        return emitter;
+    }
+    
+    /**
+     * The next events after a sequence number, taken from a just-published batch when
+     * it covers them and read from the outbox when the batch starts further ahead
+     */
+    private List<StudentChangeEventDTO> continuation(long after, int limit, List<StudentChangeEventDTO> published) {
+        if (published.isEmpty() || published.get(0).getSequence() > after + 1) {
+            return changeRelay.eventsAfter(after, limit);
+        }
+        return published.stream()
+                .filter(event -> event.getSequence() > after)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    private ResponseEntity<?> batchResponse(long after, List<StudentChangeEventDTO> events) {
+        Map<String, Object> batch = new LinkedHashMap<>();
+        batch.put("events", events);
+        batch.put("nextAfter", events.isEmpty() ? after : events.get(events.size() - 1).getSequence());
+        return ResponseEntity.ok(new ApiResponseWrapper(true, events.size() + " change events", batch));
+    }
+    
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+    
+    /**
+     * Delivery state of one SSE client
+     */
+    private final class StreamSubscription {
+        private final SseEmitter emitter;
+        private final int batchSize;
+        private long lastSent;
+        
+        StreamSubscription(SseEmitter emitter, long after, int batchSize) {
+            this.emitter = emitter;
+            this.lastSent = after;
+            this.batchSize = batchSize;
+        }
+        
+        /**
+         * Send everything up to the end of a published batch, or up to the current end
+         * of the stream when the batch is empty
+         */
+        synchronized void deliver(List<StudentChangeEventDTO> published) {
+            long target = published.isEmpty() ? Long.MAX_VALUE : published.get(published.size() - 1).getSequence();
+            try {
+                while (lastSent < target) {
+                    List<StudentChangeEventDTO> events = continuation(lastSent, batchSize, published);
+                    if (events.isEmpty()) {
+                        return;
+                    }
+                    long last = events.get(events.size() - 1).getSequence();
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(last))
+                            .name("changes")
+                            .data(events, MediaType.APPLICATION_JSON));
+                    lastSent = last;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -57,7 +57,7 @@ public class WebUiController {
      * Edit student form
      */
     @GetMapping("/students/{id}/edit")
-    public String editStudentForm(@PathVariable Integer id, Model model) {
+    public String editStudentForm(@PathVariable Long id, Model model) {
         var student = studentApiService.getStudentById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid student ID"));
         model.addAttribute("student", student);
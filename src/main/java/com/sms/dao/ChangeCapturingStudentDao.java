@@ -0,0 +1,166 @@
+package com.sms.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.sms.model.ChangeType;
+import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+
+/**
+ * StudentDao decorator that emits a {@link StudentChange} with before/after images
+ * for every successful create, update and delete.
+ * 
+ * Writes through the decorator are serialized so that the before image is the state
+ * the write replaced and sequence numbers follow the order in which writes took
+ * effect. A change is emitted only after the wrapped DAO reports success, so failed
+ * or rejected writes never produce one. Reads pass straight through.
+ * 
+ * The console DAOs have no transaction to share with an outbox, so a listener that
+ * must not lose changes should append them to durable storage itself (for example
+ * the write-ahead log or an outbox table) before returning.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class ChangeCapturingStudentDao implements StudentDao {
+    
+    private final StudentDao delegate;
+    private final List<StudentChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Sequence of the last emitted change; guarded by writeLock
+    private long lastSequence;
+    
+    /**
+     * @param delegate DAO whose writes are captured
+     */
+    public ChangeCapturingStudentDao(StudentDao delegate) {
+        this(delegate, 0);
+    }
+    
+    /**
+     * @param delegate DAO whose writes are captured
+     * @param lastSequence sequence number to continue after, e.g. the last one a
+     *                     durable listener stored before a restart
+     */
+    public ChangeCapturingStudentDao(StudentDao delegate, long lastSequence) {
+        this.delegate = delegate;
+        this.lastSequence = lastSequence;
+    }
+    
+    public void addListener(StudentChangeListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(StudentChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    @Override
+    public Student create(Student student) throws DaoException {
+        writeLock.lock();
+        try {
+            Student created = delegate.create(student);
+            emit(ChangeType.CREATED, created.getStudentId(), null, created);
+            return created;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean update(Student student) throws DaoException {
+        writeLock.lock();
+        try {
+            Optional<Student> before = student.getStudentId() != null
+                    ? delegate.findById(student.getStudentId()) : Optional.empty();
+            if (!delegate.update(student)) {
+                return false;
+            }
+            Student after = delegate.findById(student.getStudentId()).orElse(null);
+            emit(ChangeType.UPDATED, student.getStudentId(), before.orElse(null), after);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean delete(Long id) throws DaoException {
+        writeLock.lock();
+        try {
+            Optional<Student> before = delegate.findById(id);
+            if (!delegate.delete(id)) {
+                return false;
+            }
+            emit(ChangeType.DELETED, id, before.orElse(null), null);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public Optional<Student> findById(Long id) throws DaoException {
+        return delegate.findById(id);
+    }
+    
+    @Override
+    public List<Student> findAll() throws DaoException {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public List<Student> findPage(long offset, int limit) throws DaoException {
+        return delegate.findPage(offset, limit);
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        delegate.forEach(action);
+    }
+    
+    @Override
+    public StudentAggregates aggregate(LocalDate asOf) throws DaoException {
+        return delegate.aggregate(asOf);
+    }
+    
+    @Override
+    public List<Student> findByFirstName(String firstName) throws DaoException {
+        return delegate.findByFirstName(firstName);
+    }
+    
+    @Override
+    public List<Student> findByLastName(String lastName) throws DaoException {
+        return delegate.findByLastName(lastName);
+    }
+    
+    @Override
+    public Optional<Student> findByEmail(String email) throws DaoException {
+        return delegate.findByEmail(email);
+    }
+    
+    @Override
+    public long count() throws DaoException {
+        return delegate.count();
+    }
+    
+    public StudentDao getDelegate() {
+        return delegate;
+    }
+    
+    private void emit(ChangeType type, Long studentId, Student before, Student after) throws DaoException {
+        StudentChange change = new StudentChange(++lastSequence, type, studentId,
+                before != null ? new Student(before) : null,
+                after != null ? new Student(after) : null,
+                System.currentTimeMillis());
+        for (StudentChangeListener listener : listeners) {
+            listener.onChange(change);
+        }
+    }
+}
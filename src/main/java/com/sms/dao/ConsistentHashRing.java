@@ -0,0 +1,105 @@
+package com.sms.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring mapping student IDs to node names.
+ *
+ * Each node is placed on the ring at {@code virtualNodes} pseudo-random points; a key
+ * belongs to the first point at or after its own hash. Adding a node therefore moves
+ * only the keys that now fall on the new node's points (about 1/N of them), and every
+ * other key keeps its owner.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class ConsistentHashRing {
+
+    /** Default number of ring points per node */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final TreeMap<Long, String> points = new TreeMap<>();
+    private final List<String> nodes;
+    private final int virtualNodes;
+
+    /**
+     * Builds a ring.
+     *
+     * @param nodes distinct node names
+     * @param virtualNodes ring points per node
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one node and one point per node");
+        }
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        this.virtualNodes = virtualNodes;
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                String previous = points.put(hash(node + "#" + i), node);
+                if (previous != null && !previous.equals(node)) {
+                    throw new IllegalArgumentException("Ring point collision between " + previous + " and " + node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the node owning a student ID.
+     *
+     * @param studentId the student ID
+     * @return the owning node's name
+     */
+    public String nodeFor(long studentId) {
+        Map.Entry<Long, String> entry = points.ceilingEntry(mix(studentId));
+        return entry != null ? entry.getValue() : points.firstEntry().getValue();
+    }
+
+    /**
+     * Returns a new ring with one more node.
+     *
+     * @param node the node to add
+     * @return the extended ring
+     */
+    public ConsistentHashRing withNode(String node) {
+        if (nodes.contains(node)) {
+            throw new IllegalArgumentException("Node already on the ring: " + node);
+        }
+        List<String> extended = new ArrayList<>(nodes);
+        extended.add(node);
+        return new ConsistentHashRing(extended, virtualNodes);
+    }
+
+    /**
+     * @return the node names, in the order they were added
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long key) {
+        // Murmur3 finalizer: sequential IDs land all over the ring
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
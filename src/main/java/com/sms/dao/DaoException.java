@@ -3,6 +3,11 @@ package com.sms.dao;
 /**
  * Custom exception for Data Access Object operations.
  * 
+ * Real failures (I/O, SQL, corrupt data) carry a full stack trace. Expected
+ * outcomes such as a duplicate email or invalid input are reported with the
+ * stackless subclasses {@link DuplicateEmailException} and
+ * {@link InvalidStudentException}, for which {@link #isExpected()} is true.
+ * 
  * @author SMS Development Team
  * @version 1.0
  * @since 2024
@@ -38,4 +43,23 @@ public class DaoException extends Exception {
     public DaoException(Throwable cause) {
         super(cause);
     }
+    
+    /**
+     * Constructs a DaoException for an expected outcome: no stack trace and
+     * no suppressed exceptions, so instances are cheap and may be shared.
+     * 
+     * @param message the detail message
+     * @param cause the cause of the exception, or null
+     * @param expected must be true
+     */
+    protected DaoException(String message, Throwable cause, boolean expected) {
+        super(message, cause, !expected, !expected);
+    }
+    
+    /**
+     * @return true if this reports an expected outcome rather than a failure
+     */
+    public boolean isExpected() {
+        return false;
+    }
 }
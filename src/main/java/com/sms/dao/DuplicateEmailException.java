@@ -0,0 +1,40 @@
+package com.sms.dao;
+
+/**
+ * Thrown when a student would share its email address with another student.
+ * An expected outcome, e.g. for every repeated row of an import, so it carries
+ * no stack trace.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class DuplicateEmailException extends DaoException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String email;
+    
+    /**
+     * Constructs a new DuplicateEmailException.
+     * 
+     * @param message the detail message
+     * @param email the email address already in use
+     */
+    public DuplicateEmailException(String message, String email) {
+        super(message, null, true);
+        this.email = email;
+    }
+    
+    /**
+     * @return the email address already in use
+     */
+    public String getEmail() {
+        return email;
+    }
+    
+    @Override
+    public boolean isExpected() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sms.dao;
+
+/**
+ * Thrown when a DAO rejects invalid input: a missing student, a bad ID or an
+ * empty required field. An expected outcome, so it carries no stack trace;
+ * the fixed messages are preallocated and shared.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class InvalidStudentException extends DaoException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public static final InvalidStudentException NULL_STUDENT =
+            new InvalidStudentException("Student cannot be null");
+    public static final InvalidStudentException INVALID_ID =
+            new InvalidStudentException("Invalid student ID");
+    public static final InvalidStudentException INVALID_UPDATE =
+            new InvalidStudentException("Invalid student data for update");
+    public static final InvalidStudentException EMPTY_FIRST_NAME =
+            new InvalidStudentException("First name cannot be empty");
+    public static final InvalidStudentException EMPTY_LAST_NAME =
+            new InvalidStudentException("Last name cannot be empty");
+    public static final InvalidStudentException EMPTY_EMAIL =
+            new InvalidStudentException("Email cannot be empty");
+    
+    /**
+     * Constructs a new InvalidStudentException.
+     * 
+     * @param message the detail message
+     */
+    public InvalidStudentException(String message) {
+        super(message, null, true);
+    }
+    
+    @Override
+    public boolean isExpected() {
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sms.dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Connection settings for one database of a sharded student store.
+ * The name identifies the shard on the hash ring and must stay stable across
+ * restarts; the URL may change (e.g. after moving a database to a new host).
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class JdbcShard {
+
+    private final String name;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    /**
+     * Creates shard settings.
+     *
+     * @param name stable shard name used for hashing
+     * @param url JDBC URL
+     * @param username database user
+     * @param password database password
+     */
+    public JdbcShard(String name, String url, String username, String password) {
+        if (name == null || name.trim().isEmpty() || url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("Shard name and URL are required");
+        }
+        this.name = name;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Opens a new connection to the shard.
+     *
+     * @return a new connection
+     * @throws SQLException if the connection fails
+     */
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return name.equals(((JdbcShard) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcShard{name='" + name + "', url='" + url + "'}";
+    }
+}
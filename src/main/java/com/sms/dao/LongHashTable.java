@@ -0,0 +1,198 @@
+package com.sms.dao;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash table of primitive {@code long -> long} entries, used for on-heap
+ * indexes that must not box. A key may map to several values (callers that need a plain
+ * map simply never add a second one). Removed entries leave tombstones that are dropped
+ * on the next resize.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+final class LongHashTable {
+
+    /** Returned by {@link #get(long)} when a key is absent */
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    /**
+     * Receives entries during {@link #forEach(EntryVisitor)}.
+     */
+    interface EntryVisitor {
+        void visit(long key, long value);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private byte[] states;
+    private int size;
+    private int used; // full + removed slots
+
+    LongHashTable() {
+        allocate(64);
+    }
+
+    /**
+     * Adds an entry (keeping any existing entries for the same key).
+     */
+    void put(long key, long value) {
+        if ((used + 1) * 4L > keys.length * 3L) {
+            resize(size * 4L > keys.length ? keys.length * 2 : keys.length);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (states[slot] == FULL) {
+            slot = (slot + 1) & mask;
+        }
+        if (states[slot] == EMPTY) {
+            used++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        states[slot] = FULL;
+        size++;
+    }
+
+    /**
+     * @return the first value found for a key, or {@link #NO_VALUE}
+     */
+    long get(long key) {
+        int slot = find(key, v -> true);
+        return slot >= 0 ? values[slot] : NO_VALUE;
+    }
+
+    /**
+     * Visits the values stored for a key until the visitor returns false.
+     *
+     * @return true if the visitor stopped early
+     */
+    boolean anyValue(long key, LongPredicate visitor) {
+        return find(key, visitor) >= 0;
+    }
+
+    /**
+     * Replaces one entry's value.
+     *
+     * @return true if the entry existed
+     */
+    boolean replace(long key, long oldValue, long newValue) {
+        int slot = find(key, v -> v == oldValue);
+        if (slot < 0) {
+            return false;
+        }
+        values[slot] = newValue;
+        return true;
+    }
+
+    /**
+     * Removes one entry.
+     *
+     * @return true if the entry existed
+     */
+    boolean remove(long key, long value) {
+        int slot = find(key, v -> v == value);
+        if (slot < 0) {
+            return false;
+        }
+        states[slot] = REMOVED;
+        size--;
+        return true;
+    }
+
+    /**
+     * Visits every entry in table order.
+     */
+    void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (states[slot] == FULL) {
+                visitor.visit(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allocate(64);
+    }
+
+    /**
+     * @return approximate heap footprint of the table arrays in bytes
+     */
+    long footprintBytes() {
+        return keys.length * 17L;
+    }
+
+    /**
+     * Finds the slot of the first entry for a key whose value matches.
+     */
+    private int find(long key, LongPredicate matches) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (states[slot] != EMPTY) {
+            if (states[slot] == FULL && keys[slot] == key && matches.test(values[slot])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        byte[] oldStates = states;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldStates[slot] == FULL) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        states = new byte[capacity];
+        size = 0;
+        used = 0;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a string, folded the same way as {@link String#equalsIgnoreCase}
+     * so that every case variant of a value (such as an email) lands on the same key.
+     */
+    static long caseFoldedHash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    private static int hash(long key) {
+        // Murmur3 finalizer: spreads sequential IDs across the table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    @Override
+    public String toString() {
+        return "LongHashTable[size=" + size + ", capacity=" + keys.length + "]";
+    }
+}
@@ -0,0 +1,172 @@
+package com.sms.dao;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bump allocator over fixed-size direct (off-heap) memory chunks, with per-size-class
+ * free lists so slots released by updates and deletes are reused.
+ *
+ * An address packs the chunk index into the high 32 bits and the offset within the chunk
+ * into the low 32 bits. Allocations are rounded up to {@link #ALIGNMENT} bytes; the rounded
+ * size is the slot's size class, and freed slots are only reused for the same class.
+ * Chunk memory is released when the arena is cleared and its buffers are collected.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+final class OffHeapArena {
+
+    /** Size of each off-heap chunk */
+    static final int CHUNK_SIZE = 8 << 20;
+
+    /** Allocation granularity */
+    static final int ALIGNMENT = 16;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final Map<Integer, LongStack> freeLists = new HashMap<>();
+    private int chunkOffset = CHUNK_SIZE;
+    private long usedBytes;
+    private long freeBytes;
+    private long wastedBytes;
+
+    /**
+     * Allocates a slot of at least the given size.
+     *
+     * @param size requested size in bytes
+     * @return the slot's address
+     */
+    long allocate(int size) {
+        int slotSize = slotSize(size);
+        if (slotSize > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Allocation of " + size + " bytes exceeds chunk size");
+        }
+        usedBytes += slotSize;
+
+        LongStack free = freeLists.get(slotSize);
+        if (free != null && !free.isEmpty()) {
+            freeBytes -= slotSize;
+            return free.pop();
+        }
+        if (chunkOffset + slotSize > CHUNK_SIZE) {
+            // Tail of the current chunk is too small; abandon it
+            if (!chunks.isEmpty()) {
+                wastedBytes += CHUNK_SIZE - chunkOffset;
+            }
+            chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE));
+            chunkOffset = 0;
+        }
+        long address = ((long) (chunks.size() - 1) << 32) | chunkOffset;
+        chunkOffset += slotSize;
+        return address;
+    }
+
+    /**
+     * Returns a slot to the free list of its size class.
+     *
+     * @param address the slot's address
+     * @param size the size originally requested for it
+     */
+    void free(long address, int size) {
+        int slotSize = slotSize(size);
+        freeLists.computeIfAbsent(slotSize, s -> new LongStack()).push(address);
+        usedBytes -= slotSize;
+        freeBytes += slotSize;
+    }
+
+    /**
+     * @return the chunk holding an address
+     */
+    ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32));
+    }
+
+    /**
+     * @return the offset of an address within its chunk
+     */
+    static int offset(long address) {
+        return (int) address;
+    }
+
+    /**
+     * @return the usable size of a slot allocated for the given size
+     */
+    static int slotSize(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * @return off-heap bytes reserved in chunks
+     */
+    long reservedBytes() {
+        return (long) chunks.size() * CHUNK_SIZE;
+    }
+
+    /**
+     * @return bytes in live slots
+     */
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return bytes in freed slots waiting for reuse
+     */
+    long freeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * @return bytes lost at the end of filled chunks
+     */
+    long wastedBytes() {
+        return wastedBytes;
+    }
+
+    /**
+     * @return number of chunks
+     */
+    int chunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Drops every chunk and free list.
+     */
+    void clear() {
+        chunks.clear();
+        freeLists.clear();
+        chunkOffset = CHUNK_SIZE;
+        usedBytes = 0;
+        freeBytes = 0;
+        wastedBytes = 0;
+    }
+
+    /**
+     * Growable stack of primitive addresses.
+     */
+    private static final class LongStack {
+        private long[] values = new long[16];
+        private int size;
+
+        void push(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long pop() {
+            return values[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.sms.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds a data shard to a running {@link StudentDaoShardedImpl}.
+ *
+ * The new shard joins the ring first, so new students can be placed on it immediately.
+ * Each existing shard is then paged through in ID order and every student the new ring
+ * assigns to the new shard is moved across; with consistent hashing this is about
+ * 1/(N+1) of the students, and no student moves between the old shards. The store keeps
+ * serving reads and writes throughout. Re-running after a failure is safe.
+ *
+ * Can also be run from the command line against a shard configuration file
+ * (see {@link StudentDaoShardedImpl#fromProperties(Properties)}):
+ * <pre>
+ * java -cp ... com.sms.dao.ShardRebalancer shards.properties shard3 jdbc:mysql://db4/students
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class ShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    /** IDs read per page from each existing shard */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private ShardRebalancer() {
+    }
+
+    /**
+     * Adds a shard and moves its students onto it.
+     *
+     * @param dao the running store
+     * @param shard the new shard
+     * @return number of students moved
+     * @throws DaoException if the rebalance fails
+     */
+    public static long addShard(StudentDaoShardedImpl dao, JdbcShard shard) throws DaoException {
+        return addShard(dao, shard, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Adds a shard and moves its students onto it.
+     *
+     * @param dao the running store
+     * @param shard the new shard
+     * @param batchSize IDs read per page
+     * @return number of students moved
+     * @throws DaoException if the rebalance fails
+     */
+    public static long addShard(StudentDaoShardedImpl dao, JdbcShard shard, int batchSize) throws DaoException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        dao.beginRebalance(shard);
+        long moved = 0;
+        for (JdbcShard source : dao.previousShards()) {
+            long movedFromSource = 0;
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = dao.listIds(source, afterId, batchSize);
+                for (Long id : ids) {
+                    if (shard.equals(dao.ownerOf(id)) && dao.move(id, source, shard)) {
+                        movedFromSource++;
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == batchSize);
+            logger.info("Moved {} students from shard {} to {}", movedFromSource, source.getName(), shard.getName());
+            moved += movedFromSource;
+        }
+        dao.finishRebalance();
+        return moved;
+    }
+
+    /**
+     * Command-line entry point: {@code <config.properties> <shard-name> <jdbc-url>}.
+     */
+    public static void main(String[] args) throws IOException, DaoException {
+        if (args.length != 3) {
+            System.err.println("Usage: ShardRebalancer <config.properties> <shard-name> <jdbc-url>");
+            System.exit(2);
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+            properties.load(in);
+        }
+        JdbcShard shard = new JdbcShard(args[1], args[2],
+                properties.getProperty("sms.shard.username"), properties.getProperty("sms.shard.password"));
+        try (StudentDaoShardedImpl dao = StudentDaoShardedImpl.fromProperties(properties)) {
+            dao.initializeSchema();
+            long moved = addShard(dao, shard);
+            System.out.println("Moved " + moved + " students to " + shard.getName());
+            System.out.println("Update the configuration with:");
+            System.out.println("sms.shards=" + dao.getShards().stream()
+                    .map(JdbcShard::getName).collect(Collectors.joining(",")));
+            System.out.println("sms.shard." + shard.getName() + ".url=" + shard.getUrl());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sms.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for low-cardinality string columns: each distinct value is stored
+ * once and rows hold its integer code. Codes are assigned in first-seen order and never
+ * reused, so a code stays valid for the life of the dictionary.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+final class StringDictionary {
+
+    /** Code used for null values */
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Returns the code for a value, adding it to the dictionary if it is new.
+     *
+     * @param value the value to encode, may be null
+     * @return the value's code, or {@link #NULL_CODE} for null
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the code for a value without adding it.
+     *
+     * @param value the value to look up
+     * @return the value's code, or {@link #NULL_CODE} if it is null or unknown
+     */
+    int codeOf(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL_CODE : code;
+    }
+
+    /**
+     * @param code a code returned by {@link #encode(String)}
+     * @return the value, or null for {@link #NULL_CODE}
+     */
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * Removes every value.
+     */
+    void clear() {
+        codes.clear();
+        values.clear();
+    }
+}
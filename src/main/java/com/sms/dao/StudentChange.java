@@ -0,0 +1,62 @@
+package com.sms.dao;
+
+import com.sms.model.ChangeType;
+import com.sms.model.Student;
+
+/**
+ * One student mutation observed by a {@link ChangeCapturingStudentDao}.
+ * Images are private copies; the before image is null for a create and the
+ * after image is null for a delete.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class StudentChange {
+    
+    private final long sequence;
+    private final ChangeType type;
+    private final Long studentId;
+    private final Student before;
+    private final Student after;
+    private final long timestampMillis;
+    
+    public StudentChange(long sequence, ChangeType type, Long studentId, Student before, Student after,
+                         long timestampMillis) {
+        this.sequence = sequence;
+        this.type = type;
+        this.studentId = studentId;
+        this.before = before;
+        this.after = after;
+        this.timestampMillis = timestampMillis;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public Student getBefore() {
+        return before != null ? new Student(before) : null;
+    }
+    
+    public Student getAfter() {
+        return after != null ? new Student(after) : null;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentChange{sequence=" + sequence + ", type=" + type + ", studentId=" + studentId + '}';
+    }
+}
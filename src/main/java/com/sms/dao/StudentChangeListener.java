@@ -0,0 +1,20 @@
+package com.sms.dao;
+
+/**
+ * Receives the changes captured by a {@link ChangeCapturingStudentDao}, in sequence order.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+@FunctionalInterface
+public interface StudentChangeListener {
+    
+    /**
+     * Called after the write has succeeded, on the writing thread.
+     * 
+     * @param change the captured change
+     * @throws DaoException to report that the change could not be recorded
+     */
+    void onChange(StudentChange change) throws DaoException;
+}
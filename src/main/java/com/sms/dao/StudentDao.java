@@ -1,8 +1,12 @@
 package com.sms.dao;
 
 import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object interface for Student entity.
@@ -23,6 +27,40 @@ public interface StudentDao {
      */
     Student create(Student student) throws DaoException;
     
+    /**
+     * Creates a new student record unless its email is already in use.
+     * A duplicate is a normal result here, for callers such as imports that
+     * expect many of them.
+     * 
+     * @param student the student to create
+     * @return the created student with generated ID, or empty if the email is taken
+     * @throws DaoException if creation fails for another reason
+     */
+    default Optional<Student> createIfAbsent(Student student) throws DaoException {
+        try {
+            return Optional.of(create(student));
+        } catch (DuplicateEmailException e) {
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Creates several student records, skipping each one whose email is already
+     * in use, in the store or earlier in the list. Implementations may write the
+     * whole list in one round trip.
+     * 
+     * @param students the students to create
+     * @return for each student, whether it was created
+     * @throws DaoException if creation fails for another reason
+     */
+    default boolean[] createAllIfAbsent(List<Student> students) throws DaoException {
+        boolean[] created = new boolean[students.size()];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = createIfAbsent(students.get(i)).isPresent();
+        }
+        return created;
+    }
+    
     /**
      * Retrieves a student by ID.
      * 
@@ -40,6 +78,35 @@ public interface StudentDao {
      */
     List<Student> findAll() throws DaoException;
     
+    /**
+     * Retrieves one page of students, in the order of {@link #findAll()}.
+     * 
+     * @param offset number of students to skip
+     * @param limit maximum number of students to return
+     * @return the students on the page; empty past the end
+     * @throws DaoException if retrieval fails
+     */
+    default List<Student> findPage(long offset, int limit) throws DaoException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Student> all = findAll();
+        int from = (int) Math.min(offset, all.size());
+        return new ArrayList<>(all.subList(from, (int) Math.min((long) from + limit, all.size())));
+    }
+    
+    /**
+     * Passes every student to an action, in the order of {@link #findAll()},
+     * without collecting them first. Implementations read from a cursor, so
+     * memory use does not grow with the number of students.
+     * 
+     * @param action receives each student; unchecked exceptions stop the scan
+     * @throws DaoException if retrieval fails
+     */
+    default void forEach(Consumer<? super Student> action) throws DaoException {
+        findAll().forEach(action);
+    }
+    
     /**
      * Retrieves students by first name.
      * 
@@ -92,4 +159,17 @@ public interface StudentDao {
      * @throws DaoException if count fails
      */
     long count() throws DaoException;
+    
+    /**
+     * Computes the aggregate statistics over all students without returning them.
+     * 
+     * @param asOf the day ages are computed for
+     * @return counts by status, enrollments per month and the age distribution
+     * @throws DaoException if aggregation fails
+     */
+    default StudentAggregates aggregate(LocalDate asOf) throws DaoException {
+        StudentAggregates.Accumulator accumulator = new StudentAggregates.Accumulator(asOf);
+        forEach(accumulator::add);
+        return accumulator.build();
+    }
 }
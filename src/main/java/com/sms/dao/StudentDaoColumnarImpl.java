@@ -0,0 +1,391 @@
+package com.sms.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.model.StudentStatus;
+import com.sms.util.IdGenerator;
+
+/**
+ * Columnar in-memory implementation of StudentDao.
+ *
+ * Instead of one {@code Student} object per row (a header, a boxed ID and five
+ * per-row {@code String}s besides the pooled city, state and zip code), each field is
+ * stored in its own array:
+ * <ul>
+ *   <li>IDs in a {@code long[]}, kept sorted so lookups are a binary search</li>
+ *   <li>date of birth and enrollment date as epoch-day {@code int[]}s</li>
+ *   <li>enrollment status as a {@code byte} code</li>
+ *   <li>city, state and zip code as dictionary-encoded {@code int[]}s</li>
+ *   <li>the remaining high-cardinality strings as plain {@code String[]}s</li>
+ * </ul>
+ * Student objects are materialized only when a query returns them, and scans such as
+ * {@link #findByLastName(String)} touch only the column they filter on. Emails are
+ * indexed in a primitive hash table from the case-folded email hash to the student ID
+ * (stable across deletes, unlike the row), so duplicate checks and
+ * {@link #findByEmail(String)} cost a hash probe plus a binary search instead of a scan.
+ *
+ * Dictionaries only grow: a value that no row uses any more keeps its entry until
+ * {@link #clear()}. This class is not thread-safe.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoColumnarImpl implements StudentDao {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private long[] ids;
+    private String[] firstNames;
+    private String[] lastNames;
+    private String[] emails;
+    private String[] phoneNumbers;
+    private String[] addresses;
+    private int[] cities;
+    private int[] states;
+    private int[] zipCodes;
+    private int[] birthDays;
+    private int[] enrollmentDays;
+    private byte[] statuses;
+
+    private final StringDictionary cityDictionary = new StringDictionary();
+    private final StringDictionary stateDictionary = new StringDictionary();
+    private final StringDictionary zipCodeDictionary = new StringDictionary();
+    private final StringDictionary statusDictionary = new StringDictionary();
+
+    // case-folded email hash -> student ID (several IDs per hash possible)
+    private final LongHashTable emailIndex = new LongHashTable();
+
+    private final IdGenerator idGenerator;
+    private long nextId = 1L;
+
+    /**
+     * Constructor allocates the initial columns.
+     */
+    public StudentDaoColumnarImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates a store that takes new IDs from a generator.
+     *
+     * @param idGenerator ID source handing out increasing IDs (such as a Snowflake generator),
+     *                    or null for the built-in 1, 2, 3... sequence
+     */
+    public StudentDaoColumnarImpl(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public Student create(Student student) throws DaoException {
+        if (student == null) {
+            throw InvalidStudentException.NULL_STUDENT;
+        }
+
+        // Check for duplicate email
+        if (rowOfEmail(student.getEmail(), false, -1) >= 0) {
+            throw new DuplicateEmailException("Student with email '" + student.getEmail() + "' already exists", student.getEmail());
+        }
+
+        // Set default enrollment date if not set
+        if (student.getEnrollmentDate() == null) {
+            student.setEnrollmentDate(LocalDate.now());
+        }
+
+        // Set default status if not set
+        if (student.getEnrollmentStatus() == null) {
+            student.setStatus(StudentStatus.ACTIVE);
+        }
+
+        byte status = statusCode(student.getEnrollmentStatus());
+        long id = idGenerator != null ? idGenerator.nextId() : nextId;
+        if (id < nextId) {
+            throw new DaoException("ID generator went backwards: " + id);
+        }
+        if (size == ids.length) {
+            allocate(size + (size >> 1));
+        }
+
+        // Set auto-generated ID; IDs only grow, so appending keeps the column sorted
+        nextId = id + 1;
+        student.setStudentId(id);
+        ids[size] = student.getStudentId();
+        write(size, student, status);
+        size++;
+        emailIndex.put(LongHashTable.caseFoldedHash(student.getEmail()), id);
+        return student;
+    }
+
+    @Override
+    public Optional<Student> findById(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        int row = rowOf(id);
+        return row >= 0 ? Optional.of(materialize(row)) : Optional.empty();
+    }
+
+    @Override
+    public List<Student> findAll() throws DaoException {
+        List<Student> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Student> findPage(long offset, int limit) throws DaoException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        int from = (int) Math.min(offset, size);
+        int to = (int) Math.min((long) from + limit, size);
+        List<Student> result = new ArrayList<>(to - from);
+        for (int row = from; row < to; row++) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        for (int row = 0; row < size; row++) {
+            action.accept(materialize(row));
+        }
+    }
+
+    @Override
+    public StudentAggregates aggregate(LocalDate asOf) throws DaoException {
+        // Touches only the status and date columns; the epoch-day columns feed the accumulator as they are
+        StudentAggregates.Accumulator accumulator = new StudentAggregates.Accumulator(asOf);
+        for (int row = 0; row < size; row++) {
+            accumulator.add(statusDictionary.decode(statuses[row]), enrollmentDays[row], birthDays[row]);
+        }
+        return accumulator.build();
+    }
+
+    @Override
+    public List<Student> findByFirstName(String firstName) throws DaoException {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_FIRST_NAME;
+        }
+        return scan(firstNames, firstName.trim());
+    }
+
+    @Override
+    public List<Student> findByLastName(String lastName) throws DaoException {
+        if (lastName == null || lastName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_LAST_NAME;
+        }
+        return scan(lastNames, lastName.trim());
+    }
+
+    @Override
+    public Optional<Student> findByEmail(String email) throws DaoException {
+        if (email == null || email.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_EMAIL;
+        }
+        int row = rowOfEmail(email.trim(), true, -1);
+        return row >= 0 ? Optional.of(materialize(row)) : Optional.empty();
+    }
+
+    @Override
+    public boolean update(Student student) throws DaoException {
+        if (student == null || student.getStudentId() == null) {
+            throw InvalidStudentException.INVALID_UPDATE;
+        }
+
+        if (student.getStudentId() <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        int row = rowOf(student.getStudentId());
+        if (row < 0) {
+            return false;
+        }
+
+        // Check for email conflict (if email is being changed)
+        String oldEmail = emails[row];
+        boolean emailChanged = !Objects.equals(oldEmail, student.getEmail());
+        if (emailChanged && rowOfEmail(student.getEmail(), false, row) >= 0) {
+            throw new DuplicateEmailException("Email '" + student.getEmail() + "' already in use", student.getEmail());
+        }
+
+        write(row, student, statusCode(student.getEnrollmentStatus()));
+        if (emailChanged) {
+            emailIndex.remove(LongHashTable.caseFoldedHash(oldEmail), ids[row]);
+            emailIndex.put(LongHashTable.caseFoldedHash(student.getEmail()), ids[row]);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean delete(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+
+        emailIndex.remove(LongHashTable.caseFoldedHash(emails[row]), id);
+
+        // Close the gap in every column to keep IDs sorted and rows dense
+        int tail = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, tail);
+        System.arraycopy(firstNames, row + 1, firstNames, row, tail);
+        System.arraycopy(lastNames, row + 1, lastNames, row, tail);
+        System.arraycopy(emails, row + 1, emails, row, tail);
+        System.arraycopy(phoneNumbers, row + 1, phoneNumbers, row, tail);
+        System.arraycopy(addresses, row + 1, addresses, row, tail);
+        System.arraycopy(cities, row + 1, cities, row, tail);
+        System.arraycopy(states, row + 1, states, row, tail);
+        System.arraycopy(zipCodes, row + 1, zipCodes, row, tail);
+        System.arraycopy(birthDays, row + 1, birthDays, row, tail);
+        System.arraycopy(enrollmentDays, row + 1, enrollmentDays, row, tail);
+        System.arraycopy(statuses, row + 1, statuses, row, tail);
+        size--;
+
+        // Release references held by the now unused last slot
+        firstNames[size] = null;
+        lastNames[size] = null;
+        emails[size] = null;
+        phoneNumbers[size] = null;
+        addresses[size] = null;
+        return true;
+    }
+
+    @Override
+    public long count() throws DaoException {
+        return size;
+    }
+
+    /**
+     * Clears all students from memory. Useful for testing.
+     */
+    public void clear() {
+        size = 0;
+        nextId = 1L;
+        allocate(INITIAL_CAPACITY);
+        cityDictionary.clear();
+        stateDictionary.clear();
+        zipCodeDictionary.clear();
+        statusDictionary.clear();
+        emailIndex.clear();
+    }
+
+    /**
+     * Finds the row holding an ID.
+     *
+     * @return the row, or a negative value if the ID is not stored
+     */
+    private int rowOf(long id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    /**
+     * Finds the first row (lowest ID) holding an email, ignoring one row. The uniqueness
+     * checks match case-sensitively, as in the other implementations; lookups ignore case.
+     *
+     * @return the row, or -1 if no other row holds the email
+     */
+    private int rowOfEmail(String email, boolean ignoreCase, int ignoredRow) {
+        int[] found = {-1};
+        emailIndex.anyValue(LongHashTable.caseFoldedHash(email), id -> {
+            int row = rowOf(id);
+            String stored = emails[row];
+            boolean matches = ignoreCase ? email.equalsIgnoreCase(stored) : Objects.equals(email, stored);
+            if (matches && row != ignoredRow && (found[0] < 0 || row < found[0])) {
+                found[0] = row;
+            }
+            return false;
+        });
+        return found[0];
+    }
+
+    private List<Student> scan(String[] column, String value) {
+        List<Student> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (value.equalsIgnoreCase(column[row])) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    private byte statusCode(String status) throws DaoException {
+        int code = statusDictionary.encode(status);
+        if (code > Byte.MAX_VALUE) {
+            throw new DaoException("Too many distinct enrollment statuses");
+        }
+        return (byte) code;
+    }
+
+    /**
+     * Writes every field except the ID into a row.
+     */
+    private void write(int row, Student student, byte status) {
+        firstNames[row] = student.getFirstName();
+        lastNames[row] = student.getLastName();
+        emails[row] = student.getEmail();
+        phoneNumbers[row] = student.getPhoneNumber();
+        addresses[row] = student.getAddress();
+        cities[row] = cityDictionary.encode(student.getCity());
+        states[row] = stateDictionary.encode(student.getState());
+        zipCodes[row] = zipCodeDictionary.encode(student.getZipCode());
+        birthDays[row] = student.getDateOfBirthEpochDay();
+        enrollmentDays[row] = student.getEnrollmentEpochDay();
+        statuses[row] = status;
+    }
+
+    private Student materialize(int row) {
+        Student student = new Student(ids[row], firstNames[row], lastNames[row], emails[row], phoneNumbers[row],
+                null, addresses[row], cityDictionary.decode(cities[row]),
+                stateDictionary.decode(states[row]), zipCodeDictionary.decode(zipCodes[row]),
+                null, statusDictionary.decode(statuses[row]));
+        student.setDateOfBirthEpochDay(birthDays[row]);
+        student.setEnrollmentEpochDay(enrollmentDays[row]);
+        return student;
+    }
+
+    private void allocate(int capacity) {
+        if (ids == null || size == 0) {
+            ids = new long[capacity];
+            firstNames = new String[capacity];
+            lastNames = new String[capacity];
+            emails = new String[capacity];
+            phoneNumbers = new String[capacity];
+            addresses = new String[capacity];
+            cities = new int[capacity];
+            states = new int[capacity];
+            zipCodes = new int[capacity];
+            birthDays = new int[capacity];
+            enrollmentDays = new int[capacity];
+            statuses = new byte[capacity];
+        } else {
+            ids = Arrays.copyOf(ids, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            phoneNumbers = Arrays.copyOf(phoneNumbers, capacity);
+            addresses = Arrays.copyOf(addresses, capacity);
+            cities = Arrays.copyOf(cities, capacity);
+            states = Arrays.copyOf(states, capacity);
+            zipCodes = Arrays.copyOf(zipCodes, capacity);
+            birthDays = Arrays.copyOf(birthDays, capacity);
+            enrollmentDays = Arrays.copyOf(enrollmentDays, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+    }
+}
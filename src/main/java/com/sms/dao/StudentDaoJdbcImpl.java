@@ -7,15 +7,29 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.model.StudentAggregates.AgeBand;
 import com.sms.util.DatabaseUtil;
+import com.sms.util.IdGenerator;
 
 /**
  * JDBC implementation of StudentDao using MySQL database.
@@ -36,12 +50,21 @@ public class StudentDaoJdbcImpl implements StudentDao {
         "address, city, state, zip_code, enrollment_date, enrollment_status) " +
         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
+    private static final String CREATE_STUDENT_WITH_ID = 
+        "INSERT INTO students (first_name, last_name, email, phone_number, date_of_birth, " +
+        "address, city, state, zip_code, enrollment_date, enrollment_status, student_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
     private static final String FIND_BY_ID = 
         "SELECT * FROM students WHERE student_id = ?";
     
     private static final String FIND_ALL = 
         "SELECT * FROM students ORDER BY first_name, last_name";
     
+    // student_id breaks ties between equal names so that pages never overlap
+    private static final String FIND_PAGE = 
+        "SELECT * FROM students ORDER BY first_name, last_name, student_id LIMIT ? OFFSET ?";
+    
     private static final String FIND_BY_FIRST_NAME = 
         "SELECT * FROM students WHERE first_name = ? ORDER BY last_name";
     
@@ -62,42 +85,79 @@ public class StudentDaoJdbcImpl implements StudentDao {
     private static final String COUNT_STUDENTS = 
         "SELECT COUNT(*) FROM students";
     
+    private static final String COUNT_BY_STATUS = 
+        "SELECT UPPER(enrollment_status), COUNT(*) FROM students GROUP BY UPPER(enrollment_status)";
+    
+    private static final String COUNT_BY_ENROLLMENT_MONTH = 
+        "SELECT EXTRACT(YEAR FROM enrollment_date), EXTRACT(MONTH FROM enrollment_date), COUNT(*) " +
+        "FROM students WHERE enrollment_date IS NOT NULL " +
+        "GROUP BY EXTRACT(YEAR FROM enrollment_date), EXTRACT(MONTH FROM enrollment_date)";
+    
+    // Age bands oldest first; each is compared against its latest date of birth
+    private static final AgeBand[] AGED_BANDS = Arrays.stream(AgeBand.values())
+        .filter(band -> band.getMinimumAge() > 0)
+        .sorted(Comparator.comparingInt(AgeBand::getMinimumAge).reversed())
+        .toArray(AgeBand[]::new);
+    
+    private static final String COUNT_BY_AGE_BAND = 
+        "SELECT band, COUNT(*) FROM (SELECT CASE WHEN date_of_birth IS NULL THEN " + AgeBand.UNKNOWN.ordinal() +
+        Arrays.stream(AGED_BANDS).map(band -> " WHEN date_of_birth <= ? THEN " + band.ordinal())
+            .collect(Collectors.joining()) +
+        " ELSE " + AgeBand.UNDER_18.ordinal() + " END AS band FROM students) bands GROUP BY band";
+    
+    /** Rows the driver fetches per round trip while streaming all students */
+    private static final int STREAM_FETCH_SIZE = 1000;
+    
+    /** Most emails looked up by one IN query of a batch create */
+    private static final int EMAIL_LOOKUP_SLICE = 500;
+    
+    private final IdGenerator idGenerator;
+    
+    /**
+     * Creates a DAO that lets the database assign IDs (AUTO_INCREMENT).
+     */
+    public StudentDaoJdbcImpl() {
+        this(null);
+    }
+    
+    /**
+     * Creates a DAO that assigns IDs itself, so the ID is known before the INSERT
+     * and several writers can share a table without a database sequence.
+     * 
+     * @param idGenerator ID source, or null to use AUTO_INCREMENT
+     */
+    public StudentDaoJdbcImpl(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+    
     @Override
     public Student create(Student student) throws DaoException {
         if (student == null) {
-            throw new DaoException("Student cannot be null");
+            throw InvalidStudentException.NULL_STUDENT;
         }
         
         // Check for duplicate email
         try {
             Optional<Student> existing = findByEmail(student.getEmail());
             if (existing.isPresent()) {
-                throw new DaoException("Student with email '" + student.getEmail() + "' already exists");
+                throw new DuplicateEmailException("Student with email '" + student.getEmail() + "' already exists", student.getEmail());
             }
         } catch (DaoException e) {
-            logger.error("Error checking for duplicate email", e);
+            if (!e.isExpected()) {
+                logger.error("Error checking for duplicate email", e);
+            }
             throw e;
         }
         
+        if (idGenerator != null) {
+            return createWithId(student, idGenerator.nextId());
+        }
+        
         try (Connection connection = DatabaseUtil.getConnection();
              PreparedStatement pstmt = connection.prepareStatement(CREATE_STUDENT, 
                      Statement.RETURN_GENERATED_KEYS)) {
             
-            pstmt.setString(1, student.getFirstName());
-            pstmt.setString(2, student.getLastName());
-            pstmt.setString(3, student.getEmail());
-            pstmt.setString(4, student.getPhoneNumber());
-            pstmt.setDate(5, student.getDateOfBirth() != null ? 
-                    Date.valueOf(student.getDateOfBirth()) : null);
-            pstmt.setString(6, student.getAddress());
-            pstmt.setString(7, student.getCity());
-            pstmt.setString(8, student.getState());
-            pstmt.setString(9, student.getZipCode());
-            pstmt.setDate(10, student.getEnrollmentDate() != null ? 
-                    Date.valueOf(student.getEnrollmentDate()) : Date.valueOf(LocalDate.now()));
-            pstmt.setString(11, student.getEnrollmentStatus() != null ? 
-                    student.getEnrollmentStatus() : "ACTIVE");
-            
+            bindStudent(pstmt, student);
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
@@ -118,10 +178,177 @@ public class StudentDaoJdbcImpl implements StudentDao {
         }
     }
     
+    /**
+     * Creates the students in one transaction: one query for the emails already
+     * in use, then one batched INSERT. If a concurrent writer takes one of the
+     * emails meanwhile, the batch is rolled back and retried one student at a time.
+     */
+    @Override
+    public boolean[] createAllIfAbsent(List<Student> students) throws DaoException {
+        boolean[] created = new boolean[students.size()];
+        for (Student student : students) {
+            if (student == null) {
+                throw InvalidStudentException.NULL_STUDENT;
+            }
+        }
+        if (students.isEmpty()) {
+            return created;
+        }
+        
+        List<Student> inserts = new ArrayList<>(students.size());
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Set<String> taken = findExistingEmails(connection, students);
+                for (int i = 0; i < created.length; i++) {
+                    if (taken.add(students.get(i).getEmail())) {
+                        created[i] = true;
+                        inserts.add(students.get(i));
+                    }
+                }
+                insertBatch(connection, inserts);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                if (!isIntegrityViolation(e)) {
+                    throw e;
+                }
+                logger.debug("Batch insert lost an email to a concurrent writer, retrying one by one");
+                inserts.forEach(student -> student.setStudentId(null));
+                return StudentDao.super.createAllIfAbsent(students);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            inserts.forEach(student -> student.setStudentId(null));
+            logger.error("Error creating students", e);
+            throw new DaoException("Failed to create students: " + e.getMessage(), e);
+        }
+        logger.info("Created {} of {} students in one batch", inserts.size(), students.size());
+        return created;
+    }
+    
+    /**
+     * Emails of the given students that are already stored, queried in slices
+     * of at most EMAIL_LOOKUP_SLICE parameters.
+     */
+    private static Set<String> findExistingEmails(Connection connection, List<Student> students) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < students.size(); from += EMAIL_LOOKUP_SLICE) {
+            int to = Math.min(students.size(), from + EMAIL_LOOKUP_SLICE);
+            String sql = "SELECT email FROM students WHERE email IN ("
+                    + String.join(",", Collections.nCopies(to - from, "?")) + ")";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                for (int i = from; i < to; i++) {
+                    pstmt.setString(i - from + 1, students.get(i).getEmail());
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+    
+    /**
+     * Inserts the students with one JDBC batch and sets their IDs.
+     */
+    private void insertBatch(Connection connection, List<Student> students) throws SQLException {
+        if (students.isEmpty()) {
+            return;
+        }
+        if (idGenerator != null) {
+            try (PreparedStatement pstmt = connection.prepareStatement(CREATE_STUDENT_WITH_ID)) {
+                for (Student student : students) {
+                    student.setStudentId(idGenerator.nextId());
+                    bindStudent(pstmt, student);
+                    pstmt.setLong(12, student.getStudentId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return;
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(CREATE_STUDENT,
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (Student student : students) {
+                bindStudent(pstmt, student);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                for (Student student : students) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Batch insert returned fewer IDs than rows");
+                    }
+                    student.setStudentId(generatedKeys.getLong(1));
+                }
+            }
+        }
+    }
+    
+    /**
+     * SQLState class 23: integrity constraint violation, e.g. a unique email
+     */
+    private static boolean isIntegrityViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException && ((SQLException) t).getSQLState() != null
+                    && ((SQLException) t).getSQLState().startsWith("23")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Inserts a student under an application-assigned ID.
+     */
+    private Student createWithId(Student student, long id) throws DaoException {
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(CREATE_STUDENT_WITH_ID)) {
+            
+            bindStudent(pstmt, student);
+            pstmt.setLong(12, id);
+            pstmt.executeUpdate();
+            
+            student.setStudentId(id);
+            logger.info("Student created successfully with ID: {}", id);
+            return student;
+            
+        } catch (SQLException e) {
+            logger.error("Error creating student", e);
+            throw new DaoException("Failed to create student: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Binds the eleven columns of CREATE_STUDENT / CREATE_STUDENT_WITH_ID, defaulting
+     * the enrollment date and status.
+     */
+    private static void bindStudent(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setString(1, student.getFirstName());
+        pstmt.setString(2, student.getLastName());
+        pstmt.setString(3, student.getEmail());
+        pstmt.setString(4, student.getPhoneNumber());
+        pstmt.setDate(5, student.getDateOfBirth() != null ? 
+                Date.valueOf(student.getDateOfBirth()) : null);
+        pstmt.setString(6, student.getAddress());
+        pstmt.setString(7, student.getCity());
+        pstmt.setString(8, student.getState());
+        pstmt.setString(9, student.getZipCode());
+        pstmt.setDate(10, student.getEnrollmentDate() != null ? 
+                Date.valueOf(student.getEnrollmentDate()) : Date.valueOf(LocalDate.now()));
+        pstmt.setString(11, student.getEnrollmentStatus() != null ? 
+                student.getEnrollmentStatus() : "ACTIVE");
+    }
+    
     @Override
     public Optional<Student> findById(Long id) throws DaoException {
         if (id == null || id <= 0) {
-            throw new DaoException("Invalid student ID");
+            throw InvalidStudentException.INVALID_ID;
         }
         
         try (Connection connection = DatabaseUtil.getConnection();
@@ -164,10 +391,65 @@ public class StudentDaoJdbcImpl implements StudentDao {
         }
     }
     
+    @Override
+    public List<Student> findPage(long offset, int limit) throws DaoException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Student> students = new ArrayList<>(Math.min(limit, 1000));
+        
+        try (Connection connection = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(FIND_PAGE)) {
+            
+            pstmt.setInt(1, limit);
+            pstmt.setLong(2, offset);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(mapResultSetToStudent(rs));
+                }
+            }
+            
+            logger.debug("Found {} students at offset {}", students.size(), offset);
+            return students;
+            
+        } catch (SQLException e) {
+            logger.error("Error finding students at offset {}", offset, e);
+            throw new DaoException("Failed to retrieve students: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        // A forward-only cursor with a fetch size inside a transaction streams the
+        // rows (PostgreSQL ignores the fetch size in auto-commit mode; MySQL needs
+        // useCursorFetch=true on the URL)
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement(
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(STREAM_FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery(FIND_ALL)) {
+                    while (rs.next()) {
+                        action.accept(mapResultSetToStudent(rs));
+                    }
+                }
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Error streaming students", e);
+            throw new DaoException("Failed to retrieve students: " + e.getMessage(), e);
+        }
+    }
+    
     @Override
     public List<Student> findByFirstName(String firstName) throws DaoException {
         if (firstName == null || firstName.trim().isEmpty()) {
-            throw new DaoException("First name cannot be empty");
+            throw InvalidStudentException.EMPTY_FIRST_NAME;
         }
         
         List<Student> students = new ArrayList<>();
@@ -194,7 +476,7 @@ public class StudentDaoJdbcImpl implements StudentDao {
     @Override
     public List<Student> findByLastName(String lastName) throws DaoException {
         if (lastName == null || lastName.trim().isEmpty()) {
-            throw new DaoException("Last name cannot be empty");
+            throw InvalidStudentException.EMPTY_LAST_NAME;
         }
         
         List<Student> students = new ArrayList<>();
@@ -221,7 +503,7 @@ public class StudentDaoJdbcImpl implements StudentDao {
     @Override
     public Optional<Student> findByEmail(String email) throws DaoException {
         if (email == null || email.trim().isEmpty()) {
-            throw new DaoException("Email cannot be empty");
+            throw InvalidStudentException.EMPTY_EMAIL;
         }
         
         try (Connection connection = DatabaseUtil.getConnection();
@@ -246,7 +528,7 @@ public class StudentDaoJdbcImpl implements StudentDao {
     @Override
     public boolean update(Student student) throws DaoException {
         if (student == null || student.getStudentId() == null) {
-            throw new DaoException("Invalid student data for update");
+            throw InvalidStudentException.INVALID_UPDATE;
         }
         
         // Check for email conflict
@@ -259,11 +541,13 @@ public class StudentDaoJdbcImpl implements StudentDao {
             if (!existing.get().getEmail().equals(student.getEmail())) {
                 Optional<Student> emailConflict = findByEmail(student.getEmail());
                 if (emailConflict.isPresent()) {
-                    throw new DaoException("Email '" + student.getEmail() + "' already in use");
+                    throw new DuplicateEmailException("Email '" + student.getEmail() + "' already in use", student.getEmail());
                 }
             }
         } catch (DaoException e) {
-            logger.error("Error checking for email conflict", e);
+            if (!e.isExpected()) {
+                logger.error("Error checking for email conflict", e);
+            }
             throw e;
         }
         
@@ -303,7 +587,7 @@ public class StudentDaoJdbcImpl implements StudentDao {
     @Override
     public boolean delete(Long id) throws DaoException {
         if (id == null || id <= 0) {
-            throw new DaoException("Invalid student ID");
+            throw InvalidStudentException.INVALID_ID;
         }
         
         try (Connection connection = DatabaseUtil.getConnection();
@@ -344,14 +628,56 @@ public class StudentDaoJdbcImpl implements StudentDao {
         }
     }
     
+    @Override
+    public StudentAggregates aggregate(LocalDate asOf) throws DaoException {
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<YearMonth, Long> byMonth = new HashMap<>();
+        Map<AgeBand, Long> byAge = new EnumMap<>(AgeBand.class);
+        
+        try (Connection connection = DatabaseUtil.getConnection()) {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(COUNT_BY_STATUS)) {
+                while (rs.next()) {
+                    String status = rs.getString(1);
+                    byStatus.merge(status == null ? StudentAggregates.UNKNOWN_STATUS : status, rs.getLong(2), Long::sum);
+                }
+            }
+            
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(COUNT_BY_ENROLLMENT_MONTH)) {
+                while (rs.next()) {
+                    byMonth.put(YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3));
+                }
+            }
+            
+            try (PreparedStatement pstmt = connection.prepareStatement(COUNT_BY_AGE_BAND)) {
+                for (int i = 0; i < AGED_BANDS.length; i++) {
+                    pstmt.setDate(i + 1, Date.valueOf(AGED_BANDS[i].latestBirthDate(asOf)));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        byAge.put(AgeBand.values()[rs.getInt(1)], rs.getLong(2));
+                    }
+                }
+            }
+            
+            return new StudentAggregates(asOf, byStatus, byMonth, byAge);
+            
+        } catch (SQLException e) {
+            logger.error("Error aggregating students", e);
+            throw new DaoException("Failed to aggregate students: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * Maps a ResultSet row to a Student object.
+     * Shared with the sharded implementation, whose shards use the same columns.
      * 
      * @param rs the ResultSet to map
      * @return the mapped Student object
      * @throws SQLException if mapping fails
      */
-    private Student mapResultSetToStudent(ResultSet rs) throws SQLException {
+    static Student mapResultSetToStudent(ResultSet rs) throws SQLException {
         Student student = new Student();
         student.setStudentId(rs.getLong("student_id"));
         student.setFirstName(rs.getString("first_name"));
@@ -1,16 +1,24 @@
 package com.sms.dao;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.model.StudentStatus;
+import com.sms.util.IdGenerator;
 
 /**
- * In-memory implementation of StudentDao using ArrayList.
- * This implementation stores all data in memory (Phase 1).
+ * In-memory implementation of StudentDao using a LinkedHashMap keyed by ID.
+ * This implementation stores all data in memory (Phase 1). Students keep their
+ * insertion order, and lookups, replacements and deletions by ID take constant time.
+ * Students are copied on the way in and out, so callers never hold a reference
+ * to the stored instance (matching the JDBC implementation's semantics).
  * 
  * @author SMS Development Team
  * @version 1.0
@@ -18,29 +26,56 @@ import com.sms.model.Student;
  */
 public class StudentDaoMemoryImpl implements StudentDao {
     
-    private List<Student> students;
+    private Map<Long, Student> students;
+    private final IdGenerator idGenerator;
+    // Next built-in ID, and one above the highest ID stored
     private Long nextId = 1L;
     
     /**
-     * Constructor initializes the ArrayList.
+     * Constructor initializes the map.
      */
     public StudentDaoMemoryImpl() {
-        this.students = new ArrayList<>();
+        this(null);
+    }
+    
+    /**
+     * Creates a store that takes new IDs from a generator.
+     * 
+     * @param idGenerator ID source, or null for the built-in 1, 2, 3... sequence
+     */
+    public StudentDaoMemoryImpl(IdGenerator idGenerator) {
+        this.students = new LinkedHashMap<>();
+        this.idGenerator = idGenerator;
     }
     
     @Override
     public Student create(Student student) throws DaoException {
+        return createIfAbsent(student).orElseThrow(() -> new DuplicateEmailException(
+                "Student with email '" + student.getEmail() + "' already exists", student.getEmail()));
+    }
+    
+    @Override
+    public Optional<Student> createIfAbsent(Student student) throws DaoException {
         if (student == null) {
-            throw new DaoException("Student cannot be null");
+            throw InvalidStudentException.NULL_STUDENT;
         }
         
         // Check for duplicate email
-        if (students.stream().anyMatch(s -> s.getEmail().equals(student.getEmail()))) {
-            throw new DaoException("Student with email '" + student.getEmail() + "' already exists");
+        if (students.values().stream().anyMatch(s -> s.getEmail().equals(student.getEmail()))) {
+            return Optional.empty();
         }
         
         // Set auto-generated ID
-        student.setStudentId(nextId++);
+        if (idGenerator == null) {
+            student.setStudentId(nextId++);
+        } else {
+            long id = idGenerator.nextId();
+            if (students.containsKey(id)) {
+                throw new DaoException("ID generator returned an ID already in use: " + id);
+            }
+            student.setStudentId(id);
+            nextId = Math.max(nextId, id + 1);
+        }
         
         // Set default enrollment date if not set
         if (student.getEnrollmentDate() == null) {
@@ -49,75 +84,100 @@ public class StudentDaoMemoryImpl implements StudentDao {
         
         // Set default status if not set
         if (student.getEnrollmentStatus() == null) {
-            student.setEnrollmentStatus("ACTIVE");
+            student.setStatus(StudentStatus.ACTIVE);
         }
         
-        students.add(student);
-        return student;
+        students.put(student.getStudentId(), new Student(student));
+        return Optional.of(student);
     }
     
     @Override
     public Optional<Student> findById(Long id) throws DaoException {
         if (id == null || id <= 0) {
-            throw new DaoException("Invalid student ID");
+            throw InvalidStudentException.INVALID_ID;
         }
-        return students.stream()
-                .filter(s -> s.getStudentId().equals(id))
-                .findFirst();
+        return findStored(id).map(Student::new);
     }
     
     @Override
     public List<Student> findAll() throws DaoException {
-        return new ArrayList<>(students);
+        return students.values().stream()
+                .map(Student::new)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Student> findPage(long offset, int limit) throws DaoException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        return students.values().stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Student::new)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        for (Student student : students.values()) {
+            action.accept(new Student(student));
+        }
     }
     
     @Override
     public List<Student> findByFirstName(String firstName) throws DaoException {
         if (firstName == null || firstName.trim().isEmpty()) {
-            throw new DaoException("First name cannot be empty");
+            throw InvalidStudentException.EMPTY_FIRST_NAME;
         }
-        return students.stream()
+        return students.values().stream()
                 .filter(s -> s.getFirstName().equalsIgnoreCase(firstName.trim()))
+                .map(Student::new)
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<Student> findByLastName(String lastName) throws DaoException {
         if (lastName == null || lastName.trim().isEmpty()) {
-            throw new DaoException("Last name cannot be empty");
+            throw InvalidStudentException.EMPTY_LAST_NAME;
         }
-        return students.stream()
+        return students.values().stream()
                 .filter(s -> s.getLastName().equalsIgnoreCase(lastName.trim()))
+                .map(Student::new)
                 .collect(Collectors.toList());
     }
     
     @Override
     public Optional<Student> findByEmail(String email) throws DaoException {
         if (email == null || email.trim().isEmpty()) {
-            throw new DaoException("Email cannot be empty");
+            throw InvalidStudentException.EMPTY_EMAIL;
         }
-        return students.stream()
+        return students.values().stream()
                 .filter(s -> s.getEmail().equalsIgnoreCase(email.trim()))
-                .findFirst();
+                .findFirst()
+                .map(Student::new);
     }
     
     @Override
     public boolean update(Student student) throws DaoException {
         if (student == null || student.getStudentId() == null) {
-            throw new DaoException("Invalid student data for update");
+            throw InvalidStudentException.INVALID_UPDATE;
         }
         
-        Optional<Student> existingStudent = findById(student.getStudentId());
+        if (student.getStudentId() <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        Optional<Student> existingStudent = findStored(student.getStudentId());
         
         if (existingStudent.isPresent()) {
             Student existing = existingStudent.get();
             
             // Check for email conflict (if email is being changed)
             if (!existing.getEmail().equals(student.getEmail())) {
-                if (students.stream()
+                if (students.values().stream()
                         .anyMatch(s -> s.getEmail().equals(student.getEmail()) &&
                                 !s.getStudentId().equals(student.getStudentId()))) {
-                    throw new DaoException("Email '" + student.getEmail() + "' already in use");
+                    throw new DuplicateEmailException("Email '" + student.getEmail() + "' already in use", student.getEmail());
                 }
             }
             
@@ -126,12 +186,12 @@ public class StudentDaoMemoryImpl implements StudentDao {
             existing.setLastName(student.getLastName());
             existing.setEmail(student.getEmail());
             existing.setPhoneNumber(student.getPhoneNumber());
-            existing.setDateOfBirth(student.getDateOfBirth());
+            existing.setDateOfBirthEpochDay(student.getDateOfBirthEpochDay());
             existing.setAddress(student.getAddress());
             existing.setCity(student.getCity());
             existing.setState(student.getState());
             existing.setZipCode(student.getZipCode());
-            existing.setEnrollmentDate(student.getEnrollmentDate());
+            existing.setEnrollmentEpochDay(student.getEnrollmentEpochDay());
             existing.setEnrollmentStatus(student.getEnrollmentStatus());
             
             return true;
@@ -143,9 +203,9 @@ public class StudentDaoMemoryImpl implements StudentDao {
     @Override
     public boolean delete(Long id) throws DaoException {
         if (id == null || id <= 0) {
-            throw new DaoException("Invalid student ID");
+            throw InvalidStudentException.INVALID_ID;
         }
-        return students.removeIf(s -> s.getStudentId().equals(id));
+        return students.remove(id) != null;
     }
     
     @Override
@@ -153,6 +213,36 @@ public class StudentDaoMemoryImpl implements StudentDao {
         return students.size();
     }
     
+    @Override
+    public StudentAggregates aggregate(LocalDate asOf) throws DaoException {
+        // Reads the stored instances directly: nothing escapes, so no copies
+        StudentAggregates.Accumulator accumulator = new StudentAggregates.Accumulator(asOf);
+        for (Student student : students.values()) {
+            accumulator.add(student);
+        }
+        return accumulator.build();
+    }
+    
+    /**
+     * Inserts or replaces a student with its existing ID, bypassing validation.
+     * Used to load students in bulk without the per-create duplicate-email scan.
+     * 
+     * @param student the student to restore (must carry an ID)
+     */
+    void restore(Student student) {
+        Long id = student.getStudentId();
+        nextId = Math.max(nextId, id + 1);
+        // Replacing an existing key keeps its insertion order
+        students.put(id, new Student(student));
+    }
+    
+    /**
+     * Finds the stored (uncopied) instance for an ID.
+     */
+    private Optional<Student> findStored(Long id) {
+        return Optional.ofNullable(students.get(id));
+    }
+    
     /**
      * Clears all students from memory. Useful for testing.
      */
@@ -0,0 +1,471 @@
+package com.sms.dao;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.sms.model.Student;
+import com.sms.model.StudentStatus;
+import com.sms.util.IdGenerator;
+
+/**
+ * Off-heap implementation of StudentDao.
+ *
+ * Each student is encoded into a slot of an {@link OffHeapArena} (direct memory outside
+ * the garbage-collected heap), so the heap holds only two primitive hash indexes no matter
+ * how many students are stored: ID to slot address, and a case-folded email hash to ID.
+ * The collector therefore has nothing per-student to trace, and pause times stay flat as
+ * the store grows.
+ *
+ * Slot layout: {@code int length, long id, int birth epoch day, int enrollment epoch day},
+ * then nine strings (first name, last name, email, phone, address, city, state, zip code,
+ * status), each as {@code short byteLength} (-1 for null) followed by UTF-8 bytes.
+ * Queries that filter on one string decode only the fields up to it; whole students are
+ * materialized only for results. An update that still fits its slot is written in place,
+ * otherwise the old slot goes to the arena's free list.
+ *
+ * This class is not thread-safe.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoOffHeapImpl implements StudentDao, AutoCloseable {
+
+    private static final int HEADER_SIZE = 4 + 8 + 4 + 4;
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int EMAIL = 2;
+
+    private final OffHeapArena arena = new OffHeapArena();
+    // student ID -> slot address
+    private final LongHashTable idIndex = new LongHashTable();
+    // case-folded email hash -> student ID (several IDs per hash possible)
+    private final LongHashTable emailIndex = new LongHashTable();
+    private ByteBuffer scratch = ByteBuffer.allocate(1024);
+    private final IdGenerator idGenerator;
+    private long nextId = 1L;
+
+    /**
+     * Creates a store with the built-in 1, 2, 3... ID sequence.
+     */
+    public StudentDaoOffHeapImpl() {
+        this(null);
+    }
+
+    /**
+     * Creates a store that takes new IDs from a generator.
+     *
+     * @param idGenerator ID source, or null for the built-in sequence
+     */
+    public StudentDaoOffHeapImpl(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Student create(Student student) throws DaoException {
+        return createIfAbsent(student).orElseThrow(() -> new DuplicateEmailException(
+                "Student with email '" + student.getEmail() + "' already exists", student.getEmail()));
+    }
+
+    @Override
+    public Optional<Student> createIfAbsent(Student student) throws DaoException {
+        if (student == null) {
+            throw InvalidStudentException.NULL_STUDENT;
+        }
+
+        // Check for duplicate email
+        if (findIdByEmail(student.getEmail(), false) > 0) {
+            return Optional.empty();
+        }
+
+        // Set default enrollment date if not set
+        if (student.getEnrollmentDate() == null) {
+            student.setEnrollmentDate(LocalDate.now());
+        }
+
+        // Set default status if not set
+        if (student.getEnrollmentStatus() == null) {
+            student.setStatus(StudentStatus.ACTIVE);
+        }
+
+        long id = idGenerator != null ? idGenerator.nextId() : nextId;
+        int length = encode(id, student);
+        long address = arena.allocate(length);
+        store(address, length);
+
+        // Set auto-generated ID
+        nextId = Math.max(nextId, id + 1);
+        student.setStudentId(id);
+        idIndex.put(id, address);
+        emailIndex.put(LongHashTable.caseFoldedHash(student.getEmail()), id);
+        return Optional.of(student);
+    }
+
+    @Override
+    public Optional<Student> findById(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        long address = idIndex.get(id);
+        return address == LongHashTable.NO_VALUE ? Optional.empty() : Optional.of(decode(address));
+    }
+
+    @Override
+    public List<Student> findAll() throws DaoException {
+        IdList all = new IdList(idIndex.size());
+        idIndex.forEach((id, address) -> all.add(id));
+        return materialize(all);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        // Only the sorted IDs are held on-heap; each student is decoded as it is passed on
+        IdList all = new IdList(idIndex.size());
+        idIndex.forEach((id, address) -> all.add(id));
+        Arrays.sort(all.values, 0, all.size);
+        for (int i = 0; i < all.size; i++) {
+            action.accept(decode(idIndex.get(all.values[i])));
+        }
+    }
+
+    @Override
+    public List<Student> findByFirstName(String firstName) throws DaoException {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_FIRST_NAME;
+        }
+        return scan(FIRST_NAME, firstName.trim());
+    }
+
+    @Override
+    public List<Student> findByLastName(String lastName) throws DaoException {
+        if (lastName == null || lastName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_LAST_NAME;
+        }
+        return scan(LAST_NAME, lastName.trim());
+    }
+
+    @Override
+    public Optional<Student> findByEmail(String email) throws DaoException {
+        if (email == null || email.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_EMAIL;
+        }
+        long id = findIdByEmail(email.trim(), true);
+        return id > 0 ? Optional.of(decode(idIndex.get(id))) : Optional.empty();
+    }
+
+    @Override
+    public boolean update(Student student) throws DaoException {
+        if (student == null || student.getStudentId() == null) {
+            throw InvalidStudentException.INVALID_UPDATE;
+        }
+
+        long id = student.getStudentId();
+        if (id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        long address = idIndex.get(id);
+        if (address == LongHashTable.NO_VALUE) {
+            return false;
+        }
+
+        // Check for email conflict (if email is being changed)
+        String oldEmail = field(address, EMAIL);
+        boolean emailChanged = oldEmail == null ? student.getEmail() != null : !oldEmail.equals(student.getEmail());
+        if (emailChanged && findIdByEmail(student.getEmail(), false) > 0) {
+            throw new DuplicateEmailException("Email '" + student.getEmail() + "' already in use", student.getEmail());
+        }
+
+        int oldLength = length(address);
+        int length = encode(id, student);
+        if (OffHeapArena.slotSize(length) != OffHeapArena.slotSize(oldLength)) {
+            // Different size class: move to a new slot and recycle the old one
+            long moved = arena.allocate(length);
+            arena.free(address, oldLength);
+            idIndex.replace(id, address, moved);
+            address = moved;
+        }
+        store(address, length);
+
+        if (emailChanged) {
+            emailIndex.remove(LongHashTable.caseFoldedHash(oldEmail), id);
+            emailIndex.put(LongHashTable.caseFoldedHash(student.getEmail()), id);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean delete(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        long address = idIndex.get(id);
+        if (address == LongHashTable.NO_VALUE) {
+            return false;
+        }
+        emailIndex.remove(LongHashTable.caseFoldedHash(field(address, EMAIL)), id);
+        idIndex.remove(id, address);
+        arena.free(address, length(address));
+        return true;
+    }
+
+    @Override
+    public long count() throws DaoException {
+        return idIndex.size();
+    }
+
+    /**
+     * Reports how much memory the store uses, off heap and in its on-heap indexes.
+     *
+     * @return a snapshot of the current usage
+     */
+    public ArenaUsage arenaUsage() {
+        return new ArenaUsage(arena.reservedBytes(), arena.usedBytes(), arena.freeBytes(),
+                arena.wastedBytes(), arena.chunkCount(),
+                idIndex.footprintBytes() + emailIndex.footprintBytes());
+    }
+
+    /**
+     * Clears all students. The off-heap chunks are released once collected.
+     */
+    public void clear() {
+        arena.clear();
+        idIndex.clear();
+        emailIndex.clear();
+        nextId = 1L;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Finds the ID stored under an email.
+     *
+     * @param email the email to look up
+     * @param ignoreCase whether to match case-insensitively (lookups) or exactly (uniqueness checks)
+     * @return the lowest matching ID, or 0 if none
+     */
+    private long findIdByEmail(String email, boolean ignoreCase) {
+        if (email == null) {
+            return 0;
+        }
+        long[] found = {0};
+        emailIndex.anyValue(LongHashTable.caseFoldedHash(email), id -> {
+            String stored = field(idIndex.get(id), EMAIL);
+            if ((ignoreCase ? email.equalsIgnoreCase(stored) : email.equals(stored))
+                    && (found[0] == 0 || id < found[0])) {
+                found[0] = id;
+            }
+            return false;
+        });
+        return found[0];
+    }
+
+    private List<Student> scan(int field, String value) {
+        IdList matches = new IdList(16);
+        idIndex.forEach((id, address) -> {
+            if (value.equalsIgnoreCase(field(address, field))) {
+                matches.add(id);
+            }
+        });
+        return materialize(matches);
+    }
+
+    /**
+     * Decodes students by ID, in ID order (insertion order, as in the other implementations).
+     */
+    private List<Student> materialize(IdList ids) {
+        Arrays.sort(ids.values, 0, ids.size);
+        List<Student> result = new ArrayList<>(ids.size);
+        for (int i = 0; i < ids.size; i++) {
+            result.add(decode(idIndex.get(ids.values[i])));
+        }
+        return result;
+    }
+
+    /**
+     * Encodes a student into the scratch buffer.
+     *
+     * @return the encoded length
+     */
+    private int encode(long id, Student student) {
+        byte[][] strings = {
+                utf8(student.getFirstName()), utf8(student.getLastName()), utf8(student.getEmail()),
+                utf8(student.getPhoneNumber()), utf8(student.getAddress()), utf8(student.getCity()),
+                utf8(student.getState()), utf8(student.getZipCode()), utf8(student.getEnrollmentStatus())
+        };
+        int length = HEADER_SIZE;
+        for (byte[] bytes : strings) {
+            length += 2 + (bytes == null ? 0 : bytes.length);
+        }
+        if (scratch.capacity() < length) {
+            scratch = ByteBuffer.allocate(Math.max(length, scratch.capacity() * 2));
+        }
+        scratch.clear();
+        scratch.putInt(length)
+                .putLong(id)
+                .putInt(student.getDateOfBirthEpochDay())
+                .putInt(student.getEnrollmentEpochDay());
+        for (byte[] bytes : strings) {
+            if (bytes == null) {
+                scratch.putShort((short) -1);
+            } else {
+                scratch.putShort((short) bytes.length).put(bytes);
+            }
+        }
+        return length;
+    }
+
+    private void store(long address, int length) {
+        arena.chunk(address).put(OffHeapArena.offset(address), scratch.array(), 0, length);
+    }
+
+    private int length(long address) {
+        return arena.chunk(address).getInt(OffHeapArena.offset(address));
+    }
+
+    private Student decode(long address) {
+        ByteBuffer chunk = arena.chunk(address);
+        int position = OffHeapArena.offset(address) + 4;
+        Student student = new Student();
+        student.setStudentId(chunk.getLong(position));
+        student.setDateOfBirthEpochDay(chunk.getInt(position + 8));
+        student.setEnrollmentEpochDay(chunk.getInt(position + 12));
+        position += 16;
+
+        String[] strings = new String[9];
+        for (int i = 0; i < strings.length; i++) {
+            short length = chunk.getShort(position);
+            position += 2;
+            if (length >= 0) {
+                strings[i] = string(chunk, position, length);
+                position += length;
+            }
+        }
+        student.setFirstName(strings[0]);
+        student.setLastName(strings[1]);
+        student.setEmail(strings[2]);
+        student.setPhoneNumber(strings[3]);
+        student.setAddress(strings[4]);
+        student.setCity(strings[5]);
+        student.setState(strings[6]);
+        student.setZipCode(strings[7]);
+        student.setEnrollmentStatus(strings[8]);
+        return student;
+    }
+
+    /**
+     * Decodes a single string field, skipping the ones before it.
+     */
+    private String field(long address, int field) {
+        ByteBuffer chunk = arena.chunk(address);
+        int position = OffHeapArena.offset(address) + HEADER_SIZE;
+        for (int i = 0; i < field; i++) {
+            position += 2 + Math.max(0, chunk.getShort(position));
+        }
+        short length = chunk.getShort(position);
+        return length < 0 ? null : string(chunk, position + 2, length);
+    }
+
+    private static String string(ByteBuffer chunk, int position, int length) {
+        byte[] bytes = new byte[length];
+        chunk.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Field value too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Growable list of primitive IDs collected by a scan.
+     */
+    private static final class IdList {
+        private long[] values;
+        private int size;
+
+        IdList(int capacity) {
+            values = new long[Math.max(capacity, 1)];
+        }
+
+        void add(long id) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = id;
+        }
+    }
+
+    /**
+     * Memory used by an off-heap store.
+     */
+    public static final class ArenaUsage {
+        private final long reservedBytes;
+        private final long usedBytes;
+        private final long freeBytes;
+        private final long wastedBytes;
+        private final int chunks;
+        private final long indexBytes;
+
+        ArenaUsage(long reservedBytes, long usedBytes, long freeBytes, long wastedBytes,
+                   int chunks, long indexBytes) {
+            this.reservedBytes = reservedBytes;
+            this.usedBytes = usedBytes;
+            this.freeBytes = freeBytes;
+            this.wastedBytes = wastedBytes;
+            this.chunks = chunks;
+            this.indexBytes = indexBytes;
+        }
+
+        /** @return off-heap bytes reserved in chunks */
+        public long getReservedBytes() {
+            return reservedBytes;
+        }
+
+        /** @return off-heap bytes in live student slots */
+        public long getUsedBytes() {
+            return usedBytes;
+        }
+
+        /** @return off-heap bytes in freed slots awaiting reuse */
+        public long getFreeBytes() {
+            return freeBytes;
+        }
+
+        /** @return off-heap bytes lost at the end of filled chunks */
+        public long getWastedBytes() {
+            return wastedBytes;
+        }
+
+        /** @return number of off-heap chunks */
+        public int getChunks() {
+            return chunks;
+        }
+
+        /** @return approximate on-heap bytes held by the ID and email indexes */
+        public long getIndexBytes() {
+            return indexBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ArenaUsage{reserved=%d, used=%d, free=%d, wasted=%d, chunks=%d, index=%d}",
+                    reservedBytes, usedBytes, freeBytes, wastedBytes, chunks, indexBytes);
+        }
+    }
+}
@@ -0,0 +1,1059 @@
+package com.sms.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sms.model.Student;
+import com.sms.model.StudentStatus;
+import com.sms.util.IdGenerator;
+
+/**
+ * JDBC implementation of StudentDao that spreads students over several databases.
+ *
+ * <ul>
+ *   <li>Each student lives on the data shard chosen by a {@link ConsistentHashRing}
+ *       over its ID, so lookups, updates and deletes by ID touch one database.</li>
+ *   <li>A separate index shard holds the global unique-email index (lower-cased email
+ *       to ID, so emails are unique and found ignoring case) and the ID sequence; IDs are reserved from it in blocks, unless an
+ *       {@link IdGenerator} assigns them without any round trip.</li>
+ *   <li>{@code findAll}, {@code findByFirstName}, {@code findByLastName} and
+ *       {@code count} query every data shard in parallel and merge the results in the
+ *       same order the single-database implementation uses.</li>
+ *   <li>{@code findPage} and {@code forEach} merge ordered per-shard cursors instead,
+ *       each reading keyset pages by (first_name, last_name, student_id), so memory use
+ *       and the time to the first row do not grow with the number of students.</li>
+ * </ul>
+ *
+ * Shards can be added online with {@link ShardRebalancer}. While a rebalance runs, new
+ * students go to their owner on the new ring, and reads and writes of existing students
+ * fall back to their owner on the old ring until the student has been moved. Moves and
+ * writes of the same student are serialized by a striped lock, and creates hold a read
+ * lock on the routing across choosing a shard and inserting, so starting or finishing a
+ * rebalance waits for them and no create placed by the old ring lands after the sources
+ * were scanned. All of this holds within one JVM. Scatter-gather queries during a
+ * rebalance report a student at most once, but can miss one that moves while they run
+ * (read from the new shard before the copy and from the old one after the delete); they
+ * are not a point-in-time snapshot.
+ *
+ * The store is not distributed-transactional: a failure between the index write and the
+ * shard write is compensated by removing the index entry again.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoShardedImpl implements StudentDao, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentDaoShardedImpl.class);
+
+    // Schema (portable between H2 and MySQL)
+    private static final String CREATE_STUDENTS_TABLE =
+        "CREATE TABLE IF NOT EXISTS students (" +
+        "student_id BIGINT PRIMARY KEY, first_name VARCHAR(50) NOT NULL, last_name VARCHAR(50) NOT NULL, " +
+        "email VARCHAR(100) NOT NULL, phone_number VARCHAR(20), date_of_birth DATE, address VARCHAR(255), " +
+        "city VARCHAR(50), state VARCHAR(50), zip_code VARCHAR(20), enrollment_date DATE NOT NULL, " +
+        "enrollment_status VARCHAR(20) NOT NULL)";
+
+    private static final String CREATE_EMAIL_INDEX_TABLE =
+        "CREATE TABLE IF NOT EXISTS student_email_index (" +
+        "email VARCHAR(100) PRIMARY KEY, student_id BIGINT NOT NULL)";
+
+    private static final String CREATE_SEQUENCE_TABLE =
+        "CREATE TABLE IF NOT EXISTS student_id_sequence (" +
+        "sequence_id INT PRIMARY KEY, next_id BIGINT NOT NULL)";
+
+    // Data shard queries
+    private static final String INSERT_STUDENT =
+        "INSERT INTO students (student_id, first_name, last_name, email, phone_number, date_of_birth, " +
+        "address, city, state, zip_code, enrollment_date, enrollment_status) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_BY_ID =
+        "SELECT * FROM students WHERE student_id = ?";
+
+    private static final String FIND_ALL =
+        "SELECT * FROM students ORDER BY first_name, last_name";
+
+    // Keyset pages in findAll order; student_id makes the key unique
+    private static final String FIND_ORDERED_FIRST =
+        "SELECT * FROM students ORDER BY first_name, last_name, student_id LIMIT ?";
+
+    private static final String FIND_ORDERED_AFTER =
+        "SELECT * FROM students WHERE first_name > ? OR (first_name = ? AND (last_name > ? " +
+        "OR (last_name = ? AND student_id > ?))) ORDER BY first_name, last_name, student_id LIMIT ?";
+
+    private static final String FIND_BY_FIRST_NAME =
+        "SELECT * FROM students WHERE first_name = ? ORDER BY last_name";
+
+    private static final String FIND_BY_LAST_NAME =
+        "SELECT * FROM students WHERE last_name = ? ORDER BY first_name";
+
+    private static final String UPDATE_STUDENT =
+        "UPDATE students SET first_name = ?, last_name = ?, email = ?, phone_number = ?, " +
+        "date_of_birth = ?, address = ?, city = ?, state = ?, zip_code = ?, " +
+        "enrollment_date = ?, enrollment_status = ? WHERE student_id = ?";
+
+    private static final String DELETE_STUDENT =
+        "DELETE FROM students WHERE student_id = ?";
+
+    private static final String COUNT_STUDENTS =
+        "SELECT COUNT(*) FROM students";
+
+    private static final String LIST_IDS =
+        "SELECT student_id FROM students WHERE student_id > ? ORDER BY student_id LIMIT ?";
+
+    // Index shard queries
+    private static final String INSERT_EMAIL =
+        "INSERT INTO student_email_index (email, student_id) VALUES (?, ?)";
+
+    private static final String FIND_ID_BY_EMAIL =
+        "SELECT student_id FROM student_email_index WHERE email = ?";
+
+    private static final String DELETE_EMAIL =
+        "DELETE FROM student_email_index WHERE email = ? AND student_id = ?";
+
+    // Entries written before emails were normalized
+    private static final String LOWER_CASE_EMAILS =
+        "UPDATE student_email_index SET email = LOWER(email) WHERE email <> LOWER(email)";
+
+    private static final String SELECT_SEQUENCE =
+        "SELECT next_id FROM student_id_sequence WHERE sequence_id = 1";
+
+    private static final String INSERT_SEQUENCE =
+        "INSERT INTO student_id_sequence (sequence_id, next_id) VALUES (1, 1)";
+
+    private static final String ADVANCE_SEQUENCE =
+        "UPDATE student_id_sequence SET next_id = next_id + ? WHERE sequence_id = 1";
+
+    private static final Comparator<Student> BY_FIRST_THEN_LAST_NAME =
+        by(Student::getFirstName).thenComparing(by(Student::getLastName));
+
+    private static final Comparator<Student> BY_NAME_THEN_ID =
+        BY_FIRST_THEN_LAST_NAME.thenComparing(Student::getStudentId);
+
+    private static final Comparator<Student> BY_LAST_NAME = by(Student::getLastName);
+
+    private static final Comparator<Student> BY_FIRST_NAME = by(Student::getFirstName);
+
+    /** Rows read per shard per round trip while merging ordered cursors */
+    static final int MERGE_PAGE_SIZE = 1000;
+
+    /** Number of IDs reserved from the index shard per round trip */
+    static final int ID_BLOCK_SIZE = 100;
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final JdbcShard indexShard;
+    private final IdGenerator idGenerator;
+    private final ExecutorService executor;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Read: a create between choosing its shard and inserting; write: swapping the routing
+    private final ReentrantReadWriteLock routingLock = new ReentrantReadWriteLock();
+    private volatile Routing routing;
+
+    // Guarded by this
+    private long nextId;
+    private long idBlockEnd;
+
+    /**
+     * Creates a sharded store with the default number of ring points per shard.
+     *
+     * @param indexShard database holding the email index and ID sequence
+     * @param dataShards databases holding the students
+     */
+    public StudentDaoShardedImpl(JdbcShard indexShard, List<JdbcShard> dataShards) {
+        this(indexShard, dataShards, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a sharded store.
+     *
+     * @param indexShard database holding the email index and ID sequence
+     * @param dataShards databases holding the students
+     * @param virtualNodes ring points per shard
+     */
+    public StudentDaoShardedImpl(JdbcShard indexShard, List<JdbcShard> dataShards, int virtualNodes) {
+        this(indexShard, dataShards, virtualNodes, null);
+    }
+
+    /**
+     * Creates a sharded store.
+     *
+     * @param indexShard database holding the email index (and ID sequence when used)
+     * @param dataShards databases holding the students
+     * @param virtualNodes ring points per shard
+     * @param idGenerator ID source, or null to reserve blocks from the ID sequence
+     */
+    public StudentDaoShardedImpl(JdbcShard indexShard, List<JdbcShard> dataShards, int virtualNodes,
+                                 IdGenerator idGenerator) {
+        Map<String, JdbcShard> shards = new LinkedHashMap<>();
+        for (JdbcShard shard : dataShards) {
+            if (shards.put(shard.getName(), shard) != null) {
+                throw new IllegalArgumentException("Duplicate shard name: " + shard.getName());
+            }
+        }
+        this.indexShard = indexShard;
+        this.idGenerator = idGenerator;
+        this.routing = new Routing(shards, new ConsistentHashRing(shards.keySet(), virtualNodes), null);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "student-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builds a sharded store from properties:
+     * <pre>
+     * sms.shard.index.url=jdbc:...          (database for the email index and ID sequence)
+     * sms.shards=shard0,shard1,...          (data shard names, in ring order)
+     * sms.shard.&lt;name&gt;.url=jdbc:...
+     * sms.shard.username=... / sms.shard.password=...   (shared credentials)
+     * </pre>
+     *
+     * @param properties the configuration
+     * @return the store (schema not yet initialized)
+     */
+    public static StudentDaoShardedImpl fromProperties(Properties properties) {
+        String username = properties.getProperty("sms.shard.username");
+        String password = properties.getProperty("sms.shard.password");
+        JdbcShard index = new JdbcShard("index", required(properties, "sms.shard.index.url"), username, password);
+        List<JdbcShard> shards = new ArrayList<>();
+        for (String name : required(properties, "sms.shards").split(",")) {
+            String trimmed = name.trim();
+            shards.add(new JdbcShard(trimmed, required(properties, "sms.shard." + trimmed + ".url"),
+                    username, password));
+        }
+        return new StudentDaoShardedImpl(index, shards);
+    }
+
+    /**
+     * Creates the tables on the index shard and every data shard if they do not exist.
+     *
+     * @throws DaoException if schema creation fails
+     */
+    public void initializeSchema() throws DaoException {
+        try (Connection connection = indexShard.connect();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(CREATE_EMAIL_INDEX_TABLE);
+            normalizeIndexedEmails(stmt);
+            stmt.executeUpdate(CREATE_SEQUENCE_TABLE);
+            try (ResultSet rs = stmt.executeQuery(SELECT_SEQUENCE)) {
+                if (!rs.next()) {
+                    stmt.executeUpdate(INSERT_SEQUENCE);
+                }
+            }
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                throw new DaoException("Failed to initialize index shard: " + e.getMessage(), e);
+            }
+            // Another process seeded the sequence first
+        }
+        for (JdbcShard shard : routing.shards.values()) {
+            createStudentsTable(shard);
+        }
+        logger.info("Sharded student store initialized with {} data shards", routing.shards.size());
+    }
+
+    @Override
+    public Student create(Student student) throws DaoException {
+        if (student == null) {
+            throw InvalidStudentException.NULL_STUDENT;
+        }
+
+        // Set default enrollment date if not set
+        if (student.getEnrollmentDate() == null) {
+            student.setEnrollmentDate(LocalDate.now());
+        }
+
+        // Set default status if not set
+        if (student.getEnrollmentStatus() == null) {
+            student.setStatus(StudentStatus.ACTIVE);
+        }
+
+        long id = idGenerator != null ? idGenerator.nextId() : reserveId();
+        // The global index enforces email uniqueness across shards
+        try {
+            insertEmail(student.getEmail(), id);
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                throw new DuplicateEmailException("Student with email '" + student.getEmail() + "' already exists", student.getEmail());
+            }
+            logger.error("Error indexing email for new student", e);
+            throw new DaoException("Failed to create student: " + e.getMessage(), e);
+        }
+
+        routingLock.readLock().lock();
+        JdbcShard shard = routing.owner(id);
+        try {
+            insertStudent(shard, id, student);
+        } catch (SQLException e) {
+            removeEmailQuietly(student.getEmail(), id);
+            logger.error("Error creating student on shard {}", shard.getName(), e);
+            throw new DaoException("Failed to create student: " + e.getMessage(), e);
+        } finally {
+            routingLock.readLock().unlock();
+        }
+        student.setStudentId(id);
+        logger.info("Student created successfully with ID: {} on shard {}", id, shard.getName());
+        return student;
+    }
+
+    @Override
+    public Optional<Student> findById(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        try {
+            Routing current = routing;
+            JdbcShard owner = current.owner(id);
+            Optional<Student> student = selectById(owner, id);
+            JdbcShard previous = current.previousOwner(id);
+            if (student.isPresent() || previous == null || previous.equals(owner)) {
+                return student;
+            }
+            // Mid-rebalance: the student may not have moved yet
+            ReentrantLock lock = lockFor(id);
+            lock.lock();
+            try {
+                Located located = locate(id);
+                return located == null ? Optional.empty() : Optional.of(located.student);
+            } finally {
+                lock.unlock();
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding student by ID: {}", id, e);
+            throw new DaoException("Failed to find student: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Student> findAll() throws DaoException {
+        return gather(FIND_ALL, null, BY_FIRST_THEN_LAST_NAME);
+    }
+
+    @Override
+    public List<Student> findPage(long offset, int limit) throws DaoException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Student> page = new ArrayList<>(Math.min(limit, 1000));
+        if (limit == 0) {
+            return page;
+        }
+        // No shard can contribute more than offset + limit rows to the page
+        long[] skipped = {0};
+        merge((int) Math.min(MERGE_PAGE_SIZE, offset + limit), student -> {
+            if (skipped[0] < offset) {
+                skipped[0]++;
+                return true;
+            }
+            page.add(student);
+            return page.size() < limit;
+        });
+        return page;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        forEach(action, MERGE_PAGE_SIZE);
+    }
+
+    /**
+     * Streams every student in findAll order, reading the given number of rows per
+     * shard per round trip.
+     */
+    void forEach(Consumer<? super Student> action, int pageSize) throws DaoException {
+        merge(pageSize, student -> {
+            action.accept(student);
+            return true;
+        });
+    }
+
+    @Override
+    public List<Student> findByFirstName(String firstName) throws DaoException {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_FIRST_NAME;
+        }
+        return gather(FIND_BY_FIRST_NAME, firstName.trim(), BY_LAST_NAME);
+    }
+
+    @Override
+    public List<Student> findByLastName(String lastName) throws DaoException {
+        if (lastName == null || lastName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_LAST_NAME;
+        }
+        return gather(FIND_BY_LAST_NAME, lastName.trim(), BY_FIRST_NAME);
+    }
+
+    @Override
+    public Optional<Student> findByEmail(String email) throws DaoException {
+        if (email == null || email.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_EMAIL;
+        }
+        String wanted = email.trim();
+        Long id;
+        try (Connection connection = indexShard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(FIND_ID_BY_EMAIL)) {
+            pstmt.setString(1, normalizeEmail(wanted));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                id = rs.next() ? rs.getLong(1) : null;
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding student by email: {}", email, e);
+            throw new DaoException("Failed to find student by email: " + e.getMessage(), e);
+        }
+        if (id == null) {
+            return Optional.empty();
+        }
+        // Guard against an index entry left behind by a failed update
+        return findById(id).filter(s -> wanted.equalsIgnoreCase(s.getEmail()));
+    }
+
+    @Override
+    public boolean update(Student student) throws DaoException {
+        if (student == null || student.getStudentId() == null) {
+            throw InvalidStudentException.INVALID_UPDATE;
+        }
+        long id = student.getStudentId();
+        if (id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Located located = locate(id);
+            if (located == null) {
+                return false;
+            }
+            String oldEmail = located.student.getEmail();
+            // A change of case only keeps the same index entry
+            boolean emailChanged = !Objects.equals(normalizeEmail(oldEmail), normalizeEmail(student.getEmail()));
+            if (emailChanged) {
+                try {
+                    insertEmail(student.getEmail(), id);
+                } catch (SQLException e) {
+                    if (isDuplicateKey(e)) {
+                        throw new DuplicateEmailException("Email '" + student.getEmail() + "' already in use", student.getEmail());
+                    }
+                    throw e;
+                }
+            }
+
+            int affectedRows;
+            try (Connection connection = located.shard.connect();
+                 PreparedStatement pstmt = connection.prepareStatement(UPDATE_STUDENT)) {
+                bindFields(pstmt, 1, student);
+                pstmt.setLong(12, id);
+                affectedRows = pstmt.executeUpdate();
+            } catch (SQLException e) {
+                if (emailChanged) {
+                    removeEmailQuietly(student.getEmail(), id);
+                }
+                throw e;
+            }
+            if (emailChanged) {
+                removeEmailQuietly(oldEmail, id);
+            }
+            logger.info("Student updated successfully: {}", id);
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            logger.error("Error updating student: {}", id, e);
+            throw new DaoException("Failed to update student: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Located located = locate(id);
+            if (located == null) {
+                return false;
+            }
+            try (Connection connection = located.shard.connect();
+                 PreparedStatement pstmt = connection.prepareStatement(DELETE_STUDENT)) {
+                pstmt.setLong(1, id);
+                pstmt.executeUpdate();
+            }
+            removeEmailQuietly(located.student.getEmail(), id);
+            logger.info("Student deleted successfully: {}", id);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Error deleting student: {}", id, e);
+            throw new DaoException("Failed to delete student: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long count() throws DaoException {
+        long total = 0;
+        for (List<Long> counts : scatter(shard -> {
+            try (Connection connection = shard.connect();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(COUNT_STUDENTS)) {
+                rs.next();
+                return Collections.singletonList(rs.getLong(1));
+            }
+        }).values()) {
+            total += counts.get(0);
+        }
+        return total;
+    }
+
+    /**
+     * @return the data shards, in ring order (including a shard being added)
+     */
+    public List<JdbcShard> getShards() {
+        return new ArrayList<>(routing.shards.values());
+    }
+
+    /**
+     * Stops the query threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // ==================== REBALANCING (used by ShardRebalancer) ====================
+
+    /**
+     * Adds a shard to the ring. From now on new students may be placed on it, and
+     * existing students are looked up on their new owner first, then their old one.
+     * Waits for creates still inserting on the old ring, so a scan of the old shards
+     * started afterwards sees them.
+     */
+    synchronized void beginRebalance(JdbcShard shard) throws DaoException {
+        Routing current = routing;
+        if (current.previousRing != null) {
+            throw new DaoException("A rebalance is already in progress");
+        }
+        if (current.shards.containsKey(shard.getName())) {
+            throw new DaoException("Shard already part of the store: " + shard.getName());
+        }
+        createStudentsTable(shard);
+        Map<String, JdbcShard> shards = new LinkedHashMap<>(current.shards);
+        shards.put(shard.getName(), shard);
+        routingLock.writeLock().lock();
+        try {
+            routing = new Routing(shards, current.ring.withNode(shard.getName()), current.ring);
+        } finally {
+            routingLock.writeLock().unlock();
+        }
+        logger.info("Rebalance started: adding shard {}", shard.getName());
+    }
+
+    /**
+     * Drops the old ring once every student has been moved.
+     */
+    synchronized void finishRebalance() {
+        routingLock.writeLock().lock();
+        try {
+            Routing current = routing;
+            routing = new Routing(current.shards, current.ring, null);
+            logger.info("Rebalance finished: {} data shards", current.shards.size());
+        } finally {
+            routingLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the shards that existed before the running rebalance
+     */
+    List<JdbcShard> previousShards() {
+        Routing current = routing;
+        List<JdbcShard> shards = new ArrayList<>();
+        for (String name : current.previousRing.getNodes()) {
+            shards.add(current.shards.get(name));
+        }
+        return shards;
+    }
+
+    /**
+     * @return the shard owning an ID on the current ring
+     */
+    JdbcShard ownerOf(long id) {
+        return routing.owner(id);
+    }
+
+    /**
+     * Lists IDs stored on a shard in ascending order.
+     */
+    List<Long> listIds(JdbcShard shard, long afterId, int limit) throws DaoException {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        try (Connection connection = shard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(LIST_IDS)) {
+            pstmt.setLong(1, afterId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        } catch (SQLException e) {
+            throw new DaoException("Failed to list students on shard " + shard.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies a student to its new shard and removes it from the old one, holding the
+     * student's lock so no write can interleave. Safe to repeat after a crash between
+     * the copy and the delete.
+     *
+     * @return true if the student was moved
+     */
+    boolean move(long id, JdbcShard source, JdbcShard target) throws DaoException {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Optional<Student> student = selectById(source, id);
+            if (!student.isPresent()) {
+                return false;
+            }
+            if (!selectById(target, id).isPresent()) {
+                insertStudent(target, id, student.get());
+            }
+            try (Connection connection = source.connect();
+                 PreparedStatement pstmt = connection.prepareStatement(DELETE_STUDENT)) {
+                pstmt.setLong(1, id);
+                pstmt.executeUpdate();
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DaoException("Failed to move student " + id + " to shard " + target.getName()
+                    + ": " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Finds where a student currently lives: its owner, or during a rebalance its old owner.
+     * Caller holds the student's lock.
+     */
+    private Located locate(long id) throws SQLException {
+        Routing current = routing;
+        JdbcShard owner = current.owner(id);
+        Optional<Student> student = selectById(owner, id);
+        if (student.isPresent()) {
+            return new Located(owner, student.get());
+        }
+        JdbcShard previous = current.previousOwner(id);
+        if (previous != null && !previous.equals(owner)) {
+            student = selectById(previous, id);
+            if (student.isPresent()) {
+                return new Located(previous, student.get());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs a query on every data shard in parallel and merges the results in order.
+     * Each shard returns a sorted run, which the list sort merges in near-linear time.
+     * A student seen on two shards (mid-move) is reported once, from its owner.
+     */
+    private List<Student> gather(String sql, String parameter, Comparator<Student> order) throws DaoException {
+        Map<JdbcShard, List<Student>> results = scatter(shard -> {
+            try (Connection connection = shard.connect();
+                 PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                if (parameter != null) {
+                    pstmt.setString(1, parameter);
+                }
+                List<Student> students = new ArrayList<>();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        students.add(StudentDaoJdbcImpl.mapResultSetToStudent(rs));
+                    }
+                }
+                return students;
+            }
+        });
+
+        Routing current = routing;
+        Map<Long, Student> merged = new HashMap<>();
+        List<Student> students = new ArrayList<>();
+        for (Map.Entry<JdbcShard, List<Student>> entry : results.entrySet()) {
+            for (Student student : entry.getValue()) {
+                Student seen = merged.putIfAbsent(student.getStudentId(), student);
+                if (seen == null) {
+                    students.add(student);
+                } else if (current.owner(student.getStudentId()).equals(entry.getKey())) {
+                    students.set(students.indexOf(seen), student);
+                }
+            }
+        }
+        students.sort(order);
+        logger.debug("Gathered {} students from {} shards", students.size(), results.size());
+        return students;
+    }
+
+    /**
+     * Merges the shards' students in (first name, last name, ID) order. Each shard is read
+     * through keyset pages, the first ones fetched in parallel, so at most one page per
+     * shard is held at a time. A student seen on two shards (mid-move) is passed once,
+     * from its owner.
+     *
+     * @param pageSize rows per shard per round trip
+     * @param sink receives the students in order; returns false to stop
+     */
+    private void merge(int pageSize, Predicate<Student> sink) throws DaoException {
+        Routing current = routing;
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(
+                Comparator.comparing(ShardCursor::head, BY_NAME_THEN_ID));
+        for (Map.Entry<JdbcShard, List<Student>> entry
+                : scatter(shard -> selectOrdered(shard, null, pageSize)).entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                heads.add(new ShardCursor(entry.getKey(), entry.getValue()));
+            }
+        }
+        JdbcShard shard = null;
+        try {
+            while (!heads.isEmpty()) {
+                ShardCursor cursor = heads.poll();
+                Student next = cursor.head();
+                shard = cursor.shard;
+                advance(cursor, heads, pageSize);
+                while (!heads.isEmpty() && heads.peek().head().getStudentId().equals(next.getStudentId())) {
+                    ShardCursor twin = heads.poll();
+                    if (current.owner(next.getStudentId()).equals(twin.shard)) {
+                        next = twin.head();
+                    }
+                    shard = twin.shard;
+                    advance(twin, heads, pageSize);
+                }
+                if (!sink.test(next)) {
+                    return;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error reading ordered students from shard {}", shard.getName(), e);
+            throw new DaoException("Failed to query shard " + shard.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves a cursor past its head, fetching the shard's next page when the current one
+     * is used up, and puts it back into the queue unless the shard is exhausted.
+     */
+    private void advance(ShardCursor cursor, PriorityQueue<ShardCursor> heads, int pageSize) throws SQLException {
+        if (++cursor.position == cursor.page.size()) {
+            if (cursor.page.size() < pageSize) {
+                return;
+            }
+            cursor.page = selectOrdered(cursor.shard, cursor.page.get(cursor.page.size() - 1), pageSize);
+            cursor.position = 0;
+            if (cursor.page.isEmpty()) {
+                return;
+            }
+        }
+        heads.add(cursor);
+    }
+
+    /**
+     * Reads one keyset page of a shard's students in (first name, last name, ID) order.
+     *
+     * @param after the last student of the previous page, or null for the first page
+     */
+    private List<Student> selectOrdered(JdbcShard shard, Student after, int limit) throws SQLException {
+        try (Connection connection = shard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(
+                     after == null ? FIND_ORDERED_FIRST : FIND_ORDERED_AFTER)) {
+            int parameter = 1;
+            if (after != null) {
+                pstmt.setString(parameter++, after.getFirstName());
+                pstmt.setString(parameter++, after.getFirstName());
+                pstmt.setString(parameter++, after.getLastName());
+                pstmt.setString(parameter++, after.getLastName());
+                pstmt.setLong(parameter++, after.getStudentId());
+            }
+            pstmt.setInt(parameter, limit);
+            List<Student> students = new ArrayList<>(Math.min(limit, MERGE_PAGE_SIZE));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(StudentDaoJdbcImpl.mapResultSetToStudent(rs));
+                }
+            }
+            return students;
+        }
+    }
+
+    private <T> Map<JdbcShard, List<T>> scatter(ShardQuery<T> query) throws DaoException {
+        Map<JdbcShard, Future<List<T>>> futures = new LinkedHashMap<>();
+        for (JdbcShard shard : routing.shards.values()) {
+            futures.put(shard, executor.submit(() -> query.run(shard)));
+        }
+        Map<JdbcShard, List<T>> results = new LinkedHashMap<>();
+        for (Map.Entry<JdbcShard, Future<List<T>>> entry : futures.entrySet()) {
+            try {
+                results.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                logger.error("Error querying shard {}", entry.getKey().getName(), cause);
+                throw new DaoException("Failed to query shard " + entry.getKey().getName() + ": "
+                        + cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DaoException("Interrupted while querying shards", e);
+            }
+        }
+        return results;
+    }
+
+    private Optional<Student> selectById(JdbcShard shard, long id) throws SQLException {
+        try (Connection connection = shard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(FIND_BY_ID)) {
+            pstmt.setLong(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Optional.of(StudentDaoJdbcImpl.mapResultSetToStudent(rs)) : Optional.empty();
+            }
+        }
+    }
+
+    private void insertStudent(JdbcShard shard, long id, Student student) throws SQLException {
+        try (Connection connection = shard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(INSERT_STUDENT)) {
+            pstmt.setLong(1, id);
+            bindFields(pstmt, 2, student);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Binds the eleven non-ID columns starting at the given parameter index.
+     */
+    private static void bindFields(PreparedStatement pstmt, int first, Student student) throws SQLException {
+        pstmt.setString(first, student.getFirstName());
+        pstmt.setString(first + 1, student.getLastName());
+        pstmt.setString(first + 2, student.getEmail());
+        pstmt.setString(first + 3, student.getPhoneNumber());
+        pstmt.setDate(first + 4, student.getDateOfBirth() != null ?
+                Date.valueOf(student.getDateOfBirth()) : null);
+        pstmt.setString(first + 5, student.getAddress());
+        pstmt.setString(first + 6, student.getCity());
+        pstmt.setString(first + 7, student.getState());
+        pstmt.setString(first + 8, student.getZipCode());
+        pstmt.setDate(first + 9, student.getEnrollmentDate() != null ?
+                Date.valueOf(student.getEnrollmentDate()) : Date.valueOf(LocalDate.now()));
+        pstmt.setString(first + 10, student.getEnrollmentStatus() != null ?
+                student.getEnrollmentStatus() : "ACTIVE");
+    }
+
+    private void insertEmail(String email, long id) throws SQLException {
+        try (Connection connection = indexShard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(INSERT_EMAIL)) {
+            pstmt.setString(1, normalizeEmail(email));
+            pstmt.setLong(2, id);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private void removeEmailQuietly(String email, long id) {
+        try (Connection connection = indexShard.connect();
+             PreparedStatement pstmt = connection.prepareStatement(DELETE_EMAIL)) {
+            pstmt.setString(1, normalizeEmail(email));
+            pstmt.setLong(2, id);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            // Leaves a stale entry that findByEmail ignores; the email stays reserved
+            logger.warn("Failed to remove email index entry for student {}", id, e);
+        }
+    }
+
+    /**
+     * Hands out the next ID, reserving a new block from the index shard when needed.
+     */
+    private synchronized long reserveId() throws DaoException {
+        if (nextId == idBlockEnd) {
+            try (Connection connection = indexShard.connect()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement advance = connection.prepareStatement(ADVANCE_SEQUENCE);
+                     Statement select = connection.createStatement()) {
+                    advance.setInt(1, ID_BLOCK_SIZE);
+                    advance.executeUpdate();
+                    try (ResultSet rs = select.executeQuery(SELECT_SEQUENCE)) {
+                        if (!rs.next()) {
+                            throw new SQLException("ID sequence missing; call initializeSchema() first");
+                        }
+                        idBlockEnd = rs.getLong(1);
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                logger.error("Error reserving student IDs", e);
+                throw new DaoException("Failed to reserve student IDs: " + e.getMessage(), e);
+            }
+            nextId = idBlockEnd - ID_BLOCK_SIZE;
+        }
+        return nextId++;
+    }
+
+    private void createStudentsTable(JdbcShard shard) throws DaoException {
+        try (Connection connection = shard.connect();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(CREATE_STUDENTS_TABLE);
+        } catch (SQLException e) {
+            throw new DaoException("Failed to initialize shard " + shard.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private ReentrantLock lockFor(long id) {
+        return locks[(int) Math.floorMod(id, (long) LOCK_STRIPES)];
+    }
+
+    /**
+     * Lower-cases index entries written before emails were normalized. Addresses that
+     * already exist in several casings cannot be merged automatically and are left as is.
+     */
+    private static void normalizeIndexedEmails(Statement stmt) throws SQLException {
+        try {
+            int normalized = stmt.executeUpdate(LOWER_CASE_EMAILS);
+            if (normalized > 0) {
+                logger.info("Lower-cased {} email index entries", normalized);
+            }
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            logger.warn("Email index holds addresses that differ only in case; leaving them unnormalized");
+        }
+    }
+
+    /**
+     * Key under which an email is stored in the index: lower-cased, as the other DAOs
+     * compare emails ignoring case.
+     */
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+                || (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+    }
+
+    private static Comparator<Student> by(Function<Student, String> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing shard configuration property: " + key);
+        }
+        return value.trim();
+    }
+
+    /**
+     * A query run against one shard.
+     */
+    private interface ShardQuery<T> {
+        List<T> run(JdbcShard shard) throws SQLException;
+    }
+
+    /**
+     * Position in the current keyset page of one shard.
+     */
+    private static final class ShardCursor {
+        final JdbcShard shard;
+        List<Student> page;
+        int position;
+
+        ShardCursor(JdbcShard shard, List<Student> page) {
+            this.shard = shard;
+            this.page = page;
+        }
+
+        Student head() {
+            return page.get(position);
+        }
+    }
+
+    /**
+     * A student together with the shard it was found on.
+     */
+    private static final class Located {
+        final JdbcShard shard;
+        final Student student;
+
+        Located(JdbcShard shard, Student student) {
+            this.shard = shard;
+            this.student = student;
+        }
+    }
+
+    /**
+     * Immutable routing state, swapped atomically when a rebalance starts or ends.
+     */
+    private static final class Routing {
+        final Map<String, JdbcShard> shards;
+        final ConsistentHashRing ring;
+        final ConsistentHashRing previousRing; // non-null while a rebalance runs
+
+        Routing(Map<String, JdbcShard> shards, ConsistentHashRing ring, ConsistentHashRing previousRing) {
+            this.shards = Collections.unmodifiableMap(shards);
+            this.ring = ring;
+            this.previousRing = previousRing;
+        }
+
+        JdbcShard owner(long id) {
+            return shards.get(ring.nodeFor(id));
+        }
+
+        JdbcShard previousOwner(long id) {
+            return previousRing == null ? null : shards.get(previousRing.nodeFor(id));
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package com.sms.dao;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.sms.model.Student;
+import com.sms.model.StudentStatus;
+import com.sms.util.IdGenerator;
+
+/**
+ * In-memory implementation of StudentDao layered over a memory-mapped {@link StudentSnapshot}.
+ *
+ * Opening the store only maps the snapshot, so cold start does not depend on how many
+ * students it holds; a lookup by ID touches only the pages its binary search visits.
+ * Changes are kept in small copy-on-write overlays (updated, deleted and newly created
+ * students) and never modify the mapped file. Use {@link #saveSnapshot(Path)} to write
+ * the merged state to a new snapshot.
+ *
+ * Paging and iteration walk the snapshot in ID order, merging in the overlays, and
+ * decode only the students they return. Emails are matched ignoring case. Duplicate checks and lookups by email use the
+ * snapshot's email index plus a map of overlay emails, so neither scans the snapshot.
+ *
+ * Like {@link StudentDaoMemoryImpl}, students are copied on the way in and out.
+ * This class is not thread-safe; {@link StudentDaoWalImpl} uses it as its in-memory
+ * state and serializes access.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoSnapshotImpl implements StudentDao {
+
+    private final StudentSnapshot snapshot;
+    // Snapshot students that were updated, keyed by ID
+    private final Map<Long, Student> updated = new HashMap<>();
+    // Snapshot students that were deleted
+    private final Set<Long> deleted = new HashSet<>();
+    // Students created after the snapshot, in ID order
+    private final Map<Long, Student> created = new TreeMap<>();
+    // Normalized email of every overlay (updated or created) student, to its ID
+    private final Map<String, Long> overlayEmails = new HashMap<>();
+    private final IdGenerator idGenerator;
+    private long nextId;
+
+    /**
+     * Maps the snapshot at the given path.
+     *
+     * @param snapshotFile snapshot written by {@link StudentSnapshot#write}
+     * @throws DaoException if the snapshot cannot be opened
+     */
+    public StudentDaoSnapshotImpl(Path snapshotFile) throws DaoException {
+        this(StudentSnapshot.open(snapshotFile), null);
+    }
+
+    /**
+     * Maps the snapshot at the given path and takes new IDs from a generator.
+     *
+     * @param snapshotFile snapshot written by {@link StudentSnapshot#write}
+     * @param idGenerator ID source, or null to continue after the snapshot's highest ID
+     * @throws DaoException if the snapshot cannot be opened
+     */
+    public StudentDaoSnapshotImpl(Path snapshotFile, IdGenerator idGenerator) throws DaoException {
+        this(StudentSnapshot.open(snapshotFile), idGenerator);
+    }
+
+    /**
+     * Layers a store over an already opened snapshot.
+     *
+     * @param snapshot the base snapshot
+     */
+    public StudentDaoSnapshotImpl(StudentSnapshot snapshot) {
+        this(snapshot, null);
+    }
+
+    /**
+     * Layers a store over an already opened snapshot, taking new IDs from a generator.
+     *
+     * @param snapshot the base snapshot
+     * @param idGenerator ID source, or null to continue after the snapshot's highest ID
+     */
+    public StudentDaoSnapshotImpl(StudentSnapshot snapshot, IdGenerator idGenerator) {
+        this.snapshot = snapshot;
+        this.idGenerator = idGenerator;
+        this.nextId = snapshot.maxStudentId() + 1;
+    }
+
+    @Override
+    public Student create(Student student) throws DaoException {
+        if (student == null) {
+            throw InvalidStudentException.NULL_STUDENT;
+        }
+
+        // Check for duplicate email
+        if (emailInUse(student.getEmail(), null)) {
+            throw new DuplicateEmailException("Student with email '" + student.getEmail() + "' already exists", student.getEmail());
+        }
+
+        // Set auto-generated ID
+        if (idGenerator == null) {
+            student.setStudentId(nextId++);
+        } else {
+            long id = idGenerator.nextId();
+            if (created.containsKey(id) || (snapshot.indexOf(id) >= 0 && !deleted.contains(id))) {
+                throw new DaoException("ID generator returned an ID already in use: " + id);
+            }
+            student.setStudentId(id);
+        }
+
+        // Set default enrollment date if not set
+        if (student.getEnrollmentDate() == null) {
+            student.setEnrollmentDate(LocalDate.now());
+        }
+
+        // Set default status if not set
+        if (student.getEnrollmentStatus() == null) {
+            student.setStatus(StudentStatus.ACTIVE);
+        }
+
+        created.put(student.getStudentId(), new Student(student));
+        indexEmail(student);
+        return student;
+    }
+
+    @Override
+    public Optional<Student> findById(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        return findCurrent(id).map(Student::new);
+    }
+
+    @Override
+    public List<Student> findAll() throws DaoException {
+        List<Student> students = new ArrayList<>((int) Math.min(count(), Integer.MAX_VALUE));
+        forEach(students::add);
+        return students;
+    }
+
+    @Override
+    public List<Student> findPage(long offset, int limit) throws DaoException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Student> page = new ArrayList<>(Math.min(limit, 1000));
+        if (limit == 0) {
+            return page;
+        }
+        // Skipped students are only counted, never decoded
+        long[] skipped = {0};
+        walk(new Visitor() {
+            @Override
+            public boolean snapshot(int index) {
+                return take(null, index);
+            }
+
+            @Override
+            public boolean overlay(Student student) {
+                return take(student, -1);
+            }
+
+            private boolean take(Student student, int index) {
+                if (skipped[0] < offset) {
+                    skipped[0]++;
+                    return true;
+                }
+                page.add(student != null ? new Student(student) : snapshot.get(index));
+                return page.size() < limit;
+            }
+        });
+        return page;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Student> action) throws DaoException {
+        walk(new Visitor() {
+            @Override
+            public boolean snapshot(int index) {
+                action.accept(snapshot.get(index));
+                return true;
+            }
+
+            @Override
+            public boolean overlay(Student student) {
+                action.accept(new Student(student));
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public List<Student> findByFirstName(String firstName) throws DaoException {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_FIRST_NAME;
+        }
+        String name = firstName.trim();
+        return collect(StudentSnapshot.FIRST_NAME, name::equalsIgnoreCase);
+    }
+
+    @Override
+    public List<Student> findByLastName(String lastName) throws DaoException {
+        if (lastName == null || lastName.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_LAST_NAME;
+        }
+        String name = lastName.trim();
+        return collect(StudentSnapshot.LAST_NAME, name::equalsIgnoreCase);
+    }
+
+    @Override
+    public Optional<Student> findByEmail(String email) throws DaoException {
+        if (email == null || email.trim().isEmpty()) {
+            throw InvalidStudentException.EMPTY_EMAIL;
+        }
+        String wanted = email.trim();
+        // The lowest matching ID, as a scan in ID order would find first
+        Long match = overlayEmails.get(StudentSnapshot.normalizeEmail(wanted));
+        for (int index : snapshot.indexesOfEmail(wanted)) {
+            long id = snapshot.studentIdAt(index);
+            if (!updated.containsKey(id) && !deleted.contains(id) && (match == null || id < match)) {
+                match = id;
+            }
+        }
+        return match == null ? Optional.empty() : findCurrent(match).map(Student::new);
+    }
+
+    @Override
+    public boolean update(Student student) throws DaoException {
+        if (student == null || student.getStudentId() == null) {
+            throw InvalidStudentException.INVALID_UPDATE;
+        }
+
+        Long id = student.getStudentId();
+        if (id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        Optional<Student> existing = findCurrent(id);
+        if (!existing.isPresent()) {
+            return false;
+        }
+
+        // Check for email conflict (if email is being changed)
+        if (!existing.get().getEmail().equals(student.getEmail()) && emailInUse(student.getEmail(), id)) {
+            throw new DuplicateEmailException("Email '" + student.getEmail() + "' already in use", student.getEmail());
+        }
+
+        Student copy = new Student(student);
+        unindexEmail(existing.get());
+        if (created.containsKey(id)) {
+            created.put(id, copy);
+        } else {
+            updated.put(id, copy);
+        }
+        indexEmail(copy);
+        return true;
+    }
+
+    @Override
+    public boolean delete(Long id) throws DaoException {
+        if (id == null || id <= 0) {
+            throw InvalidStudentException.INVALID_ID;
+        }
+        Student removed = created.remove(id);
+        if (removed != null) {
+            unindexEmail(removed);
+            return true;
+        }
+        if (deleted.contains(id) || snapshot.indexOf(id) < 0) {
+            return false;
+        }
+        removed = updated.remove(id);
+        if (removed != null) {
+            unindexEmail(removed);
+        }
+        deleted.add(id);
+        return true;
+    }
+
+    @Override
+    public long count() throws DaoException {
+        return (long) snapshot.size() - deleted.size() + created.size();
+    }
+
+    /**
+     * Writes the current merged state to a new snapshot file. The file must not be
+     * the one this store is mapped from while the mapping is in use on platforms that
+     * lock mapped files.
+     *
+     * @param file the snapshot file to write
+     * @throws DaoException if writing fails
+     */
+    public void saveSnapshot(Path file) throws DaoException {
+        StudentSnapshot.write(file, findAll());
+    }
+
+    /**
+     * Puts a student back with its existing ID, replacing any current version, as
+     * when replaying a log. Later generated IDs continue after it.
+     *
+     * @param student the student, carrying its ID
+     */
+    void restore(Student student) {
+        long id = student.getStudentId();
+        findCurrent(id).ifPresent(this::unindexEmail);
+        Student copy = new Student(student);
+        if (snapshot.indexOf(id) >= 0) {
+            deleted.remove(id);
+            updated.put(id, copy);
+        } else {
+            created.put(id, copy);
+        }
+        indexEmail(copy);
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    /**
+     * Copies the overlays into a new store over the same snapshot. The snapshot is
+     * immutable and the overlays hold students that are replaced, never modified, so
+     * the copy is as cheap as the overlays are small and can be read by another thread.
+     *
+     * @return an independent store with the same content
+     */
+    StudentDaoSnapshotImpl copy() {
+        StudentDaoSnapshotImpl copy = new StudentDaoSnapshotImpl(snapshot, idGenerator);
+        copy.updated.putAll(updated);
+        copy.deleted.addAll(deleted);
+        copy.created.putAll(created);
+        copy.overlayEmails.putAll(overlayEmails);
+        copy.nextId = nextId;
+        return copy;
+    }
+
+    /**
+     * Takes over the current version of some students from another store, and its
+     * ID sequence if that is further along: for moving the writes made while this
+     * store's snapshot was being written onto it.
+     *
+     * @param source the store the writes went to
+     * @param studentIds the students written since the snapshot's state was taken
+     * @throws DaoException if a student ID is invalid
+     */
+    void catchUp(StudentDaoSnapshotImpl source, Set<Long> studentIds) throws DaoException {
+        for (Long id : studentIds) {
+            Optional<Student> current = source.findCurrent(id);
+            if (current.isPresent()) {
+                restore(current.get());
+            } else {
+                delete(id);
+            }
+        }
+        nextId = Math.max(nextId, source.nextId);
+    }
+
+    /**
+     * Resolves the current version of a student: overlays first, then the snapshot.
+     * The returned instance may be an overlay entry and must not escape uncopied.
+     */
+    private Optional<Student> findCurrent(long id) {
+        Student student = created.get(id);
+        if (student == null) {
+            student = updated.get(id);
+        }
+        if (student != null) {
+            return Optional.of(student);
+        }
+        if (deleted.contains(id)) {
+            return Optional.empty();
+        }
+        return snapshot.findById(id);
+    }
+
+    /**
+     * Whether another current student has the email (ignoring case). Snapshot matches
+     * only count while the student is not shadowed by an overlay or deleted.
+     */
+    private boolean emailInUse(String email, Long excludingId) {
+        if (email == null) {
+            return false;
+        }
+        Long overlayId = overlayEmails.get(StudentSnapshot.normalizeEmail(email));
+        if (overlayId != null && !overlayId.equals(excludingId)) {
+            return true;
+        }
+        for (int index : snapshot.indexesOfEmail(email)) {
+            long id = snapshot.studentIdAt(index);
+            if (!updated.containsKey(id) && !deleted.contains(id) && !Long.valueOf(id).equals(excludingId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void indexEmail(Student student) {
+        if (student.getEmail() != null) {
+            overlayEmails.put(StudentSnapshot.normalizeEmail(student.getEmail()), student.getStudentId());
+        }
+    }
+
+    private void unindexEmail(Student student) {
+        if (student.getEmail() != null) {
+            overlayEmails.remove(StudentSnapshot.normalizeEmail(student.getEmail()), student.getStudentId());
+        }
+    }
+
+    /**
+     * Collects matching students in ID order, filtering snapshot records on a single
+     * decoded field before materializing them.
+     */
+    private List<Student> collect(int field, Predicate<String> matches) {
+        List<Student> result = new ArrayList<>();
+        walk(new Visitor() {
+            @Override
+            public boolean snapshot(int index) {
+                if (matches.test(snapshot.stringAt(index, field))) {
+                    result.add(snapshot.get(index));
+                }
+                return true;
+            }
+
+            @Override
+            public boolean overlay(Student student) {
+                if (matches.test(fieldOf(student, field))) {
+                    result.add(new Student(student));
+                }
+                return true;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Walks the current students in ID order, merging snapshot records with the
+     * overlays, until the visitor asks to stop.
+     */
+    private void walk(Visitor visitor) {
+        Iterator<Student> creations = created.values().iterator();
+        Student nextCreated = creations.hasNext() ? creations.next() : null;
+        int index = 0;
+        while (index < snapshot.size() || nextCreated != null) {
+            long snapshotId = index < snapshot.size() ? snapshot.studentIdAt(index) : Long.MAX_VALUE;
+            boolean more;
+            if (nextCreated != null && nextCreated.getStudentId() < snapshotId) {
+                more = visitor.overlay(nextCreated);
+                nextCreated = creations.hasNext() ? creations.next() : null;
+            } else {
+                Student changed = updated.get(snapshotId);
+                if (changed != null) {
+                    more = visitor.overlay(changed);
+                } else {
+                    more = deleted.contains(snapshotId) || visitor.snapshot(index);
+                }
+                index++;
+            }
+            if (!more) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Receives the current students from {@link #walk}. Snapshot students are passed by
+     * record position so they can be filtered before being decoded; overlay students
+     * are the stored instances and must be copied before they escape.
+     */
+    private interface Visitor {
+        /**
+         * @return false to stop the walk
+         */
+        boolean snapshot(int index);
+
+        /**
+         * @return false to stop the walk
+         */
+        boolean overlay(Student student);
+    }
+
+    private static String fieldOf(Student student, int field) {
+        switch (field) {
+            case StudentSnapshot.FIRST_NAME:
+                return student.getFirstName();
+            case StudentSnapshot.LAST_NAME:
+                return student.getLastName();
+            default:
+                throw new IllegalArgumentException("Unsupported field: " + field);
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.sms.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.util.IdGenerator;
+
+/**
+ * Durable in-memory implementation of StudentDao.
+ *
+ * All reads and writes are served by a {@link StudentDaoSnapshotImpl} over a memory-mapped
+ * {@link StudentSnapshot}; every create, update and delete is additionally appended to a
+ * write-ahead log on local disk. On startup the latest snapshot is mapped and the log is
+ * replayed into the overlays on top of it. Snapshots are named after the LSN they reflect,
+ * log segments after the first LSN they hold. Once the current segment grows past the
+ * compaction threshold, a new segment is started, the state as of the end of the old one
+ * is written to a new snapshot in the background, the store switches over to it, and the
+ * segments and snapshot it supersedes are deleted.
+ *
+ * Durability is governed by group commit: records are fsynced in batches, either when
+ * {@code groupCommitSize} records are pending or every {@code groupCommitIntervalMillis},
+ * whichever comes first. With a group commit size of 1 every write is durable before it
+ * returns; larger sizes keep writes in the microsecond range at the cost of losing at most
+ * the last interval's writes on a crash. If a write or fsync of the log fails, the store
+ * rejects every later write with a DaoException rather than acknowledging unlogged changes.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoWalImpl implements StudentDao, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentDaoWalImpl.class);
+
+    /** Prefix of the log segment files; each is suffixed with the first LSN it holds */
+    static final String LOG_FILE = "students.wal";
+
+    /** Prefix of the snapshot files; each is suffixed with the LSN it reflects */
+    static final String SNAPSHOT_FILE = "students.snapshot";
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile(Pattern.quote(LOG_FILE) + "\\.\\d{20}");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile(Pattern.quote(SNAPSHOT_FILE) + "\\.\\d{20}");
+
+    /** Default number of pending records that forces an fsync */
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+    /** Default upper bound on how long a record may stay unsynced */
+    public static final long DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS = 10;
+
+    /** Default number of records in the current log segment that triggers a compaction */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 100_000;
+
+    // Replaced under the monitor when a compaction switches to its new snapshot
+    private StudentDaoSnapshotImpl store;
+    private final Path directory;
+    private final IdGenerator idGenerator;
+    private final int groupCommitSize;
+    private final int compactThreshold;
+    private final WriteAheadLog.Replayer replayer;
+    // Segment currently appended to; swapped under the monitor when compaction rotates the log
+    private volatile WriteAheadLog wal;
+    // First LSN of the current segment, as encoded in its file name
+    private long segmentFirstLsn;
+    // LSN the current snapshot reflects
+    private long snapshotLsn;
+    // Students written while a compaction writes its snapshot, or null outside one
+    private Set<Long> writtenDuringCompaction;
+    // Serializes compactions; held while the snapshot is written, without the monitor
+    private final Object compactionLock = new Object();
+    private final ScheduledExecutorService background;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+
+    /**
+     * Opens a durable store in the given directory with default settings.
+     *
+     * @param directory directory holding the log and snapshot (created if missing)
+     * @throws DaoException if the store cannot be recovered or opened
+     */
+    public StudentDaoWalImpl(Path directory) throws DaoException {
+        this(directory, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_GROUP_COMMIT_INTERVAL_MILLIS, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Opens a durable store in the given directory.
+     *
+     * @param directory directory holding the log and snapshot (created if missing)
+     * @param groupCommitSize pending records that force an fsync (1 = fsync every write)
+     * @param groupCommitIntervalMillis background fsync period, or 0 to sync only by size
+     * @param compactThreshold log records that trigger a background compaction
+     * @throws DaoException if the store cannot be recovered or opened
+     */
+    public StudentDaoWalImpl(Path directory, int groupCommitSize, long groupCommitIntervalMillis,
+                             int compactThreshold) throws DaoException {
+        this(directory, groupCommitSize, groupCommitIntervalMillis, compactThreshold, null);
+    }
+
+    /**
+     * Opens a durable store in the given directory that takes new IDs from a generator.
+     *
+     * @param directory directory holding the log and snapshot (created if missing)
+     * @param groupCommitSize pending records that force an fsync (1 = fsync every write)
+     * @param groupCommitIntervalMillis background fsync period, or 0 to sync only by size
+     * @param compactThreshold log records that trigger a background compaction
+     * @param idGenerator ID source, or null to continue the built-in 1, 2, 3... sequence
+     * @throws DaoException if the store cannot be recovered or opened
+     */
+    public StudentDaoWalImpl(Path directory, int groupCommitSize, long groupCommitIntervalMillis,
+                             int compactThreshold, IdGenerator idGenerator) throws DaoException {
+        if (groupCommitSize < 1 || groupCommitIntervalMillis < 0 || compactThreshold < 1) {
+            throw new IllegalArgumentException("Invalid write-ahead log settings");
+        }
+        this.directory = directory;
+        this.idGenerator = idGenerator;
+        this.groupCommitSize = groupCommitSize;
+        this.compactThreshold = compactThreshold;
+        this.replayer = new WriteAheadLog.Replayer() {
+            @Override
+            public void upsert(Student student) {
+                store.restore(student);
+            }
+
+            @Override
+            public void delete(long studentId) throws DaoException {
+                store.delete(studentId);
+            }
+        };
+
+        try {
+            Files.createDirectories(directory);
+            long lastLsn = openSnapshot();
+            List<Path> segments = segments(directory);
+            if (segments.isEmpty()) {
+                segments = List.of(directory.resolve(segmentName(lastLsn + 1)));
+            }
+            // Every segment is replayed in LSN order; only the newest stays open for appending
+            WriteAheadLog log = null;
+            for (Path segment : segments) {
+                if (log != null) {
+                    log.close();
+                }
+                log = WriteAheadLog.open(segment, lastLsn, groupCommitSize, replayer);
+                lastLsn = log.lastLsn();
+                this.segmentFirstLsn = firstLsnOf(segment);
+            }
+            this.wal = log;
+        } catch (IOException e) {
+            throw new DaoException("Failed to open durable student store in " + directory + ": " + e.getMessage(), e);
+        }
+
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-wal-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (groupCommitIntervalMillis > 0) {
+            background.scheduleWithFixedDelay(this::syncQuietly,
+                    groupCommitIntervalMillis, groupCommitIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Durable student store opened in {} with {} students", directory, store.count());
+    }
+
+    @Override
+    public synchronized Student create(Student student) throws DaoException {
+        Student created = store.create(student);
+        try {
+            wal.appendUpsert(created);
+        } catch (IOException e) {
+            store.delete(created.getStudentId());
+            throw new DaoException("Failed to log student creation: " + e.getMessage(), e);
+        }
+        written(created.getStudentId());
+        maybeCompact();
+        return created;
+    }
+
+    @Override
+    public synchronized Optional<Student> findById(Long id) throws DaoException {
+        return store.findById(id);
+    }
+
+    @Override
+    public synchronized List<Student> findAll() throws DaoException {
+        return store.findAll();
+    }
+
+    @Override
+    public synchronized List<Student> findPage(long offset, int limit) throws DaoException {
+        return store.findPage(offset, limit);
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<? super Student> action) throws DaoException {
+        store.forEach(action);
+    }
+
+    @Override
+    public synchronized StudentAggregates aggregate(LocalDate asOf) throws DaoException {
+        return store.aggregate(asOf);
+    }
+
+    @Override
+    public synchronized List<Student> findByFirstName(String firstName) throws DaoException {
+        return store.findByFirstName(firstName);
+    }
+
+    @Override
+    public synchronized List<Student> findByLastName(String lastName) throws DaoException {
+        return store.findByLastName(lastName);
+    }
+
+    @Override
+    public synchronized Optional<Student> findByEmail(String email) throws DaoException {
+        return store.findByEmail(email);
+    }
+
+    @Override
+    public synchronized boolean update(Student student) throws DaoException {
+        if (student == null || student.getStudentId() == null) {
+            throw InvalidStudentException.INVALID_UPDATE;
+        }
+        Optional<Student> before = store.findById(student.getStudentId());
+        if (!store.update(student)) {
+            return false;
+        }
+        try {
+            wal.appendUpsert(store.findById(student.getStudentId()).get());
+        } catch (IOException e) {
+            store.restore(before.get());
+            throw new DaoException("Failed to log student update: " + e.getMessage(), e);
+        }
+        written(student.getStudentId());
+        maybeCompact();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(Long id) throws DaoException {
+        Optional<Student> before = store.findById(id);
+        if (!store.delete(id)) {
+            return false;
+        }
+        try {
+            wal.appendDelete(id);
+        } catch (IOException e) {
+            store.restore(before.get());
+            throw new DaoException("Failed to log student deletion: " + e.getMessage(), e);
+        }
+        written(id);
+        maybeCompact();
+        return true;
+    }
+
+    @Override
+    public synchronized long count() throws DaoException {
+        return store.count();
+    }
+
+    /**
+     * Forces every logged write to disk.
+     *
+     * @throws DaoException if the sync fails
+     */
+    public void sync() throws DaoException {
+        try {
+            wal.sync();
+        } catch (IOException e) {
+            throw new DaoException("Failed to sync write-ahead log: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the current state to a new snapshot, switches the store over to it and drops
+     * the log segments and the snapshot it supersedes.
+     *
+     * Only copying the overlays, starting a new log segment and the final switch happen
+     * under the store's monitor, so reads and writes proceed while the snapshot is encoded
+     * and fsynced; writes made meanwhile are carried over to the new store at the switch.
+     * Superseded files are deleted only once the new snapshot and its directory entry are
+     * durable, so a crash at any point leaves a snapshot and every segment after it.
+     *
+     * @throws DaoException if the snapshot cannot be written
+     */
+    public void compact() throws DaoException {
+        synchronized (compactionLock) {
+            long lsn;
+            StudentDaoSnapshotImpl state;
+            WriteAheadLog retired = null;
+            try {
+                synchronized (this) {
+                    wal.sync();
+                    lsn = wal.lastLsn();
+                    if (lsn == snapshotLsn) {
+                        return;
+                    }
+                    state = store.copy();
+                    writtenDuringCompaction = new HashSet<>();
+                    // An empty segment already starts right after the snapshot
+                    if (lsn + 1 != segmentFirstLsn) {
+                        retired = wal;
+                        wal = WriteAheadLog.open(directory.resolve(segmentName(lsn + 1)), lsn,
+                                groupCommitSize, replayer);
+                        segmentFirstLsn = lsn + 1;
+                    }
+                }
+                Path file = directory.resolve(snapshotName(lsn));
+                state.saveSnapshot(file);
+                StudentDaoSnapshotImpl next = new StudentDaoSnapshotImpl(StudentSnapshot.open(file), idGenerator);
+                synchronized (this) {
+                    next.catchUp(store, writtenDuringCompaction);
+                    store = next;
+                    snapshotLsn = lsn;
+                }
+                for (Path segment : segments(directory)) {
+                    if (firstLsnOf(segment) <= lsn) {
+                        Files.deleteIfExists(segment);
+                    }
+                }
+                deleteSnapshotsBefore(lsn);
+                logger.info("Compacted write-ahead log into snapshot of {} students at LSN {}", state.count(), lsn);
+            } catch (IOException e) {
+                throw new DaoException("Failed to compact write-ahead log: " + e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    writtenDuringCompaction = null;
+                }
+                closeQuietly(retired);
+            }
+        }
+    }
+
+    /**
+     * Syncs outstanding writes and stops background work.
+     *
+     * @throws DaoException if the final sync fails
+     */
+    @Override
+    public void close() throws DaoException {
+        background.shutdown();
+        try {
+            background.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            throw new DaoException("Failed to close write-ahead log: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lists the log segments in a directory, oldest first.
+     *
+     * @param directory the store directory
+     * @return segment files ordered by their first LSN
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(StudentDaoWalImpl::firstLsnOf))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Lists the snapshots in a directory, oldest first.
+     *
+     * @param directory the store directory
+     * @return snapshot files ordered by the LSN they reflect
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> snapshots(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(StudentDaoWalImpl::lsnOf))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String segmentName(long firstLsn) {
+        return String.format("%s.%020d", LOG_FILE, firstLsn);
+    }
+
+    private static long firstLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(LOG_FILE.length() + 1));
+    }
+
+    private static String snapshotName(long lsn) {
+        return String.format("%s.%020d", SNAPSHOT_FILE, lsn);
+    }
+
+    private static long lsnOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_FILE.length() + 1));
+    }
+
+    private static void closeQuietly(WriteAheadLog log) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close retired write-ahead log segment", e);
+        }
+    }
+
+    /**
+     * Maps the newest snapshot as the base of the store, writing an empty one first if
+     * there is none yet, and drops leftovers of interrupted compactions.
+     *
+     * @return the LSN the snapshot reflects
+     */
+    private long openSnapshot() throws IOException, DaoException {
+        if (Files.exists(directory.resolve(SNAPSHOT_FILE))) {
+            throw new DaoException("Snapshot " + directory.resolve(SNAPSHOT_FILE)
+                    + " has an unsupported format; restore the store from its source data");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path tmp : files.filter(file -> file.getFileName().toString().startsWith(SNAPSHOT_FILE)
+                    && file.getFileName().toString().endsWith(".tmp")).collect(Collectors.toList())) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        List<Path> snapshots = snapshots(directory);
+        Path file;
+        if (snapshots.isEmpty()) {
+            file = directory.resolve(snapshotName(0));
+            StudentSnapshot.write(file, List.of());
+        } else {
+            file = snapshots.get(snapshots.size() - 1);
+        }
+        store = new StudentDaoSnapshotImpl(StudentSnapshot.open(file), idGenerator);
+        snapshotLsn = lsnOf(file);
+        deleteSnapshotsBefore(snapshotLsn);
+        logger.info("Mapped snapshot of {} students at LSN {}", store.count(), snapshotLsn);
+        return snapshotLsn;
+    }
+
+    /**
+     * Deletes the snapshots older than an LSN. Best effort: a platform that cannot delete
+     * a file that is still mapped keeps it until the next start.
+     */
+    private void deleteSnapshotsBefore(long lsn) throws IOException {
+        for (Path snapshot : snapshots(directory)) {
+            if (lsnOf(snapshot) < lsn) {
+                try {
+                    Files.deleteIfExists(snapshot);
+                } catch (IOException e) {
+                    logger.debug("Could not delete superseded snapshot {} yet: {}", snapshot, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Notes a student written while a compaction is writing its snapshot.
+     */
+    private void written(long studentId) {
+        if (writtenDuringCompaction != null) {
+            writtenDuringCompaction.add(studentId);
+        }
+    }
+
+    private void maybeCompact() {
+        if (wal.recordCount() >= compactThreshold && compactionScheduled.compareAndSet(false, true)) {
+            background.execute(() -> {
+                try {
+                    compact();
+                } catch (DaoException e) {
+                    logger.error("Background compaction failed", e);
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void syncQuietly() {
+        // The first failure was already logged; later syncs would only repeat it
+        if (wal.failure() != null) {
+            return;
+        }
+        try {
+            wal.sync();
+        } catch (IOException e) {
+            logger.error("Group commit failed", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.sms.dao;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.sms.model.Student;
+
+/**
+ * Compact binary encoding of a Student for the write-ahead log.
+ * Strings are written as modified UTF-8 and dates as epoch days, each preceded by
+ * a presence flag so null fields round-trip unchanged.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+final class StudentRecordCodec {
+    
+    private StudentRecordCodec() {
+    }
+    
+    /**
+     * Writes a student, including its ID.
+     * 
+     * @param out the output to write to
+     * @param student the student to encode
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutput out, Student student) throws IOException {
+        out.writeLong(student.getStudentId());
+        writeString(out, student.getFirstName());
+        writeString(out, student.getLastName());
+        writeString(out, student.getEmail());
+        writeString(out, student.getPhoneNumber());
+        writeDate(out, student.getDateOfBirthEpochDay());
+        writeString(out, student.getAddress());
+        writeString(out, student.getCity());
+        writeString(out, student.getState());
+        writeString(out, student.getZipCode());
+        writeDate(out, student.getEnrollmentEpochDay());
+        writeString(out, student.getEnrollmentStatus());
+    }
+    
+    /**
+     * Reads a student written by {@link #write(DataOutput, Student)}.
+     * 
+     * @param in the input to read from
+     * @return the decoded student
+     * @throws IOException if reading fails
+     */
+    static Student read(DataInput in) throws IOException {
+        Student student = new Student();
+        student.setStudentId(in.readLong());
+        student.setFirstName(readString(in));
+        student.setLastName(readString(in));
+        student.setEmail(readString(in));
+        student.setPhoneNumber(readString(in));
+        student.setDateOfBirthEpochDay(readDate(in));
+        student.setAddress(readString(in));
+        student.setCity(readString(in));
+        student.setState(readString(in));
+        student.setZipCode(readString(in));
+        student.setEnrollmentEpochDay(readDate(in));
+        student.setEnrollmentStatus(readString(in));
+        return student;
+    }
+    
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+    
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+    
+    private static void writeDate(DataOutput out, int epochDay) throws IOException {
+        out.writeBoolean(epochDay != Student.NO_DATE);
+        if (epochDay != Student.NO_DATE) {
+            out.writeLong(epochDay);
+        }
+    }
+    
+    private static int readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? Math.toIntExact(in.readLong()) : Student.NO_DATE;
+    }
+}
@@ -0,0 +1,470 @@
+package com.sms.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import com.sms.model.Student;
+
+/**
+ * Read-only, memory-mapped binary snapshot of a set of students.
+ *
+ * File layout (little-endian):
+ * <pre>
+ * header   64 bytes  magic, version, record count, string count, max student ID,
+ *                    section offsets, file length, header CRC32
+ * strings  int[stringCount + 1] offsets, then the UTF-8 bytes of every distinct string
+ * records  recordCount fixed-width records sorted by student ID:
+ *          long id, 9 x int string index (-1 = null), 2 x int epoch day (MIN_VALUE = null)
+ * emails   int[recordCount] record positions sorted by lower-cased email (nulls last)
+ * </pre>
+ *
+ * Because records are fixed width, record {@code i} lives at
+ * {@code recordsOffset + i * RECORD_SIZE} and a lookup by ID is a binary search; a lookup
+ * by email is a binary search over the email index. Opening
+ * a snapshot maps the file and validates the header only, so it costs the same for ten
+ * students as for ten million; records and strings are decoded (and their pages faulted
+ * in) only when they are read. Repeated values such as cities, states and statuses are
+ * stored once in the string table; a small fixed-size cache keeps recently decoded strings,
+ * so the heap held by an open snapshot does not grow with the size of that table.
+ *
+ * Snapshots are written to a temporary file, fsynced and atomically renamed into place,
+ * and the directory is synced so the rename survives a crash.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class StudentSnapshot {
+
+    private static final int MAGIC = 0x4D534D53; // "SMSM" little-endian
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_CRC_OFFSET = 56;
+
+    // String fields, in record order
+    static final int FIRST_NAME = 0;
+    static final int LAST_NAME = 1;
+    static final int EMAIL = 2;
+    static final int PHONE_NUMBER = 3;
+    static final int ADDRESS = 4;
+    static final int CITY = 5;
+    static final int STATE = 6;
+    static final int ZIP_CODE = 7;
+    static final int ENROLLMENT_STATUS = 8;
+    private static final int STRING_FIELDS = 9;
+
+    private static final int NULL_STRING = -1;
+    private static final int NULL_DATE = Student.NO_DATE;
+    private static final int DATE_OFFSET = 8 + STRING_FIELDS * 4;
+    static final int RECORD_SIZE = DATE_OFFSET + 2 * 4;
+
+    // Upper bound on cached decoded strings (a power of two)
+    private static final int STRING_CACHE_SIZE = 4096;
+
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final long maxStudentId;
+    private final int stringOffsets;
+    private final int stringData;
+    private final int records;
+    private final int emailIndex;
+    // Direct-mapped by string index; entries are immutable, so a racy fill is harmless
+    private final CachedString[] stringCache;
+
+    private StudentSnapshot(ByteBuffer buffer, int recordCount, int stringCount, long maxStudentId,
+                            int stringOffsets, int stringData, int records) {
+        this.buffer = buffer;
+        this.recordCount = recordCount;
+        this.maxStudentId = maxStudentId;
+        this.stringOffsets = stringOffsets;
+        this.stringData = stringData;
+        this.records = records;
+        this.emailIndex = records + recordCount * RECORD_SIZE;
+        this.stringCache = new CachedString[stringCount <= 1 ? 1
+                : Math.min(STRING_CACHE_SIZE, Integer.highestOneBit(stringCount - 1) << 1)];
+    }
+
+    /**
+     * A decoded string and its index in the string table.
+     */
+    private static final class CachedString {
+        final int index;
+        final String value;
+
+        CachedString(int index, String value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given students, replacing any existing file atomically
+     * and durably.
+     *
+     * @param file the snapshot file
+     * @param students the students to write (each must carry a unique ID)
+     * @throws DaoException if a student has no or a duplicate ID, or writing fails
+     */
+    public static void write(Path file, Collection<Student> students) throws DaoException {
+        List<Student> sorted = new ArrayList<>(students);
+        sorted.sort(Comparator.comparing(Student::getStudentId,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        Map<String, Integer> indexes = new HashMap<>();
+        List<byte[]> encoded = new ArrayList<>();
+        ByteBuffer recordBytes = ByteBuffer.allocate(sorted.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long previousId = 0;
+        for (Student student : sorted) {
+            Long id = student.getStudentId();
+            if (id == null || id <= previousId) {
+                throw new DaoException(id == null
+                        ? "Cannot snapshot a student without an ID"
+                        : "Duplicate student ID in snapshot: " + id);
+            }
+            previousId = id;
+            recordBytes.putLong(id);
+            for (String value : stringFields(student)) {
+                if (value == null) {
+                    recordBytes.putInt(NULL_STRING);
+                } else {
+                    recordBytes.putInt(indexes.computeIfAbsent(value, v -> {
+                        encoded.add(v.getBytes(StandardCharsets.UTF_8));
+                        return encoded.size() - 1;
+                    }));
+                }
+            }
+            recordBytes.putInt(student.getDateOfBirthEpochDay());
+            recordBytes.putInt(student.getEnrollmentEpochDay());
+        }
+
+        String[] emails = new String[sorted.size()];
+        Integer[] byEmail = new Integer[sorted.size()];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = normalizeEmail(sorted.get(i).getEmail());
+            byEmail[i] = i;
+        }
+        // Stable, so students sharing an email stay in ID order
+        Arrays.sort(byEmail, Comparator.comparing((Integer i) -> emails[i],
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        long stringBytes = 0;
+        for (byte[] bytes : encoded) {
+            stringBytes += bytes.length;
+        }
+        long stringOffsets = HEADER_SIZE;
+        long stringData = stringOffsets + 4L * (encoded.size() + 1);
+        long records = align8(stringData + stringBytes);
+        long emailIndex = records + (long) sorted.size() * RECORD_SIZE;
+        long length = emailIndex + 4L * sorted.size();
+        if (length > Integer.MAX_VALUE) {
+            throw new DaoException("Snapshot of " + sorted.size() + " students exceeds 2 GB");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(sorted.size())
+                .putInt(encoded.size())
+                .putLong(previousId)
+                .putLong(stringOffsets)
+                .putLong(stringData)
+                .putLong(records)
+                .putLong(length);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, HEADER_CRC_OFFSET);
+        out.putInt((int) crc.getValue());
+
+        out.position((int) stringOffsets);
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            out.putInt(offset);
+            offset += bytes.length;
+        }
+        out.putInt(offset);
+        for (byte[] bytes : encoded) {
+            out.put(bytes);
+        }
+        out.position((int) records);
+        out.put(recordBytes.array());
+        for (Integer position : byEmail) {
+            out.putInt(position);
+        }
+        out.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            WriteAheadLog.forceDirectory(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new DaoException("Failed to write student snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of every student currently held by a DAO.
+     *
+     * @param dao the source DAO (any implementation)
+     * @param file the snapshot file
+     * @throws DaoException if reading the DAO or writing the snapshot fails
+     */
+    public static void export(StudentDao dao, Path file) throws DaoException {
+        write(file, dao.findAll());
+    }
+
+    /**
+     * Maps a snapshot file. Only the header is read and validated.
+     *
+     * @param file the snapshot file
+     * @return the mapped snapshot
+     * @throws DaoException if the file cannot be mapped or is not a valid snapshot
+     */
+    public static StudentSnapshot open(Path file) throws DaoException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new DaoException("Not a student snapshot (size " + size + "): " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new DaoException("Failed to map student snapshot " + file + ": " + e.getMessage(), e);
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        byte[] header = new byte[HEADER_CRC_OFFSET];
+        buffer.get(0, header);
+        CRC32 crc = new CRC32();
+        crc.update(header);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(HEADER_CRC_OFFSET) != (int) crc.getValue()) {
+            throw new DaoException("Unrecognized or corrupt student snapshot header: " + file);
+        }
+        int recordCount = buffer.getInt(8);
+        int stringCount = buffer.getInt(12);
+        long maxStudentId = buffer.getLong(16);
+        long stringOffsets = buffer.getLong(24);
+        long stringData = buffer.getLong(32);
+        long records = buffer.getLong(40);
+        long length = buffer.getLong(48);
+        if (length != buffer.capacity() || recordCount < 0 || stringCount < 0
+                || stringOffsets != HEADER_SIZE
+                || stringData != stringOffsets + 4L * (stringCount + 1) || stringData > length
+                || records < stringData + buffer.getInt((int) stringOffsets + 4 * stringCount)
+                || records + (long) recordCount * (RECORD_SIZE + 4) != length) {
+            throw new DaoException("Truncated or inconsistent student snapshot: " + file);
+        }
+        return new StudentSnapshot(buffer, recordCount, stringCount, maxStudentId,
+                (int) stringOffsets, (int) stringData, (int) records);
+    }
+
+    /**
+     * @return number of students in the snapshot
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * @return the highest student ID in the snapshot, or 0 if it is empty
+     */
+    public long maxStudentId() {
+        return maxStudentId;
+    }
+
+    /**
+     * Decodes the student at a position (students are ordered by ID).
+     *
+     * @param index position between 0 and {@link #size()} - 1
+     * @return a new Student instance
+     */
+    public Student get(int index) {
+        int base = recordOffset(index);
+        Student student = new Student();
+        student.setStudentId(buffer.getLong(base));
+        student.setFirstName(string(base, FIRST_NAME));
+        student.setLastName(string(base, LAST_NAME));
+        student.setEmail(string(base, EMAIL));
+        student.setPhoneNumber(string(base, PHONE_NUMBER));
+        student.setAddress(string(base, ADDRESS));
+        student.setCity(string(base, CITY));
+        student.setState(string(base, STATE));
+        student.setZipCode(string(base, ZIP_CODE));
+        student.setEnrollmentStatus(string(base, ENROLLMENT_STATUS));
+        student.setDateOfBirthEpochDay(epochDay(base, 0));
+        student.setEnrollmentEpochDay(epochDay(base, 1));
+        return student;
+    }
+
+    /**
+     * Finds a student by ID with a binary search over the record section.
+     *
+     * @param studentId the student ID
+     * @return the decoded student if present
+     */
+    public Optional<Student> findById(long studentId) {
+        int index = indexOf(studentId);
+        return index >= 0 ? Optional.of(get(index)) : Optional.empty();
+    }
+
+    /**
+     * Decodes every student, in ID order.
+     *
+     * @return a new list of students
+     */
+    public List<Student> toList() {
+        List<Student> students = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            students.add(get(i));
+        }
+        return students;
+    }
+
+    /**
+     * Finds the students with an email, ignoring case, by binary search over the email index.
+     *
+     * @param email the email to look for
+     * @return the record positions of the matching students, in ID order
+     */
+    int[] indexesOfEmail(String email) {
+        String wanted = normalizeEmail(email);
+        if (wanted == null) {
+            return new int[0];
+        }
+        int low = 0;
+        int high = recordCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            String candidate = normalizeEmail(string(recordOffset(emailIndexAt(mid)), EMAIL));
+            if (candidate != null && candidate.compareTo(wanted) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < recordCount && wanted.equals(normalizeEmail(string(recordOffset(emailIndexAt(end)), EMAIL)))) {
+            end++;
+        }
+        int[] matches = new int[end - low];
+        for (int i = low; i < end; i++) {
+            matches[i - low] = emailIndexAt(i);
+        }
+        return matches;
+    }
+
+    /**
+     * Key under which emails are indexed and compared.
+     *
+     * @param email an email, or null
+     * @return the lower-cased email, or null
+     */
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the position of a student ID, or -1 if it is not in the snapshot
+     */
+    int indexOf(long studentId) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = studentIdAt(mid);
+            if (id < studentId) {
+                low = mid + 1;
+            } else if (id > studentId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    long studentIdAt(int index) {
+        return buffer.getLong(recordOffset(index));
+    }
+
+    /**
+     * Decodes a single string field without materializing the whole student.
+     *
+     * @param index record position
+     * @param field one of the string field constants
+     */
+    String stringAt(int index, int field) {
+        return string(recordOffset(index), field);
+    }
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Snapshot index " + index + " out of range 0.." + (recordCount - 1));
+        }
+        return records + index * RECORD_SIZE;
+    }
+
+    private String string(int recordOffset, int field) {
+        int index = buffer.getInt(recordOffset + 8 + field * 4);
+        if (index == NULL_STRING) {
+            return null;
+        }
+        int slot = index & (stringCache.length - 1);
+        CachedString cached = stringCache[slot];
+        if (cached != null && cached.index == index) {
+            return cached.value;
+        }
+        int start = buffer.getInt(stringOffsets + index * 4);
+        int end = buffer.getInt(stringOffsets + index * 4 + 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringData + start, bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        stringCache[slot] = new CachedString(index, value);
+        return value;
+    }
+
+    private int emailIndexAt(int slot) {
+        return buffer.getInt(emailIndex + slot * 4);
+    }
+
+    private int epochDay(int recordOffset, int slot) {
+        return buffer.getInt(recordOffset + DATE_OFFSET + slot * 4);
+    }
+
+    private static String[] stringFields(Student student) {
+        return new String[] {
+                student.getFirstName(), student.getLastName(), student.getEmail(),
+                student.getPhoneNumber(), student.getAddress(), student.getCity(),
+                student.getState(), student.getZipCode(), student.getEnrollmentStatus()
+        };
+    }
+
+    private static long align8(long value) {
+        return (value + 7) & ~7L;
+    }
+}
@@ -0,0 +1,357 @@
+package com.sms.dao;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sms.model.Student;
+
+/**
+ * One append-only segment of the write-ahead log of student mutations.
+ *
+ * Each record is framed as {@code [int length][long lsn][byte op][payload][int crc32]},
+ * where the CRC covers lsn, op and payload. Appends only copy the encoded record into an
+ * in-memory batch; {@link #sync()} writes the whole batch with one write and one fsync
+ * (group commit). The log is synced inline once {@code groupCommitSize} records are
+ * pending, so a size of 1 means every append is durable before it returns.
+ *
+ * On open the log is replayed up to the last intact record; a torn or corrupt tail left
+ * by a crash mid-write is truncated away.
+ *
+ * A failed write or fsync is sticky: the batch stays pending and every later append or
+ * sync rethrows the failure, so the store fails closed instead of acknowledging writes
+ * the log no longer holds.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final byte OP_UPSERT = 1;
+    static final byte OP_DELETE = 2;
+
+    private static final int MAX_PAYLOAD = 1 << 20;
+
+    /**
+     * Receives the records of a log while it is replayed.
+     */
+    interface Replayer {
+        void upsert(Student student) throws DaoException;
+
+        void delete(long studentId) throws DaoException;
+    }
+
+    /**
+     * Opens the channel the log appends to.
+     */
+    interface ChannelOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final int groupCommitSize;
+
+    // Guards the pending batch and LSN assignment
+    private final Object appendLock = new Object();
+    // Serializes batch writes so the file stays in LSN order
+    private final Object syncLock = new Object();
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(8192);
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final DataOutputStream scratchData = new DataOutputStream(scratch);
+    private final CRC32 crc = new CRC32();
+    private int pendingRecords;
+    private long nextLsn;
+    private long recordCount;
+    // First write or fsync failure; once set the log refuses further work
+    private volatile IOException failure;
+
+    private WriteAheadLog(FileChannel channel, int groupCommitSize, long nextLsn, long recordCount) {
+        this.channel = channel;
+        this.groupCommitSize = groupCommitSize;
+        this.nextLsn = nextLsn;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Opens (or creates) a log, replaying every intact record with an LSN above
+     * {@code afterLsn} and truncating any torn tail.
+     *
+     * @param file the log file
+     * @param afterLsn records up to and including this LSN are already reflected (snapshot)
+     * @param groupCommitSize number of pending records that forces an inline sync
+     * @param replayer receives the replayed records in order
+     * @return the log, positioned for appending
+     * @throws IOException if the log cannot be read or opened
+     * @throws DaoException if the replayer rejects a record
+     */
+    static WriteAheadLog open(Path file, long afterLsn, int groupCommitSize, Replayer replayer)
+            throws IOException, DaoException {
+        return open(file, afterLsn, groupCommitSize, replayer,
+                f -> FileChannel.open(f, StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Opens a log like {@link #open(Path, long, int, Replayer)}, appending through a
+     * channel from the given opener.
+     */
+    static WriteAheadLog open(Path file, long afterLsn, int groupCommitSize, Replayer replayer,
+                              ChannelOpener opener) throws IOException, DaoException {
+        long validEnd = 0;
+        long lastLsn = afterLsn;
+        long records = 0;
+
+        if (Files.exists(file)) {
+            try (InputStream raw = Files.newInputStream(file);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+                CRC32 check = new CRC32();
+                while (true) {
+                    int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (length < 0 || length > MAX_PAYLOAD) {
+                        logger.warn("Corrupt write-ahead log record length {} at offset {}; truncating", length, validEnd);
+                        break;
+                    }
+                    byte[] body = new byte[8 + 1 + length];
+                    int stored;
+                    try {
+                        in.readFully(body);
+                        stored = in.readInt();
+                    } catch (EOFException e) {
+                        logger.warn("Torn write-ahead log record at offset {}; truncating", validEnd);
+                        break;
+                    }
+                    check.reset();
+                    check.update(body);
+                    if ((int) check.getValue() != stored) {
+                        logger.warn("Write-ahead log checksum mismatch at offset {}; truncating", validEnd);
+                        break;
+                    }
+
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                    long lsn = record.readLong();
+                    byte op = record.readByte();
+                    if (lsn > afterLsn) {
+                        if (op == OP_UPSERT) {
+                            replayer.upsert(StudentRecordCodec.read(record));
+                        } else if (op == OP_DELETE) {
+                            replayer.delete(record.readLong());
+                        } else {
+                            throw new IOException("Unknown write-ahead log operation " + op + " at LSN " + lsn);
+                        }
+                    }
+                    lastLsn = Math.max(lastLsn, lsn);
+                    validEnd += 4 + body.length + 4;
+                    records++;
+                }
+            }
+        }
+
+        boolean created = !Files.exists(file);
+        FileChannel channel = opener.open(file);
+        if (created) {
+            // A new log is only durable once its directory entry is
+            forceDirectory(file.toAbsolutePath().getParent());
+        }
+        if (channel.size() > validEnd) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        logger.info("Write-ahead log {} opened: {} records, last LSN {}", file, records, lastLsn);
+        return new WriteAheadLog(channel, groupCommitSize, lastLsn + 1, records);
+    }
+
+    /**
+     * Logs the full state of a created or updated student.
+     *
+     * @param student the student after the mutation
+     * @return the LSN of the record
+     * @throws IOException if an inline sync fails or the log has already failed
+     */
+    long appendUpsert(Student student) throws IOException {
+        long lsn;
+        boolean syncNow;
+        synchronized (appendLock) {
+            checkHealthy();
+            lsn = nextLsn++;
+            scratch.reset();
+            StudentRecordCodec.write(scratchData, student);
+            syncNow = frame(lsn, OP_UPSERT);
+        }
+        if (syncNow) {
+            sync();
+        }
+        return lsn;
+    }
+
+    /**
+     * Logs the deletion of a student.
+     *
+     * @param studentId the deleted student's ID
+     * @return the LSN of the record
+     * @throws IOException if an inline sync fails or the log has already failed
+     */
+    long appendDelete(long studentId) throws IOException {
+        long lsn;
+        boolean syncNow;
+        synchronized (appendLock) {
+            checkHealthy();
+            lsn = nextLsn++;
+            scratch.reset();
+            scratchData.writeLong(studentId);
+            syncNow = frame(lsn, OP_DELETE);
+        }
+        if (syncNow) {
+            sync();
+        }
+        return lsn;
+    }
+
+    /**
+     * Frames the payload in {@code scratch} onto the pending batch. Caller holds appendLock.
+     *
+     * @return true if the batch reached the group commit size
+     */
+    private boolean frame(long lsn, byte op) throws IOException {
+        byte[] payload = scratch.toByteArray();
+        ByteBuffer header = ByteBuffer.allocate(4 + 8 + 1);
+        header.putInt(payload.length).putLong(lsn).put(op);
+
+        crc.reset();
+        crc.update(header.array(), 4, 9);
+        crc.update(payload);
+
+        pending.write(header.array());
+        pending.write(payload);
+        int checksum = (int) crc.getValue();
+        pending.write(checksum >>> 24);
+        pending.write(checksum >>> 16);
+        pending.write(checksum >>> 8);
+        pending.write(checksum);
+
+        pendingRecords++;
+        recordCount++;
+        return pendingRecords >= groupCommitSize;
+    }
+
+    /**
+     * Writes and fsyncs every pending record as one batch. If either step fails the batch
+     * is put back in front of any newer records and the log is marked failed.
+     *
+     * @throws IOException if writing or syncing fails, now or in an earlier sync
+     */
+    void sync() throws IOException {
+        synchronized (syncLock) {
+            byte[] batch;
+            int batchRecords;
+            synchronized (appendLock) {
+                checkHealthy();
+                if (pendingRecords == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                batchRecords = pendingRecords;
+                pending.reset();
+                pendingRecords = 0;
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (appendLock) {
+                    byte[] newer = pending.toByteArray();
+                    pending.reset();
+                    pending.write(batch, 0, batch.length);
+                    pending.write(newer, 0, newer.length);
+                    pendingRecords += batchRecords;
+                    failure = e;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the write or fsync failure that stopped this log, or null if it is healthy
+     */
+    IOException failure() {
+        return failure;
+    }
+
+    private void checkHealthy() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Write-ahead log failed earlier and no longer accepts writes: "
+                    + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Fsyncs a directory so that files created, renamed or deleted in it survive a power
+     * loss. Windows cannot open directories as channels and needs no explicit sync.
+     *
+     * @param directory the directory to sync
+     * @throws IOException if the sync fails
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return the LSN of the most recently appended record
+     */
+    long lastLsn() {
+        synchronized (appendLock) {
+            return nextLsn - 1;
+        }
+    }
+
+    /**
+     * @return number of records in the log since it was last reset
+     */
+    long recordCount() {
+        synchronized (appendLock) {
+            return recordCount;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sms.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.sms.model.ChangeType;
+import com.sms.model.StudentChangeEvent;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * StudentChangeEventDTO - One published student change as sent to stream consumers.
+ * The before/after images are embedded as JSON objects exactly as stored in the outbox.
+ */
+public class StudentChangeEventDTO implements Serializable {
+
+    private long sequence;
+    private ChangeType type;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long studentId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    private LocalDateTime occurredAt;
+
+    @JsonRawValue
+    private String before;
+
+    @JsonRawValue
+    private String after;
+
+    // Constructors
+    public StudentChangeEventDTO() {
+    }
+
+    public StudentChangeEventDTO(long sequence, ChangeType type, Long studentId, LocalDateTime occurredAt,
+                                 String before, String after) {
+        this.sequence = sequence;
+        this.type = type;
+        this.studentId = studentId;
+        this.occurredAt = occurredAt;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static StudentChangeEventDTO of(StudentChangeEvent event) {
+        return new StudentChangeEventDTO(event.getSequence(), event.getType(), event.getStudentId(),
+                event.getOccurredAt(), event.getBeforeImage(), event.getAfterImage());
+    }
+
+    // Getters and Setters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getBefore() {
+        return before;
+    }
+
+    public void setBefore(String before) {
+        this.before = before;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+}
@@ -8,10 +8,13 @@ import java.time.LocalDateTime;
 
 /**
  * StudentDTO - Data Transfer Object for API communication.
+ * The 64-bit ID is written as a JSON string, since JavaScript numbers lose precision
+ * above 2^53; numbers and strings are both accepted on input.
  */
 public class StudentDTO implements Serializable {
     
-    private Integer id;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
     
     @NotBlank(message = "Name is required")
     @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
@@ -50,11 +53,11 @@ public class StudentDTO implements Serializable {
     }
     
     // Getters and Setters
-    public Integer getId() {
+    public Long getId() {
         return id;
     }
     
-    public void setId(Integer id) {
+    public void setId(Long id) {
         this.id = id;
     }
     
@@ -0,0 +1,99 @@
+package com.sms.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * StudentDeltaDTO - One batch of a delta sync: students to upsert, tombstones for
+ * deleted students, and the watermark to send with the next request.
+ */
+public class StudentDeltaDTO implements Serializable {
+
+    private List<StudentDTO> upserts;
+    private List<Tombstone> deletes;
+    private String watermark;
+    private boolean hasMore;
+
+    // Constructors
+    public StudentDeltaDTO() {
+    }
+
+    public StudentDeltaDTO(List<StudentDTO> upserts, List<Tombstone> deletes, String watermark, boolean hasMore) {
+        this.upserts = upserts;
+        this.deletes = deletes;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<StudentDTO> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<StudentDTO> upserts) {
+        this.upserts = upserts;
+    }
+
+    public List<Tombstone> getDeletes() {
+        return deletes;
+    }
+
+    public void setDeletes(List<Tombstone> deletes) {
+        this.deletes = deletes;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * A deleted student
+     */
+    public static class Tombstone implements Serializable {
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private Long id;
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime deletedAt;
+
+        public Tombstone() {
+        }
+
+        public Tombstone(Long id, LocalDateTime deletedAt) {
+            this.id = id;
+            this.deletedAt = deletedAt;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public LocalDateTime getDeletedAt() {
+            return deletedAt;
+        }
+
+        public void setDeletedAt(LocalDateTime deletedAt) {
+            this.deletedAt = deletedAt;
+        }
+    }
+}
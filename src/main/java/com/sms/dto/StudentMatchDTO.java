@@ -0,0 +1,49 @@
+package com.sms.dto;
+
+import java.io.Serializable;
+
+/**
+ * StudentMatchDTO - A fuzzy name search hit: the student, the edit distance of its
+ * closest name word and whether that word sounds like the query.
+ */
+public class StudentMatchDTO implements Serializable {
+
+    private StudentDTO student;
+    private int distance;
+    private boolean phonetic;
+
+    // Constructors
+    public StudentMatchDTO() {
+    }
+
+    public StudentMatchDTO(StudentDTO student, int distance, boolean phonetic) {
+        this.student = student;
+        this.distance = distance;
+        this.phonetic = phonetic;
+    }
+
+    // Getters and Setters
+    public StudentDTO getStudent() {
+        return student;
+    }
+
+    public void setStudent(StudentDTO student) {
+        this.student = student;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public void setDistance(int distance) {
+        this.distance = distance;
+    }
+
+    public boolean isPhonetic() {
+        return phonetic;
+    }
+
+    public void setPhonetic(boolean phonetic) {
+        this.phonetic = phonetic;
+    }
+}
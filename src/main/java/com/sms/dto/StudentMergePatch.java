@@ -0,0 +1,100 @@
+package com.sms.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.exception.FieldValidationException;
+import com.sms.model.StudentStatus;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StudentMergePatch - A validated JSON Merge Patch (RFC 7396) for a student.
+ * 
+ * Only the members present in the patch document are converted and validated,
+ * each against the constraints declared on the matching {@link StudentDTO} property.
+ * All patchable student fields are mandatory, so a {@code null} member (which in
+ * merge-patch terms removes the field) is rejected.
+ */
+public final class StudentMergePatch {
+    
+    /** Media type of a JSON Merge Patch document */
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+    
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = new LinkedHashMap<>();
+    
+    static {
+        PATCHABLE_FIELDS.put("name", String.class);
+        PATCHABLE_FIELDS.put("email", String.class);
+        PATCHABLE_FIELDS.put("phone", String.class);
+        PATCHABLE_FIELDS.put("gpa", Double.class);
+        PATCHABLE_FIELDS.put("status", StudentStatus.class);
+    }
+    
+    private final Map<String, Object> changes;
+    
+    private StudentMergePatch(Map<String, Object> changes) {
+        this.changes = Collections.unmodifiableMap(changes);
+    }
+    
+    /**
+     * Convert and validate a merge-patch document.
+     * 
+     * @param patch the parsed patch document
+     * @param mapper mapper used to convert member values to their field types
+     * @param validator bean validator holding the StudentDTO constraints
+     * @return the validated patch
+     * @throws FieldValidationException if any supplied member is unknown, null or invalid
+     */
+    public static StudentMergePatch from(JsonNode patch, ObjectMapper mapper, Validator validator) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (patch == null || !patch.isObject()) {
+            errors.put("patch", "Merge patch must be a JSON object");
+            throw new FieldValidationException("Validation failed", errors);
+        }
+        
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            String field = member.getKey();
+            Class<?> type = PATCHABLE_FIELDS.get(field);
+            if (type == null) {
+                errors.put(field, "Field cannot be patched");
+                continue;
+            }
+            if (member.getValue().isNull()) {
+                errors.put(field, "Field is required and cannot be removed");
+                continue;
+            }
+            
+            Object value;
+            try {
+                value = mapper.convertValue(member.getValue(), type);
+            } catch (IllegalArgumentException e) {
+                errors.put(field, "Invalid value for " + type.getSimpleName());
+                continue;
+            }
+            for (ConstraintViolation<StudentDTO> violation : validator.validateValue(StudentDTO.class, field, value)) {
+                errors.putIfAbsent(field, violation.getMessage());
+            }
+            changes.put(field, value);
+        }
+        
+        if (!errors.isEmpty()) {
+            throw new FieldValidationException("Validation failed", errors);
+        }
+        return new StudentMergePatch(changes);
+    }
+    
+    /**
+     * @return field name to new value, for the members present in the patch
+     */
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+}
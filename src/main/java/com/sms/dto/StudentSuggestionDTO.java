@@ -0,0 +1,39 @@
+package com.sms.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+/**
+ * StudentSuggestionDTO - One type-ahead suggestion: just enough to label a student in
+ * a drop-down and fetch it by ID once picked. Instances are cached by the suggest index
+ * and shared between responses, so they are immutable.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class StudentSuggestionDTO implements Serializable {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final long id;
+    private final String name;
+    private final String email;
+
+    public StudentSuggestionDTO(long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sms.exception;
+
+import com.sms.util.ValidationReport;
+
+/**
+ * BatchValidationException - Custom exception carrying the per-record field errors
+ * of a rejected batch. Raised once per batch, never per record, and stackless.
+ */
+public class BatchValidationException extends RuntimeException {
+    
+    private final ValidationReport report;
+    
+    public BatchValidationException(String message, ValidationReport report) {
+        super(message, null, false, false);
+        this.report = report;
+    }
+    
+    public ValidationReport getReport() {
+        return report;
+    }
+}
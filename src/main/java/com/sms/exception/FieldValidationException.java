@@ -0,0 +1,23 @@
+package com.sms.exception;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * FieldValidationException - Custom exception carrying per-field validation errors
+ * for input that is validated outside of {@code @Valid} request bodies.
+ * Carries no stack trace; the field errors are the whole story.
+ */
+public class FieldValidationException extends RuntimeException {
+    
+    private final Map<String, String> fieldErrors;
+    
+    public FieldValidationException(String message, Map<String, String> fieldErrors) {
+        super(message, null, false, false);
+        this.fieldErrors = Collections.unmodifiableMap(fieldErrors);
+    }
+    
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
+    }
+}
@@ -1,6 +1,9 @@
 package com.sms.exception;
 
 import com.sms.util.ApiResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -14,10 +17,14 @@ import java.util.Map;
 
 /**
  * GlobalExceptionHandler - Centralized exception handling for REST API.
+ * Expected outcomes (not found, failed preconditions, validation) are stackless
+ * and answered without logging; anything else is logged with its full trace.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    
     /**
      * Handle ResourceNotFoundException
      */
@@ -29,6 +36,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
     
+    /**
+     * Handle failed If-Match preconditions and lost optimistic-lock races
+     */
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ApiResponseWrapper> handlePreconditionFailedException(
+            RuntimeException ex,
+            WebRequest request) {
+        ApiResponseWrapper response = new ApiResponseWrapper(false, ex.getMessage(), null);
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+    
     /**
      * Handle validation errors
      */
@@ -47,6 +65,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Handle field validation errors raised outside of @Valid (e.g. merge patches)
+     */
+    @ExceptionHandler(FieldValidationException.class)
+    public ResponseEntity<ApiResponseWrapper> handleFieldValidationException(
+            FieldValidationException ex,
+            WebRequest request) {
+        ApiResponseWrapper response = new ApiResponseWrapper(false, ex.getMessage(), ex.getFieldErrors());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+    
+    /**
+     * Handle rejected batches: every invalid record with all of its field errors
+     */
+    @ExceptionHandler(BatchValidationException.class)
+    public ResponseEntity<ApiResponseWrapper> handleBatchValidationException(
+            BatchValidationException ex,
+            WebRequest request) {
+        ApiResponseWrapper response = new ApiResponseWrapper(false, ex.getMessage(), ex.getReport());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+    
     /**
      * Handle general exceptions
      */
@@ -54,6 +94,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponseWrapper> handleGlobalException(
             Exception ex,
             WebRequest request) {
+        logger.error("Unhandled exception for {}", request.getDescription(false), ex);
         ApiResponseWrapper response = new ApiResponseWrapper(false, "An error occurred: " + ex.getMessage(), null);
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -0,0 +1,16 @@
+package com.sms.exception;
+
+/**
+ * PreconditionFailedException - Thrown when an If-Match precondition does not hold.
+ * Stackless: a stale version is a client condition, not a server fault.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+    
+    public PreconditionFailedException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
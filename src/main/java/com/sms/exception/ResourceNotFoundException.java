@@ -2,14 +2,15 @@ package com.sms.exception;
 
 /**
  * ResourceNotFoundException - Custom exception for resource not found errors.
+ * A routine outcome answered with 404, so no stack trace is captured.
  */
 public class ResourceNotFoundException extends RuntimeException {
     
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
     
     public ResourceNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
@@ -0,0 +1,10 @@
+package com.sms.model;
+
+/**
+ * ChangeType enum - Kind of student mutation carried by a change event.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
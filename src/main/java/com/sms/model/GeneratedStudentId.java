@@ -0,0 +1,22 @@
+package com.sms.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity ID that is assigned in the application by {@link StudentIdGenerator}
+ * before the INSERT, instead of by the database.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@IdGeneratorType(StudentIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedStudentId {
+}
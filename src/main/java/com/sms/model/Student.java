@@ -1,5 +1,7 @@
 package com.sms.model;
 
+import com.sms.util.StringPool;
+
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
@@ -8,26 +10,40 @@ import java.util.Objects;
  * Student entity class representing a student record in the system.
  * This class implements Serializable for potential persistence operations.
  * 
+ * Stores are expected to hold many of these, so the representation is compact:
+ * dates are kept as epoch-day ints, the enrollment status as a {@link StudentStatus}
+ * (its text only when it is not exactly a status name), and city, state and zip
+ * code as shared instances from a string pool. The getters and setters behave as
+ * if plain fields were used.
+ * 
  * @author SMS Development Team
  * @version 1.0
  * @since 2024
  */
 public class Student implements Serializable {
     
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+    
+    /** Epoch day standing for a missing date */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    
+    /** Shared instances for city, state and zip code; a few hundred values in practice */
+    private static final StringPool LOCATIONS = new StringPool(1 << 16);
     
     private Long studentId;
     private String firstName;
     private String lastName;
     private String email;
     private String phoneNumber;
-    private LocalDate dateOfBirth;
+    private int dateOfBirth = NO_DATE;
     private String address;
     private String city;
     private String state;
     private String zipCode;
-    private LocalDate enrollmentDate;
-    private String enrollmentStatus;
+    private int enrollmentDate = NO_DATE;
+    private StudentStatus status;
+    // The status as given, kept only when it is not exactly the name of the status
+    private String statusText;
     
     /**
      * Default constructor.
@@ -48,8 +64,8 @@ public class Student implements Serializable {
         this.lastName = lastName;
         this.email = email;
         this.phoneNumber = phoneNumber;
-        this.enrollmentStatus = "ACTIVE";
-        this.enrollmentDate = LocalDate.now();
+        this.status = StudentStatus.ACTIVE;
+        this.enrollmentDate = epochDay(LocalDate.now());
     }
     
     /**
@@ -62,13 +78,14 @@ public class Student implements Serializable {
         this.lastName = lastName;
         this.email = email;
         this.phoneNumber = phoneNumber;
-        this.dateOfBirth = dateOfBirth;
+        this.dateOfBirth = epochDay(dateOfBirth);
         this.address = address;
-        this.city = city;
-        this.state = state;
-        this.zipCode = zipCode;
-        this.enrollmentDate = enrollmentDate;
-        this.enrollmentStatus = enrollmentStatus;
+        this.city = LOCATIONS.intern(city);
+        this.state = LOCATIONS.intern(state);
+        this.zipCode = LOCATIONS.intern(zipCode);
+        this.enrollmentDate = epochDay(enrollmentDate);
+        this.status = StudentStatus.fromName(enrollmentStatus);
+        this.statusText = statusText(status, enrollmentStatus);
     }
     
     /**
@@ -82,13 +99,35 @@ public class Student implements Serializable {
         this.lastName = lastName;
         this.email = email;
         this.phoneNumber = phoneNumber;
-        this.dateOfBirth = dateOfBirth;
+        this.dateOfBirth = epochDay(dateOfBirth);
         this.address = address;
-        this.city = city;
-        this.state = state;
-        this.zipCode = zipCode;
-        this.enrollmentDate = enrollmentDate;
-        this.enrollmentStatus = enrollmentStatus;
+        this.city = LOCATIONS.intern(city);
+        this.state = LOCATIONS.intern(state);
+        this.zipCode = LOCATIONS.intern(zipCode);
+        this.enrollmentDate = epochDay(enrollmentDate);
+        this.status = StudentStatus.fromName(enrollmentStatus);
+        this.statusText = statusText(status, enrollmentStatus);
+    }
+    
+    /**
+     * Copy constructor.
+     * 
+     * @param other the student to copy
+     */
+    public Student(Student other) {
+        this.studentId = other.studentId;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.phoneNumber = other.phoneNumber;
+        this.dateOfBirth = other.dateOfBirth;
+        this.address = other.address;
+        this.city = other.city;
+        this.state = other.state;
+        this.zipCode = other.zipCode;
+        this.enrollmentDate = other.enrollmentDate;
+        this.status = other.status;
+        this.statusText = other.statusText;
     }
     
     // Getters and Setters
@@ -178,7 +217,7 @@ public class Student implements Serializable {
      * @return the date of birth
      */
     public LocalDate getDateOfBirth() {
-        return dateOfBirth;
+        return date(dateOfBirth);
     }
     
     /**
@@ -186,7 +225,23 @@ public class Student implements Serializable {
      * @param dateOfBirth the date of birth to set
      */
     public void setDateOfBirth(LocalDate dateOfBirth) {
-        this.dateOfBirth = dateOfBirth;
+        this.dateOfBirth = epochDay(dateOfBirth);
+    }
+    
+    /**
+     * Gets the date of birth without creating a LocalDate.
+     * @return the date of birth as an epoch day, or {@link #NO_DATE}
+     */
+    public int getDateOfBirthEpochDay() {
+        return dateOfBirth;
+    }
+    
+    /**
+     * Sets the date of birth from an epoch day.
+     * @param epochDay the date of birth as an epoch day, or {@link #NO_DATE}
+     */
+    public void setDateOfBirthEpochDay(int epochDay) {
+        this.dateOfBirth = epochDay;
     }
     
     /**
@@ -218,7 +273,7 @@ public class Student implements Serializable {
      * @param city the city to set
      */
     public void setCity(String city) {
-        this.city = city;
+        this.city = LOCATIONS.intern(city);
     }
     
     /**
@@ -234,7 +289,7 @@ public class Student implements Serializable {
      * @param state the state to set
      */
     public void setState(String state) {
-        this.state = state;
+        this.state = LOCATIONS.intern(state);
     }
     
     /**
@@ -250,7 +305,7 @@ public class Student implements Serializable {
      * @param zipCode the zip code to set
      */
     public void setZipCode(String zipCode) {
-        this.zipCode = zipCode;
+        this.zipCode = LOCATIONS.intern(zipCode);
     }
     
     /**
@@ -258,7 +313,7 @@ public class Student implements Serializable {
      * @return the enrollment date
      */
     public LocalDate getEnrollmentDate() {
-        return enrollmentDate;
+        return date(enrollmentDate);
     }
     
     /**
@@ -266,15 +321,31 @@ public class Student implements Serializable {
      * @param enrollmentDate the enrollment date to set
      */
     public void setEnrollmentDate(LocalDate enrollmentDate) {
-        this.enrollmentDate = enrollmentDate;
+        this.enrollmentDate = epochDay(enrollmentDate);
     }
     
     /**
-     * Gets the enrollment status.
+     * Gets the enrollment date without creating a LocalDate.
+     * @return the enrollment date as an epoch day, or {@link #NO_DATE}
+     */
+    public int getEnrollmentEpochDay() {
+        return enrollmentDate;
+    }
+    
+    /**
+     * Sets the enrollment date from an epoch day.
+     * @param epochDay the enrollment date as an epoch day, or {@link #NO_DATE}
+     */
+    public void setEnrollmentEpochDay(int epochDay) {
+        this.enrollmentDate = epochDay;
+    }
+    
+    /**
+     * Gets the enrollment status as it was set.
      * @return the enrollment status
      */
     public String getEnrollmentStatus() {
-        return enrollmentStatus;
+        return statusText != null ? statusText : status != null ? status.name() : null;
     }
     
     /**
@@ -282,7 +353,26 @@ public class Student implements Serializable {
      * @param enrollmentStatus the enrollment status to set
      */
     public void setEnrollmentStatus(String enrollmentStatus) {
-        this.enrollmentStatus = enrollmentStatus;
+        this.status = StudentStatus.fromName(enrollmentStatus);
+        this.statusText = statusText(status, enrollmentStatus);
+    }
+    
+    /**
+     * Gets the enrollment status as a constant.
+     * @return the status whose name matches the enrollment status ignoring case,
+     *         or null if there is no status or it is not a known one
+     */
+    public StudentStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * Sets the enrollment status to a constant.
+     * @param status the status to set, may be null
+     */
+    public void setStatus(StudentStatus status) {
+        this.status = status;
+        this.statusText = null;
     }
     
     /**
@@ -315,13 +405,29 @@ public class Student implements Serializable {
                 ", lastName='" + lastName + '\'' +
                 ", email='" + email + '\'' +
                 ", phoneNumber='" + phoneNumber + '\'' +
-                ", dateOfBirth=" + dateOfBirth +
+                ", dateOfBirth=" + getDateOfBirth() +
                 ", address='" + address + '\'' +
                 ", city='" + city + '\'' +
                 ", state='" + state + '\'' +
                 ", zipCode='" + zipCode + '\'' +
-                ", enrollmentDate=" + enrollmentDate +
-                ", enrollmentStatus='" + enrollmentStatus + '\'' +
+                ", enrollmentDate=" + getEnrollmentDate() +
+                ", enrollmentStatus='" + getEnrollmentStatus() + '\'' +
                 '}';
     }
+    
+    private static int epochDay(LocalDate date) {
+        return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+    }
+    
+    private static LocalDate date(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+    
+    /**
+     * The status text to keep beside a parsed status: null when the status
+     * name reproduces it exactly
+     */
+    private static String statusText(StudentStatus status, String text) {
+        return status != null && status.name().equals(text) ? null : text;
+    }
 }
@@ -0,0 +1,277 @@
+package com.sms.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Aggregate statistics over all students: counts by enrollment status,
+ * enrollments per month and the age distribution as of a given day.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class StudentAggregates {
+
+    /** Status key for students without an enrollment status */
+    public static final String UNKNOWN_STATUS = "UNKNOWN";
+
+    /**
+     * Age bands, youngest first. A band holds the ages from its minimum age up
+     * to the next band's minimum.
+     */
+    public enum AgeBand {
+        UNDER_18(0, "Under 18"),
+        AGE_18_TO_20(18, "18-20"),
+        AGE_21_TO_24(21, "21-24"),
+        AGE_25_TO_29(25, "25-29"),
+        AGE_30_AND_OVER(30, "30+"),
+        /** No date of birth on record */
+        UNKNOWN(-1, "Unknown");
+
+        private final int minimumAge;
+        private final String label;
+
+        AgeBand(int minimumAge, String label) {
+            this.minimumAge = minimumAge;
+            this.label = label;
+        }
+
+        public int getMinimumAge() {
+            return minimumAge;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @return the latest date of birth of someone in this band on the given day
+         */
+        public LocalDate latestBirthDate(LocalDate asOf) {
+            return asOf.minusYears(minimumAge);
+        }
+    }
+
+    /** Bands with an age range, oldest first, as the accumulator tests them */
+    private static final AgeBand[] AGED_BANDS_OLDEST_FIRST = {
+        AgeBand.AGE_30_AND_OVER, AgeBand.AGE_25_TO_29, AgeBand.AGE_21_TO_24, AgeBand.AGE_18_TO_20
+    };
+
+    private final LocalDate asOf;
+    private final long total;
+    private final Map<String, Long> countsByStatus;
+    private final SortedMap<YearMonth, Long> enrollmentsByMonth;
+    private final Map<AgeBand, Long> ageDistribution;
+
+    /**
+     * @param asOf the day ages are computed for
+     * @param countsByStatus students per upper-case enrollment status
+     * @param enrollmentsByMonth students per enrollment month; students without an enrollment date are left out
+     * @param ageDistribution students per age band
+     */
+    public StudentAggregates(LocalDate asOf, Map<String, Long> countsByStatus,
+                             Map<YearMonth, Long> enrollmentsByMonth, Map<AgeBand, Long> ageDistribution) {
+        this.asOf = asOf;
+        this.countsByStatus = Collections.unmodifiableMap(new TreeMap<>(countsByStatus));
+        this.enrollmentsByMonth = Collections.unmodifiableSortedMap(new TreeMap<>(enrollmentsByMonth));
+        Map<AgeBand, Long> ages = new EnumMap<>(AgeBand.class);
+        for (AgeBand band : AgeBand.values()) {
+            ages.put(band, ageDistribution.getOrDefault(band, 0L));
+        }
+        this.ageDistribution = Collections.unmodifiableMap(ages);
+        this.total = this.countsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return students per enrollment status, sorted by status
+     */
+    public Map<String, Long> getCountsByStatus() {
+        return countsByStatus;
+    }
+
+    /**
+     * @param status an enrollment status, in any case
+     * @return the number of students with that status
+     */
+    public long getCount(String status) {
+        return countsByStatus.getOrDefault(status.toUpperCase(Locale.ROOT), 0L);
+    }
+
+    /**
+     * @return students per enrollment month, oldest month first
+     */
+    public SortedMap<YearMonth, Long> getEnrollmentsByMonth() {
+        return enrollmentsByMonth;
+    }
+
+    /**
+     * @return students per age band, youngest first, including empty bands
+     */
+    public Map<AgeBand, Long> getAgeDistribution() {
+        return ageDistribution;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentAggregates{total=" + total + ", byStatus=" + countsByStatus
+                + ", byMonth=" + enrollmentsByMonth + ", byAge=" + ageDistribution + "}";
+    }
+
+    /**
+     * Builds the aggregates in one pass over the students, on primitive counters.
+     * Dates are passed as epoch days so that column stores need not create
+     * LocalDate objects. Not thread-safe.
+     */
+    public static final class Accumulator {
+
+        /** Epoch day standing for a missing date */
+        public static final int NO_DATE = Student.NO_DATE;
+
+        private final LocalDate asOf;
+        // Latest epoch day of birth for each band of AGED_BANDS_OLDEST_FIRST
+        private final long[] latestBirthDays = new long[AGED_BANDS_OLDEST_FIRST.length];
+        private final long[] ageCounts = new long[AgeBand.values().length];
+
+        // Students per known status, by ordinal
+        private final long[] knownStatusCounts = new long[StudentStatus.values().length];
+
+        // Other statuses seen so far, compared ignoring case; few distinct values, so a linear scan
+        private String[] statuses = new String[8];
+        private long[] statusCounts = new long[8];
+        private int statusCount;
+
+        // Enrollments per epoch day, from firstDay; folded into months by build()
+        private long[] dayCounts;
+        private long firstDay;
+
+        public Accumulator(LocalDate asOf) {
+            this.asOf = asOf;
+            for (int i = 0; i < AGED_BANDS_OLDEST_FIRST.length; i++) {
+                latestBirthDays[i] = AGED_BANDS_OLDEST_FIRST[i].latestBirthDate(asOf).toEpochDay();
+            }
+        }
+
+        /**
+         * Counts one student.
+         */
+        public void add(Student student) {
+            StudentStatus status = student.getStatus();
+            if (status != null) {
+                knownStatusCounts[status.ordinal()]++;
+            } else {
+                countStatus(student.getEnrollmentStatus() == null ? UNKNOWN_STATUS : student.getEnrollmentStatus());
+            }
+            countDates(student.getEnrollmentEpochDay(), student.getDateOfBirthEpochDay());
+        }
+
+        /**
+         * Counts one student.
+         *
+         * @param status enrollment status, or null
+         * @param enrollmentDay enrollment date as an epoch day, or {@link #NO_DATE}
+         * @param birthDay date of birth as an epoch day, or {@link #NO_DATE}
+         */
+        public void add(String status, int enrollmentDay, int birthDay) {
+            countStatus(status == null ? UNKNOWN_STATUS : status);
+            countDates(enrollmentDay, birthDay);
+        }
+
+        private void countDates(int enrollmentDay, int birthDay) {
+            if (enrollmentDay != NO_DATE) {
+                countEnrollment(enrollmentDay);
+            }
+            ageCounts[ageBand(birthDay).ordinal()]++;
+        }
+
+        private void countStatus(String status) {
+            for (int i = 0; i < statusCount; i++) {
+                if (statuses[i].equalsIgnoreCase(status)) {
+                    statusCounts[i]++;
+                    return;
+                }
+            }
+            if (statusCount == statuses.length) {
+                statuses = Arrays.copyOf(statuses, statusCount * 2);
+                statusCounts = Arrays.copyOf(statusCounts, statusCount * 2);
+            }
+            statuses[statusCount] = status;
+            statusCounts[statusCount++] = 1;
+        }
+
+        private void countEnrollment(int day) {
+            if (dayCounts == null) {
+                dayCounts = new long[64];
+                firstDay = day;
+            } else if (day < firstDay || day - firstDay >= dayCounts.length) {
+                long from = Math.min(firstDay, day);
+                long to = Math.max(firstDay + dayCounts.length, day + 1L);
+                long[] grown = new long[(int) Math.max(to - from, dayCounts.length * 2L)];
+                System.arraycopy(dayCounts, 0, grown, (int) (firstDay - from), dayCounts.length);
+                dayCounts = grown;
+                firstDay = from;
+            }
+            dayCounts[(int) (day - firstDay)]++;
+        }
+
+        private AgeBand ageBand(int birthDay) {
+            if (birthDay == NO_DATE) {
+                return AgeBand.UNKNOWN;
+            }
+            for (int i = 0; i < latestBirthDays.length; i++) {
+                if (birthDay <= latestBirthDays[i]) {
+                    return AGED_BANDS_OLDEST_FIRST[i];
+                }
+            }
+            return AgeBand.UNDER_18;
+        }
+
+        public StudentAggregates build() {
+            Map<String, Long> byStatus = new TreeMap<>();
+            for (StudentStatus status : StudentStatus.values()) {
+                if (knownStatusCounts[status.ordinal()] > 0) {
+                    byStatus.put(status.name(), knownStatusCounts[status.ordinal()]);
+                }
+            }
+            for (int i = 0; i < statusCount; i++) {
+                byStatus.merge(statuses[i].toUpperCase(Locale.ROOT), statusCounts[i], Long::sum);
+            }
+            Map<YearMonth, Long> byMonth = new TreeMap<>();
+            if (dayCounts != null) {
+                int i = 0;
+                while (i < dayCounts.length) {
+                    // Sum the rest of the month starting at day i in one go
+                    LocalDate day = LocalDate.ofEpochDay(firstDay + i);
+                    int daysLeft = day.lengthOfMonth() - day.getDayOfMonth() + 1;
+                    long count = 0;
+                    for (int end = Math.min(i + daysLeft, dayCounts.length); i < end; i++) {
+                        count += dayCounts[i];
+                    }
+                    if (count > 0) {
+                        byMonth.put(YearMonth.from(day), count);
+                    }
+                }
+            }
+            Map<AgeBand, Long> byAge = new EnumMap<>(AgeBand.class);
+            for (AgeBand band : AgeBand.values()) {
+                byAge.put(band, ageCounts[band.ordinal()]);
+            }
+            return new StudentAggregates(asOf, byStatus, byMonth, byAge);
+        }
+    }
+}
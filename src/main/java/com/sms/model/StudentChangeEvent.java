@@ -0,0 +1,108 @@
+package com.sms.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Student Change Event - transactional outbox row for one student mutation.
+ * 
+ * The row is inserted in the same transaction as the write it describes, so it
+ * commits or rolls back with it. The sequence number stays null until the change
+ * relay publishes the row; published rows form a gap-free, commit-ordered stream
+ * that consumers resume from by sequence number.
+ * 
+ * Before and after images are JSON snapshots of the student (null for the
+ * before image of a create and the after image of a delete).
+ * DELETED rows double as the tombstones served by delta sync.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@Entity
+@Table(name = "student_change_events", indexes = {
+    @Index(name = "idx_change_event_sequence", columnList = "event_sequence", unique = true),
+    @Index(name = "idx_change_event_type_time", columnList = "type, occurred_at, id")
+})
+public class StudentChangeEvent implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_sequence")
+    private Long sequence;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ChangeType type;
+    
+    @Column(nullable = false)
+    private Long studentId;
+    
+    @Column(length = 4000)
+    private String beforeImage;
+    
+    @Column(length = 4000)
+    private String afterImage;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt = LocalDateTime.now();
+    
+    // Constructors
+    public StudentChangeEvent() {
+    }
+    
+    public StudentChangeEvent(ChangeType type, Long studentId, String beforeImage, String afterImage) {
+        this.type = type;
+        this.studentId = studentId;
+        this.beforeImage = beforeImage;
+        this.afterImage = afterImage;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public String getBeforeImage() {
+        return beforeImage;
+    }
+    
+    public String getAfterImage() {
+        return afterImage;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentChangeEvent{" +
+                "id=" + id +
+                ", sequence=" + sequence +
+                ", type=" + type +
+                ", studentId=" + studentId +
+                '}';
+    }
+}
@@ -3,6 +3,7 @@ package com.sms.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.hibernate.annotations.DynamicUpdate;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
@@ -12,26 +13,30 @@ import java.time.LocalDateTime;
  * Features:
  * - JPA/Hibernate ORM mapping
  * - Validation annotations
+ * - Application-assigned 64-bit IDs (no database round trip before the ID is known)
  * - Audit fields (created/updated timestamps)
  * - Status tracking (active/inactive)
+ * - Dynamic updates (UPDATE statements only carry the changed columns)
  * 
  * @author SMS Development Team
  * @version 2.0
  * @since 2024
  */
 @Entity
+@DynamicUpdate
 @Table(name = "students", indexes = {
     @Index(name = "idx_name", columnList = "name"),
     @Index(name = "idx_email", columnList = "email"),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_updated_at_id", columnList = "updated_at, id")
 })
 public class StudentEntity implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @GeneratedStudentId
+    private Long id;
     
     @NotBlank(message = "Name is required")
     @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
@@ -84,11 +89,11 @@ public class StudentEntity implements Serializable {
     }
     
     // Getters and Setters
-    public Integer getId() {
+    public Long getId() {
         return id;
     }
     
-    public void setId(Integer id) {
+    public void setId(Long id) {
         this.id = id;
     }
     
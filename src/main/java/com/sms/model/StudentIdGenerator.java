@@ -0,0 +1,53 @@
+package com.sms.model;
+
+import com.sms.util.IdGenerator;
+import com.sms.util.SnowflakeIdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate generator behind {@link GeneratedStudentId}.
+ *
+ * Hibernate instantiates generators itself, so the {@link IdGenerator} in use is held
+ * statically and replaced at startup (see {@code IdGeneratorConfig}). Until then a
+ * Snowflake generator with node ID 0 is used, which is only safe for a single node.
+ * An ID already set on the entity is kept.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class StudentIdGenerator implements BeforeExecutionGenerator {
+
+    private static volatile IdGenerator delegate = new SnowflakeIdGenerator(0);
+
+    /**
+     * Sets the ID generator for all entities using {@link GeneratedStudentId}.
+     *
+     * @param generator the generator
+     */
+    public static void use(IdGenerator generator) {
+        delegate = generator;
+    }
+
+    /**
+     * @return the ID generator in use
+     */
+    public static IdGenerator current() {
+        return delegate;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : delegate.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
@@ -9,6 +9,8 @@ public enum StudentStatus {
     SUSPENDED("Suspended"),
     GRADUATED("Graduated");
     
+    private static final StudentStatus[] VALUES = values();
+    
     private final String displayName;
     
     StudentStatus(String displayName) {
@@ -18,4 +20,22 @@ public enum StudentStatus {
     public String getDisplayName() {
         return displayName;
     }
+    
+    /**
+     * Status with the given name, ignoring case and surrounding whitespace
+     * 
+     * @return the status, or null if the name is null or not a status
+     */
+    public static StudentStatus fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        for (StudentStatus status : VALUES) {
+            if (status.name().equalsIgnoreCase(trimmed)) {
+                return status;
+            }
+        }
+        return null;
+    }
 }
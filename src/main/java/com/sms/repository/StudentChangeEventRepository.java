@@ -0,0 +1,52 @@
+package com.sms.repository;
+
+import com.sms.model.StudentChangeEvent;
+import com.sms.model.ChangeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * StudentChangeEventRepository - Spring Data JPA repository for the change event outbox.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@Repository
+public interface StudentChangeEventRepository extends JpaRepository<StudentChangeEvent, Long> {
+    
+    /**
+     * Committed outbox rows not yet published, oldest first
+     */
+    @Query("SELECT e FROM StudentChangeEvent e WHERE e.sequence IS NULL ORDER BY e.id ASC")
+    List<StudentChangeEvent> findUnpublished(Pageable pageable);
+    
+    /**
+     * Published events after a sequence number, in sequence order
+     */
+    @Query("SELECT e FROM StudentChangeEvent e WHERE e.sequence > :after ORDER BY e.sequence ASC")
+    List<StudentChangeEvent> findPublishedAfter(@Param("after") long after, Pageable pageable);
+    
+    /**
+     * Events of one type after a keyset position (occurredAt, id) and before a cutoff,
+     * in (occurredAt, id) order; served by the idx_change_event_type_time index
+     */
+    @Query("SELECT e FROM StudentChangeEvent e WHERE e.type = :type AND e.occurredAt >= :occurredAt "
+            + "AND (e.occurredAt > :occurredAt OR e.id > :id) AND e.occurredAt < :before "
+            + "ORDER BY e.occurredAt ASC, e.id ASC")
+    List<StudentChangeEvent> findByTypeAfter(@Param("type") ChangeType type,
+                                             @Param("occurredAt") LocalDateTime occurredAt, @Param("id") Long id,
+                                             @Param("before") LocalDateTime before, Pageable pageable);
+    
+    /**
+     * Highest published sequence number, 0 when nothing has been published
+     */
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM StudentChangeEvent e")
+    long findLastSequence();
+}
@@ -4,11 +4,15 @@ import com.sms.model.StudentEntity;
 import com.sms.model.StudentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,19 +24,30 @@ import java.util.Optional;
  * - Custom queries with pagination
  * - Search by name, email, status
  * - Advanced filtering
+ * - Single-statement updates and deletes (no read-before-write)
+ * - Keyset scan by (updatedAt, id) for delta sync
+ * - Keyset projections by id for building in-memory search indexes
  * 
  * @author SMS Development Team
  * @version 2.0
  * @since 2024
  */
 @Repository
-public interface StudentRepository extends JpaRepository<StudentEntity, Integer> {
+public interface StudentRepository extends JpaRepository<StudentEntity, Long>, StudentRepositoryCustom {
     
     /**
      * Find student by email (unique constraint)
      */
     Optional<StudentEntity> findByEmail(String email);
     
+    /**
+     * Find a student and lock its row until the transaction ends (SELECT ... FOR UPDATE),
+     * so the state read stays current for a write in the same transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StudentEntity s WHERE s.id = :id")
+    Optional<StudentEntity> findByIdForUpdate(@Param("id") Long id);
+    
     /**
      * Find student by phone
      */
@@ -84,9 +99,48 @@ public interface StudentRepository extends JpaRepository<StudentEntity, Integer>
      */
     Long countByStatus(StudentStatus status);
     
+    /**
+     * Delete a student in one statement, returning the number of rows removed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StudentEntity s WHERE s.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+    
+    /**
+     * Delete a student in one statement only if it is still at the given version
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StudentEntity s WHERE s.id = :id AND s.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+    
+    /**
+     * Students changed after a keyset position (updatedAt, id) and before a cutoff,
+     * in (updatedAt, id) order; served by the idx_updated_at_id index
+     */
+    @Query("SELECT s FROM StudentEntity s WHERE s.updatedAt >= :updatedAt "
+            + "AND (s.updatedAt > :updatedAt OR s.id > :id) AND s.updatedAt < :before "
+            + "ORDER BY s.updatedAt ASC, s.id ASC")
+    List<StudentEntity> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                         @Param("before") LocalDateTime before, Pageable pageable);
+    
+    /**
+     * (id, name) pairs after a student ID, in ID order; keyset pages for building
+     * in-memory name indexes without loading whole entities
+     */
+    @Query("SELECT s.id, s.name FROM StudentEntity s WHERE s.id > :after ORDER BY s.id ASC")
+    List<Object[]> findNamesAfter(@Param("after") Long after, Pageable pageable);
+    
+    /**
+     * (id, name, email, gpa, updatedAt) rows after a student ID, in ID order; keyset
+     * pages for building the type-ahead index
+     */
+    @Query("SELECT s.id, s.name, s.email, s.gpa, s.updatedAt FROM StudentEntity s "
+            + "WHERE s.id > :after ORDER BY s.id ASC")
+    List<Object[]> findSuggestFieldsAfter(@Param("after") Long after, Pageable pageable);
+    
     /**
      * Check if email exists (excluding given ID)
      */
     @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM StudentEntity s WHERE s.email = :email AND s.id != :id")
-    boolean existsByEmailAndIdNot(@Param("email") String email, @Param("id") Integer id);
+    boolean existsByEmailAndIdNot(@Param("email") String email, @Param("id") Long id);
 }
@@ -0,0 +1,26 @@
+package com.sms.repository;
+
+import java.util.Map;
+
+/**
+ * StudentRepositoryCustom - Hand-written write operations for StudentEntity
+ * that Spring Data cannot derive.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public interface StudentRepositoryCustom {
+    
+    /**
+     * Apply the given attribute values to one student in a single UPDATE statement,
+     * without loading the entity first. The {@code @Version} column is incremented and
+     * {@code updatedAt} is refreshed as part of the same statement.
+     * 
+     * @param id the student ID
+     * @param expectedVersion only match this version (optimistic check), or null for any
+     * @param attributes entity attribute name to new value, e.g. {@code "gpa" -> 3.7}
+     * @return number of rows updated (0 when the ID or version did not match)
+     */
+    int updateAttributes(Long id, Long expectedVersion, Map<String, Object> attributes);
+}
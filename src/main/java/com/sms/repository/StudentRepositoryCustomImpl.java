@@ -0,0 +1,50 @@
+package com.sms.repository;
+
+import com.sms.model.StudentEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * StudentRepositoryCustomImpl - Criteria API implementation of {@link StudentRepositoryCustom}.
+ * Picked up by Spring Data through the {@code Impl} suffix.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public int updateAttributes(Long id, Long expectedVersion, Map<String, Object> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<StudentEntity> update = cb.createCriteriaUpdate(StudentEntity.class);
+        Root<StudentEntity> root = update.from(StudentEntity.class);
+        
+        attributes.forEach(update::set);
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        
+        Predicate where = cb.equal(root.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(root.get("version"), expectedVersion));
+        }
+        update.where(where);
+        
+        // Same contract as @Modifying(flushAutomatically = true, clearAutomatically = true):
+        // pending changes go out first and no stale managed copy survives the bulk update
+        entityManager.flush();
+        int rows = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return rows;
+    }
+}
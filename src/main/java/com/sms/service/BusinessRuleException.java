@@ -0,0 +1,39 @@
+package com.sms.service;
+
+/**
+ * Exception for requests the service rejects as a matter of course: invalid
+ * input, an email already in use. Expected outcomes, so no stack trace is
+ * captured; the message says everything there is to know.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class BusinessRuleException extends ServiceException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Constructs a new BusinessRuleException with the specified detail message.
+     * 
+     * @param message the detail message
+     */
+    public BusinessRuleException(String message) {
+        super(message, null, true);
+    }
+    
+    /**
+     * Constructs a new BusinessRuleException with the specified detail message and cause.
+     * 
+     * @param message the detail message
+     * @param cause the expected DAO outcome behind it
+     */
+    public BusinessRuleException(String message, Throwable cause) {
+        super(message, cause, true);
+    }
+    
+    @Override
+    public boolean isExpected() {
+        return true;
+    }
+}
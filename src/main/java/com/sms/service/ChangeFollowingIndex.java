@@ -0,0 +1,137 @@
+package com.sms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.dto.StudentChangeEventDTO;
+import com.sms.repository.StudentChangeEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * ChangeFollowingIndex - Base for node-local, in-memory student indexes that follow
+ * the change stream.
+ * 
+ * The index is loaded on first use by {@link #load()}. It then follows the change
+ * relay: every published event, whether written on this node or another, is handed
+ * to {@link #apply} with its before and after images. Loading starts from the last
+ * published sequence and replays everything after it, so writes that race the load
+ * are applied again; subclasses must make applying an event idempotent.
+ */
+abstract class ChangeFollowingIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFollowingIndex.class);
+    
+    /** Events per catch-up query */
+    private static final int CATCH_UP_BATCH_SIZE = 5000;
+    
+    private final StudentChangeEventRepository changeEventRepository;
+    private final StudentChangeRelay changeRelay;
+    private final ObjectMapper objectMapper;
+    private Runnable unsubscribe;
+    private volatile boolean built;
+    // Guarded by this: the last sequence applied to the index
+    private long appliedSequence;
+    
+    protected ChangeFollowingIndex(StudentChangeEventRepository changeEventRepository,
+                                   StudentChangeRelay changeRelay, ObjectMapper objectMapper) {
+        this.changeEventRepository = changeEventRepository;
+        this.changeRelay = changeRelay;
+        this.objectMapper = objectMapper;
+    }
+    
+    @PostConstruct
+    public void subscribe() {
+        unsubscribe = changeRelay.subscribe(this::onEvents);
+    }
+    
+    @PreDestroy
+    public void unsubscribe() {
+        if (unsubscribe != null) {
+            unsubscribe.run();
+        }
+    }
+    
+    /**
+     * Fill the empty index from the database
+     */
+    protected abstract void load();
+    
+    /**
+     * Apply one change to the index
+     * 
+     * @param before the student before the change, null for a create
+     * @param after the student after the change, null for a delete
+     */
+    protected abstract void apply(long studentId, JsonNode before, JsonNode after);
+    
+    /**
+     * Load the index if this is its first use
+     */
+    protected final void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        synchronized (this) {
+            if (built) {
+                return;
+            }
+            appliedSequence = changeEventRepository.findLastSequence();
+            load();
+            catchUp();
+            built = true;
+        }
+    }
+    
+    private synchronized void onEvents(List<StudentChangeEventDTO> events) {
+        if (!built) {
+            return;
+        }
+        if (events.get(0).getSequence() != appliedSequence + 1) {
+            // Missed or already applied some events: read them from the outbox
+            catchUp();
+            return;
+        }
+        events.forEach(this::apply);
+    }
+    
+    private void catchUp() {
+        List<StudentChangeEventDTO> events;
+        do {
+            events = changeRelay.eventsAfter(appliedSequence, CATCH_UP_BATCH_SIZE);
+            events.forEach(this::apply);
+        } while (events.size() == CATCH_UP_BATCH_SIZE);
+    }
+    
+    private void apply(StudentChangeEventDTO event) {
+        if (event.getSequence() <= appliedSequence) {
+            return;
+        }
+        apply(event.getStudentId(), parse(event.getBefore()), parse(event.getAfter()));
+        appliedSequence = event.getSequence();
+    }
+    
+    private JsonNode parse(String image) {
+        if (image == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(image);
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable student image in change event: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * A text attribute of an image, or null if the image or attribute is missing
+     */
+    protected static String text(JsonNode image, String field) {
+        JsonNode value = image != null ? image.get(field) : null;
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+}
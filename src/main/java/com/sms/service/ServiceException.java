@@ -3,6 +3,9 @@ package com.sms.service;
 /**
  * Custom exception for service layer operations.
  * 
+ * Real failures carry a full stack trace. Rejected input and other expected
+ * outcomes are reported with the stackless {@link BusinessRuleException}.
+ * 
  * @author SMS Development Team
  * @version 1.0
  * @since 2024
@@ -38,4 +41,23 @@ public class ServiceException extends Exception {
     public ServiceException(Throwable cause) {
         super(cause);
     }
+    
+    /**
+     * Constructs a ServiceException for an expected outcome: no stack trace and
+     * no suppressed exceptions.
+     * 
+     * @param message the detail message
+     * @param cause the cause of the exception, or null
+     * @param expected must be true
+     */
+    protected ServiceException(String message, Throwable cause, boolean expected) {
+        super(message, cause, !expected, !expected);
+    }
+    
+    /**
+     * @return true if this reports an expected outcome rather than a failure
+     */
+    public boolean isExpected() {
+        return false;
+    }
 }
@@ -1,21 +1,46 @@
 package com.sms.service;
 
+import com.sms.cache.StudentCache;
+import com.sms.config.ReadYourWritesTracker;
 import com.sms.controller.StudentStatistics;
+import com.sms.exception.PreconditionFailedException;
+import com.sms.model.ChangeType;
 import com.sms.model.StudentEntity;
 import com.sms.model.StudentStatus;
 import com.sms.repository.StudentRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * StudentApiService - Service layer for REST API operations.
  * Handles business logic for student management via Spring Data JPA.
+ * 
+ * Pure reads are read-only transactions, which the replica routing DataSource
+ * (when configured) serves from a read replica.
+ * 
+ * When a StudentChangeRecorder is present every successful create, update, patch
+ * and delete also writes a change event with before/after images to the outbox,
+ * in the same transaction. The before image of an update or delete is read with
+ * SELECT ... FOR UPDATE, so it cannot go stale before the write: an update then
+ * takes four statements (locking SELECT, UPDATE, SELECT, outbox INSERT) and a
+ * delete three (locking SELECT, DELETE, outbox INSERT) instead of two and one.
+ * 
+ * When a StudentCache is present, students by ID and the statistics are served
+ * from it, and every successful write invalidates them on all nodes after commit.
+ * Cache misses are loaded from the primary even with read replicas: a replica
+ * still behind an invalidated write would otherwise hand back the old row, and
+ * the cache would keep it for the whole TTL.
  */
 @Service
 @Transactional
@@ -24,9 +49,19 @@ public class StudentApiService {
     @Autowired
     private StudentRepository studentRepository;
     
+    @Autowired
+    private ObjectProvider<StudentChangeRecorder> changeRecorder;
+    
+    @Autowired
+    private ObjectProvider<StudentCache> studentCache;
+    
+    @Autowired
+    private ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+    
     /**
      * Get all students with pagination
      */
+    @Transactional(readOnly = true)
     public Page<StudentEntity> getAllStudents(Pageable pageable) {
         return studentRepository.findAll(pageable);
     }
@@ -34,8 +69,12 @@ public class StudentApiService {
     /**
      * Get student by ID
      */
-    public Optional<StudentEntity> getStudentById(Integer id) {
-        return studentRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<StudentEntity> getStudentById(Long id) {
+        StudentCache cache = studentCache.getIfAvailable();
+        return cache != null
+                ? cache.getStudent(id, () -> readFromPrimary(() -> studentRepository.findById(id)))
+                : studentRepository.findById(id);
     }
     
     /**
@@ -45,39 +84,146 @@ public class StudentApiService {
         if (student.getStatus() == null) {
             student.setStatus(StudentStatus.ACTIVE);
         }
-        return studentRepository.save(student);
+        StudentEntity saved = studentRepository.save(student);
+        StudentChangeRecorder recorder = changeRecorder.getIfAvailable();
+        if (recorder != null) {
+            recorder.record(ChangeType.CREATED, saved.getId(), null, StudentChangeRecorder.image(saved));
+        }
+        invalidateCache(saved.getId());
+        return saved;
+    }
+    
+    /**
+     * Create several students in one transaction: all of them or none
+     */
+    public List<StudentEntity> createStudents(List<StudentEntity> students) {
+        List<StudentEntity> saved = new ArrayList<>(students.size());
+        for (StudentEntity student : students) {
+            saved.add(createStudent(student));
+        }
+        return saved;
     }
     
     /**
      * Update existing student
      */
-    public Optional<StudentEntity> updateStudent(Integer id, StudentEntity updatedStudent) {
+    public Optional<StudentEntity> updateStudent(Long id, StudentEntity updatedStudent) {
+        return updateStudent(id, updatedStudent, null);
+    }
+    
+    /**
+     * Update existing student if it is still at the expected version (If-Match).
+     * A null expected version skips the check.
+     * 
+     * Issues one versioned UPDATE without loading the entity first, then reads the
+     * fresh row back for the response. With a change recorder the row is locked and
+     * read first for the before image.
+     */
+    public Optional<StudentEntity> updateStudent(Long id, StudentEntity updatedStudent, Long expectedVersion) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("name", updatedStudent.getName());
+        attributes.put("email", updatedStudent.getEmail());
+        attributes.put("phone", updatedStudent.getPhone());
+        attributes.put("gpa", updatedStudent.getGpa());
+        if (updatedStudent.getStatus() != null) {
+            attributes.put("status", updatedStudent.getStatus());
+        }
+        
+        StudentChangeRecorder recorder = changeRecorder.getIfAvailable();
+        Map<String, Object> before = null;
+        if (recorder != null) {
+            Optional<StudentEntity> locked = lockForWrite(id, expectedVersion);
+            if (locked.isEmpty()) {
+                return Optional.empty();
+            }
+            before = StudentChangeRecorder.image(locked.get());
+        }
+        
+        int rows = studentRepository.updateAttributes(id, expectedVersion, attributes);
+        if (rows == 0) {
+            checkNotStale(id, expectedVersion);
+            return Optional.empty();
+        }
+        invalidateCache(id);
+        Optional<StudentEntity> updated = studentRepository.findById(id);
+        if (recorder != null && updated.isPresent()) {
+            recorder.record(ChangeType.UPDATED, id, before, StudentChangeRecorder.image(updated.get()));
+        }
+        return updated;
+    }
+    
+    /**
+     * Apply a partial update (merge patch) to an existing student.
+     * 
+     * Only the supplied attributes are set on the managed entity. StudentEntity uses
+     * dynamic updates, so the flush writes just the columns whose values actually changed,
+     * and a patch that changes nothing issues no UPDATE and keeps the current version.
+     */
+    public Optional<StudentEntity> patchStudent(Long id, Map<String, Object> changes, Long expectedVersion) {
         return studentRepository.findById(id).map(existing -> {
-            existing.setName(updatedStudent.getName());
-            existing.setEmail(updatedStudent.getEmail());
-            existing.setPhone(updatedStudent.getPhone());
-            existing.setGpa(updatedStudent.getGpa());
-            if (updatedStudent.getStatus() != null) {
-                existing.setStatus(updatedStudent.getStatus());
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new PreconditionFailedException("Student with ID " + id
+                        + " has been modified since version " + expectedVersion);
             }
-            return studentRepository.save(existing);
+            StudentChangeRecorder recorder = changeRecorder.getIfAvailable();
+            Map<String, Object> before = recorder != null ? StudentChangeRecorder.image(existing) : null;
+            changes.forEach((attribute, value) -> applyChange(existing, attribute, value));
+            if (recorder != null) {
+                // Flush so the after image carries the new version; no-op patches record nothing
+                studentRepository.flush();
+                Map<String, Object> after = StudentChangeRecorder.image(existing);
+                if (!after.equals(before)) {
+                    recorder.record(ChangeType.UPDATED, id, before, after);
+                }
+            }
+            invalidateCache(id);
+            return existing;
         });
     }
     
     /**
      * Delete student by ID
      */
-    public boolean deleteStudent(Integer id) {
-        if (studentRepository.existsById(id)) {
-            studentRepository.deleteById(id);
-            return true;
+    public boolean deleteStudent(Long id) {
+        return deleteStudent(id, null);
+    }
+    
+    /**
+     * Delete student by ID if it is still at the expected version (If-Match).
+     * A null expected version skips the check.
+     * 
+     * Runs a single DELETE statement; the row count tells found from not found.
+     * With a change recorder the row is locked and read first for the before image.
+     */
+    public boolean deleteStudent(Long id, Long expectedVersion) {
+        StudentChangeRecorder recorder = changeRecorder.getIfAvailable();
+        Map<String, Object> before = null;
+        if (recorder != null) {
+            Optional<StudentEntity> locked = lockForWrite(id, expectedVersion);
+            if (locked.isEmpty()) {
+                return false;
+            }
+            before = StudentChangeRecorder.image(locked.get());
         }
-        return false;
+        
+        int rows = expectedVersion == null
+                ? studentRepository.deleteByIdReturningCount(id)
+                : studentRepository.deleteByIdAndVersion(id, expectedVersion);
+        if (rows == 0) {
+            checkNotStale(id, expectedVersion);
+            return false;
+        }
+        if (recorder != null) {
+            recorder.record(ChangeType.DELETED, id, before, null);
+        }
+        invalidateCache(id);
+        return true;
     }
     
     /**
      * Search students by name
      */
+    @Transactional(readOnly = true)
     public Page<StudentEntity> searchByName(String name, Pageable pageable) {
         return studentRepository.searchByNamePaginated(name, pageable);
     }
@@ -85,6 +231,7 @@ public class StudentApiService {
     /**
      * Get students by status
      */
+    @Transactional(readOnly = true)
     public Page<StudentEntity> getStudentsByStatus(StudentStatus status, Pageable pageable) {
         return studentRepository.findByStatus(status, pageable);
     }
@@ -92,6 +239,7 @@ public class StudentApiService {
     /**
      * Filter students by GPA range
      */
+    @Transactional(readOnly = true)
     public Page<StudentEntity> filterByGpaRange(Double minGpa, Double maxGpa, Pageable pageable) {
         return studentRepository.findByGpaRangePaginated(minGpa, maxGpa, pageable);
     }
@@ -101,6 +249,16 @@ public class StudentApiService {
      */
     @Transactional(readOnly = true)
     public StudentStatistics getStatistics() {
+        StudentCache cache = studentCache.getIfAvailable();
+        return cache != null
+                ? cache.getStatistics(() -> readFromPrimary(this::computeStatistics))
+                : computeStatistics();
+    }
+    
+    /**
+     * Compute the statistics from the database
+     */
+    private StudentStatistics computeStatistics() {
         StudentStatistics stats = new StudentStatistics();
         
         // Total count
@@ -120,4 +278,71 @@ public class StudentApiService {
         
         return stats;
     }
+    
+    /**
+     * Set one patchable attribute on a student entity
+     */
+    private void applyChange(StudentEntity student, String attribute, Object value) {
+        switch (attribute) {
+            case "name":
+                student.setName((String) value);
+                break;
+            case "email":
+                student.setEmail((String) value);
+                break;
+            case "phone":
+                student.setPhone((String) value);
+                break;
+            case "gpa":
+                student.setGpa((Double) value);
+                break;
+            case "status":
+                student.setStatus((StudentStatus) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Attribute cannot be patched: " + attribute);
+        }
+    }
+    
+    /**
+     * Run a cache load on the primary when read replicas are configured
+     */
+    private <T> T readFromPrimary(Supplier<T> load) {
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        return tracker != null ? tracker.readFromPrimary(load) : load.get();
+    }
+    
+    /**
+     * Drop a written student and the statistics from the cache on every node after commit
+     */
+    private void invalidateCache(Long id) {
+        StudentCache cache = studentCache.getIfAvailable();
+        if (cache != null) {
+            cache.invalidateAfterCommit(id);
+        }
+    }
+    
+    /**
+     * Lock a student's row for a write in this transaction and check the If-Match
+     * version against it; empty if the student does not exist
+     */
+    private Optional<StudentEntity> lockForWrite(Long id, Long expectedVersion) {
+        Optional<StudentEntity> student = studentRepository.findByIdForUpdate(id);
+        if (student.isPresent() && expectedVersion != null && !expectedVersion.equals(student.get().getVersion())) {
+            throw new PreconditionFailedException("Student with ID " + id
+                    + " has been modified since version " + expectedVersion);
+        }
+        return student;
+    }
+    
+    /**
+     * A versioned write matched no row: if the student still exists the client's
+     * If-Match version was stale, otherwise the student is simply not found
+     */
+    private void checkNotStale(Long id, Long expectedVersion) {
+        if (expectedVersion != null && studentRepository.existsById(id)) {
+            throw new PreconditionFailedException("Student with ID " + id
+                    + " has been modified since version " + expectedVersion);
+        }
+    }
 }
@@ -0,0 +1,88 @@
+package com.sms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.model.ChangeType;
+import com.sms.model.StudentChangeEvent;
+import com.sms.model.StudentEntity;
+import com.sms.repository.StudentChangeEventRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StudentChangeRecorder - Writes student change events to the transactional outbox.
+ * 
+ * Must be called inside the transaction of the write being recorded: the outbox row
+ * commits or rolls back with it. After commit the change relay is nudged so the event
+ * is published without waiting for its next poll.
+ */
+@Service
+public class StudentChangeRecorder {
+    
+    private static final ObjectMapper JSON = new ObjectMapper();
+    
+    @Autowired
+    private StudentChangeEventRepository changeEventRepository;
+    
+    @Autowired
+    private ObjectProvider<StudentChangeRelay> changeRelay;
+    
+    /**
+     * Record one change
+     * 
+     * @param before image taken before the write, null for a create
+     * @param after image taken after the write, null for a delete
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeType type, Long studentId, Map<String, Object> before, Map<String, Object> after) {
+        changeEventRepository.save(new StudentChangeEvent(type, studentId, toJson(before), toJson(after)));
+        
+        StudentChangeRelay relay = changeRelay.getIfAvailable();
+        if (relay != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.publishSoon();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Snapshot of a student's current state; taken eagerly because bulk
+     * updates detach the managed entity
+     */
+    public static Map<String, Object> image(StudentEntity student) {
+        Map<String, Object> image = new LinkedHashMap<>();
+        // As a string, like StudentDTO: 64-bit IDs do not survive JavaScript numbers
+        image.put("id", student.getId() != null ? student.getId().toString() : null);
+        image.put("name", student.getName());
+        image.put("email", student.getEmail());
+        image.put("phone", student.getPhone());
+        image.put("gpa", student.getGpa());
+        image.put("status", student.getStatus() != null ? student.getStatus().name() : null);
+        image.put("version", student.getVersion());
+        image.put("createdAt", student.getCreatedAt() != null ? student.getCreatedAt().toString() : null);
+        image.put("updatedAt", student.getUpdatedAt() != null ? student.getUpdatedAt().toString() : null);
+        return image;
+    }
+    
+    private static String toJson(Map<String, Object> image) {
+        if (image == null) {
+            return null;
+        }
+        try {
+            return JSON.writeValueAsString(image);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Student image cannot be serialized", e);
+        }
+    }
+}
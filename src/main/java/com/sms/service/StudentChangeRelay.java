@@ -0,0 +1,184 @@
+package com.sms.service;
+
+import com.sms.dto.StudentChangeEventDTO;
+import com.sms.model.StudentChangeEvent;
+import com.sms.repository.StudentChangeEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * StudentChangeRelay - Publishes committed outbox rows as an ordered change stream.
+ * 
+ * A committed outbox row has no sequence number yet. The relay assigns the next
+ * numbers in one short transaction, so sequence order is publish order and a consumer
+ * that has seen sequence N has seen everything up to N: an outbox row that commits
+ * late simply gets a later number. Several nodes may run a relay against the same
+ * database; the unique index on the sequence lets only one of two racing relays
+ * commit, and the loser retries on its next run.
+ * 
+ * The relay runs after every local commit that recorded an event and otherwise
+ * polls, which also picks up events written or published by other nodes. After each
+ * run subscribers receive every event published since the previous run.
+ */
+@Service
+public class StudentChangeRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StudentChangeRelay.class);
+    
+    /** Outbox rows numbered per transaction, and events per subscriber notification */
+    static final int BATCH_SIZE = 500;
+    
+    private final StudentChangeEventRepository changeEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pollInterval;
+    private final List<Consumer<List<StudentChangeEventDTO>>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean runScheduled = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+    // Highest sequence handed to subscribers; guarded by this
+    private long lastNotified;
+    
+    public StudentChangeRelay(StudentChangeEventRepository changeEventRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.cdc.poll-interval:1s}") Duration pollInterval) {
+        this.changeEventRepository = changeEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollInterval = pollInterval;
+    }
+    
+    @PostConstruct
+    public void start() {
+        synchronized (this) {
+            lastNotified = changeEventRepository.findLastSequence();
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "student-change-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runQuietly,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Run the relay as soon as possible on its own thread; requests made while a run
+     * is already queued are coalesced into it
+     */
+    public void publishSoon() {
+        if (executor != null && runScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                runScheduled.set(false);
+                runQuietly();
+            });
+        }
+    }
+    
+    /**
+     * Number the committed outbox rows and notify subscribers of everything
+     * published since the last notification
+     * 
+     * @return number of outbox rows this call published
+     */
+    public synchronized int publishPending() {
+        int published = 0;
+        try {
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> assignSequences());
+                published += batch;
+            } while (batch == BATCH_SIZE);
+        } catch (DataIntegrityViolationException e) {
+            // Another node's relay numbered the same rows first
+            logger.debug("Change relay lost a publishing race, retrying on the next run");
+        }
+        notifySubscribers();
+        return published;
+    }
+    
+    /**
+     * Published events after a sequence number, in order
+     */
+    public List<StudentChangeEventDTO> eventsAfter(long after, int limit) {
+        return changeEventRepository.findPublishedAfter(after, PageRequest.of(0, limit)).stream()
+                .map(StudentChangeEventDTO::of)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Receive each batch of newly published events. Callbacks run on the relay
+     * thread and must not block.
+     * 
+     * @return action that removes the subscription
+     */
+    public Runnable subscribe(Consumer<List<StudentChangeEventDTO>> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+    
+    private int assignSequences() {
+        List<StudentChangeEvent> pending = changeEventRepository.findUnpublished(PageRequest.of(0, BATCH_SIZE));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long next = changeEventRepository.findLastSequence();
+        for (StudentChangeEvent event : pending) {
+            event.setSequence(++next);
+        }
+        changeEventRepository.flush();
+        return pending.size();
+    }
+    
+    private void notifySubscribers() {
+        if (subscribers.isEmpty()) {
+            lastNotified = changeEventRepository.findLastSequence();
+            return;
+        }
+        List<StudentChangeEventDTO> batch;
+        do {
+            batch = eventsAfter(lastNotified, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return;
+            }
+            lastNotified = batch.get(batch.size() - 1).getSequence();
+            for (Consumer<List<StudentChangeEventDTO>> subscriber : subscribers) {
+                try {
+                    subscriber.accept(batch);
+                } catch (RuntimeException e) {
+                    logger.warn("Change event subscriber failed", e);
+                }
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+    
+    private void runQuietly() {
+        try {
+            publishPending();
+        } catch (RuntimeException e) {
+            logger.warn("Change relay run failed", e);
+        }
+    }
+}
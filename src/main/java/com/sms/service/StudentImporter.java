@@ -0,0 +1,695 @@
+package com.sms.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sms.model.Student;
+import com.sms.util.ValidationReport;
+
+/**
+ * Bulk import of students from CSV or TSV files.
+ *
+ * The file is cut into byte ranges that are read with positional NIO reads and
+ * parsed and validated in parallel on a fork-join pool. Each range owns the
+ * lines that start in it. The calling thread takes the parsed ranges in file
+ * order, drops emails seen earlier in the file, and writes the rest through
+ * batched {@code StudentDao} calls. At most {@code maxInFlight} ranges are
+ * parsed ahead of the writer, so a slow store holds back the parsers and memory
+ * stays bounded for any file size.
+ *
+ * Rejected lines go to an error file (line, reason, original text), created
+ * next to the input on the first error.
+ *
+ * The first line is a header if it names an email column; columns are then
+ * matched by name. Otherwise the columns are firstName, lastName, email,
+ * phoneNumber, dateOfBirth, address, city, state, zipCode, of which the first
+ * four are required. Fields may be double-quoted, with "" for a quote, but may
+ * not contain line breaks.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentImporter {
+
+    /** Default size of the byte range parsed by one task */
+    public static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+
+    /** Default number of students per DAO call */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** Longest accepted line; a line running further past its range is rejected */
+    public static final int MAX_LINE_BYTES = 64 << 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImporter.class);
+
+    private static final String[] DEFAULT_COLUMNS = {
+        "firstname", "lastname", "email", "phonenumber",
+        "dateofbirth", "address", "city", "state", "zipcode"
+    };
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+            "phone", "phonenumber",
+            "dob", "dateofbirth",
+            "zip", "zipcode");
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE = 3;
+    private static final int DATE_OF_BIRTH = 4;
+    private static final int ADDRESS = 5;
+    private static final int CITY = 6;
+    private static final int STATE = 7;
+    private static final int ZIP_CODE = 8;
+    private static final int REQUIRED_COLUMNS = 4;
+
+    private final StudentService studentService;
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    /**
+     * Creates an importer with the default chunk and batch sizes on the common pool.
+     *
+     * @param studentService the service that validates and stores the students
+     */
+    public StudentImporter(StudentService studentService) {
+        this(studentService, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE,
+                2 * ForkJoinPool.commonPool().getParallelism() + 1);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param studentService the service that validates and stores the students
+     * @param pool pool for parsing and validation
+     * @param chunkBytes size of the byte range parsed by one task
+     * @param batchSize number of students per DAO call
+     * @param maxInFlight ranges parsed or being parsed ahead of the writer
+     */
+    public StudentImporter(StudentService studentService, ForkJoinPool pool,
+                           int chunkBytes, int batchSize, int maxInFlight) {
+        if (studentService == null) {
+            throw new IllegalArgumentException("StudentService cannot be null");
+        }
+        if (chunkBytes < 1 || batchSize < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Chunk size, batch size and in-flight limit must be positive");
+        }
+        this.studentService = studentService;
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Imports a file, writing rejected lines to {@code <file>.errors.csv}.
+     *
+     * @see #importFile(Path, Path, ProgressListener)
+     */
+    public ImportResult importFile(Path file, ProgressListener listener) throws IOException, ServiceException {
+        return importFile(file, file.resolveSibling(file.getFileName() + ".errors.csv"), listener);
+    }
+
+    /**
+     * Imports a file.
+     *
+     * @param file CSV file, or TSV if the name ends in .tsv or the first line has a tab
+     * @param errorFile where to write rejected lines (replaced if it exists)
+     * @param listener told about progress after each range, or null
+     * @return the counts of the import
+     * @throws IOException if the file cannot be read or the error file written
+     * @throws ServiceException if storing the students fails
+     */
+    public ImportResult importFile(Path file, Path errorFile, ProgressListener listener)
+            throws IOException, ServiceException {
+        long startNanos = System.nanoTime();
+        Files.deleteIfExists(errorFile);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             ErrorWriter errors = new ErrorWriter(errorFile)) {
+            long size = channel.size();
+            Format format = readFormat(channel, file);
+            ImportResult result = new ImportResult(size, errorFile);
+            BatchWriter writer = new BatchWriter(result, errors, format.firstDataLine);
+
+            // Ranges are written in file order; at most maxInFlight are parsed ahead
+            Deque<CompletableFuture<ParsedChunk>> inFlight = new ArrayDeque<>();
+            long nextStart = format.dataStart;
+            while (nextStart < size || !inFlight.isEmpty()) {
+                while (inFlight.size() < maxInFlight && nextStart < size) {
+                    long start = nextStart;
+                    long end = Math.min(size, start + chunkBytes);
+                    inFlight.add(CompletableFuture.supplyAsync(() -> parseChunk(channel, start, end, format), pool));
+                    nextStart = end;
+                }
+                ParsedChunk chunk = join(inFlight.poll());
+                writer.write(chunk);
+                result.bytesRead = chunk.end;
+                if (listener != null) {
+                    listener.onProgress(result);
+                }
+            }
+            writer.flush();
+            result.elapsedNanos = System.nanoTime() - startNanos;
+            result.errorFileWritten = errors.isOpen();
+            logger.info("Imported {} of {} students from {} in {} ms ({} rejected)", result.imported,
+                    result.records, file, result.elapsedNanos / 1_000_000, result.getRejected());
+            return result;
+        }
+    }
+
+    private static ParsedChunk join(CompletableFuture<ParsedChunk> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    // ==================== PARSING ====================
+
+    /**
+     * Reads the first line: delimiter, and header or positional columns.
+     */
+    private static Format readFormat(FileChannel channel, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), MAX_LINE_BYTES));
+        readFully(channel, buffer, 0);
+        byte[] bytes = buffer.array();
+        int length = buffer.position();
+        int lineEnd = indexOf(bytes, 0, length, (byte) '\n');
+        int contentEnd = lineEnd < 0 ? length : lineEnd;
+        int offset = length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB
+                && (bytes[2] & 0xFF) == 0xBF ? 3 : 0;
+        String firstLine = stripCarriageReturn(new String(bytes, offset, Math.max(0, contentEnd - offset),
+                StandardCharsets.UTF_8));
+
+        char delimiter = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".tsv")
+                || firstLine.indexOf('\t') >= 0 ? '\t' : ',';
+        int[] columns = headerColumns(firstLine, delimiter);
+        if (columns == null) {
+            int[] positional = new int[DEFAULT_COLUMNS.length];
+            for (int i = 0; i < positional.length; i++) {
+                positional[i] = i;
+            }
+            return new Format(delimiter, positional, offset, 1);
+        }
+        long dataStart = lineEnd < 0 ? channel.size() : lineEnd + 1;
+        return new Format(delimiter, columns, dataStart, 2);
+    }
+
+    /**
+     * @return field index of each known column, -1 if absent; null if the line is not a header
+     */
+    private static int[] headerColumns(String line, char delimiter) {
+        List<String> names = new ArrayList<>();
+        if (splitFields(line, delimiter, names) != null) {
+            return null;
+        }
+        int[] columns = new int[DEFAULT_COLUMNS.length];
+        Arrays.fill(columns, -1);
+        for (int field = 0; field < names.size(); field++) {
+            String name = names.get(field).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+            name = COLUMN_ALIASES.getOrDefault(name, name);
+            for (int column = 0; column < DEFAULT_COLUMNS.length; column++) {
+                if (DEFAULT_COLUMNS[column].equals(name) && columns[column] < 0) {
+                    columns[column] = field;
+                }
+            }
+        }
+        return columns[EMAIL] < 0 ? null : columns;
+    }
+
+    /**
+     * Parses and validates the lines that start in [start, end). A line starts in
+     * the range if it begins at start and start is a line start, or after a line
+     * break inside the range.
+     */
+    private ParsedChunk parseChunk(FileChannel channel, long start, long end, Format format) {
+        try {
+            long readFrom = start == format.dataStart ? start : start - 1;
+            long readTo = Math.min(channel.size(), end + MAX_LINE_BYTES);
+            ByteBuffer buffer = ByteBuffer.allocate((int) (readTo - readFrom));
+            readFully(channel, buffer, readFrom);
+            byte[] bytes = buffer.array();
+            int length = buffer.position();
+            int limit = (int) (end - readFrom);
+
+            int position = 0;
+            if (readFrom < start) {
+                // Skip the tail of the line owned by the previous range
+                int lineBreak = indexOf(bytes, 0, length, (byte) '\n');
+                position = lineBreak < 0 ? length : lineBreak + 1;
+            }
+
+            ParsedChunk chunk = new ParsedChunk(end);
+            List<String> fields = new ArrayList<>(DEFAULT_COLUMNS.length);
+            while (position < limit && position < length) {
+                int lineBreak = indexOf(bytes, position, length, (byte) '\n');
+                int lineIndex = chunk.lineCount++;
+                if (lineBreak < 0 && readTo < channel.size()) {
+                    chunk.errors.add(new LineError(lineIndex, "Line longer than " + MAX_LINE_BYTES + " bytes", ""));
+                    break;
+                }
+                int lineEnd = lineBreak < 0 ? length : lineBreak;
+                String line = stripCarriageReturn(new String(bytes, position, lineEnd - position,
+                        StandardCharsets.UTF_8));
+                position = lineEnd + 1;
+                if (!line.isBlank()) {
+                    parseLine(line, lineIndex, format, fields, chunk);
+                }
+            }
+            validate(chunk);
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void parseLine(String line, int lineIndex, Format format, List<String> fields, ParsedChunk chunk) {
+        fields.clear();
+        String error = splitFields(line, format.delimiter, fields);
+        if (error == null) {
+            for (int column = 0; column < REQUIRED_COLUMNS; column++) {
+                if (format.columns[column] < 0 || format.columns[column] >= fields.size()) {
+                    error = "Expected at least " + (format.lastRequiredField() + 1) + " fields, found " + fields.size();
+                    break;
+                }
+            }
+        }
+        if (error != null) {
+            chunk.errors.add(new LineError(lineIndex, error, line));
+            return;
+        }
+        Student student = new Student(field(fields, format, FIRST_NAME), field(fields, format, LAST_NAME),
+                field(fields, format, EMAIL), field(fields, format, PHONE));
+        String dateOfBirth = field(fields, format, DATE_OF_BIRTH);
+        if (!dateOfBirth.isEmpty()) {
+            try {
+                student.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException e) {
+                chunk.errors.add(new LineError(lineIndex, "dateOfBirth: Invalid date (expected yyyy-MM-dd)", line));
+                return;
+            }
+        }
+        student.setAddress(emptyToNull(field(fields, format, ADDRESS)));
+        student.setCity(emptyToNull(field(fields, format, CITY)));
+        student.setState(emptyToNull(field(fields, format, STATE)));
+        student.setZipCode(emptyToNull(field(fields, format, ZIP_CODE)));
+        chunk.students.add(student);
+        chunk.studentLines.add(lineIndex);
+        chunk.lines.add(line);
+    }
+
+    /**
+     * Validates the parsed students of a range in one batch and moves the invalid ones to the errors.
+     */
+    private void validate(ParsedChunk chunk) {
+        ValidationReport report = studentService.validateStudents(chunk.students);
+        if (report.isValid()) {
+            return;
+        }
+        List<Student> valid = new ArrayList<>(chunk.students.size() - report.getInvalidCount());
+        List<Integer> validLines = new ArrayList<>(valid.size());
+        List<String> validText = new ArrayList<>(valid.size());
+        int next = 0;
+        for (ValidationReport.RecordErrors record : report.getInvalidRecords()) {
+            for (; next < record.getIndex(); next++) {
+                valid.add(chunk.students.get(next));
+                validLines.add(chunk.studentLines.get(next));
+                validText.add(chunk.lines.get(next));
+            }
+            StringBuilder reason = new StringBuilder();
+            record.getFieldErrors().forEach((field, message) ->
+                    reason.append(reason.length() == 0 ? "" : "; ").append(field).append(": ").append(message));
+            chunk.errors.add(new LineError(chunk.studentLines.get(next), reason.toString(), chunk.lines.get(next)));
+            next++;
+        }
+        for (; next < chunk.students.size(); next++) {
+            valid.add(chunk.students.get(next));
+            validLines.add(chunk.studentLines.get(next));
+            validText.add(chunk.lines.get(next));
+        }
+        chunk.students = valid;
+        chunk.studentLines = validLines;
+        chunk.lines = validText;
+        chunk.errors.sort((a, b) -> Integer.compare(a.lineIndex, b.lineIndex));
+    }
+
+    /**
+     * Splits a delimited line into fields, honouring double quotes.
+     *
+     * @return null, or an error message for a malformed line
+     */
+    static String splitFields(String line, char delimiter, List<String> fields) {
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            field.setLength(0);
+            if (i < length && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        return "Unterminated quoted field";
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < length && line.charAt(i) != delimiter) {
+                    return "Unexpected character after quoted field";
+                }
+            } else {
+                int next = line.indexOf(delimiter, i);
+                int fieldEnd = next < 0 ? length : next;
+                field.append(line, i, fieldEnd);
+                i = fieldEnd;
+            }
+            fields.add(field.toString().trim());
+            if (i >= length) {
+                return null;
+            }
+            i++; // delimiter
+        }
+    }
+
+    private static String field(List<String> fields, Format format, int column) {
+        int index = format.columns[column];
+        return index >= 0 && index < fields.size() ? fields.get(index) : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String stripCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Runs on the calling thread: deduplicates in file order and stores in batches.
+     */
+    private final class BatchWriter {
+
+        private final ImportResult result;
+        private final ErrorWriter errors;
+        private final Map<String, Long> firstLineByEmail = new HashMap<>();
+        private final List<Student> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<String> batchText = new ArrayList<>(batchSize);
+        private long lineOffset;
+
+        BatchWriter(ImportResult result, ErrorWriter errors, long firstDataLine) {
+            this.result = result;
+            this.errors = errors;
+            this.lineOffset = firstDataLine;
+        }
+
+        void write(ParsedChunk chunk) throws IOException, ServiceException {
+            result.records += chunk.students.size() + chunk.errors.size();
+            for (LineError error : chunk.errors) {
+                result.invalid++;
+                errors.write(lineOffset + error.lineIndex, error.message, error.line);
+            }
+            for (int i = 0; i < chunk.students.size(); i++) {
+                Student student = chunk.students.get(i);
+                long line = lineOffset + chunk.studentLines.get(i);
+                Long firstLine = firstLineByEmail.putIfAbsent(student.getEmail().toLowerCase(Locale.ROOT), line);
+                if (firstLine != null) {
+                    result.duplicatesInFile++;
+                    errors.write(line, "email: Duplicate of line " + firstLine, chunk.lines.get(i));
+                    continue;
+                }
+                batch.add(student);
+                batchLines.add(line);
+                batchText.add(chunk.lines.get(i));
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+            lineOffset += chunk.lineCount;
+        }
+
+        void flush() throws IOException, ServiceException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            boolean[] created = studentService.addValidatedStudents(batch);
+            for (int i = 0; i < created.length; i++) {
+                if (created[i]) {
+                    result.imported++;
+                } else {
+                    result.duplicatesInStore++;
+                    errors.write(batchLines.get(i), "email: Already exists", batchText.get(i));
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+            batchText.clear();
+        }
+    }
+
+    /**
+     * CSV error file, created on the first error.
+     */
+    private static final class ErrorWriter implements AutoCloseable {
+
+        private final Path file;
+        private BufferedWriter out;
+
+        ErrorWriter(Path file) {
+            this.file = file;
+        }
+
+        void write(long line, String reason, String text) throws IOException {
+            if (out == null) {
+                out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                out.write("line,error,record");
+                out.newLine();
+            }
+            out.write(Long.toString(line));
+            out.write(',');
+            out.write(quote(reason));
+            out.write(',');
+            out.write(quote(text));
+            out.newLine();
+        }
+
+        boolean isOpen() {
+            return out != null;
+        }
+
+        private static String quote(String value) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    // ==================== TYPES ====================
+
+    private static final class Format {
+
+        final char delimiter;
+        final int[] columns;
+        final long dataStart;
+        final long firstDataLine;
+
+        Format(char delimiter, int[] columns, long dataStart, long firstDataLine) {
+            this.delimiter = delimiter;
+            this.columns = columns;
+            this.dataStart = dataStart;
+            this.firstDataLine = firstDataLine;
+        }
+
+        int lastRequiredField() {
+            int last = 0;
+            for (int column = 0; column < REQUIRED_COLUMNS; column++) {
+                last = Math.max(last, columns[column]);
+            }
+            return last;
+        }
+    }
+
+    private static final class ParsedChunk {
+
+        final long end;
+        int lineCount;
+        List<Student> students = new ArrayList<>();
+        List<Integer> studentLines = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        final List<LineError> errors = new ArrayList<>();
+
+        ParsedChunk(long end) {
+            this.end = end;
+        }
+    }
+
+    private static final class LineError {
+
+        final int lineIndex;
+        final String message;
+        final String line;
+
+        LineError(int lineIndex, String message, String line) {
+            this.lineIndex = lineIndex;
+            this.message = message;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Receives progress after each range is written.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        void onProgress(ImportResult progress);
+    }
+
+    /**
+     * Counts of an import, updated as it runs.
+     */
+    public static final class ImportResult {
+
+        private final long totalBytes;
+        private final Path errorFile;
+        private long bytesRead;
+        private long records;
+        private long imported;
+        private long invalid;
+        private long duplicatesInFile;
+        private long duplicatesInStore;
+        private long elapsedNanos;
+        private boolean errorFileWritten;
+
+        ImportResult(long totalBytes, Path errorFile) {
+            this.totalBytes = totalBytes;
+            this.errorFile = errorFile;
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * @return non-blank lines read, excluding the header
+         */
+        public long getRecords() {
+            return records;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * @return lines that could not be parsed or failed validation
+         */
+        public long getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * @return lines whose email appeared on an earlier line
+         */
+        public long getDuplicatesInFile() {
+            return duplicatesInFile;
+        }
+
+        /**
+         * @return lines whose email was already stored
+         */
+        public long getDuplicatesInStore() {
+            return duplicatesInStore;
+        }
+
+        public long getRejected() {
+            return invalid + duplicatesInFile + duplicatesInStore;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+        }
+
+        public double getMegabytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : totalBytes * 1e9 / elapsedNanos / (1 << 20);
+        }
+
+        /**
+         * @return the error file, or null if no line was rejected
+         */
+        public Path getErrorFile() {
+            return errorFileWritten ? errorFile : null;
+        }
+    }
+}
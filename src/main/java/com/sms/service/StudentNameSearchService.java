@@ -0,0 +1,120 @@
+package com.sms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.model.StudentEntity;
+import com.sms.repository.StudentChangeEventRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.FuzzyNameIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * StudentNameSearchService - Misspelling-tolerant name search over a node-local
+ * {@link FuzzyNameIndex}.
+ * 
+ * The index is built on the first search by a keyset scan of (id, name) pairs and then
+ * follows the change stream (see {@link ChangeFollowingIndex}); an event replaces the
+ * name in its before image with the one in its after image. Adds and removes are
+ * idempotent, so replaying an event is harmless.
+ */
+@Service
+public class StudentNameSearchService extends ChangeFollowingIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StudentNameSearchService.class);
+    
+    /** Rows per keyset page while building */
+    private static final int BATCH_SIZE = 5000;
+    
+    private final StudentRepository studentRepository;
+    private final FuzzyNameIndex index = new FuzzyNameIndex();
+    
+    /**
+     * A student and how closely its name matched
+     */
+    public static class RankedStudent {
+        
+        private final StudentEntity student;
+        private final FuzzyNameIndex.Match match;
+        
+        public RankedStudent(StudentEntity student, FuzzyNameIndex.Match match) {
+            this.student = student;
+            this.match = match;
+        }
+        
+        public StudentEntity getStudent() {
+            return student;
+        }
+        
+        public FuzzyNameIndex.Match getMatch() {
+            return match;
+        }
+    }
+    
+    public StudentNameSearchService(StudentRepository studentRepository,
+                                    StudentChangeEventRepository changeEventRepository,
+                                    StudentChangeRelay changeRelay,
+                                    ObjectMapper objectMapper) {
+        super(changeEventRepository, changeRelay, objectMapper);
+        this.studentRepository = studentRepository;
+    }
+    
+    /**
+     * Students whose name has words spelled like, or sounding like, every query word
+     * 
+     * @return at most limit students, closest match first
+     */
+    public List<RankedStudent> search(String query, int limit) {
+        ensureBuilt();
+        List<FuzzyNameIndex.Match> matches = index.search(query, limit);
+        Map<Long, StudentEntity> students = studentRepository.findAllById(
+                matches.stream().map(FuzzyNameIndex.Match::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(StudentEntity::getId, Function.identity()));
+        List<RankedStudent> ranked = new ArrayList<>(matches.size());
+        for (FuzzyNameIndex.Match match : matches) {
+            StudentEntity student = students.get(match.getId());
+            // Missing if deleted after the index last caught up
+            if (student != null) {
+                ranked.add(new RankedStudent(student, match));
+            }
+        }
+        return ranked;
+    }
+    
+    @Override
+    protected void load() {
+        long started = System.nanoTime();
+        long after = 0;
+        List<Object[]> page;
+        do {
+            page = studentRepository.findNamesAfter(after, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : page) {
+                after = (Long) row[0];
+                index.add(after, (String) row[1]);
+            }
+        } while (page.size() == BATCH_SIZE);
+        logger.info("Built name index: {} words, {} entries in {} ms", index.getWordCount(),
+                index.getEntryCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @Override
+    protected void apply(long studentId, JsonNode before, JsonNode after) {
+        String oldName = text(before, "name");
+        String newName = text(after, "name");
+        if (oldName != null) {
+            index.remove(studentId, oldName);
+        }
+        if (newName != null) {
+            index.add(studentId, newName);
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.sms.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 import com.sms.dao.DaoException;
 import com.sms.dao.StudentDao;
 import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.util.BatchValidator;
+import com.sms.util.FieldValidators;
+import com.sms.util.FuzzyNameIndex;
+import com.sms.util.FieldViolation;
+import com.sms.util.ValidationReport;
 
 /**
  * Service layer for Student business logic.
@@ -18,17 +28,15 @@ import com.sms.model.Student;
  */
 public class StudentService {
     
-    private StudentDao studentDao;
-    
-    // Validation patterns
-    private static final Pattern EMAIL_PATTERN = 
-        Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final BatchValidator<Student> NEW_STUDENT_VALIDATOR =
+            new BatchValidator<>(StudentService::checkNewStudent);
     
-    private static final Pattern PHONE_PATTERN = 
-        Pattern.compile("^[\\d\\-\\+\\s\\(\\)]{10,}$");
+    private StudentDao studentDao;
     
-    private static final Pattern NAME_PATTERN = 
-        Pattern.compile("^[a-zA-Z\\s'-]{2,50}$");
+    // Fuzzy name indexes: built on the first fuzzy search, then kept current by the
+    // writes made through this service
+    private volatile FuzzyNameIndex firstNameIndex;
+    private volatile FuzzyNameIndex lastNameIndex;
     
     /**
      * Constructor with StudentDao dependency injection.
@@ -64,9 +72,11 @@ public class StudentService {
         Student student = new Student(firstName, lastName, email, phoneNumber);
         
         try {
-            return studentDao.create(student);
+            Student created = studentDao.create(student);
+            indexNames(created);
+            return created;
         } catch (DaoException e) {
-            throw new ServiceException("Failed to add student: " + e.getMessage(), e);
+            throw failure("Failed to add student: ", e);
         }
     }
     
@@ -79,13 +89,13 @@ public class StudentService {
      */
     public Optional<Student> getStudent(Long id) throws ServiceException {
         if (id == null || id <= 0) {
-            throw new ServiceException("Invalid student ID");
+            throw new BusinessRuleException("Invalid student ID");
         }
         
         try {
             return studentDao.findById(id);
         } catch (DaoException e) {
-            throw new ServiceException("Failed to retrieve student: " + e.getMessage(), e);
+            throw failure("Failed to retrieve student: ", e);
         }
     }
     
@@ -99,7 +109,41 @@ public class StudentService {
         try {
             return studentDao.findAll();
         } catch (DaoException e) {
-            throw new ServiceException("Failed to retrieve students: " + e.getMessage(), e);
+            throw failure("Failed to retrieve students: ", e);
+        }
+    }
+    
+    /**
+     * Retrieves one page of students, in the order of {@link #getAllStudents()}.
+     * 
+     * @param page zero-based page number
+     * @param pageSize students per page
+     * @return the students on the page; empty past the last page
+     * @throws ServiceException if operation fails
+     */
+    public List<Student> getStudentPage(int page, int pageSize) throws ServiceException {
+        if (page < 0 || pageSize <= 0) {
+            throw new BusinessRuleException("Invalid page: " + page + " of size " + pageSize);
+        }
+        try {
+            return studentDao.findPage((long) page * pageSize, pageSize);
+        } catch (DaoException e) {
+            throw failure("Failed to retrieve students: ", e);
+        }
+    }
+    
+    /**
+     * Streams all students to an action, in the order of {@link #getAllStudents()},
+     * without loading them all into memory.
+     * 
+     * @param action receives each student; unchecked exceptions stop the scan
+     * @throws ServiceException if operation fails
+     */
+    public void forEachStudent(Consumer<? super Student> action) throws ServiceException {
+        try {
+            studentDao.forEach(action);
+        } catch (DaoException e) {
+            throw failure("Failed to retrieve students: ", e);
         }
     }
     
@@ -112,13 +156,13 @@ public class StudentService {
      */
     public List<Student> searchByFirstName(String firstName) throws ServiceException {
         if (firstName == null || firstName.trim().isEmpty()) {
-            throw new ServiceException("First name cannot be empty");
+            throw new BusinessRuleException("First name cannot be empty");
         }
         
         try {
             return studentDao.findByFirstName(firstName);
         } catch (DaoException e) {
-            throw new ServiceException("Failed to search: " + e.getMessage(), e);
+            throw failure("Failed to search: ", e);
         }
     }
     
@@ -131,14 +175,48 @@ public class StudentService {
      */
     public List<Student> searchByLastName(String lastName) throws ServiceException {
         if (lastName == null || lastName.trim().isEmpty()) {
-            throw new ServiceException("Last name cannot be empty");
+            throw new BusinessRuleException("Last name cannot be empty");
         }
         
         try {
             return studentDao.findByLastName(lastName);
         } catch (DaoException e) {
-            throw new ServiceException("Failed to search: " + e.getMessage(), e);
+            throw failure("Failed to search: ", e);
+        }
+    }
+    
+    /**
+     * Searches for students whose first name is spelled like, or sounds like, the
+     * given one. Uses an index, so the cost does not grow with the number of students.
+     * 
+     * @param firstName the first name to search, possibly misspelled
+     * @param limit maximum number of students to return
+     * @return matching students, closest match first
+     * @throws ServiceException if operation fails
+     */
+    public List<Student> fuzzySearchByFirstName(String firstName, int limit) throws ServiceException {
+        if (firstName == null || firstName.trim().isEmpty()) {
+            throw new BusinessRuleException("First name cannot be empty");
+        }
+        buildNameIndexes();
+        return studentsOf(firstNameIndex.search(firstName, limit));
+    }
+    
+    /**
+     * Searches for students whose last name is spelled like, or sounds like, the
+     * given one. Uses an index, so the cost does not grow with the number of students.
+     * 
+     * @param lastName the last name to search, possibly misspelled
+     * @param limit maximum number of students to return
+     * @return matching students, closest match first
+     * @throws ServiceException if operation fails
+     */
+    public List<Student> fuzzySearchByLastName(String lastName, int limit) throws ServiceException {
+        if (lastName == null || lastName.trim().isEmpty()) {
+            throw new BusinessRuleException("Last name cannot be empty");
         }
+        buildNameIndexes();
+        return studentsOf(lastNameIndex.search(lastName, limit));
     }
     
     /**
@@ -150,13 +228,13 @@ public class StudentService {
      */
     public Optional<Student> searchByEmail(String email) throws ServiceException {
         if (email == null || email.trim().isEmpty()) {
-            throw new ServiceException("Email cannot be empty");
+            throw new BusinessRuleException("Email cannot be empty");
         }
         
         try {
             return studentDao.findByEmail(email);
         } catch (DaoException e) {
-            throw new ServiceException("Failed to search: " + e.getMessage(), e);
+            throw failure("Failed to search: ", e);
         }
     }
     
@@ -169,7 +247,7 @@ public class StudentService {
      */
     public boolean updateStudent(Student student) throws ServiceException {
         if (student == null || student.getStudentId() == null) {
-            throw new ServiceException("Invalid student data");
+            throw new BusinessRuleException("Invalid student data");
         }
         
         validateName(student.getFirstName(), "First name");
@@ -181,10 +259,15 @@ public class StudentService {
         }
         
         try {
+            Optional<Student> before = nameIndexesBuilt() ? studentDao.findById(student.getStudentId()) : Optional.empty();
             boolean updated = studentDao.update(student);
+            if (updated && before.isPresent()) {
+                firstNameIndex.update(student.getStudentId(), before.get().getFirstName(), student.getFirstName());
+                lastNameIndex.update(student.getStudentId(), before.get().getLastName(), student.getLastName());
+            }
             return updated;
         } catch (DaoException e) {
-            throw new ServiceException("Failed to update student: " + e.getMessage(), e);
+            throw failure("Failed to update student: ", e);
         }
     }
     
@@ -197,14 +280,19 @@ public class StudentService {
      */
     public boolean deleteStudent(Long id) throws ServiceException {
         if (id == null || id <= 0) {
-            throw new ServiceException("Invalid student ID");
+            throw new BusinessRuleException("Invalid student ID");
         }
         
         try {
+            Optional<Student> before = nameIndexesBuilt() ? studentDao.findById(id) : Optional.empty();
             boolean deleted = studentDao.delete(id);
+            if (deleted && before.isPresent()) {
+                firstNameIndex.remove(id, before.get().getFirstName());
+                lastNameIndex.remove(id, before.get().getLastName());
+            }
             return deleted;
         } catch (DaoException e) {
-            throw new ServiceException("Failed to delete student: " + e.getMessage(), e);
+            throw failure("Failed to delete student: ", e);
         }
     }
     
@@ -218,7 +306,164 @@ public class StudentService {
         try {
             return studentDao.count();
         } catch (DaoException e) {
-            throw new ServiceException("Failed to count students: " + e.getMessage(), e);
+            throw failure("Failed to count students: ", e);
+        }
+    }
+    
+    /**
+     * Computes the student statistics in the data store, without loading the students.
+     * 
+     * @return counts by status, enrollments per month and the age distribution as of today
+     * @throws ServiceException if operation fails
+     */
+    public StudentAggregates getStatistics() throws ServiceException {
+        try {
+            return studentDao.aggregate(LocalDate.now());
+        } catch (DaoException e) {
+            throw failure("Failed to compute statistics: ", e);
+        }
+    }
+    
+    /**
+     * Validates a batch of new students in one pass, collecting every field error of
+     * every record. Large batches are validated in parallel.
+     * 
+     * @param students the students to validate
+     * @return the invalid records and their field errors
+     */
+    public ValidationReport validateStudents(List<Student> students) {
+        return NEW_STUDENT_VALIDATOR.validateAll(students);
+    }
+    
+    /**
+     * Validates a batch of new students and adds the valid ones.
+     * 
+     * @param students the students to add
+     * @return the records that were not added: field errors, or a "student" error
+     *         if the DAO rejected the record
+     */
+    public ValidationReport addStudents(List<Student> students) {
+        ValidationReport validation = validateStudents(students);
+        List<ValidationReport.RecordErrors> rejected = new ArrayList<>(validation.getInvalidRecords());
+        for (int i = 0; i < students.size(); i++) {
+            if (!validation.isValid(i)) {
+                continue;
+            }
+            Student student = students.get(i);
+            try {
+                Optional<Student> created = studentDao.createIfAbsent(student);
+                if (created.isPresent()) {
+                    indexNames(created.get());
+                } else {
+                    rejected.add(new ValidationReport.RecordErrors(i, Map.of("student",
+                            "Failed to add student: Student with email '" + student.getEmail() + "' already exists")));
+                }
+            } catch (DaoException e) {
+                rejected.add(new ValidationReport.RecordErrors(i,
+                        Map.of("student", "Failed to add student: " + e.getMessage())));
+            }
+        }
+        rejected.sort(Comparator.comparingInt(ValidationReport.RecordErrors::getIndex));
+        return new ValidationReport(students.size(), rejected);
+    }
+    
+    /**
+     * Stores students that already passed {@link #validateStudents(List)} with one
+     * batched DAO call, skipping each one whose email is already in use.
+     * 
+     * @param students the validated students to add
+     * @return for each student, whether it was added
+     * @throws ServiceException if the DAO fails
+     */
+    public boolean[] addValidatedStudents(List<Student> students) throws ServiceException {
+        try {
+            boolean[] created = studentDao.createAllIfAbsent(students);
+            if (nameIndexesBuilt()) {
+                for (int i = 0; i < created.length; i++) {
+                    if (created[i]) {
+                        indexNames(students.get(i));
+                    }
+                }
+            }
+            return created;
+        } catch (DaoException e) {
+            throw failure("Failed to add students: ", e);
+        }
+    }
+    
+    private boolean nameIndexesBuilt() {
+        return lastNameIndex != null;
+    }
+    
+    /**
+     * Builds the fuzzy name indexes from the data store, once.
+     */
+    private synchronized void buildNameIndexes() throws ServiceException {
+        if (nameIndexesBuilt()) {
+            return;
+        }
+        FuzzyNameIndex firstNames = new FuzzyNameIndex();
+        FuzzyNameIndex lastNames = new FuzzyNameIndex();
+        try {
+            studentDao.forEach(student -> {
+                firstNames.add(student.getStudentId(), student.getFirstName());
+                lastNames.add(student.getStudentId(), student.getLastName());
+            });
+        } catch (DaoException e) {
+            throw failure("Failed to build name index: ", e);
+        }
+        firstNameIndex = firstNames;
+        // Published last: nameIndexesBuilt() checks this one
+        lastNameIndex = lastNames;
+    }
+    
+    private void indexNames(Student student) {
+        if (nameIndexesBuilt() && student.getStudentId() != null) {
+            firstNameIndex.add(student.getStudentId(), student.getFirstName());
+            lastNameIndex.add(student.getStudentId(), student.getLastName());
+        }
+    }
+    
+    /**
+     * Loads the students of index matches, keeping the ranking.
+     */
+    private List<Student> studentsOf(List<FuzzyNameIndex.Match> matches) throws ServiceException {
+        List<Student> students = new ArrayList<>(matches.size());
+        try {
+            for (FuzzyNameIndex.Match match : matches) {
+                studentDao.findById(match.getId()).ifPresent(students::add);
+            }
+        } catch (DaoException e) {
+            throw failure("Failed to search: ", e);
+        }
+        return students;
+    }
+    
+    /**
+     * Wraps a DAO exception, keeping expected outcomes stackless.
+     */
+    private static ServiceException failure(String action, DaoException e) {
+        String message = action + e.getMessage();
+        return e.isExpected() ? new BusinessRuleException(message, e) : new ServiceException(message, e);
+    }
+    
+    /**
+     * Checks a new student: names, email and phone number are required.
+     */
+    private static void checkNewStudent(Student student, BatchValidator.FieldErrors errors) {
+        if (student == null) {
+            errors.add("student", "Invalid student data");
+            return;
+        }
+        addError(errors, "firstName", nameError(student.getFirstName(), "First name"));
+        addError(errors, "lastName", nameError(student.getLastName(), "Last name"));
+        addError(errors, "email", emailError(student.getEmail()));
+        addError(errors, "phoneNumber", phoneError(student.getPhoneNumber()));
+    }
+    
+    private static void addError(BatchValidator.FieldErrors errors, String field, String message) {
+        if (message != null) {
+            errors.add(field, message);
         }
     }
     
@@ -230,12 +475,9 @@ public class StudentService {
      * @throws ServiceException if validation fails
      */
     private void validateName(String name, String fieldName) throws ServiceException {
-        if (name == null || name.trim().isEmpty()) {
-            throw new ServiceException(fieldName + " cannot be empty");
-        }
-        
-        if (!NAME_PATTERN.matcher(name.trim()).matches()) {
-            throw new ServiceException(fieldName + " must be 2-50 characters and contain only letters, spaces, hyphens, or apostrophes");
+        String error = nameError(name, fieldName);
+        if (error != null) {
+            throw new BusinessRuleException(error);
         }
     }
     
@@ -246,16 +488,9 @@ public class StudentService {
      * @throws ServiceException if validation fails
      */
     private void validateEmail(String email) throws ServiceException {
-        if (email == null || email.trim().isEmpty()) {
-            throw new ServiceException("Email cannot be empty");
-        }
-        
-        if (!EMAIL_PATTERN.matcher(email.trim()).matches()) {
-            throw new ServiceException("Invalid email format");
-        }
-        
-        if (email.length() > 100) {
-            throw new ServiceException("Email is too long (max 100 characters)");
+        String error = emailError(email);
+        if (error != null) {
+            throw new BusinessRuleException(error);
         }
     }
     
@@ -266,13 +501,54 @@ public class StudentService {
      * @throws ServiceException if validation fails
      */
     private void validatePhone(String phone) throws ServiceException {
-        if (phone == null || phone.trim().isEmpty()) {
-            throw new ServiceException("Phone number cannot be empty");
+        String error = phoneError(phone);
+        if (error != null) {
+            throw new BusinessRuleException(error);
         }
-        
-        String cleanPhone = phone.replaceAll("[\\D]", "");
-        if (cleanPhone.length() < 10) {
-            throw new ServiceException("Phone number must contain at least 10 digits");
+    }
+    
+    /**
+     * @return the error message for a name, or null if it is valid
+     */
+    private static String nameError(String name, String fieldName) {
+        FieldViolation violation = FieldValidators.checkName(name);
+        if (violation == FieldViolation.EMPTY) {
+            return fieldName + " cannot be empty";
+        }
+        if (violation != null) {
+            return fieldName + " must be 2-50 characters and contain only letters, spaces, hyphens, or apostrophes";
+        }
+        return null;
+    }
+    
+    /**
+     * @return the error message for an email address, or null if it is valid
+     */
+    private static String emailError(String email) {
+        FieldViolation violation = FieldValidators.checkEmail(email);
+        if (violation == FieldViolation.EMPTY) {
+            return "Email cannot be empty";
+        }
+        if (violation == FieldViolation.INVALID_FORMAT) {
+            return "Invalid email format";
+        }
+        if (violation == FieldViolation.TOO_LONG) {
+            return "Email is too long (max 100 characters)";
+        }
+        return null;
+    }
+    
+    /**
+     * @return the error message for a phone number, or null if it is valid
+     */
+    private static String phoneError(String phone) {
+        FieldViolation violation = FieldValidators.checkPhone(phone);
+        if (violation == FieldViolation.EMPTY) {
+            return "Phone number cannot be empty";
+        }
+        if (violation == FieldViolation.TOO_FEW_DIGITS) {
+            return "Phone number must contain at least 10 digits";
         }
+        return null;
     }
 }
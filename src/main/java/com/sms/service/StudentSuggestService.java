@@ -0,0 +1,225 @@
+package com.sms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.repository.StudentChangeEventRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StudentSuggestService - Type-ahead suggestions for student names and emails from
+ * node-local {@link PrefixIndex}es, answered without touching the database.
+ *
+ * A name is indexed from the start of each of its words, so "smi" and "john sm" both
+ * find "John Smith"; emails are indexed whole. Matches are ranked by the configured
+ * score (app.suggest.rank-by). The indexes are built on the first request by a keyset
+ * scan and then follow the change stream (see {@link ChangeFollowingIndex}).
+ */
+@Service
+public class StudentSuggestService extends ChangeFollowingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentSuggestService.class);
+
+    /** Rows per keyset page while building */
+    private static final int BATCH_SIZE = 5000;
+
+    // Estimated heap per cached suggestion: map node, boxed key and the DTO itself
+    private static final int SUGGESTION_ENTRY_BYTES = 32 + 16 + 24 + 8;
+
+    /**
+     * Which attribute ranks suggestions that match equally well
+     */
+    public enum Ranking {
+        /** Most recently updated first */
+        RECENT,
+        /** Highest GPA first */
+        GPA,
+        /** Alphabetical by matched term */
+        NAME
+    }
+
+    /**
+     * Which attributes a prefix is matched against
+     */
+    public enum Field {
+        NAME, EMAIL, ALL
+    }
+
+    private final StudentRepository studentRepository;
+    private final Ranking ranking;
+    private final PrefixIndex names = new PrefixIndex();
+    private final PrefixIndex emails = new PrefixIndex();
+    private final Map<Long, StudentSuggestionDTO> suggestions = new ConcurrentHashMap<>();
+
+    public StudentSuggestService(StudentRepository studentRepository,
+                                 StudentChangeEventRepository changeEventRepository,
+                                 StudentChangeRelay changeRelay,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.suggest.rank-by:RECENT}") Ranking ranking) {
+        super(changeEventRepository, changeRelay, objectMapper);
+        this.studentRepository = studentRepository;
+        this.ranking = ranking;
+    }
+
+    /**
+     * Students with a name word or email starting with the prefix, best first
+     */
+    public List<StudentSuggestionDTO> suggest(String prefix, Field field, int limit) {
+        ensureBuilt();
+        List<PrefixIndex.Suggestion> matches = new ArrayList<>();
+        if (field != Field.EMAIL) {
+            matches.addAll(names.suggest(prefix, limit));
+        }
+        if (field != Field.NAME) {
+            matches.addAll(emails.suggest(prefix, limit));
+            matches.sort(PrefixIndex.BEST_FIRST);
+        }
+        List<StudentSuggestionDTO> result = new ArrayList<>(Math.min(limit, matches.size()));
+        Set<Long> seen = new HashSet<>();
+        for (PrefixIndex.Suggestion match : matches) {
+            StudentSuggestionDTO suggestion = suggestions.get(match.getId());
+            if (suggestion != null && seen.add(match.getId())) {
+                result.add(suggestion);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Size and estimated heap footprint of the indexes
+     */
+    public Map<String, Object> getIndexStats() {
+        long suggestionBytes = 0;
+        for (StudentSuggestionDTO suggestion : suggestions.values()) {
+            suggestionBytes += SUGGESTION_ENTRY_BYTES + stringBytes(suggestion.getName());
+            // Emails that are already normalized share their String with the index
+            if (suggestion.getEmail() != null && PrefixIndex.normalize(suggestion.getEmail()) != suggestion.getEmail()) {
+                suggestionBytes += stringBytes(suggestion.getEmail());
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rankBy", ranking);
+        stats.put("students", suggestions.size());
+        stats.put("nameEntries", names.size());
+        stats.put("emailEntries", emails.size());
+        stats.put("nameIndexBytes", names.getMemoryFootprint());
+        stats.put("emailIndexBytes", emails.getMemoryFootprint());
+        stats.put("suggestionBytes", suggestionBytes);
+        stats.put("totalBytes", names.getMemoryFootprint() + emails.getMemoryFootprint() + suggestionBytes);
+        return stats;
+    }
+
+    @Override
+    protected void load() {
+        long started = System.nanoTime();
+        PrefixIndex.Batch nameBatch = new PrefixIndex.Batch();
+        PrefixIndex.Batch emailBatch = new PrefixIndex.Batch();
+        long after = 0;
+        List<Object[]> page;
+        do {
+            page = studentRepository.findSuggestFieldsAfter(after, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : page) {
+                after = (Long) row[0];
+                String name = (String) row[1];
+                String email = (String) row[2];
+                double score = score((Double) row[3], (LocalDateTime) row[4]);
+                for (String term : nameTerms(name)) {
+                    nameBatch.add(after, term, score);
+                }
+                if (email != null) {
+                    emailBatch.add(after, email, score);
+                }
+                suggestions.put(after, new StudentSuggestionDTO(after, name, email));
+            }
+        } while (page.size() == BATCH_SIZE);
+        names.addAll(nameBatch);
+        emails.addAll(emailBatch);
+        logger.info("Built suggest index: {} students, {} name and {} email entries in {} ms",
+                suggestions.size(), names.size(), emails.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    protected void apply(long studentId, JsonNode before, JsonNode after) {
+        if (before != null) {
+            unindex(studentId, text(before, "name"), text(before, "email"));
+        }
+        if (after != null) {
+            String updatedAt = text(after, "updatedAt");
+            JsonNode gpa = after.get("gpa");
+            index(studentId, text(after, "name"), text(after, "email"),
+                    score(gpa != null && gpa.isNumber() ? gpa.asDouble() : null,
+                            updatedAt != null ? LocalDateTime.parse(updatedAt) : null));
+        } else {
+            suggestions.remove(studentId);
+        }
+    }
+
+    private void index(long id, String name, String email, double score) {
+        for (String term : nameTerms(name)) {
+            names.add(id, term, score);
+        }
+        if (email != null) {
+            emails.add(id, email, score);
+        }
+        suggestions.put(id, new StudentSuggestionDTO(id, name, email));
+    }
+
+    private void unindex(long id, String name, String email) {
+        for (String term : nameTerms(name)) {
+            names.remove(id, term);
+        }
+        if (email != null) {
+            emails.remove(id, email);
+        }
+    }
+
+    private double score(Double gpa, LocalDateTime updatedAt) {
+        switch (ranking) {
+            case GPA:
+                return gpa != null ? gpa : -1;
+            case RECENT:
+                return updatedAt != null ? updatedAt.toEpochSecond(ZoneOffset.UTC) : 0;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * The normalized name from the start of each word: "mary jo smith", "jo smith", "smith"
+     */
+    static List<String> nameTerms(String name) {
+        List<String> terms = new ArrayList<>();
+        String normalized = PrefixIndex.normalize(name);
+        if (normalized.isEmpty()) {
+            return terms;
+        }
+        terms.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            terms.add(normalized.substring(i + 1));
+        }
+        return terms;
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 24 + ((16 + s.length() + 7) & ~7L);
+    }
+}
@@ -0,0 +1,117 @@
+package com.sms.service;
+
+import com.sms.model.ChangeType;
+import com.sms.model.StudentChangeEvent;
+import com.sms.model.StudentEntity;
+import com.sms.repository.StudentChangeEventRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.SyncWatermark;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StudentSyncService - Delta sync for clients that keep a local copy of the student list.
+ * 
+ * A delta holds the students created or updated and the students deleted since the
+ * client's watermark, oldest first, plus the watermark to send next time. Changed
+ * students are found by a keyset scan over (updatedAt, id); deletions come from the
+ * DELETED events of the change outbox, which are written in the delete's transaction.
+ * 
+ * Rows younger than the settle window are held back until the next sync. A write
+ * whose transaction is still open, or a node whose clock runs slightly behind, can
+ * commit a row stamped earlier than rows already handed out; the window must cover
+ * the longest write transaction, clock skew between nodes and replica lag.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StudentSyncService {
+    
+    private final StudentRepository studentRepository;
+    private final StudentChangeEventRepository changeEventRepository;
+    private final Duration settleWindow;
+    
+    public StudentSyncService(StudentRepository studentRepository,
+                              StudentChangeEventRepository changeEventRepository,
+                              @Value("${app.sync.settle-window:5s}") Duration settleWindow) {
+        this.studentRepository = studentRepository;
+        this.changeEventRepository = changeEventRepository;
+        this.settleWindow = settleWindow;
+    }
+    
+    /**
+     * Get the next batch of changes after a watermark
+     * 
+     * @param watermark position from the client's previous delta, or null for a full sync
+     * @param limit maximum number of changed plus deleted students in the batch
+     */
+    public Delta changesSince(SyncWatermark watermark, int limit) {
+        LocalDateTime settled = LocalDateTime.now().minus(settleWindow);
+        SyncWatermark from = watermark != null ? watermark : SyncWatermark.initial(settled);
+        PageRequest firstBatch = PageRequest.of(0, limit);
+        
+        List<StudentEntity> changed = studentRepository.findChangedAfter(
+                from.getUpdatedAfter(), from.getStudentId(), settled, firstBatch);
+        List<StudentChangeEvent> deleted = changeEventRepository.findByTypeAfter(ChangeType.DELETED,
+                from.getDeletedAfter(), from.getDeleteEventId(), settled, firstBatch);
+        
+        // Merge both streams by time and keep the oldest entries up to the limit
+        Delta delta = new Delta();
+        int c = 0;
+        int d = 0;
+        while (c + d < limit && (c < changed.size() || d < deleted.size())) {
+            if (d == deleted.size() || (c < changed.size()
+                    && !changed.get(c).getUpdatedAt().isAfter(deleted.get(d).getOccurredAt()))) {
+                delta.upserts.add(changed.get(c++));
+            } else {
+                delta.deletes.add(deleted.get(d++));
+            }
+        }
+        
+        StudentEntity lastChanged = c > 0 ? changed.get(c - 1) : null;
+        StudentChangeEvent lastDeleted = d > 0 ? deleted.get(d - 1) : null;
+        delta.watermark = new SyncWatermark(
+                lastChanged != null ? lastChanged.getUpdatedAt() : from.getUpdatedAfter(),
+                lastChanged != null ? lastChanged.getId() : from.getStudentId(),
+                lastDeleted != null ? lastDeleted.getOccurredAt() : from.getDeletedAfter(),
+                lastDeleted != null ? lastDeleted.getId() : from.getDeleteEventId());
+        delta.hasMore = c < changed.size() || d < deleted.size()
+                || changed.size() == limit || deleted.size() == limit;
+        return delta;
+    }
+    
+    /**
+     * One batch of changes
+     */
+    public static class Delta {
+        private final List<StudentEntity> upserts = new ArrayList<>();
+        private final List<StudentChangeEvent> deletes = new ArrayList<>();
+        private SyncWatermark watermark;
+        private boolean hasMore;
+        
+        /** Students created or updated, oldest first */
+        public List<StudentEntity> getUpserts() {
+            return upserts;
+        }
+        
+        /** DELETED change events, oldest first */
+        public List<StudentChangeEvent> getDeletes() {
+            return deletes;
+        }
+        
+        public SyncWatermark getWatermark() {
+            return watermark;
+        }
+        
+        /** True if more changes are ready; fetch again right away with the new watermark */
+        public boolean isHasMore() {
+            return hasMore;
+        }
+    }
+}
@@ -0,0 +1,910 @@
+package com.sms.ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.service.ServiceException;
+import com.sms.service.StudentImporter;
+import com.sms.service.StudentService;
+import com.sms.util.ValidationReport;
+
+/**
+ * Non-interactive command mode for scripts and cron jobs.
+ *
+ * <pre>
+ * sms [--format=jsonl|tsv] add firstName=Ann lastName=Lee email=ann@example.com phone=5550100000
+ * sms get 42
+ * sms search lastName=Lee
+ * sms update 42 city=Springfield status=INACTIVE
+ * sms delete 42
+ * sms stats
+ * sms import students.csv [errors=rejected.csv]
+ * sms export [file=students.tsv]
+ * sms batch [commands.txt|-]
+ * </pre>
+ *
+ * Every command writes zero or more student records followed by exactly one
+ * status record, either as JSON lines or as tab-separated values:
+ * <pre>
+ * {"seq":1,"student":{"studentId":42,"firstName":"Ann",...}}
+ * {"seq":1,"command":"get","ok":true,"result":{"found":1}}
+ * student  1  42  Ann  Lee  ...
+ * ok  1  get  found=1
+ * </pre>
+ *
+ * In batch mode each input line is a command with the same syntax (double or
+ * single quotes group words, # starts a comment) and seq is its line number.
+ * A reader thread parses ahead while commands run against the one open DAO;
+ * consecutive adds are validated and stored as one batch, and the output is
+ * flushed whenever the runner catches up with its input.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class CommandRunner {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    /** Output formats */
+    public enum Format { JSONL, TSV }
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandRunner.class);
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: sms [--format=jsonl|tsv] <command> [arguments]",
+            "  add field=value...         firstName, lastName, email, phone required;",
+            "                             dateOfBirth, address, city, state, zipCode optional",
+            "  get <id>",
+            "  search firstName=|lastName=|email=<value>",
+            "  update <id> field=value... any add field, or status",
+            "  delete <id>",
+            "  stats",
+            "  import <file> [errors=<file>]",
+            "  export [file=<file>]",
+            "  batch [<file>|-]           one command per line, from a file or stdin");
+
+    private static final String[] TSV_COLUMNS = {
+        "studentId", "firstName", "lastName", "email", "phoneNumber", "dateOfBirth",
+        "address", "city", "state", "zipCode", "enrollmentDate", "enrollmentStatus"
+    };
+
+    /** Queued commands read ahead of execution in batch mode */
+    private static final int READ_AHEAD = 1024;
+
+    /** Most consecutive adds stored with one DAO call */
+    private static final int MAX_ADD_BATCH = 500;
+
+    private final StudentService studentService;
+    private final Format format;
+    private final Output output;
+    private boolean failed;
+
+    /**
+     * @param studentService the service to run commands against
+     * @param format output format
+     * @param out where results are written; flushed after each command outside batch mode
+     */
+    public CommandRunner(StudentService studentService, Format format, Writer out) {
+        if (studentService == null) {
+            throw new IllegalArgumentException("StudentService cannot be null");
+        }
+        this.studentService = studentService;
+        this.format = format;
+        this.output = format == Format.TSV ? new TsvOutput(out) : new JsonOutput(out);
+    }
+
+    /**
+     * Parses the global options, runs the command and reports the exit status.
+     *
+     * @param args command line arguments
+     * @param studentService the service to run commands against
+     * @param out standard output
+     * @param in standard input, read by {@code batch -}
+     * @param err where usage errors go
+     * @return {@link #EXIT_OK}, {@link #EXIT_FAILED} if a command failed, or {@link #EXIT_USAGE}
+     */
+    public static int run(String[] args, StudentService studentService, Writer out, Reader in, Writer err) {
+        int first = 0;
+        Format format = Format.JSONL;
+        while (first < args.length && args[first].startsWith("--")) {
+            String option = args[first++];
+            if (option.equals("--format=tsv")) {
+                format = Format.TSV;
+            } else if (option.equals("--format=jsonl") || option.equals("--format=json")) {
+                format = Format.JSONL;
+            } else {
+                return usage(err, "Unknown option: " + option);
+            }
+        }
+        if (first >= args.length) {
+            return usage(err, "Missing command");
+        }
+
+        List<String> tokens = List.of(args).subList(first, args.length);
+        CommandRunner runner = new CommandRunner(studentService, format, out);
+        if (tokens.get(0).equals("batch")) {
+            if (tokens.size() > 2) {
+                return usage(err, "batch takes at most one file");
+            }
+            String source = tokens.size() == 2 ? tokens.get(1) : "-";
+            try {
+                if (source.equals("-")) {
+                    runner.runBatch(in);
+                } else {
+                    try (Reader reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+                        runner.runBatch(reader);
+                    }
+                }
+            } catch (IOException e) {
+                return usage(err, "Cannot read " + source + ": " + e.getMessage());
+            }
+        } else {
+            runner.execute(1, tokens);
+            runner.output.flush();
+        }
+        return runner.failed ? EXIT_FAILED : EXIT_OK;
+    }
+
+    private static int usage(Writer err, String message) {
+        try {
+            err.write(message + System.lineSeparator() + USAGE + System.lineSeparator());
+            err.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return EXIT_USAGE;
+    }
+
+    /**
+     * @return true if any command run so far failed
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    // ==================== BATCH MODE ====================
+
+    /**
+     * Runs one command per line, streaming the results. Lines are read and
+     * tokenized on a separate thread while earlier commands execute.
+     *
+     * @param in the commands
+     * @throws IOException if the commands cannot be read
+     */
+    public void runBatch(Reader in) throws IOException {
+        BlockingQueue<Command> queue = new ArrayBlockingQueue<>(READ_AHEAD);
+        IOException[] readFailure = new IOException[1];
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(in)) {
+                long lineNumber = 0;
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    lineNumber++;
+                    Command command = Command.parse(lineNumber, line);
+                    if (command != null) {
+                        queue.put(command);
+                    }
+                }
+            } catch (IOException e) {
+                readFailure[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                putUninterruptibly(queue, Command.END);
+            }
+        }, "command-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            Command pending = null;
+            while (true) {
+                Command command = pending != null ? pending : queue.take();
+                pending = null;
+                if (command == Command.END) {
+                    break;
+                }
+                if (command.isAdd()) {
+                    // Group the adds that are already queued into one batch
+                    List<Command> adds = new ArrayList<>();
+                    adds.add(command);
+                    Command next;
+                    while (adds.size() < MAX_ADD_BATCH && (next = queue.poll()) != null) {
+                        if (!next.isAdd()) {
+                            pending = next;
+                            break;
+                        }
+                        adds.add(next);
+                    }
+                    executeAdds(adds);
+                } else if (command.error != null) {
+                    error(command.seq, command.tokens.isEmpty() ? "" : command.name(), command.error);
+                } else {
+                    execute(command.seq, command.tokens);
+                }
+                if (pending == null && queue.isEmpty()) {
+                    output.flush();
+                }
+            }
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reader.interrupt();
+        } finally {
+            output.flush();
+        }
+        if (readFailure[0] != null) {
+            throw readFailure[0];
+        }
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Command> queue, Command command) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(command);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== COMMANDS ====================
+
+    /**
+     * Runs one command.
+     *
+     * @param seq sequence number echoed in the output
+     * @param tokens command name and arguments
+     * @return true if the command succeeded
+     */
+    public boolean execute(long seq, List<String> tokens) {
+        String name = tokens.isEmpty() ? "" : tokens.get(0).toLowerCase(Locale.ROOT);
+        List<String> args = tokens.isEmpty() ? List.of() : tokens.subList(1, tokens.size());
+        try {
+            switch (name) {
+                case "add":
+                    return executeAdds(List.of(new Command(seq, tokens, null)));
+                case "get":
+                    return get(seq, args);
+                case "search":
+                    return search(seq, args);
+                case "update":
+                    return update(seq, args);
+                case "delete":
+                    return delete(seq, args);
+                case "stats":
+                    return stats(seq);
+                case "import":
+                    return importFile(seq, args);
+                case "export":
+                    return export(seq, args);
+                default:
+                    return error(seq, name, "Unknown command: " + name);
+            }
+        } catch (ServiceException e) {
+            if (!e.isExpected()) {
+                logger.error("Command {} failed", name, e);
+            }
+            return error(seq, name, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return error(seq, name, e.getMessage());
+        } catch (IOException e) {
+            logger.error("Command {} failed", name, e);
+            return error(seq, name, e.getMessage());
+        }
+    }
+
+    /**
+     * Validates the adds in one pass and stores the valid ones with one DAO call.
+     */
+    private boolean executeAdds(List<Command> adds) {
+        String[] errors = new String[adds.size()];
+        List<Student> students = new ArrayList<>(adds.size());
+        // Index into adds of each parsed student
+        int[] addIndex = new int[adds.size()];
+        for (int i = 0; i < adds.size(); i++) {
+            List<String> tokens = adds.get(i).tokens;
+            try {
+                Map<String, String> fields = fields(tokens.subList(1, tokens.size()));
+                Student student = new Student(fields.remove("firstName"), fields.remove("lastName"),
+                        fields.remove("email"), fields.remove("phoneNumber"));
+                applyFields(student, fields);
+                addIndex[students.size()] = i;
+                students.add(student);
+            } catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        ValidationReport report = studentService.validateStudents(students);
+        for (ValidationReport.RecordErrors record : report.getInvalidRecords()) {
+            errors[addIndex[record.getIndex()]] = record.getFieldErrors().values().iterator().next();
+        }
+        List<Student> valid = new ArrayList<>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            if (report.isValid(i)) {
+                valid.add(students.get(i));
+            }
+        }
+
+        try {
+            boolean[] created = studentService.addValidatedStudents(valid);
+            for (int i = 0, v = 0; i < students.size(); i++) {
+                if (report.isValid(i) && !created[v++]) {
+                    errors[addIndex[i]] = "Failed to add student: Student with email '"
+                            + students.get(i).getEmail() + "' already exists";
+                }
+            }
+        } catch (ServiceException e) {
+            if (!e.isExpected()) {
+                logger.error("Command add failed", e);
+            }
+            for (int i = 0; i < students.size(); i++) {
+                if (errors[addIndex[i]] == null) {
+                    errors[addIndex[i]] = e.getMessage();
+                }
+            }
+        }
+
+        boolean allOk = true;
+        for (int i = 0, s = 0; i < adds.size(); i++) {
+            long seq = adds.get(i).seq;
+            if (errors[i] != null) {
+                allOk = error(seq, "add", errors[i]) && allOk;
+                if (s < students.size() && addIndex[s] == i) {
+                    s++;
+                }
+            } else {
+                Student student = students.get(s++);
+                output.student(seq, student);
+                output.ok(seq, "add", result("studentId", student.getStudentId()));
+            }
+        }
+        return allOk;
+    }
+
+    private boolean get(long seq, List<String> args) throws ServiceException {
+        Long id = id(args, 1);
+        Optional<Student> student = studentService.getStudent(id);
+        if (!student.isPresent()) {
+            return error(seq, "get", "Student not found: " + id);
+        }
+        output.student(seq, student.get());
+        output.ok(seq, "get", result("found", 1));
+        return true;
+    }
+
+    private boolean search(long seq, List<String> args) throws ServiceException {
+        Map<String, String> fields = fields(args);
+        if (fields.size() != 1) {
+            throw new IllegalArgumentException("search takes exactly one of firstName=, lastName=, email=");
+        }
+        Map.Entry<String, String> criterion = fields.entrySet().iterator().next();
+        List<Student> students;
+        switch (criterion.getKey()) {
+            case "firstName":
+                students = studentService.searchByFirstName(criterion.getValue());
+                break;
+            case "lastName":
+                students = studentService.searchByLastName(criterion.getValue());
+                break;
+            case "email":
+                students = studentService.searchByEmail(criterion.getValue()).map(List::of).orElse(List.of());
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot search by " + criterion.getKey());
+        }
+        for (Student student : students) {
+            output.student(seq, student);
+        }
+        output.ok(seq, "search", result("count", students.size()));
+        return true;
+    }
+
+    private boolean update(long seq, List<String> args) throws ServiceException {
+        if (args.isEmpty()) {
+            throw new IllegalArgumentException("update needs a student ID");
+        }
+        Long id = id(args.subList(0, 1), 1);
+        Map<String, String> fields = fields(args.subList(1, args.size()));
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("update needs at least one field=value");
+        }
+        Optional<Student> existing = studentService.getStudent(id);
+        if (!existing.isPresent()) {
+            return error(seq, "update", "Student not found: " + id);
+        }
+        Student student = existing.get();
+        if (fields.containsKey("firstName")) {
+            student.setFirstName(fields.remove("firstName"));
+        }
+        if (fields.containsKey("lastName")) {
+            student.setLastName(fields.remove("lastName"));
+        }
+        if (fields.containsKey("email")) {
+            student.setEmail(fields.remove("email"));
+        }
+        if (fields.containsKey("phoneNumber")) {
+            student.setPhoneNumber(fields.remove("phoneNumber"));
+        }
+        applyFields(student, fields);
+        if (!studentService.updateStudent(student)) {
+            return error(seq, "update", "Student not found: " + id);
+        }
+        output.student(seq, student);
+        output.ok(seq, "update", result("updated", 1));
+        return true;
+    }
+
+    private boolean delete(long seq, List<String> args) throws ServiceException {
+        Long id = id(args, 1);
+        if (!studentService.deleteStudent(id)) {
+            return error(seq, "delete", "Student not found: " + id);
+        }
+        output.ok(seq, "delete", result("deleted", 1));
+        return true;
+    }
+
+    private boolean stats(long seq) throws ServiceException {
+        StudentAggregates stats = studentService.getStatistics();
+        long active = stats.getCount("ACTIVE");
+        Map<String, Object> result = result("total", stats.getTotal());
+        result.put("active", active);
+        result.put("inactive", stats.getTotal() - active);
+        stats.getCountsByStatus().forEach((status, count) -> result.put("status." + status, count));
+        stats.getEnrollmentsByMonth().forEach((month, count) -> result.put("enrolled." + month, count));
+        stats.getAgeDistribution().forEach((band, count) -> result.put("age." + band.getLabel(), count));
+        output.ok(seq, "stats", result);
+        return true;
+    }
+
+    private boolean importFile(long seq, List<String> args) throws ServiceException, IOException {
+        if (args.isEmpty()) {
+            throw new IllegalArgumentException("import needs a file");
+        }
+        Path file = Paths.get(args.get(0));
+        Map<String, String> options = options(args.subList(1, args.size()), "errors");
+        StudentImporter importer = new StudentImporter(studentService);
+        StudentImporter.ImportResult imported = options.containsKey("errors")
+                ? importer.importFile(file, Paths.get(options.get("errors")), null)
+                : importer.importFile(file, null);
+        Map<String, Object> result = result("records", imported.getRecords());
+        result.put("imported", imported.getImported());
+        result.put("invalid", imported.getInvalid());
+        result.put("duplicatesInFile", imported.getDuplicatesInFile());
+        result.put("duplicatesInStore", imported.getDuplicatesInStore());
+        result.put("elapsedMillis", imported.getElapsedMillis());
+        if (imported.getErrorFile() != null) {
+            result.put("errorFile", imported.getErrorFile().toString());
+        }
+        output.ok(seq, "import", result);
+        return true;
+    }
+
+    private boolean export(long seq, List<String> args) throws ServiceException, IOException {
+        Map<String, String> options = options(args, "file");
+        List<Student> students = studentService.getAllStudents();
+        if (!options.containsKey("file")) {
+            for (Student student : students) {
+                output.student(seq, student);
+            }
+        } else {
+            // The TSV header names the columns, so the file can be imported again
+            try (BufferedWriter out = Files.newBufferedWriter(Paths.get(options.get("file")), StandardCharsets.UTF_8)) {
+                if (format == Format.TSV) {
+                    out.write(String.join("\t", TSV_COLUMNS));
+                    out.newLine();
+                }
+                for (Student student : students) {
+                    out.write(format == Format.TSV ? tsvRow(student) : jsonObject(student));
+                    out.newLine();
+                }
+            }
+        }
+        output.ok(seq, "export", result("count", students.size()));
+        return true;
+    }
+
+    private boolean error(long seq, String command, String message) {
+        failed = true;
+        output.error(seq, command, message);
+        return false;
+    }
+
+    // ==================== ARGUMENTS ====================
+
+    private static Long id(List<String> args, int expected) {
+        if (args.size() != expected) {
+            throw new IllegalArgumentException("Expected a student ID");
+        }
+        try {
+            return Long.parseLong(args.get(0));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid student ID: " + args.get(0));
+        }
+    }
+
+    /**
+     * Parses field=value arguments, normalizing the field aliases.
+     */
+    private static Map<String, String> fields(List<String> args) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected field=value: " + arg);
+            }
+            String field = arg.substring(0, equals);
+            switch (field) {
+                case "phone":
+                    field = "phoneNumber";
+                    break;
+                case "dob":
+                    field = "dateOfBirth";
+                    break;
+                case "zip":
+                    field = "zipCode";
+                    break;
+                case "status":
+                    field = "enrollmentStatus";
+                    break;
+                default:
+                    break;
+            }
+            fields.put(field, arg.substring(equals + 1));
+        }
+        return fields;
+    }
+
+    private static Map<String, String> options(List<String> args, String... allowed) {
+        Map<String, String> options = fields(args);
+        for (String key : options.keySet()) {
+            if (!List.of(allowed).contains(key)) {
+                throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Applies the optional fields left in the map; rejects unknown ones.
+     */
+    private static void applyFields(Student student, Map<String, String> fields) {
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            String value = field.getValue().isEmpty() ? null : field.getValue();
+            switch (field.getKey()) {
+                case "dateOfBirth":
+                    try {
+                        student.setDateOfBirth(value == null ? null : LocalDate.parse(value));
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Invalid date of birth (expected yyyy-MM-dd): " + value);
+                    }
+                    break;
+                case "address":
+                    student.setAddress(value);
+                    break;
+                case "city":
+                    student.setCity(value);
+                    break;
+                case "state":
+                    student.setState(value);
+                    break;
+                case "zipCode":
+                    student.setZipCode(value);
+                    break;
+                case "enrollmentStatus":
+                    student.setEnrollmentStatus(value == null ? null : value.toUpperCase(Locale.ROOT));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown field: " + field.getKey());
+            }
+        }
+    }
+
+    private static Map<String, Object> result(String key, Object value) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put(key, value);
+        return result;
+    }
+
+    // ==================== OUTPUT ====================
+
+    private static Object[] values(Student student) {
+        return new Object[] {
+            student.getStudentId(), student.getFirstName(), student.getLastName(), student.getEmail(),
+            student.getPhoneNumber(), student.getDateOfBirth(), student.getAddress(), student.getCity(),
+            student.getState(), student.getZipCode(), student.getEnrollmentDate(), student.getEnrollmentStatus()
+        };
+    }
+
+    static String tsvRow(Student student) {
+        Object[] values = values(student);
+        StringBuilder row = new StringBuilder(tsvValue(values[0]));
+        for (int i = 1; i < values.length; i++) {
+            row.append('\t').append(tsvValue(values[i]));
+        }
+        return row.toString();
+    }
+
+    static String jsonObject(Student student) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        Object[] values = values(student);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                fields.put(TSV_COLUMNS[i], values[i]);
+            }
+        }
+        return json(fields);
+    }
+
+    private static String tsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf('\t') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0 && text.indexOf('\\') < 0) {
+            return text;
+        }
+        return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String json(Map<String, Object> fields) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendJsonString(json, field.getKey());
+            json.append(':');
+            Object value = field.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else if (value instanceof RawJson) {
+                json.append(((RawJson) value).json);
+            } else {
+                appendJsonString(json, String.valueOf(value));
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static void appendJsonString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /** A value that is already JSON */
+    private static final class RawJson {
+
+        final String json;
+
+        RawJson(String json) {
+            this.json = json;
+        }
+    }
+
+    private interface Output {
+
+        void student(long seq, Student student);
+
+        void ok(long seq, String command, Map<String, Object> result);
+
+        void error(long seq, String command, String message);
+
+        void flush();
+    }
+
+    private abstract static class LineOutput implements Output {
+
+        private final Writer out;
+
+        LineOutput(Writer out) {
+            this.out = out;
+        }
+
+        void line(String line) {
+            try {
+                out.write(line);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class JsonOutput extends LineOutput {
+
+        JsonOutput(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void student(long seq, Student student) {
+            Map<String, Object> line = result("seq", seq);
+            line.put("student", new RawJson(jsonObject(student)));
+            line(json(line));
+        }
+
+        @Override
+        public void ok(long seq, String command, Map<String, Object> result) {
+            Map<String, Object> line = result("seq", seq);
+            line.put("command", command);
+            line.put("ok", true);
+            line.put("result", new RawJson(json(result)));
+            line(json(line));
+        }
+
+        @Override
+        public void error(long seq, String command, String message) {
+            Map<String, Object> line = result("seq", seq);
+            line.put("command", command);
+            line.put("ok", false);
+            line.put("error", message);
+            line(json(line));
+        }
+    }
+
+    private static final class TsvOutput extends LineOutput {
+
+        TsvOutput(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void student(long seq, Student student) {
+            line("student\t" + seq + "\t" + tsvRow(student));
+        }
+
+        @Override
+        public void ok(long seq, String command, Map<String, Object> result) {
+            StringBuilder line = new StringBuilder("ok\t").append(seq).append('\t').append(command);
+            result.forEach((key, value) -> line.append('\t').append(key).append('=').append(tsvValue(value)));
+            line(line.toString());
+        }
+
+        @Override
+        public void error(long seq, String command, String message) {
+            line("error\t" + seq + "\t" + command + "\t" + tsvValue(message));
+        }
+    }
+
+    // ==================== BATCH INPUT ====================
+
+    /**
+     * One tokenized line of batch input.
+     */
+    private static final class Command {
+
+        static final Command END = new Command(0, List.of(), null);
+
+        final long seq;
+        final List<String> tokens;
+        final String error;
+
+        Command(long seq, List<String> tokens, String error) {
+            this.seq = seq;
+            this.tokens = tokens;
+            this.error = error;
+        }
+
+        String name() {
+            return tokens.get(0).toLowerCase(Locale.ROOT);
+        }
+
+        boolean isAdd() {
+            return this != END && error == null && name().equals("add");
+        }
+
+        /**
+         * @return the command, or null for a blank or comment line
+         */
+        static Command parse(long seq, String line) {
+            List<String> tokens = new ArrayList<>();
+            StringBuilder token = new StringBuilder();
+            boolean inToken = false;
+            char quote = 0;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    } else if (c == '\\' && quote == '"' && i + 1 < line.length()) {
+                        token.append(line.charAt(++i));
+                    } else {
+                        token.append(c);
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                    inToken = true;
+                } else if (c == '\\' && i + 1 < line.length()) {
+                    token.append(line.charAt(++i));
+                    inToken = true;
+                } else if (Character.isWhitespace(c)) {
+                    if (inToken) {
+                        tokens.add(token.toString());
+                        token.setLength(0);
+                        inToken = false;
+                    }
+                } else if (c == '#' && !inToken) {
+                    break;
+                } else {
+                    token.append(c);
+                    inToken = true;
+                }
+            }
+            if (quote != 0) {
+                return new Command(seq, tokens, "Unterminated quote");
+            }
+            if (inToken) {
+                tokens.add(token.toString());
+            }
+            return tokens.isEmpty() ? null : new Command(seq, tokens, null);
+        }
+    }
+}
@@ -1,17 +1,35 @@
 package com.sms.ui;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Formatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.model.StudentStatus;
 import com.sms.service.ServiceException;
+import com.sms.service.StudentImporter;
 import com.sms.service.StudentService;
 
 /**
@@ -30,6 +48,18 @@ public class ConsoleUI {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final Logger logger = LoggerFactory.getLogger(ConsoleUI.class);
     
+    /** Students per page when browsing */
+    private static final int PAGE_SIZE = 20;
+    private static final int DUMP_BUFFER_SIZE = 1 << 16;
+    /** Most students listed by a fuzzy search */
+    private static final int FUZZY_SEARCH_LIMIT = 25;
+    /** Most recent enrollment months shown in the statistics */
+    private static final int STATISTICS_MONTHS = 12;
+    private static final String STATUS_CHOICES = Arrays.stream(StudentStatus.values())
+            .map(Enum::name).collect(Collectors.joining("/"));
+    private static final String HEADER_FORMAT = "%-8s %-15s %-15s %-30s %-20s%n";
+    private static final String ROW_FORMAT = "%-8d %-15s %-15s %-30s %-20s%n";
+    
     /**
      * Constructor with StudentService dependency injection.
      * 
@@ -84,6 +114,7 @@ public class ConsoleUI {
         System.out.println("4. Update Student");
         System.out.println("5. Delete Student");
         System.out.println("6. Student Statistics");
+        System.out.println("7. Import Students from CSV/TSV File");
         System.out.println("0. Exit");
         System.out.println("=".repeat(50));
         System.out.print("Enter your choice: ");
@@ -115,6 +146,9 @@ public class ConsoleUI {
                 case "6":
                     showStatistics();
                     break;
+                case "7":
+                    importStudents();
+                    break;
                 case "0":
                     running = false;
                     System.out.println("\nExiting application...");
@@ -202,46 +236,138 @@ public class ConsoleUI {
     }
     
     /**
-     * Handles viewing all students.
+     * Handles browsing all students a page at a time. Only the page shown is
+     * fetched; the whole list can be streamed out with the dump option.
      */
     private void viewAllStudents() {
-        clearScreen();
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("ALL STUDENTS");
-        System.out.println("=".repeat(80));
+        int page = 0;
         
         try {
-            List<Student> students = studentService.getAllStudents();
-            
-            if (students.isEmpty()) {
-                System.out.println("No students found in the system.");
-            } else {
-                System.out.printf("%-8s %-15s %-15s %-30s %-20s%n",
-                    "ID", "First Name", "Last Name", "Email", "Status");
-                System.out.println("-".repeat(80));
+            while (true) {
+                clearScreen();
+                long total = studentService.getStudentCount();
+                int pageCount = (int) Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+                page = Math.min(page, pageCount - 1);
+                List<Student> students = studentService.getStudentPage(page, PAGE_SIZE);
                 
-                for (Student student : students) {
-                    System.out.printf("%-8d %-15s %-15s %-30s %-20s%n",
-                        student.getStudentId(),
-                        student.getFirstName(),
-                        student.getLastName(),
-                        student.getEmail(),
-                        student.getEnrollmentStatus());
+                // Render the page into one buffer and write it at once
+                StringBuilder screen = new StringBuilder(128 * (PAGE_SIZE + 8));
+                Formatter formatter = new Formatter(screen);
+                screen.append('\n').append("=".repeat(80)).append('\n');
+                screen.append("ALL STUDENTS\n");
+                screen.append("=".repeat(80)).append('\n');
+                if (students.isEmpty()) {
+                    screen.append("No students found in the system.\n");
+                } else {
+                    formatter.format(HEADER_FORMAT, "ID", "First Name", "Last Name", "Email", "Status");
+                    screen.append("-".repeat(80)).append('\n');
+                    for (Student student : students) {
+                        formatRow(formatter, student);
+                    }
+                }
+                screen.append("=".repeat(80)).append('\n');
+                formatter.format("Page %d of %d  |  Total students: %d%n", page + 1, pageCount, total);
+                System.out.print(screen);
+                System.out.flush();
+                
+                System.out.print("\n[N]ext  [P]revious  [G]o to page  [D]ump all  [Q]uit: ");
+                String choice = scanner.nextLine().trim().toUpperCase();
+                switch (choice) {
+                    case "":
+                    case "N":
+                        if (page < pageCount - 1) {
+                            page++;
+                        }
+                        break;
+                    case "P":
+                        if (page > 0) {
+                            page--;
+                        }
+                        break;
+                    case "G":
+                        System.out.print("Enter page number (1-" + pageCount + "): ");
+                        try {
+                            int target = Integer.parseInt(scanner.nextLine().trim());
+                            page = Math.max(0, Math.min(target, pageCount) - 1);
+                        } catch (NumberFormatException e) {
+                            System.out.println("❌ Invalid page number.");
+                            pause();
+                        }
+                        break;
+                    case "D":
+                        dumpAllStudents();
+                        break;
+                    case "Q":
+                        return;
+                    default:
+                        System.out.println("❌ Invalid choice. Please try again.");
+                        pause();
                 }
             }
             
-            System.out.println("=".repeat(80));
-            System.out.println("Total students: " + students.size());
-            
-            pause();
-            
         } catch (ServiceException e) {
             System.out.println("❌ Error: " + e.getMessage());
-            logger.error("Error retrieving students", e);
+            if (!e.isExpected()) {
+                logger.error("Error retrieving students", e);
+            }
             pause();
         }
     }
     
+    /**
+     * Streams every student to a file, or to the console, through one buffered
+     * writer. Students are read from a DAO cursor, so memory use and the time to
+     * the first row do not depend on the number of students.
+     */
+    private void dumpAllStudents() throws ServiceException {
+        System.out.print("Enter output file (leave blank to print here): ");
+        String fileName = scanner.nextLine().trim();
+        long start = System.nanoTime();
+        long[] written = new long[1];
+        
+        try {
+            Writer writer = fileName.isEmpty()
+                    ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), DUMP_BUFFER_SIZE)
+                    : Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8);
+            try {
+                Formatter formatter = new Formatter(writer);
+                formatter.format(HEADER_FORMAT, "ID", "First Name", "Last Name", "Email", "Status");
+                studentService.forEachStudent(student -> {
+                    formatRow(formatter, student);
+                    written[0]++;
+                    if (formatter.ioException() != null) {
+                        throw new UncheckedIOException(formatter.ioException());
+                    }
+                });
+                writer.flush();
+            } finally {
+                // Closing would close System.out as well
+                if (!fileName.isEmpty()) {
+                    writer.close();
+                }
+            }
+            
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("\n✅ Wrote " + written[0] + " students"
+                    + (fileName.isEmpty() ? "" : " to " + Paths.get(fileName).toAbsolutePath())
+                    + " in " + millis + " ms");
+            
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("\n❌ Failed to write students: " + e.getMessage());
+            logger.error("Error dumping students", e);
+        }
+        pause();
+    }
+    
+    private static void formatRow(Formatter formatter, Student student) {
+        formatter.format(ROW_FORMAT,
+            student.getStudentId(),
+            student.getFirstName(),
+            student.getLastName(),
+            student.getEmail(),
+            student.getEnrollmentStatus());
+    }
+    
     /**
      * Handles searching for students.
      */
@@ -254,6 +380,8 @@ public class ConsoleUI {
         System.out.println("2. Search by First Name");
         System.out.println("3. Search by Last Name");
         System.out.println("4. Search by Email");
+        System.out.println("5. Fuzzy Search by First Name (similar spelling or sound)");
+        System.out.println("6. Fuzzy Search by Last Name (similar spelling or sound)");
         System.out.print("Enter search option: ");
         
         String choice = scanner.nextLine().trim();
@@ -272,12 +400,20 @@ public class ConsoleUI {
                 case "4":
                     searchByEmail();
                     break;
+                case "5":
+                    fuzzySearchByFirstName();
+                    break;
+                case "6":
+                    fuzzySearchByLastName();
+                    break;
                 default:
                     System.out.println("❌ Invalid option.");
             }
         } catch (ServiceException e) {
             System.out.println("❌ Error: " + e.getMessage());
-            logger.error("Error searching student", e);
+            if (!e.isExpected()) {
+                logger.error("Error searching student", e);
+            }
         }
         
         pause();
@@ -324,6 +460,28 @@ public class ConsoleUI {
         displaySearchResults(students);
     }
     
+    /**
+     * Searches students by similar first names, closest first.
+     */
+    private void fuzzySearchByFirstName() throws ServiceException {
+        System.out.print("Enter first name (approximate): ");
+        String firstName = scanner.nextLine().trim();
+        
+        List<Student> students = studentService.fuzzySearchByFirstName(firstName, FUZZY_SEARCH_LIMIT);
+        displaySearchResults(students);
+    }
+    
+    /**
+     * Searches students by similar last names, closest first.
+     */
+    private void fuzzySearchByLastName() throws ServiceException {
+        System.out.print("Enter last name (approximate): ");
+        String lastName = scanner.nextLine().trim();
+        
+        List<Student> students = studentService.fuzzySearchByLastName(lastName, FUZZY_SEARCH_LIMIT);
+        displaySearchResults(students);
+    }
+    
     /**
      * Searches student by email.
      */
@@ -431,9 +589,17 @@ public class ConsoleUI {
             String phoneNumber = scanner.nextLine().trim();
             if (!phoneNumber.isEmpty()) student.setPhoneNumber(phoneNumber);
             
-            System.out.print("Enter new status [Current: " + student.getEnrollmentStatus() + "]: ");
+            System.out.print("Enter new status (" + STATUS_CHOICES + ") [Current: "
+                    + student.getEnrollmentStatus() + "]: ");
             String status = scanner.nextLine().trim();
-            if (!status.isEmpty()) student.setEnrollmentStatus(status);
+            if (!status.isEmpty()) {
+                StudentStatus knownStatus = StudentStatus.fromName(status);
+                if (knownStatus != null) {
+                    student.setStatus(knownStatus);
+                } else {
+                    student.setEnrollmentStatus(status);
+                }
+            }
             
             if (studentService.updateStudent(student)) {
                 System.out.println("\n✅ Student updated successfully!");
@@ -448,7 +614,9 @@ public class ConsoleUI {
             pause();
         } catch (ServiceException e) {
             System.out.println("❌ Error: " + e.getMessage());
-            logger.error("Error updating student", e);
+            if (!e.isExpected()) {
+                logger.error("Error updating student", e);
+            }
             pause();
         }
     }
@@ -497,7 +665,9 @@ public class ConsoleUI {
             pause();
         } catch (ServiceException e) {
             System.out.println("❌ Error: " + e.getMessage());
-            logger.error("Error deleting student", e);
+            if (!e.isExpected()) {
+                logger.error("Error deleting student", e);
+            }
             pause();
         }
     }
@@ -512,26 +682,101 @@ public class ConsoleUI {
         System.out.println("=".repeat(50));
         
         try {
-            long totalStudents = studentService.getStudentCount();
+            StudentAggregates stats = studentService.getStatistics();
+            long totalStudents = stats.getTotal();
+            long activeStudents = stats.getCount("ACTIVE");
             System.out.println("Total Students in System: " + totalStudents);
-            
-            List<Student> students = studentService.getAllStudents();
-            long activeStudents = students.stream()
-                .filter(s -> "ACTIVE".equalsIgnoreCase(s.getEnrollmentStatus()))
-                .count();
-            
             System.out.println("Active Students: " + activeStudents);
             System.out.println("Inactive Students: " + (totalStudents - activeStudents));
             
+            System.out.println("\nBy Enrollment Status:");
+            stats.getCountsByStatus().forEach((status, count) ->
+                System.out.printf("  %-20s %8d  %s%n", status, count, bar(count, totalStudents)));
+            
+            System.out.println("\nEnrollments per Month (last " + STATISTICS_MONTHS + "):");
+            if (stats.getEnrollmentsByMonth().isEmpty()) {
+                System.out.println("  No enrollment dates recorded.");
+            } else {
+                long busiest = stats.getEnrollmentsByMonth().values().stream().mapToLong(Long::longValue).max().getAsLong();
+                List<Map.Entry<YearMonth, Long>> months = new ArrayList<>(stats.getEnrollmentsByMonth().entrySet());
+                for (Map.Entry<YearMonth, Long> month : months.subList(Math.max(0, months.size() - STATISTICS_MONTHS), months.size())) {
+                    System.out.printf("  %-20s %8d  %s%n", month.getKey(), month.getValue(), bar(month.getValue(), busiest));
+                }
+            }
+            
+            System.out.println("\nAge Distribution:");
+            stats.getAgeDistribution().forEach((band, count) ->
+                System.out.printf("  %-20s %8d  %s%n", band.getLabel(), count, bar(count, totalStudents)));
+            
             System.out.println("=".repeat(50));
             
             pause();
             
         } catch (ServiceException e) {
             System.out.println("❌ Error: " + e.getMessage());
-            logger.error("Error retrieving statistics", e);
+            if (!e.isExpected()) {
+                logger.error("Error retrieving statistics", e);
+            }
+            pause();
+        }
+    }
+    
+    /**
+     * @return a bar of up to 20 characters, proportional to count / max
+     */
+    private static String bar(long count, long max) {
+        return max == 0 ? "" : "#".repeat((int) (20 * count / max));
+    }
+    
+    /**
+     * Handles bulk import of students from a CSV or TSV file.
+     */
+    private void importStudents() {
+        clearScreen();
+        System.out.println("\n" + "=".repeat(50));
+        System.out.println("IMPORT STUDENTS");
+        System.out.println("=".repeat(50));
+        System.out.println("Columns: firstName, lastName, email, phoneNumber");
+        System.out.println("         [, dateOfBirth, address, city, state, zipCode]");
+        System.out.println("or a header row naming them in any order.");
+        
+        System.out.print("\nEnter file path: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(input);
+        if (!Files.isRegularFile(file)) {
+            System.out.println("❌ File not found: " + file);
             pause();
+            return;
+        }
+        
+        try {
+            StudentImporter.ImportResult result = new StudentImporter(studentService).importFile(file,
+                    progress -> System.out.printf("\rImporting... %3d%%  %,d records, %,d rejected",
+                            progress.getTotalBytes() == 0 ? 100 : progress.getBytesRead() * 100 / progress.getTotalBytes(),
+                            progress.getRecords(), progress.getRejected()));
+            System.out.println();
+            System.out.println("\n✅ Import finished in " + result.getElapsedMillis() + " ms");
+            System.out.printf("Records read:          %,d%n", result.getRecords());
+            System.out.printf("Imported:              %,d%n", result.getImported());
+            System.out.printf("Invalid:               %,d%n", result.getInvalid());
+            System.out.printf("Duplicate in file:     %,d%n", result.getDuplicatesInFile());
+            System.out.printf("Already in the system: %,d%n", result.getDuplicatesInStore());
+            System.out.printf("Throughput:            %,.0f records/s (%.1f MB/s)%n",
+                    result.getRecordsPerSecond(), result.getMegabytesPerSecond());
+            if (result.getErrorFile() != null) {
+                System.out.println("Rejected lines:        " + result.getErrorFile());
+            }
+        } catch (IOException e) {
+            System.out.println("\n❌ Error reading file: " + e.getMessage());
+            logger.error("Error importing students", e);
+        } catch (ServiceException e) {
+            System.out.println("\n❌ Error: " + e.getMessage());
+            logger.error("Error importing students", e);
         }
+        pause();
     }
     
     /**
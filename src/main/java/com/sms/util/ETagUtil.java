@@ -0,0 +1,140 @@
+package com.sms.util;
+
+import com.sms.exception.PreconditionFailedException;
+import com.sms.model.StudentEntity;
+import org.springframework.data.domain.Page;
+
+import java.util.Set;
+
+/**
+ * Utility class for computing HTTP entity tags for student resources.
+ *
+ * Single students get a strong ETag of the form {@code "<id>-<version>"} taken
+ * straight from the JPA {@code @Version} column. A strong tag promises byte-identical
+ * bodies, so every representation other than the default JSON wrapper carries a suffix
+ * naming it ({@code "<id>-<version>-lean"}, {@code "-cbor"}, {@code "-lean-smile"}, ...);
+ * {@link #expectedVersion} accepts any of them, since they all name the same version.
+ * Pages of students get a weak
+ * ETag hashed from the page coordinates and every (id, version) tuple on the page,
+ * so any insert, delete or update that changes the page contents changes the tag.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public final class ETagUtil {
+
+    /** Representation suffix of the lean body */
+    public static final String LEAN = "lean";
+
+    /** Representation suffix of a CBOR body */
+    public static final String CBOR = "cbor";
+
+    /** Representation suffix of a Smile body */
+    public static final String SMILE = "smile";
+
+    private static final Set<String> REPRESENTATIONS = Set.of(LEAN, CBOR, SMILE);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Builds the strong ETag for a single student.
+     *
+     * @param student the student entity
+     * @return quoted strong ETag
+     */
+    public static String strongETag(StudentEntity student) {
+        return strongETag(student, null);
+    }
+
+    /**
+     * Builds the strong ETag for one representation of a single student.
+     *
+     * @param student the student entity
+     * @param representation dash-separated representation suffix
+     *        (e.g. {@code "lean-cbor"}), or null for the default JSON body
+     * @return quoted strong ETag
+     */
+    public static String strongETag(StudentEntity student, String representation) {
+        String tag = student.getId() + "-" + versionOf(student);
+        if (representation != null && !representation.isEmpty()) {
+            tag += "-" + representation;
+        }
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Builds the weak ETag for a page of students.
+     *
+     * @param page the page of student entities
+     * @return weak ETag ({@code W/"..."})
+     */
+    public static String weakETag(Page<StudentEntity> page) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, page.getNumber());
+        hash = mix(hash, page.getSize());
+        hash = mix(hash, page.getTotalElements());
+        for (StudentEntity student : page.getContent()) {
+            hash = mix(hash, student.getId() != null ? student.getId() : 0);
+            hash = mix(hash, versionOf(student));
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Extracts the expected version from an {@code If-Match} header.
+     *
+     * @param ifMatch the raw header value, may be null
+     * @param id the ID of the targeted student
+     * @return the expected version, or null when the header is absent or {@code *}
+     * @throws PreconditionFailedException if the header does not
+     *         name a version of this student
+     */
+    public static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            // Weak tags never satisfy If-Match (RFC 9110, section 13.1.1)
+            throw new PreconditionFailedException(
+                    "Weak ETag cannot be used with If-Match");
+        }
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("Malformed If-Match header: " + ifMatch);
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        String prefix = id + "-";
+        if (!value.startsWith(prefix)) {
+            throw new PreconditionFailedException(
+                    "If-Match does not refer to student with ID: " + id);
+        }
+        String[] parts = value.substring(prefix.length()).split("-", -1);
+        for (int i = 1; i < parts.length; i++) {
+            if (!REPRESENTATIONS.contains(parts[i])) {
+                throw new PreconditionFailedException("Malformed If-Match header: " + ifMatch);
+            }
+        }
+        try {
+            return Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Malformed If-Match header: " + ifMatch);
+        }
+    }
+
+    private static long versionOf(StudentEntity student) {
+        return student.getVersion() != null ? student.getVersion() : 0L;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,187 @@
+package com.sms.util;
+
+/**
+ * Validation rules for student fields, shared by ValidationUtil and StudentService.
+ * 
+ * Each check scans the characters of the value once, without regular expressions,
+ * trimmed copies or other allocations, and returns null for a valid value or the
+ * {@link FieldViolation} otherwise. The rules accept exactly what the original
+ * patterns accepted:
+ * <ul>
+ *   <li>name: {@code ^[a-zA-Z\s'-]{2,50}$} after trimming</li>
+ *   <li>email: {@code ^[A-Za-z0-9+_.-]+@(.+)$} after trimming, at most 100 characters</li>
+ *   <li>phone: at least 10 ASCII digits, any other characters ignored</li>
+ *   <li>zip code: {@code ^\d{5}(-\d{4})?$} after trimming</li>
+ * </ul>
+ * Trimming follows {@link String#trim()}: characters up to U+0020 are ignored at
+ * both ends.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class FieldValidators {
+    
+    public static final int NAME_MIN_LENGTH = 2;
+    public static final int NAME_MAX_LENGTH = 50;
+    public static final int EMAIL_MAX_LENGTH = 100;
+    public static final int PHONE_MIN_DIGITS = 10;
+    
+    private FieldValidators() {
+    }
+    
+    /**
+     * Checks a first or last name.
+     * 
+     * @param name the name
+     * @return null if valid, otherwise EMPTY or INVALID_FORMAT
+     */
+    public static FieldViolation checkName(String name) {
+        if (name == null) {
+            return FieldViolation.EMPTY;
+        }
+        int start = trimStart(name);
+        int end = trimEnd(name, start);
+        if (start == end) {
+            return FieldViolation.EMPTY;
+        }
+        int length = end - start;
+        if (length < NAME_MIN_LENGTH || length > NAME_MAX_LENGTH) {
+            return FieldViolation.INVALID_FORMAT;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isNameChar(name.charAt(i))) {
+                return FieldViolation.INVALID_FORMAT;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Checks an email address.
+     * 
+     * @param email the email address
+     * @return null if valid, otherwise EMPTY, INVALID_FORMAT or TOO_LONG
+     */
+    public static FieldViolation checkEmail(String email) {
+        if (email == null) {
+            return FieldViolation.EMPTY;
+        }
+        int start = trimStart(email);
+        int end = trimEnd(email, start);
+        if (start == end) {
+            return FieldViolation.EMPTY;
+        }
+        // Local part: one or more allowed characters up to the first '@'
+        int i = start;
+        while (i < end && isEmailLocalChar(email.charAt(i))) {
+            i++;
+        }
+        if (i == start || i == end || email.charAt(i) != '@') {
+            return FieldViolation.INVALID_FORMAT;
+        }
+        // Domain: one or more characters of any kind except line terminators
+        if (++i == end) {
+            return FieldViolation.INVALID_FORMAT;
+        }
+        for (; i < end; i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return FieldViolation.INVALID_FORMAT;
+            }
+        }
+        if (email.length() > EMAIL_MAX_LENGTH) {
+            return FieldViolation.TOO_LONG;
+        }
+        return null;
+    }
+    
+    /**
+     * Checks a phone number.
+     * 
+     * @param phone the phone number
+     * @return null if valid, otherwise EMPTY or TOO_FEW_DIGITS
+     */
+    public static FieldViolation checkPhone(String phone) {
+        if (phone == null) {
+            return FieldViolation.EMPTY;
+        }
+        int start = trimStart(phone);
+        if (start == phone.length()) {
+            return FieldViolation.EMPTY;
+        }
+        int digits = 0;
+        for (int i = start; i < phone.length() && digits < PHONE_MIN_DIGITS; i++) {
+            if (isDigit(phone.charAt(i))) {
+                digits++;
+            }
+        }
+        return digits >= PHONE_MIN_DIGITS ? null : FieldViolation.TOO_FEW_DIGITS;
+    }
+    
+    /**
+     * Checks a US zip code (12345 or 12345-6789).
+     * 
+     * @param zipCode the zip code
+     * @return null if valid, otherwise EMPTY or INVALID_FORMAT
+     */
+    public static FieldViolation checkZipCode(String zipCode) {
+        if (zipCode == null) {
+            return FieldViolation.EMPTY;
+        }
+        int start = trimStart(zipCode);
+        int end = trimEnd(zipCode, start);
+        if (start == end) {
+            return FieldViolation.EMPTY;
+        }
+        int length = end - start;
+        if (length != 5 && length != 10) {
+            return FieldViolation.INVALID_FORMAT;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = zipCode.charAt(start + i);
+            if (i == 5 ? c != '-' : !isDigit(c)) {
+                return FieldViolation.INVALID_FORMAT;
+            }
+        }
+        return null;
+    }
+    
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+    
+    /** [a-zA-Z\s'-], where \s is [ \t\n\x0B\f\r] */
+    private static boolean isNameChar(char c) {
+        return isAsciiLetter(c) || c == ' ' || (c >= '\t' && c <= '\r') || c == '\'' || c == '-';
+    }
+    
+    /** [A-Za-z0-9+_.-] */
+    private static boolean isEmailLocalChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+    
+    /** Characters that '.' does not match in a java.util.regex pattern without DOTALL */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,20 @@
+package com.sms.util;
+
+/**
+ * Reason a student field failed validation.
+ * The constants are shared, so reporting a violation allocates nothing.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public enum FieldViolation {
+    /** Missing, or only whitespace */
+    EMPTY,
+    /** Contains characters or a structure the field does not allow */
+    INVALID_FORMAT,
+    /** Longer than the field allows */
+    TOO_LONG,
+    /** Fewer digits than a phone number needs */
+    TOO_FEW_DIGITS
+}
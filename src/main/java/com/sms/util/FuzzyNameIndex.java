@@ -0,0 +1,554 @@
+package com.sms.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+/**
+ * Misspelling-tolerant name index: finds the records whose name contains words
+ * within a small edit distance of the query words, or that sound alike.
+ *
+ * <p>Names are split into lower-case words. Each distinct word is stored once,
+ * with the sorted IDs of the records using it, and is indexed twice:
+ * <ul>
+ *   <li>in a BK-tree under Levenshtein distance, so a query with distance
+ *       bound k only compares against the words whose tree edges lie within
+ *       k of the distances already seen rather than against every word;</li>
+ *   <li>under its primary and alternate Double Metaphone keys in a hash
+ *       index, which catches spellings such as "Jonson" / "Johnson" /
+ *       "Johnsen" even where the edit distance is larger.</li>
+ * </ul>
+ * Words no longer used by any record stay in the tree with no IDs until
+ * {@link #clear()}.
+ *
+ * <p>Results are ranked by cost: the edit distance, less half an edit for a
+ * phonetic match, summed over the query words. A query with several words
+ * matches only records that match every word. The index is safe for
+ * concurrent use; writes briefly block searches.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class FuzzyNameIndex {
+
+    /** Longest word compared; longer words are truncated */
+    static final int MAX_WORD_LENGTH = 50;
+
+    /** Phonetic matches further apart than the distance bound by more than this are dropped */
+    private static final int PHONETIC_EXTRA_DISTANCE = 2;
+
+    private static final int NO_NODE = -1;
+
+    /**
+     * One ranked search result.
+     */
+    public static final class Match {
+
+        private final long id;
+        private final int distance;
+        private final boolean phonetic;
+        private final double cost;
+
+        Match(long id, int distance, boolean phonetic, double cost) {
+            this.id = id;
+            this.distance = distance;
+            this.phonetic = phonetic;
+            this.cost = cost;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return edit distance between the query words and the matched words, summed
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return true if every query word sounds like the word it matched
+         */
+        public boolean isPhonetic() {
+            return phonetic;
+        }
+
+        /**
+         * @return rank of the match; lower is better, 0 is exact
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{id=" + id + ", distance=" + distance + ", phonetic=" + phonetic + "}";
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final DoubleMetaphone metaphone = new DoubleMetaphone();
+
+    // Distinct words by word ID
+    private final List<String> words = new ArrayList<>();
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    // Sorted record IDs per word ID
+    private long[][] postings = new long[64][];
+    private int[] postingSizes = new int[64];
+    // BK-tree over word IDs, stored as first-child / next-sibling links
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] edgeDistance = new int[64];
+    // Word IDs per Double Metaphone key
+    private final Map<String, int[]> phoneticWords = new HashMap<>();
+    private long recordWords;
+
+    /**
+     * The distance bound used when none is given: one edit for words of up to
+     * four letters, two for longer ones.
+     */
+    public static int defaultMaxDistance(String word) {
+        return word.length() <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Indexes a record's name. Adding the same ID and name again has no effect.
+     *
+     * @param id record ID
+     * @param name the name; null or blank names are ignored
+     */
+    public void add(long id, String name) {
+        List<String> nameWords = words(name);
+        if (nameWords.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (String word : nameWords) {
+                int wordId = wordId(word);
+                if (insertPosting(wordId, id)) {
+                    recordWords++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a record's name, as it was indexed.
+     *
+     * @param id record ID
+     * @param name the name passed to {@link #add(long, String)}
+     */
+    public void remove(long id, String name) {
+        List<String> nameWords = words(name);
+        lock.writeLock().lock();
+        try {
+            for (String word : nameWords) {
+                Integer wordId = wordIds.get(word);
+                if (wordId != null && removePosting(wordId, id)) {
+                    recordWords--;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces a record's name.
+     */
+    public void update(long id, String oldName, String newName) {
+        lock.writeLock().lock();
+        try {
+            remove(id, oldName);
+            add(id, newName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches with the default distance bound for each query word.
+     *
+     * @param query one or more words
+     * @param limit maximum number of results
+     * @return the matching record IDs, best first
+     */
+    public List<Match> search(String query, int limit) {
+        return search(query, -1, limit);
+    }
+
+    /**
+     * Searches for records matching every query word.
+     *
+     * @param query one or more words
+     * @param maxDistance edit distance bound per word, or -1 for {@link #defaultMaxDistance(String)}
+     * @param limit maximum number of results
+     * @return the matching record IDs, best first
+     */
+    public List<Match> search(String query, int maxDistance, int limit) {
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Match>> perWord = new ArrayList<>(queryWords.size());
+            for (String word : queryWords) {
+                List<WordMatch> wordMatches = matchWord(word,
+                        maxDistance >= 0 ? maxDistance : defaultMaxDistance(word));
+                if (wordMatches.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                if (queryWords.size() == 1) {
+                    return expand(wordMatches, limit);
+                }
+                perWord.add(expandAll(wordMatches));
+            }
+            return intersect(perWord, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of distinct words ever indexed
+     */
+    public int getWordCount() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of (record, word) entries
+     */
+    public long getEntryCount() {
+        lock.readLock().lock();
+        try {
+            return recordWords;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes everything.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            words.clear();
+            wordIds.clear();
+            phoneticWords.clear();
+            postings = new long[64][];
+            postingSizes = new int[64];
+            firstChild = new int[64];
+            nextSibling = new int[64];
+            edgeDistance = new int[64];
+            recordWords = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== WORDS ====================
+
+    /**
+     * Splits a name into lower-case words of letters; apostrophes are dropped so
+     * that "O'Brien" and "OBrien" are the same word.
+     */
+    static List<String> words(String name) {
+        List<String> result = new ArrayList<>(2);
+        if (name == null) {
+            return result;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= name.length(); i++) {
+            char c = i < name.length() ? name.charAt(i) : ' ';
+            if (Character.isLetter(c)) {
+                if (word.length() < MAX_WORD_LENGTH) {
+                    word.append(Character.toLowerCase(c));
+                }
+            } else if (c != '\'' && word.length() > 0) {
+                result.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return result;
+    }
+
+    private int wordId(String word) {
+        Integer existing = wordIds.get(word);
+        if (existing != null) {
+            return existing;
+        }
+        int wordId = words.size();
+        if (wordId == postings.length) {
+            int capacity = wordId * 2;
+            postings = Arrays.copyOf(postings, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            edgeDistance = Arrays.copyOf(edgeDistance, capacity);
+        }
+        words.add(word);
+        wordIds.put(word, wordId);
+        postings[wordId] = new long[2];
+        firstChild[wordId] = NO_NODE;
+        nextSibling[wordId] = NO_NODE;
+        if (wordId > 0) {
+            insertIntoTree(wordId, word);
+        }
+        for (String key : phoneticKeys(word)) {
+            int[] ids = phoneticWords.get(key);
+            if (ids == null) {
+                ids = new int[4];
+            } else if (ids[0] + 1 == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            // ids[0] is the count
+            ids[++ids[0]] = wordId;
+            phoneticWords.put(key, ids);
+        }
+        return wordId;
+    }
+
+    private void insertIntoTree(int wordId, String word) {
+        int[] row = new int[MAX_WORD_LENGTH + 1];
+        int[] previous = new int[MAX_WORD_LENGTH + 1];
+        int node = 0;
+        while (true) {
+            int distance = levenshtein(word, words.get(node), row, previous);
+            int child = firstChild[node];
+            while (child != NO_NODE && edgeDistance[child] != distance) {
+                child = nextSibling[child];
+            }
+            if (child == NO_NODE) {
+                edgeDistance[wordId] = distance;
+                nextSibling[wordId] = firstChild[node];
+                firstChild[node] = wordId;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private String[] phoneticKeys(String word) {
+        String primary = metaphone.doubleMetaphone(word);
+        String alternate = metaphone.doubleMetaphone(word, true);
+        if (primary == null || primary.isEmpty()) {
+            return new String[0];
+        }
+        return alternate == null || alternate.isEmpty() || alternate.equals(primary)
+                ? new String[] {primary} : new String[] {primary, alternate};
+    }
+
+    private boolean insertPosting(int wordId, long id) {
+        long[] ids = postings[wordId];
+        int size = postingSizes[wordId];
+        // IDs mostly arrive in increasing order, so this is usually an append
+        int index = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            postings[wordId] = ids;
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        postingSizes[wordId] = size + 1;
+        return true;
+    }
+
+    private boolean removePosting(int wordId, long id) {
+        long[] ids = postings[wordId];
+        int size = postingSizes[wordId];
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        postingSizes[wordId] = size - 1;
+        return true;
+    }
+
+    // ==================== SEARCH ====================
+
+    /** A stored word matching one query word */
+    private static final class WordMatch {
+
+        final int wordId;
+        final int distance;
+        final boolean phonetic;
+        final double cost;
+
+        WordMatch(int wordId, int distance, boolean phonetic) {
+            this.wordId = wordId;
+            this.distance = distance;
+            this.phonetic = phonetic;
+            this.cost = distance == 0 ? 0 : phonetic ? distance - 0.5 : distance;
+        }
+    }
+
+    /**
+     * @return the words in use that match, best first
+     */
+    private List<WordMatch> matchWord(String word, int maxDistance) {
+        List<WordMatch> matches = new ArrayList<>();
+        if (words.isEmpty()) {
+            return matches;
+        }
+        int[] row = new int[MAX_WORD_LENGTH + 1];
+        int[] previous = new int[MAX_WORD_LENGTH + 1];
+
+        BitSet soundsAlike = new BitSet(words.size());
+        for (String key : phoneticKeys(word)) {
+            int[] ids = phoneticWords.get(key);
+            if (ids != null) {
+                for (int i = 1; i <= ids[0]; i++) {
+                    soundsAlike.set(ids[i]);
+                }
+            }
+        }
+
+        // BK-tree walk: only subtrees whose edge is within maxDistance of the
+        // node's distance can hold matches (triangle inequality)
+        BitSet found = new BitSet(words.size());
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = levenshtein(word, words.get(node), row, previous);
+            if (distance <= maxDistance && postingSizes[node] > 0) {
+                matches.add(new WordMatch(node, distance, soundsAlike.get(node)));
+                found.set(node);
+            }
+            for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+                if (Math.abs(edgeDistance[child] - distance) <= maxDistance) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+        }
+
+        for (int wordId = soundsAlike.nextSetBit(0); wordId >= 0; wordId = soundsAlike.nextSetBit(wordId + 1)) {
+            if (!found.get(wordId) && postingSizes[wordId] > 0) {
+                int distance = levenshtein(word, words.get(wordId), row, previous);
+                if (distance <= maxDistance + PHONETIC_EXTRA_DISTANCE) {
+                    matches.add(new WordMatch(wordId, distance, true));
+                }
+            }
+        }
+
+        matches.sort(Comparator.<WordMatch>comparingDouble(m -> m.cost)
+                .thenComparing(m -> words.get(m.wordId)));
+        return matches;
+    }
+
+    /**
+     * Single-word results: records of the best words first, stopping at the limit.
+     */
+    private List<Match> expand(List<WordMatch> wordMatches, int limit) {
+        List<Match> result = new ArrayList<>(Math.min(limit, 64));
+        Set<Long> seen = new HashSet<>();
+        for (WordMatch wordMatch : wordMatches) {
+            long[] ids = postings[wordMatch.wordId];
+            for (int i = 0; i < postingSizes[wordMatch.wordId]; i++) {
+                // A record whose name has two matching words ranks by the better one
+                if (seen.add(ids[i])) {
+                    result.add(new Match(ids[i], wordMatch.distance, wordMatch.phonetic, wordMatch.cost));
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return every record matching the word, with its best match
+     */
+    private Map<Long, Match> expandAll(List<WordMatch> wordMatches) {
+        Map<Long, Match> result = new HashMap<>();
+        for (WordMatch wordMatch : wordMatches) {
+            long[] ids = postings[wordMatch.wordId];
+            for (int i = 0; i < postingSizes[wordMatch.wordId]; i++) {
+                result.putIfAbsent(ids[i], new Match(ids[i], wordMatch.distance, wordMatch.phonetic, wordMatch.cost));
+            }
+        }
+        return result;
+    }
+
+    private static List<Match> intersect(List<Map<Long, Match>> perWord, int limit) {
+        perWord.sort(Comparator.comparingInt(Map::size));
+        List<Match> result = new ArrayList<>();
+        for (Match first : perWord.get(0).values()) {
+            int distance = first.distance;
+            boolean phonetic = first.phonetic;
+            double cost = first.cost;
+            boolean all = true;
+            for (int i = 1; i < perWord.size() && all; i++) {
+                Match other = perWord.get(i).get(first.id);
+                if (other == null) {
+                    all = false;
+                } else {
+                    distance += other.distance;
+                    phonetic &= other.phonetic;
+                    cost += other.cost;
+                }
+            }
+            if (all) {
+                result.add(new Match(first.id, distance, phonetic, cost));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Match::getCost).thenComparingLong(Match::getId));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Levenshtein distance using two caller-supplied rows of MAX_WORD_LENGTH + 1.
+     */
+    static int levenshtein(String a, String b, int[] row, int[] previous) {
+        int m = Math.min(a.length(), MAX_WORD_LENGTH);
+        int n = Math.min(b.length(), MAX_WORD_LENGTH);
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            row[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previous[j], row[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[n];
+    }
+}
@@ -0,0 +1,18 @@
+package com.sms.util;
+
+/**
+ * Source of student IDs assigned before a record is written.
+ * Implementations must be thread-safe and never return the same ID twice.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @return a new, positive ID
+     */
+    long nextId();
+}
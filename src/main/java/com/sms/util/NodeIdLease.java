@@ -0,0 +1,195 @@
+package com.sms.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-limited claim on a Snowflake node ID, kept in a shared database table so that
+ * running generators never share a node ID without any other coordination.
+ *
+ * {@link #acquire()} claims the lowest node ID that is free or whose lease expired more
+ * than one lease duration ago (the gap covers clock differences between hosts and the
+ * generator's borrowed milliseconds). A background thread renews the lease at a third of
+ * its duration; if a renewal fails to find the row still ours, the lease is lost at once,
+ * and {@link #isHeld(long)} turns false when the lease runs out.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class NodeIdLease implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeIdLease.class);
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS id_node_lease (" +
+        "node_id INT PRIMARY KEY, owner VARCHAR(100) NOT NULL, expires_at BIGINT NOT NULL)";
+
+    private static final String CLAIM =
+        "UPDATE id_node_lease SET owner = ?, expires_at = ? WHERE node_id = ? AND (owner = ? OR expires_at < ?)";
+
+    private static final String INSERT =
+        "INSERT INTO id_node_lease (node_id, owner, expires_at) VALUES (?, ?, ?)";
+
+    private static final String RENEW =
+        "UPDATE id_node_lease SET expires_at = ? WHERE node_id = ? AND owner = ?";
+
+    private static final String RELEASE =
+        "DELETE FROM id_node_lease WHERE node_id = ? AND owner = ?";
+
+    private final DataSource dataSource;
+    private final String owner;
+    private final long durationMillis;
+    private ScheduledExecutorService renewer;
+    private volatile int nodeId = -1;
+    private volatile long heldUntil;
+
+    /**
+     * @param dataSource database shared by all nodes
+     * @param owner unique name of this process (e.g. host and PID)
+     * @param duration lease duration
+     */
+    public NodeIdLease(DataSource dataSource, String owner, Duration duration) {
+        this.dataSource = dataSource;
+        this.owner = owner;
+        this.durationMillis = duration.toMillis();
+    }
+
+    /**
+     * Claims a node ID and starts renewing it.
+     *
+     * @return the claimed node ID
+     * @throws SQLException on database errors
+     * @throws IllegalStateException if every node ID is taken
+     */
+    public synchronized int acquire() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate(CREATE_TABLE);
+            }
+            for (int candidate = 0; candidate <= SnowflakeIdGenerator.MAX_NODE_ID; candidate++) {
+                long start = System.currentTimeMillis();
+                if (claim(connection, candidate, start)) {
+                    nodeId = candidate;
+                    heldUntil = start + durationMillis;
+                    startRenewing();
+                    logger.info("Acquired ID node lease {} for {}", candidate, owner);
+                    return candidate;
+                }
+            }
+        }
+        throw new IllegalStateException("All " + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " node IDs are leased");
+    }
+
+    /**
+     * @return the leased node ID, or -1 before {@link #acquire()}
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @param nowMillis current time in epoch milliseconds
+     * @return true while the lease is valid
+     */
+    public boolean isHeld(long nowMillis) {
+        return nowMillis < heldUntil;
+    }
+
+    /**
+     * Extends the lease by one duration from now.
+     *
+     * @return true if the lease is still ours
+     */
+    public boolean renew() {
+        long start = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(RENEW)) {
+            pstmt.setLong(1, start + durationMillis);
+            pstmt.setInt(2, nodeId);
+            pstmt.setString(3, owner);
+            if (pstmt.executeUpdate() == 1) {
+                heldUntil = start + durationMillis;
+                return true;
+            }
+            heldUntil = 0;
+            logger.error("ID node lease {} was taken over; no more IDs will be generated", nodeId);
+            return false;
+        } catch (SQLException e) {
+            // Keep the current expiry; a later renewal may still succeed in time
+            logger.warn("Failed to renew ID node lease {}: {}", nodeId, e.getMessage());
+            return isHeld(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Stops renewing and frees the node ID.
+     */
+    @Override
+    public synchronized void close() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+            renewer = null;
+        }
+        if (nodeId < 0) {
+            return;
+        }
+        heldUntil = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(RELEASE)) {
+            pstmt.setInt(1, nodeId);
+            pstmt.setString(2, owner);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            // The lease expires on its own
+            logger.warn("Failed to release ID node lease {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private boolean claim(Connection connection, int candidate, long now) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(CLAIM)) {
+            pstmt.setString(1, owner);
+            pstmt.setLong(2, now + durationMillis);
+            pstmt.setInt(3, candidate);
+            pstmt.setString(4, owner);
+            pstmt.setLong(5, now - durationMillis);
+            if (pstmt.executeUpdate() == 1) {
+                return true;
+            }
+        }
+        try (PreparedStatement pstmt = connection.prepareStatement(INSERT)) {
+            pstmt.setInt(1, candidate);
+            pstmt.setString(2, owner);
+            pstmt.setLong(3, now + durationMillis);
+            pstmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                // Leased by a live node
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private void startRenewing() {
+        renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "id-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, durationMillis / 3);
+        renewer.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,522 @@
+package com.sms.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index for type-ahead: maps normalized terms to IDs and returns
+ * the best-scoring IDs whose terms start with a prefix.
+ *
+ * Entries live in parallel arrays sorted by (term, id), so a prefix is one binary
+ * search for each end of its range. Each block of 64 entries keeps its highest score,
+ * and the top-K scan skips any block that cannot beat the current K-th best.
+ * Writes go to a small sorted buffer and removals only mark entries dead; both are
+ * merged into new arrays once they reach an eighth of the index, so keeping the index
+ * current costs amortized O(1) array copies per write; bulk loads go through a
+ * {@link Batch}, sorted and merged once. Equal terms share one String.
+ *
+ * Scores are per entry; an ID indexed under several terms should use the same score
+ * for all of them. Thread-safe: searches run in parallel, writes are exclusive.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class PrefixIndex {
+
+    private static final int BLOCK_SIZE = 64;
+    private static final int MIN_MERGE_SIZE = 1024;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Estimated object sizes for a 64-bit JVM with compressed references
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24;
+    private static final int PENDING_ENTRY_BYTES = 40 + 24 + 16;
+
+    /**
+     * One suggestion: an ID, the indexed term that matched and its score
+     */
+    public static final class Suggestion {
+
+        private final long id;
+        private final String term;
+        private final double score;
+
+        Suggestion(long id, String term, double score) {
+            this.id = id;
+            this.term = term;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + term + "(" + score + ")";
+        }
+    }
+
+    /** Best first: higher score, then the shorter/alphabetically earlier term, then lower ID */
+    public static final Comparator<Suggestion> BEST_FIRST = Comparator
+            .comparingDouble(Suggestion::getScore).reversed()
+            .thenComparing(Suggestion::getTerm)
+            .thenComparingLong(Suggestion::getId);
+
+    private static final Comparator<Suggestion> WORST_FIRST = BEST_FIRST.reversed();
+
+    /**
+     * Entries collected for {@link #addAll}, which sorts and merges them in one pass
+     * instead of buffering them one at a time. Not thread-safe.
+     */
+    public static final class Batch {
+
+        private final List<BatchEntry> entries = new ArrayList<>();
+
+        public void add(long id, String term, double score) {
+            String key = normalize(term);
+            if (!key.isEmpty()) {
+                entries.add(new BatchEntry(key, id, score));
+            }
+        }
+
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    private static class Key implements Comparable<Key> {
+
+        final String term;
+        final long id;
+
+        Key(String term, long id) {
+            this.term = term;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int c = term.compareTo(other.term);
+            return c != 0 ? c : Long.compare(id, other.id);
+        }
+    }
+
+    private static final class BatchEntry extends Key {
+
+        final double score;
+
+        BatchEntry(String term, long id, double score) {
+            super(term, id);
+            this.score = score;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Merged entries, sorted by (term, id)
+    private String[] terms = new String[0];
+    private long[] ids = new long[0];
+    private double[] scores = new double[0];
+    private double[] blockMax = new double[0];
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+    private long termBytes;
+
+    // Entries added since the last merge
+    private final TreeMap<Key, Double> pending = new TreeMap<>();
+    private long pendingTermBytes;
+
+    /**
+     * Lower-cases, strips accents and collapses whitespace. Returns the argument
+     * itself when it is already normalized, so callers can share the instance.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (isNormalized(text)) {
+            return text;
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static boolean isNormalized(String text) {
+        char previous = ' ';
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z') || (Character.isWhitespace(c) && (c != ' ' || previous == ' '))) {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != ' ' || text.isEmpty();
+    }
+
+    /**
+     * Index an ID under a term, or change its score if it is already there
+     */
+    public void add(long id, String term, double score) {
+        String key = normalize(term);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int index = find(key, id);
+            if (index >= 0) {
+                scores[index] = score;
+                int block = index / BLOCK_SIZE;
+                blockMax[block] = Math.max(blockMax[block], score);
+                if (removed.get(index)) {
+                    removed.clear(index);
+                    removedCount--;
+                }
+                return;
+            }
+            if (pending.put(new Key(key, id), score) == null) {
+                pendingTermBytes += stringBytes(key);
+            }
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index a batch of entries, as {@link #add} would one by one. The batch is left unchanged.
+     */
+    public void addAll(Batch batch) {
+        BatchEntry[] sorted = batch.entries.toArray(new BatchEntry[0]);
+        // Stable, so of several entries for one key the last added comes last
+        Arrays.parallelSort(sorted);
+        String[] newTerms = new String[sorted.length];
+        long[] newIds = new long[sorted.length];
+        double[] newScores = new double[sorted.length];
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i + 1 < sorted.length && sorted[i].compareTo(sorted[i + 1]) == 0) {
+                continue;
+            }
+            newTerms[count] = sorted[i].term;
+            newIds[count] = sorted[i].id;
+            newScores[count++] = sorted[i].score;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!pending.isEmpty()) {
+                merge();
+            }
+            merge(newTerms, newIds, newScores, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an ID from a term; does nothing if it is not indexed there
+     */
+    public void remove(long id, String term) {
+        String key = normalize(term);
+        if (key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending.remove(new Key(key, id)) != null) {
+                pendingTermBytes -= stringBytes(key);
+                return;
+            }
+            int index = find(key, id);
+            if (index >= 0 && !removed.get(index)) {
+                removed.set(index);
+                removedCount++;
+                mergeIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The best-scoring IDs with a term starting with the (normalized) prefix,
+     * one suggestion per ID, best first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        Map<Long, Suggestion> byId = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int from = rangeStart(key);
+            int to = rangeEnd(key, from);
+            int i = from;
+            while (i < to) {
+                int blockEnd = Math.min(to, (i / BLOCK_SIZE + 1) * BLOCK_SIZE);
+                if (top.size() == limit && blockMax[i / BLOCK_SIZE] < top.peek().getScore()) {
+                    i = blockEnd;
+                    continue;
+                }
+                for (; i < blockEnd; i++) {
+                    if (!removed.get(i)) {
+                        offer(top, byId, limit, ids[i], terms[i], scores[i]);
+                    }
+                }
+            }
+            for (Map.Entry<Key, Double> entry : pending.tailMap(new Key(key, Long.MIN_VALUE)).entrySet()) {
+                if (!entry.getKey().term.startsWith(key)) {
+                    break;
+                }
+                offer(top, byId, limit, entry.getKey().id, entry.getKey().term, entry.getValue());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Suggestion> result = new ArrayList<>(top);
+        result.sort(BEST_FIRST);
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Suggestion> top, Map<Long, Suggestion> byId, int limit,
+                              long id, String term, double score) {
+        Suggestion candidate = new Suggestion(id, term, score);
+        Suggestion existing = byId.get(id);
+        if (existing != null) {
+            if (BEST_FIRST.compare(candidate, existing) < 0) {
+                top.remove(existing);
+                top.add(candidate);
+                byId.put(id, candidate);
+            }
+            return;
+        }
+        if (top.size() == limit) {
+            if (BEST_FIRST.compare(candidate, top.peek()) >= 0) {
+                return;
+            }
+            byId.remove(top.poll().getId());
+        }
+        top.add(candidate);
+        byId.put(id, candidate);
+    }
+
+    /**
+     * @return the number of live (term, ID) entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.length - removedCount + pending.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated heap retained by the index in bytes: the entry arrays, the distinct
+     * term strings and the write buffer
+     */
+    public long getMemoryFootprint() {
+        lock.readLock().lock();
+        try {
+            long n = terms.length;
+            return arrayBytes(n, 4) + arrayBytes(n, 8) + arrayBytes(n, 8) + arrayBytes(blockMax.length, 8)
+                    + arrayBytes(removed.size() / 64, 8) + termBytes
+                    + (long) pending.size() * PENDING_ENTRY_BYTES + pendingTermBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms = new String[0];
+            ids = new long[0];
+            scores = new double[0];
+            blockMax = new double[0];
+            removed.clear();
+            removedCount = 0;
+            termBytes = 0;
+            pending.clear();
+            pendingTermBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private int find(String term, long id) {
+        int low = 0;
+        int high = terms.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = terms[mid].compareTo(term);
+            if (c == 0) {
+                c = Long.compare(ids[mid], id);
+            }
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /** First entry whose term is not less than the prefix */
+    private int rangeStart(String prefix) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** First entry from start on whose term does not start with the prefix */
+    private int rangeEnd(String prefix, int start) {
+        int low = start;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void mergeIfNeeded() {
+        if (pending.size() + removedCount >= Math.max(MIN_MERGE_SIZE, terms.length / 8)) {
+            merge();
+        }
+    }
+
+    private void merge() {
+        int count = pending.size();
+        String[] newTerms = new String[count];
+        long[] newIds = new long[count];
+        double[] newScores = new double[count];
+        int n = 0;
+        for (Map.Entry<Key, Double> entry : pending.entrySet()) {
+            newTerms[n] = entry.getKey().term;
+            newIds[n] = entry.getKey().id;
+            newScores[n++] = entry.getValue();
+        }
+        merge(newTerms, newIds, newScores, count);
+        pending.clear();
+        pendingTermBytes = 0;
+    }
+
+    /**
+     * Merge new entries, sorted by (term, id) without duplicates, into the arrays,
+     * dropping removed entries; a new entry replaces a merged one with the same key
+     */
+    private void merge(String[] newTerms, long[] newIds, double[] newScores, int count) {
+        int size = terms.length - removedCount + count;
+        String[] mergedTerms = new String[size];
+        long[] mergedIds = new long[size];
+        double[] mergedScores = new double[size];
+        int i = 0;
+        int out = 0;
+        String previous = null;
+        for (int k = 0; k < count; k++) {
+            for (; i < terms.length && (terms[i].compareTo(newTerms[k]) < 0
+                    || (terms[i].equals(newTerms[k]) && ids[i] < newIds[k])); i++) {
+                if (!removed.get(i)) {
+                    previous = put(mergedTerms, mergedIds, mergedScores, out++, terms[i], ids[i], scores[i], previous);
+                }
+            }
+            if (i < terms.length && ids[i] == newIds[k] && terms[i].equals(newTerms[k])) {
+                i++;
+            }
+            previous = put(mergedTerms, mergedIds, mergedScores, out++, newTerms[k], newIds[k], newScores[k], previous);
+        }
+        for (; i < terms.length; i++) {
+            if (!removed.get(i)) {
+                previous = put(mergedTerms, mergedIds, mergedScores, out++, terms[i], ids[i], scores[i], previous);
+            }
+        }
+        if (out < mergedTerms.length) {
+            mergedTerms = Arrays.copyOf(mergedTerms, out);
+            mergedIds = Arrays.copyOf(mergedIds, out);
+            mergedScores = Arrays.copyOf(mergedScores, out);
+        }
+        double[] mergedBlockMax = new double[(out + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        Arrays.fill(mergedBlockMax, Double.NEGATIVE_INFINITY);
+        long bytes = 0;
+        for (int j = 0; j < out; j++) {
+            int block = j / BLOCK_SIZE;
+            mergedBlockMax[block] = Math.max(mergedBlockMax[block], mergedScores[j]);
+            // Equal terms are adjacent and share one instance
+            if (j == 0 || mergedTerms[j] != mergedTerms[j - 1]) {
+                bytes += stringBytes(mergedTerms[j]);
+            }
+        }
+        terms = mergedTerms;
+        ids = mergedIds;
+        scores = mergedScores;
+        blockMax = mergedBlockMax;
+        removed.clear();
+        removedCount = 0;
+        termBytes = bytes;
+    }
+
+    /** Store one entry, reusing the previous term's String when equal; returns the stored term */
+    private static String put(String[] terms, long[] ids, double[] scores, int index,
+                              String term, long id, double score, String previous) {
+        String shared = term.equals(previous) ? previous : term;
+        terms[index] = shared;
+        ids[index] = id;
+        scores[index] = score;
+        return shared;
+    }
+
+    private static long stringBytes(String s) {
+        // Latin-1 compact strings: one byte per char, array padded to 8 bytes
+        return STRING_BYTES + align(ARRAY_HEADER_BYTES + s.length());
+    }
+
+    private static long arrayBytes(long length, int elementBytes) {
+        return align(ARRAY_HEADER_BYTES + length * elementBytes);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,134 @@
+package com.sms.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style 64-bit ID generator: no coordination between nodes once each has a
+ * distinct node ID.
+ *
+ * <pre>
+ *  0 | 41 bits: milliseconds since 2024-01-01 UTC | 10 bits: node | 12 bits: sequence
+ * </pre>
+ *
+ * IDs from one generator strictly increase. The last issued timestamp and sequence live
+ * in one AtomicLong that is advanced by compare-and-set, so {@link #nextId()} never locks.
+ * When the sequence of a millisecond is used up, or the wall clock steps backwards, the
+ * generator keeps counting on its own logical clock, borrowing from the next milliseconds.
+ * It refuses to run more than {@code maxClockSkewMillis} ahead of the wall clock: a burst
+ * that reaches the limit waits for the clock, a larger backwards step fails fast.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public final class SnowflakeIdGenerator implements IdGenerator {
+
+    /** 2024-01-01T00:00:00Z; the 41-bit timestamp lasts until 2093 */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /** Default tolerated lead of the logical clock over the wall clock */
+    public static final long DEFAULT_MAX_CLOCK_SKEW_MILLIS = 2_000;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final long maxClockSkewMillis;
+    private final LongSupplier clock;
+    private final NodeIdLease lease;
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Creates a generator for a fixed node ID.
+     *
+     * @param nodeId 0..{@value #MAX_NODE_ID}, unique among running generators
+     */
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, null, DEFAULT_MAX_CLOCK_SKEW_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator for a leased node ID. IDs are refused once the lease is lost.
+     *
+     * @param lease an acquired node ID lease
+     */
+    public SnowflakeIdGenerator(NodeIdLease lease) {
+        this(lease.getNodeId(), lease, DEFAULT_MAX_CLOCK_SKEW_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param nodeId 0..{@value #MAX_NODE_ID}
+     * @param lease lease to check before each ID, or null for a fixed node ID
+     * @param maxClockSkewMillis how far the logical clock may run ahead of the wall clock
+     * @param clock wall clock in epoch milliseconds
+     */
+    public SnowflakeIdGenerator(int nodeId, NodeIdLease lease, long maxClockSkewMillis, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.lease = lease;
+        this.maxClockSkewMillis = maxClockSkewMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            // Read the state before the clock: a clock read that predates another thread's
+            // update could otherwise look like the clock stepping backwards
+            long previous = last.get();
+            long wallMillis = clock.getAsLong();
+            if (lease != null && !lease.isHeld(wallMillis)) {
+                throw new IllegalStateException("Node ID lease " + getNodeId() + " is no longer held");
+            }
+            long now = wallMillis - EPOCH_MILLIS;
+            long previousMillis = previous >>> SEQUENCE_BITS;
+            long next;
+            if (now > previousMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                long lead = previousMillis - now;
+                if (lead > maxClockSkewMillis) {
+                    throw new IllegalStateException("Clock moved backwards: " + lead
+                            + " ms behind the last issued ID");
+                }
+                if (lead == maxClockSkewMillis && (previous & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                    // Burst used up the tolerated lead; wait for the clock to catch up
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // Same or earlier millisecond: next sequence, carrying into the timestamp
+                next = previous + 1;
+            }
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public int getNodeId() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * @return the node ID encoded in an ID
+     */
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * @return the creation time (epoch milliseconds) encoded in an ID
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
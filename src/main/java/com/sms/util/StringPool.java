@@ -0,0 +1,58 @@
+package com.sms.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe pool that hands out one shared instance per distinct string value,
+ * so that low-cardinality fields repeated across many records (city, state, zip
+ * code) cost one String each instead of one per record.
+ *
+ * Unlike {@link String#intern()} the pool is bounded: once it holds its maximum
+ * number of values, new values are returned as they are rather than pooled, so a
+ * field with unexpectedly high cardinality cannot grow it without limit.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class StringPool {
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /**
+     * @param maxSize the most distinct values to pool
+     */
+    public StringPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the pooled instance equal to the value, pooling the value if it is new
+     * and the pool has room.
+     *
+     * @param value the value, may be null
+     * @return an equal string, shared if pooled; null for null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = values.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (values.size() >= maxSize) {
+            return value;
+        }
+        pooled = values.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * @return the number of pooled values
+     */
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,60 @@
+package com.sms.util;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Startup check that the {@code students.id} column can hold application-assigned
+ * 64-bit IDs.
+ *
+ * Databases created before IDs were assigned by {@link SnowflakeIdGenerator} have an
+ * INT column, which {@code ddl-auto=update} never widens; the first insert of an ID above
+ * 2^31 would then fail. The check fails fast instead and names the migration script
+ * ({@code database/migrate_student_ids_to_bigint.sql}).
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public final class StudentIdColumnCheck {
+
+    /** Migration that widens the column */
+    public static final String MIGRATION = "database/migrate_student_ids_to_bigint.sql";
+
+    private StudentIdColumnCheck() {
+    }
+
+    /**
+     * Verifies the type of {@code students.id}. A missing table passes, since it will be
+     * created with the right type.
+     *
+     * @param dataSource the primary database
+     * @throws SQLException if the schema cannot be inspected
+     * @throws IllegalStateException if the column is narrower than BIGINT
+     */
+    public static void verify(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Integer type = columnType(connection, "students", "id");
+            if (type == null) {
+                // Databases that store unquoted identifiers in upper case (H2)
+                type = columnType(connection, "STUDENTS", "ID");
+            }
+            if (type != null && type != Types.BIGINT && type != Types.NUMERIC && type != Types.DECIMAL) {
+                throw new IllegalStateException("Column students.id is too narrow for 64-bit student IDs (JDBC type "
+                        + type + "); run " + MIGRATION + " against this database before starting");
+            }
+        }
+    }
+
+    private static Integer columnType(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        // Only the current database and schema, not same-named tables elsewhere
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, column)) {
+            return columns.next() ? columns.getInt("DATA_TYPE") : null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.sms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a client in the student delta stream.
+ *
+ * A watermark holds two keyset cursors: the (updatedAt, id) of the last changed
+ * student returned and the (occurredAt, event id) of the last deletion returned.
+ * Clients treat the encoded form as opaque and send back the one from their
+ * previous response.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public final class SyncWatermark {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime updatedAfter;
+    private final long studentId;
+    private final LocalDateTime deletedAfter;
+    private final long deleteEventId;
+
+    public SyncWatermark(LocalDateTime updatedAfter, long studentId, LocalDateTime deletedAfter, long deleteEventId) {
+        this.updatedAfter = updatedAfter;
+        this.studentId = studentId;
+        this.deletedAfter = deletedAfter;
+        this.deleteEventId = deleteEventId;
+    }
+
+    /**
+     * Starting point of a full sync: every student, and deletions from {@code now} on
+     */
+    public static SyncWatermark initial(LocalDateTime now) {
+        return new SyncWatermark(LocalDateTime.of(1970, 1, 1, 0, 0), Long.MIN_VALUE, now, Long.MIN_VALUE);
+    }
+
+    /**
+     * @return URL-safe token for this watermark
+     */
+    public String encode() {
+        String raw = updatedAfter.toString() + SEPARATOR + studentId + SEPARATOR
+                + deletedAfter + SEPARATOR + deleteEventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param token a token produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SyncWatermark decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII)
+                    .split("\\" + SEPARATOR);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed sync watermark: " + token);
+            }
+            return new SyncWatermark(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed sync watermark: " + token, e);
+        }
+    }
+
+    public LocalDateTime getUpdatedAfter() {
+        return updatedAfter;
+    }
+
+    public long getStudentId() {
+        return studentId;
+    }
+
+    public LocalDateTime getDeletedAfter() {
+        return deletedAfter;
+    }
+
+    public long getDeleteEventId() {
+        return deleteEventId;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncWatermark{updatedAfter=" + updatedAfter + ", studentId=" + studentId
+                + ", deletedAfter=" + deletedAfter + ", deleteEventId=" + deleteEventId + '}';
+    }
+}
@@ -0,0 +1,106 @@
+package com.sms.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of validating a batch of records: the field errors of every invalid
+ * record, in record order. Valid records take no space in the report.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public final class ValidationReport {
+    
+    private final int recordCount;
+    private final List<RecordErrors> invalidRecords;
+    
+    public ValidationReport(int recordCount, List<RecordErrors> invalidRecords) {
+        this.recordCount = recordCount;
+        this.invalidRecords = Collections.unmodifiableList(invalidRecords);
+    }
+    
+    /**
+     * @return true if every record passed
+     */
+    public boolean isValid() {
+        return invalidRecords.isEmpty();
+    }
+    
+    public int getRecordCount() {
+        return recordCount;
+    }
+    
+    public int getInvalidCount() {
+        return invalidRecords.size();
+    }
+    
+    /**
+     * @return the invalid records in ascending index order
+     */
+    public List<RecordErrors> getInvalidRecords() {
+        return invalidRecords;
+    }
+    
+    /**
+     * @param index record position in the batch
+     * @return true if the record passed
+     */
+    public boolean isValid(int index) {
+        int low = 0;
+        int high = invalidRecords.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = invalidRecords.get(mid).getIndex();
+            if (midIndex == index) {
+                return false;
+            }
+            if (midIndex < index) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return "ValidationReport{records=" + recordCount + ", invalid=" + invalidRecords.size() + '}';
+    }
+    
+    /**
+     * Field errors of one record, in the order the fields were checked.
+     */
+    public static final class RecordErrors {
+        
+        private final int index;
+        private final Map<String, String> fieldErrors;
+        
+        public RecordErrors(int index, Map<String, String> fieldErrors) {
+            this.index = index;
+            this.fieldErrors = Collections.unmodifiableMap(fieldErrors);
+        }
+        
+        /**
+         * @return position of the record in the batch, from 0
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        /**
+         * @return field name to error message
+         */
+        public Map<String, String> getFieldErrors() {
+            return fieldErrors;
+        }
+        
+        @Override
+        public String toString() {
+            return "record " + index + ": " + fieldErrors;
+        }
+    }
+}
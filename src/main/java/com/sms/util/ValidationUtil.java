@@ -2,11 +2,11 @@ package com.sms.util;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.regex.Pattern;
 
 /**
  * Utility class for input validation.
  * Provides static methods for validating student data.
+ * Field rules are implemented once in {@link FieldValidators}.
  * 
  * @author SMS Development Team
  * @version 1.0
@@ -14,19 +14,6 @@ import java.util.regex.Pattern;
  */
 public class ValidationUtil {
     
-    // Validation patterns
-    private static final Pattern EMAIL_PATTERN = 
-        Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
-    
-    private static final Pattern NAME_PATTERN = 
-        Pattern.compile("^[a-zA-Z\\s'-]{2,50}$");
-    
-    private static final Pattern PHONE_PATTERN = 
-        Pattern.compile("^[\\d\\-\\+\\s\\(\\)]{10,}$");
-    
-    private static final Pattern ZIP_CODE_PATTERN = 
-        Pattern.compile("^\\d{5}(-\\d{4})?$");
-    
     /**
      * Validates a name field.
      * 
@@ -34,8 +21,7 @@ public class ValidationUtil {
      * @return true if valid
      */
     public static boolean isValidName(String name) {
-        return name != null && !name.trim().isEmpty() && 
-               NAME_PATTERN.matcher(name.trim()).matches();
+        return FieldValidators.checkName(name) == null;
     }
     
     /**
@@ -45,9 +31,7 @@ public class ValidationUtil {
      * @return true if valid
      */
     public static boolean isValidEmail(String email) {
-        return email != null && !email.trim().isEmpty() &&
-               email.length() <= 100 &&
-               EMAIL_PATTERN.matcher(email.trim()).matches();
+        return FieldValidators.checkEmail(email) == null;
     }
     
     /**
@@ -57,12 +41,7 @@ public class ValidationUtil {
      * @return true if valid
      */
     public static boolean isValidPhone(String phone) {
-        if (phone == null || phone.trim().isEmpty()) {
-            return false;
-        }
-        
-        String cleanPhone = phone.replaceAll("[\\D]", "");
-        return cleanPhone.length() >= 10;
+        return FieldValidators.checkPhone(phone) == null;
     }
     
     /**
@@ -72,11 +51,7 @@ public class ValidationUtil {
      * @return true if valid
      */
     public static boolean isValidZipCode(String zipCode) {
-        if (zipCode == null || zipCode.trim().isEmpty()) {
-            return false;
-        }
-        
-        return ZIP_CODE_PATTERN.matcher(zipCode.trim()).matches();
+        return FieldValidators.checkZipCode(zipCode) == null;
     }
     
     /**
@@ -0,0 +1,125 @@
+package com.sms.benchmark;
+
+import com.sms.dao.DaoException;
+import com.sms.dao.StudentDao;
+import com.sms.dao.StudentDaoColumnarImpl;
+import com.sms.dao.StudentDaoMemoryImpl;
+import com.sms.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the row-oriented StudentDaoMemoryImpl against the columnar
+ * StudentDaoColumnarImpl: load time and retained heap per student (printed during
+ * setup), a full-column scan, a full materialization and lookups by ID and by email.
+ *
+ * {@link #main} also runs the columnar store alone at a million students; the row
+ * store is left out there because its duplicate-email check scans every student, so
+ * loading a million takes hours. Scan throughput is students divided by the
+ * {@code scanLastName} time.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.sms.benchmark.ColumnarStoreBenchmark
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ColumnarStoreBenchmark {
+
+    @Param({"memory", "columnar"})
+    public String store;
+
+    @Param({"50000"})
+    public int students;
+
+    private StudentDao dao;
+    private String email;
+
+    @Setup
+    public void setUp() throws DaoException {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        dao = store.equals("columnar") ? new StudentDaoColumnarImpl() : new StudentDaoMemoryImpl();
+        for (long id = 1; id <= students; id++) {
+            Student student = BenchmarkFixtures.consoleStudent(id);
+            student.setStudentId(null);
+            dao.create(student);
+        }
+        email = BenchmarkFixtures.consoleStudent(students / 2).getEmail();
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long retained = usedHeap() - before;
+        System.out.printf("%n[%s] %d students loaded in %d ms, retain %d bytes (%.1f bytes/student)%n",
+                store, students, loadMillis, retained, (double) retained / students);
+    }
+
+    @Benchmark
+    public List<Student> scanLastName() throws DaoException {
+        return dao.findByLastName("Last42");
+    }
+
+    @Benchmark
+    public List<Student> findAll() throws DaoException {
+        return dao.findAll();
+    }
+
+    @Benchmark
+    public Optional<Student> findById() throws DaoException {
+        return dao.findById((long) students / 2);
+    }
+
+    @Benchmark
+    public Optional<Student> findByEmail() throws DaoException {
+        return dao.findByEmail(email);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Several collections so the measurement settles on retained objects only
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColumnarStoreBenchmark.class.getSimpleName())
+                .build()).run();
+
+        Options million = new OptionsBuilder()
+                .include(ColumnarStoreBenchmark.class.getSimpleName())
+                .param("store", "columnar")
+                .param("students", "1000000")
+                .build();
+        new Runner(million).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.sms.benchmark;
+
+import com.sms.dao.DaoException;
+import com.sms.dao.DuplicateEmailException;
+import com.sms.dao.StudentDaoOffHeapImpl;
+import com.sms.model.Student;
+import com.sms.service.BusinessRuleException;
+import com.sms.service.ServiceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import of 10,000 students of which half repeat an email already in the store,
+ * into the hash-indexed off-heap DAO so the duplicate check itself is cheap:
+ * <ul>
+ * <li>tracedExceptions: the former behaviour, every duplicate becomes a DaoException
+ *     wrapped in a ServiceException, both filling in their stack traces</li>
+ * <li>stacklessExceptions: as now, the stackless DuplicateEmailException wrapped in
+ *     a stackless BusinessRuleException, as StudentService.addStudent does</li>
+ * <li>resultTyped: StudentDao.createIfAbsent, no exception at all</li>
+ * </ul>
+ * The benchmark stack is shallow; behind a web or console stack the trace capture
+ * the first variant pays for is several times deeper.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.sms.benchmark.DuplicateImportBenchmark
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuplicateImportBenchmark {
+
+    private static final int RECORDS = 10_000;
+
+    private final Student[] batch = new Student[RECORDS];
+    private StudentDaoOffHeapImpl dao;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws DaoException {
+        dao = new StudentDaoOffHeapImpl();
+        // Even rows are already stored; odd rows are new
+        for (int i = 0; i < RECORDS; i++) {
+            String email = "student" + i + "@example.com";
+            if (i % 2 == 0) {
+                dao.create(new Student("First", "Last", email, "555-010-0000"));
+            }
+            batch[i] = new Student("First", "Last", email, "555-010-0000");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        dao.close();
+    }
+
+    @Benchmark
+    public int tracedExceptions() {
+        int imported = 0;
+        for (Student student : batch) {
+            try {
+                try {
+                    dao.create(new Student(student));
+                    imported++;
+                } catch (DuplicateEmailException e) {
+                    throw new ServiceException("Failed to add student: " + e.getMessage(),
+                            new DaoException(e.getMessage()));
+                }
+            } catch (DaoException | ServiceException e) {
+                // skipped row
+            }
+        }
+        return imported;
+    }
+
+    @Benchmark
+    public int stacklessExceptions() {
+        int imported = 0;
+        for (Student student : batch) {
+            try {
+                try {
+                    dao.create(new Student(student));
+                    imported++;
+                } catch (DuplicateEmailException e) {
+                    throw new BusinessRuleException("Failed to add student: " + e.getMessage(), e);
+                }
+            } catch (DaoException | ServiceException e) {
+                // skipped row
+            }
+        }
+        return imported;
+    }
+
+    @Benchmark
+    public int resultTyped() throws DaoException {
+        int imported = 0;
+        for (Student student : batch) {
+            if (dao.createIfAbsent(new Student(student)).isPresent()) {
+                imported++;
+            }
+        }
+        return imported;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DuplicateImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
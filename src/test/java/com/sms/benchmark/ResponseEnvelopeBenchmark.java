@@ -0,0 +1,120 @@
+package com.sms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.controller.StudentStatistics;
+import com.sms.dto.PageDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.util.ApiResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the wrapped and lean API representations per endpoint shape,
+ * both as plain JSON and gzip-compressed the way Tomcat compresses responses.
+ *
+ * Payload sizes are printed once per endpoint during setup; the benchmark
+ * methods measure encode latency (serialize, or serialize + gzip).
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.sms.benchmark.ResponseEnvelopeBenchmark
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEnvelopeBenchmark {
+
+    /** GET /{id}, GET ?size=10, GET ?size=100 and GET /statistics */
+    @Param({"single", "page10", "page100", "statistics"})
+    public String endpoint;
+
+    private ObjectMapper mapper;
+    private Object wrapped;
+    private Object lean;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = BenchmarkFixtures.jsonMapper();
+        Object data;
+        switch (endpoint) {
+            case "single":
+                data = BenchmarkFixtures.student(1);
+                lean = data;
+                break;
+            case "page10":
+            case "page100":
+                Page<StudentDTO> page = BenchmarkFixtures.page(endpoint.equals("page10") ? 10 : 100);
+                data = page;
+                lean = PageDTO.of(page);
+                break;
+            default:
+                data = new StudentStatistics(10_000L, 7_000L, 1_500L, 500L, 1_000L, 3.1, 4.0, 0.4);
+                lean = data;
+        }
+        wrapped = new ApiResponseWrapper(true, "Students retrieved successfully", data);
+
+        System.out.printf("%n[%s] wrapped=%d B (gzip %d B), lean=%d B (gzip %d B)%n",
+                endpoint, wrappedJson().length, wrappedGzip().length, leanJson().length, leanGzip().length);
+    }
+
+    @Benchmark
+    public byte[] wrappedJson() throws IOException {
+        return mapper.writeValueAsBytes(wrapped);
+    }
+
+    @Benchmark
+    public byte[] leanJson() throws IOException {
+        return mapper.writeValueAsBytes(lean);
+    }
+
+    @Benchmark
+    public byte[] wrappedGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(wrapped));
+    }
+
+    @Benchmark
+    public byte[] leanGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(lean));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseEnvelopeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.sms.benchmark;
+
+import com.sms.dao.DaoException;
+import com.sms.dao.StudentDaoJdbcImpl;
+import com.sms.dao.StudentSnapshot;
+import com.sms.model.Student;
+import com.sms.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cold-start cost of the student store: JDBC {@code findAll()} against
+ * opening the memory-mapped snapshot (then one lookup by ID), and against opening
+ * it and decoding every record.
+ *
+ * JDBC runs against the H2 database configured in application.properties; the
+ * benchmark holds a connection open so the in-memory database survives between calls.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.sms.benchmark.SnapshotLoadBenchmark
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotLoadBenchmark {
+
+    private static final String CREATE_TABLE =
+        "CREATE TABLE students (student_id BIGINT PRIMARY KEY, first_name VARCHAR(50), " +
+        "last_name VARCHAR(50), email VARCHAR(100) UNIQUE, phone_number VARCHAR(20), " +
+        "date_of_birth DATE, address VARCHAR(255), city VARCHAR(50), state VARCHAR(50), " +
+        "zip_code VARCHAR(20), enrollment_date DATE, enrollment_status VARCHAR(20))";
+
+    private static final String INSERT =
+        "INSERT INTO students VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"10000", "100000"})
+    public int students;
+
+    private Connection keepAlive;
+    private StudentDaoJdbcImpl jdbcDao;
+    private Path snapshotFile;
+
+    @Setup
+    public void setUp() throws SQLException, IOException, DaoException {
+        List<Student> data = BenchmarkFixtures.consoleStudents(students);
+
+        keepAlive = DatabaseUtil.getConnection();
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS students");
+            stmt.execute(CREATE_TABLE);
+        }
+        try (PreparedStatement insert = keepAlive.prepareStatement(INSERT)) {
+            for (Student s : data) {
+                insert.setLong(1, s.getStudentId());
+                insert.setString(2, s.getFirstName());
+                insert.setString(3, s.getLastName());
+                insert.setString(4, s.getEmail());
+                insert.setString(5, s.getPhoneNumber());
+                insert.setDate(6, Date.valueOf(s.getDateOfBirth()));
+                insert.setString(7, s.getAddress());
+                insert.setString(8, s.getCity());
+                insert.setString(9, s.getState());
+                insert.setString(10, s.getZipCode());
+                insert.setDate(11, Date.valueOf(s.getEnrollmentDate()));
+                insert.setString(12, s.getEnrollmentStatus());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        jdbcDao = new StudentDaoJdbcImpl();
+
+        snapshotFile = Files.createTempFile("students", ".snap");
+        StudentSnapshot.write(snapshotFile, data);
+        System.out.printf("%n[%d students] snapshot %d bytes%n", students, Files.size(snapshotFile));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        keepAlive.close();
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public List<Student> jdbcFindAll() throws DaoException {
+        return jdbcDao.findAll();
+    }
+
+    @Benchmark
+    public Optional<Student> snapshotOpenAndLookup() throws DaoException {
+        return StudentSnapshot.open(snapshotFile).findById(students / 2);
+    }
+
+    @Benchmark
+    public List<Student> snapshotOpenAndDecodeAll() throws DaoException {
+        return StudentSnapshot.open(snapshotFile).toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SnapshotLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.sms.benchmark;
+
+import com.sms.util.FieldValidators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk validation of 1M student records (first name, last name, email, phone, zip
+ * code; about 10% invalid) with the character-scanning FieldValidators against the
+ * regular expressions and replaceAll they replaced. Run with -prof gc to compare
+ * allocation per record.
+ *
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.sms.benchmark.ValidationBenchmark
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+    private static final int DISTINCT = 10_000;
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z\\s'-]{2,50}$");
+    private static final Pattern ZIP_CODE_PATTERN = Pattern.compile("^\\d{5}(-\\d{4})?$");
+
+    // One column per field; rows reference a pool of distinct values
+    private final String[] firstNames = new String[RECORDS];
+    private final String[] lastNames = new String[RECORDS];
+    private final String[] emails = new String[RECORDS];
+    private final String[] phones = new String[RECORDS];
+    private final String[] zipCodes = new String[RECORDS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[][] pool = new String[DISTINCT][];
+        for (int i = 0; i < DISTINCT; i++) {
+            boolean bad = random.nextInt(10) == 0;
+            pool[i] = new String[] {
+                "First" + (char) ('a' + i % 26),
+                bad && random.nextBoolean() ? "L4st" : "Last-O'Name",
+                bad && random.nextBoolean() ? "student" + i + ".example.com" : "student." + i + "@example.com",
+                "(555) 01" + String.format("%d-%04d", i % 10, i),
+                String.format("%05d", i) + (i % 2 == 0 ? "-1234" : "")
+            };
+        }
+        for (int r = 0; r < RECORDS; r++) {
+            String[] record = pool[random.nextInt(DISTINCT)];
+            firstNames[r] = record[0];
+            lastNames[r] = record[1];
+            emails[r] = record[2];
+            phones[r] = record[3];
+            zipCodes[r] = record[4];
+        }
+    }
+
+    @Benchmark
+    public int fieldValidators() {
+        int valid = 0;
+        for (int r = 0; r < RECORDS; r++) {
+            if (FieldValidators.checkName(firstNames[r]) == null
+                    && FieldValidators.checkName(lastNames[r]) == null
+                    && FieldValidators.checkEmail(emails[r]) == null
+                    && FieldValidators.checkPhone(phones[r]) == null
+                    && FieldValidators.checkZipCode(zipCodes[r]) == null) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int regex() {
+        int valid = 0;
+        for (int r = 0; r < RECORDS; r++) {
+            if (isValidName(firstNames[r]) && isValidName(lastNames[r]) && isValidEmail(emails[r])
+                    && isValidPhone(phones[r]) && isValidZipCode(zipCodes[r])) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    // The rules as they were written before FieldValidators
+
+    private static boolean isValidName(String name) {
+        return name != null && !name.trim().isEmpty() && NAME_PATTERN.matcher(name.trim()).matches();
+    }
+
+    private static boolean isValidEmail(String email) {
+        return email != null && !email.trim().isEmpty() && email.length() <= 100
+                && EMAIL_PATTERN.matcher(email.trim()).matches();
+    }
+
+    private static boolean isValidPhone(String phone) {
+        return phone != null && !phone.trim().isEmpty() && phone.replaceAll("[\\D]", "").length() >= 10;
+    }
+
+    private static boolean isValidZipCode(String zipCode) {
+        return zipCode != null && !zipCode.trim().isEmpty() && ZIP_CODE_PATTERN.matcher(zipCode.trim()).matches();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,176 @@
+package com.sms.cache;
+
+import com.sms.controller.StudentStatistics;
+import com.sms.model.StudentEntity;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Multi-node test for InvalidationBus and StudentCache.
+ * Runs several nodes in one JVM over the loopback transport and over UDP on localhost.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class InvalidationBusTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+    private static final Duration COALESCE = Duration.ofMillis(20);
+
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    @After
+    public void tearDown() throws Exception {
+        for (AutoCloseable closeable : closeables) {
+            closeable.close();
+        }
+    }
+
+    @Test
+    public void testWriteOnOneNodeInvalidatesPeers() throws Exception {
+        LoopbackInvalidationTransport.Hub hub = new LoopbackInvalidationTransport.Hub();
+        Node a = loopbackNode(hub, "a");
+        Node b = loopbackNode(hub, "b");
+        Node c = loopbackNode(hub, "c");
+        for (Node node : List.of(a, b, c)) {
+            node.get(1L);
+            node.statistics();
+        }
+
+        a.cache.invalidateAfterCommit(1L);
+
+        await(() -> b.cache.size() == 0 && c.cache.size() == 0);
+        for (Node node : List.of(a, b, c)) {
+            node.get(1L);
+            node.statistics();
+            assertEquals(2, node.studentLoads.get(1L).get());
+            assertEquals(2, node.statisticsLoads.get());
+        }
+    }
+
+    @Test
+    public void testWriteBurstIsCoalesced() throws Exception {
+        LoopbackInvalidationTransport.Hub hub = new LoopbackInvalidationTransport.Hub();
+        Node a = loopbackNode(hub, "a");
+        Node b = loopbackNode(hub, "b");
+        for (long id = 0; id < 200; id++) {
+            b.get(id);
+        }
+
+        for (int round = 0; round < 10; round++) {
+            for (long id = 0; id < 200; id++) {
+                a.bus.invalidate(id, true);
+            }
+        }
+
+        await(() -> b.cache.size() == 0);
+        assertTrue("2000 invalidations sent as " + a.bus.getMessagesSent() + " messages",
+                a.bus.getMessagesSent() <= 10);
+    }
+
+    @Test
+    public void testPartitionFallsBackToTtlAndResyncsOnHeal() throws Exception {
+        LoopbackInvalidationTransport.Hub hub = new LoopbackInvalidationTransport.Hub();
+        Node a = loopbackNode(hub, "a");
+        Node b = loopbackNode(hub, "b");
+        LoopbackInvalidationTransport bTransport = (LoopbackInvalidationTransport) b.transport;
+        await(() -> b.bus.isConnected());
+        b.get(1L);
+        b.get(2L);
+
+        bTransport.setConnected(false);
+        a.cache.invalidateAfterCommit(1L);
+        a.bus.flush();
+        assertFalse(b.bus.isConnected());
+        assertEquals("the invalidation cannot reach b", 2, b.cache.size());
+
+        // Partition TTL (200 ms) expires the entry although no invalidation arrived
+        Thread.sleep(250);
+        b.get(1L);
+        assertEquals(2, b.studentLoads.get(1L).get());
+
+        // After the partition heals, b learns it missed a message and drops everything
+        b.get(2L);
+        bTransport.setConnected(true);
+        a.bus.invalidate(3L, false);
+        a.bus.flush();
+        await(() -> b.cache.size() == 0);
+    }
+
+    @Test
+    public void testUdpNodesOnLocalhost() throws Exception {
+        DatagramSocket socketA = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        DatagramSocket socketB = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        Node a = new Node("a", new UdpInvalidationTransport(socketA,
+                List.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), socketB.getLocalPort())), HEARTBEAT));
+        Node b = new Node("b", new UdpInvalidationTransport(socketB,
+                List.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), socketA.getLocalPort())), HEARTBEAT));
+        await(() -> a.bus.isConnected() && b.bus.isConnected());
+        b.get(7L);
+
+        a.cache.invalidateAfterCommit(7L);
+
+        await(() -> b.cache.size() == 0);
+        assertTrue(b.bus.getMessagesReceived() >= 1);
+    }
+
+    private Node loopbackNode(LoopbackInvalidationTransport.Hub hub, String name) {
+        return new Node(name, new LoopbackInvalidationTransport(hub, HEARTBEAT));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue("condition not reached", condition.getAsBoolean());
+    }
+
+    /**
+     * One application node: transport, bus and cache with counting loaders
+     */
+    private final class Node {
+        final InvalidationTransport transport;
+        final InvalidationBus bus;
+        final StudentCache cache;
+        final AtomicInteger statisticsLoads = new AtomicInteger();
+        final Map<Long, AtomicInteger> studentLoads = new ConcurrentHashMap<>();
+
+        Node(String name, InvalidationTransport transport) {
+            this.transport = transport;
+            this.bus = new InvalidationBus(name, transport, COALESCE, InvalidationBus.DEFAULT_MAX_BATCH_SIZE);
+            this.cache = new StudentCache(bus, Duration.ofMinutes(10), Duration.ofMillis(200), 1000);
+            closeables.add(bus);
+        }
+
+        Optional<StudentEntity> get(Long id) {
+            return cache.getStudent(id, () -> {
+                studentLoads.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+                StudentEntity student = new StudentEntity("Student " + id, id + "@example.com", "5550100000", 3.0);
+                student.setId(id);
+                return Optional.of(student);
+            });
+        }
+
+        StudentStatistics statistics() {
+            return cache.getStatistics(() -> {
+                statisticsLoads.incrementAndGet();
+                return new StudentStatistics();
+            });
+        }
+    }
+}
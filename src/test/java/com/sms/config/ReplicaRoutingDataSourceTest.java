@@ -0,0 +1,193 @@
+package com.sms.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for ReplicaRoutingDataSource.
+ * Uses separate in-memory H2 databases as primary and replicas; each holds a
+ * one-row table naming the database, so a query shows where it was routed.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String WHERE_AM_I = "SELECT name FROM node";
+
+    private ReplicaRoutingDataSource routing;
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private void connect(Map<String, DataSource> replicas, Duration window) {
+        tracker = new ReadYourWritesTracker(window);
+        routing = new ReplicaRoutingDataSource(database("primary"), replicas, tracker, Duration.ZERO);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String readOnlyQuery() {
+        return readOnly.execute(status -> jdbc.queryForObject(WHERE_AM_I, String.class));
+    }
+
+    @Before
+    public void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", database("replica0"));
+        replicas.put("replica-1", database("replica1"));
+        connect(replicas, Duration.ofMillis(300));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tracker.setCurrentSession(null);
+        routing.close();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsAreBalancedOverReplicas() {
+        assertEquals("replica0", readOnlyQuery());
+        assertEquals("replica1", readOnlyQuery());
+        assertEquals("replica0", readOnlyQuery());
+
+        assertEquals(3L, routing.getMetrics().get("replicaReads"));
+    }
+
+    @Test
+    public void testExplicitCredentialsAreRoutedLikeDefaultOnes() throws SQLException {
+        String read = readOnly.execute(status -> {
+            try (Connection connection = routing.getConnection("sa", "");
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(WHERE_AM_I)) {
+                rs.next();
+                return rs.getString(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals("replica0", read);
+
+        try (Connection connection = routing.getConnection("sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(WHERE_AM_I)) {
+            rs.next();
+            assertEquals("primary", rs.getString(1));
+        }
+    }
+
+    @Test
+    public void testWritesAndNonTransactionalReadsUsePrimary() {
+        // The lazy proxy reads the connection defaults from the target once, on first use
+        jdbc.queryForObject(WHERE_AM_I, String.class);
+        long before = (Long) routing.getMetrics().get("primaryConnections");
+        assertEquals("primary", readWrite.execute(status -> jdbc.queryForObject(WHERE_AM_I, String.class)));
+        assertEquals("primary", jdbc.queryForObject(WHERE_AM_I, String.class));
+
+        assertEquals(before + 2, routing.getMetrics().get("primaryConnections"));
+        assertEquals(0L, routing.getMetrics().get("replicaReads"));
+    }
+
+    @Test
+    public void testSessionReadsItsWritesFromPrimaryWithinWindow() throws InterruptedException {
+        tracker.setCurrentSession("user:alice");
+        readWrite.execute(status -> jdbc.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readOnlyQuery());
+        tracker.setCurrentSession("user:bob");
+        assertEquals("replica0", readOnlyQuery());
+
+        tracker.setCurrentSession("user:alice");
+        Thread.sleep(400);
+        assertEquals("replica1", readOnlyQuery());
+        assertEquals(1L, routing.getMetrics().get("primaryStickyReads"));
+    }
+
+    @Test
+    public void testReadFromPrimaryPinsOnlyThatRead() {
+        tracker.setCurrentSession("user:alice");
+        assertEquals("primary", tracker.readFromPrimary(this::readOnlyQuery));
+        assertEquals("primary/primary", tracker.readFromPrimary(
+                () -> tracker.readFromPrimary(this::readOnlyQuery) + "/" + readOnlyQuery()));
+
+        // Neither the read nor the nested scope leaves the session on the primary
+        assertFalse(tracker.mustReadFromPrimary());
+        assertEquals("replica0", readOnlyQuery());
+        assertEquals(3L, routing.getMetrics().get("primaryStickyReads"));
+    }
+
+    @Test
+    public void testRolledBackWriteDoesNotPinSession() {
+        tracker.setCurrentSession("user:alice");
+        readWrite.execute(status -> {
+            jdbc.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertEquals("replica0", readOnlyQuery());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedReplicaIsSkippedUntilHealthy() throws Exception {
+        routing.close();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("down", new DriverManagerDataSource("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE", "sa", ""));
+        replicas.put("up", database("replica1"));
+        connect(replicas, Duration.ZERO);
+
+        assertEquals("replica1", readOnlyQuery());
+        assertEquals("replica1", readOnlyQuery());
+        assertEquals("replica1", readOnlyQuery());
+        assertEquals(1L, routing.getMetrics().get("replicaFailures"));
+
+        routing.checkHealth();
+        List<Map<String, Object>> health = (List<Map<String, Object>>) routing.getMetrics().get("replicas");
+        assertEquals(false, health.get(0).get("healthy"));
+        assertEquals(true, health.get(1).get("healthy"));
+    }
+
+    @Test
+    public void testFallsBackToPrimaryWithoutReplicas() throws Exception {
+        routing.close();
+        connect(new LinkedHashMap<>(), Duration.ZERO);
+
+        assertEquals("primary", readOnlyQuery());
+        assertEquals(1L, routing.getMetrics().get("primaryFallbackReads"));
+    }
+}
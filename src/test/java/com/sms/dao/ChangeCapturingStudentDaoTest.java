@@ -0,0 +1,86 @@
+package com.sms.dao;
+
+import com.sms.model.ChangeType;
+import com.sms.model.Student;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for ChangeCapturingStudentDao.
+ * Tests change ordering, before/after images and that failed writes emit nothing.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class ChangeCapturingStudentDaoTest {
+
+    private ChangeCapturingStudentDao dao;
+    private List<StudentChange> changes;
+
+    @Before
+    public void setUp() {
+        dao = new ChangeCapturingStudentDao(new StudentDaoMemoryImpl());
+        changes = new ArrayList<>();
+        dao.addListener(changes::add);
+    }
+
+    @Test
+    public void testWritesEmitOrderedChangesWithImages() throws DaoException {
+        Student created = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        created.setFirstName("Johnny");
+        assertTrue(dao.update(created));
+        assertTrue(dao.delete(created.getStudentId()));
+
+        assertEquals(3, changes.size());
+        assertEquals(ChangeType.CREATED, changes.get(0).getType());
+        assertNull(changes.get(0).getBefore());
+        assertEquals("John", changes.get(0).getAfter().getFirstName());
+
+        assertEquals(ChangeType.UPDATED, changes.get(1).getType());
+        assertEquals("John", changes.get(1).getBefore().getFirstName());
+        assertEquals("Johnny", changes.get(1).getAfter().getFirstName());
+
+        assertEquals(ChangeType.DELETED, changes.get(2).getType());
+        assertEquals("Johnny", changes.get(2).getBefore().getFirstName());
+        assertNull(changes.get(2).getAfter());
+        for (int i = 0; i < changes.size(); i++) {
+            assertEquals(i + 1, changes.get(i).getSequence());
+            assertEquals(created.getStudentId(), changes.get(i).getStudentId());
+        }
+    }
+
+    @Test
+    public void testFailedWritesEmitNothing() throws DaoException {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        changes.clear();
+
+        try {
+            dao.create(new Student("Jane", "Doe", "john@example.com", "5550102"));
+            fail("Expected the duplicate email to be rejected");
+        } catch (DaoException expected) {
+            // rejected by the wrapped DAO
+        }
+        Student missing = new Student("Ghost", "Student", "ghost@example.com", "5550103");
+        missing.setStudentId(999L);
+        assertFalse(dao.update(missing));
+        assertFalse(dao.delete(999L));
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testSequenceContinuesAfterRestart() throws DaoException {
+        ChangeCapturingStudentDao resumed = new ChangeCapturingStudentDao(new StudentDaoMemoryImpl(), 41);
+        resumed.addListener(changes::add);
+
+        resumed.create(new Student("John", "Doe", "john@example.com", "5550101"));
+
+        assertEquals(42, changes.get(0).getSequence());
+    }
+}
@@ -0,0 +1,160 @@
+package com.sms.dao;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sms.model.Student;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares garbage collection pauses with a large student population held by
+ * StudentDaoMemoryImpl (one object graph per student on the heap) against
+ * StudentDaoOffHeapImpl (student bytes in direct memory, primitive indexes on heap).
+ *
+ * Each store is loaded in its own JVM, which then runs the same fixed read/allocation workload
+ * and reports young-collection pauses and the pause of an explicit full collection.
+ * Lives in com.sms.dao because the in-memory baseline is bulk-loaded through the
+ * package-private restore(), which skips the quadratic email check of create().
+ *
+ * Run with (5M students needs roughly 4 GB of heap for the in-memory store):
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-Xmx4g -cp %classpath com.sms.dao.OffHeapGcPauseComparison 5000000"
+ * </pre>
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class OffHeapGcPauseComparison {
+
+    // Each iteration allocates 256 KB of short-lived garbage
+    private static final int WORKLOAD_ITERATIONS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        if (args.length > 1) {
+            run(args[1], students);
+            return;
+        }
+        // One child JVM per store, with this JVM's heap settings
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (String store : new String[] {"memory", "offheap"}) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(OffHeapGcPauseComparison.class.getName());
+            command.add(String.valueOf(students));
+            command.add(store);
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) {
+                System.err.println(store + " run failed with exit code " + exit);
+            }
+        }
+    }
+
+    private static void run(String store, int students) throws DaoException {
+        long start = System.nanoTime();
+        StudentDao dao;
+        if (store.equals("offheap")) {
+            StudentDaoOffHeapImpl offHeap = new StudentDaoOffHeapImpl();
+            for (long id = 1; id <= students; id++) {
+                offHeap.create(student(id));
+            }
+            dao = offHeap;
+        } else {
+            StudentDaoMemoryImpl memory = new StudentDaoMemoryImpl();
+            for (long id = 1; id <= students; id++) {
+                Student student = student(id);
+                student.setStudentId(id);
+                memory.restore(student);
+            }
+            dao = memory;
+        }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapUsed = usedHeap();
+
+        PauseRecorder pauses = PauseRecorder.install();
+        Random random = new Random(42);
+        List<Object> survivors = new ArrayList<>();
+        long workloadStart = System.nanoTime();
+        for (int iteration = 0; iteration < WORKLOAD_ITERATIONS; iteration++) {
+            // Request-like garbage, a share of which survives long enough to be promoted
+            for (int i = 0; i < 1000; i++) {
+                survivors.add(new byte[256]);
+            }
+            if (survivors.size() > 200_000) {
+                survivors.subList(0, 100_000).clear();
+            }
+            if (iteration % 100 == 0) {
+                // Sparse reads: the in-memory store's findById is a linear scan
+                dao.findById(1 + (long) random.nextInt(students));
+            }
+        }
+        long workloadMillis = (System.nanoTime() - workloadStart) / 1_000_000;
+        long youngCount = pauses.count.get();
+        long youngTotal = pauses.totalMillis.get();
+        long youngMax = pauses.maxMillis.get();
+
+        long fullStart = System.nanoTime();
+        System.gc();
+        long fullMillis = (System.nanoTime() - fullStart) / 1_000_000;
+
+        String usage = dao instanceof StudentDaoOffHeapImpl
+                ? " " + ((StudentDaoOffHeapImpl) dao).arenaUsage() : "";
+        System.out.printf("[%s] %d students loaded in %d ms, heap after GC %d MB%s%n",
+                store, dao.count(), loadMillis, heapUsed >> 20, usage);
+        System.out.printf("[%s] workload %d ms: %d GC pauses, total %d ms, max %d ms; full GC %d ms%n",
+                store, workloadMillis, youngCount, youngTotal, youngMax, fullMillis);
+    }
+
+    private static Student student(long id) {
+        return new Student("First" + id, "Last" + (id % 5000), "student" + id + "@example.com",
+                String.format("%010d", 5550000000L + id), LocalDate.of(2000, 1, 1).plusDays(id % 3650),
+                id + " Main St", "City" + (id % 200), "IL", String.format("%05d", 10000 + (id % 200) * 37),
+                LocalDate.of(2020, 9, 1).plusDays(id % 1500), "ACTIVE");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Collects stop-the-world pause durations from GC notifications.
+     */
+    private static final class PauseRecorder {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong totalMillis = new AtomicLong();
+        final AtomicLong maxMillis = new AtomicLong();
+
+        static PauseRecorder install() {
+            PauseRecorder recorder = new PauseRecorder();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        return;
+                    }
+                    GarbageCollectionNotificationInfo info =
+                            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                    long duration = info.getGcInfo().getDuration();
+                    recorder.count.incrementAndGet();
+                    recorder.totalMillis.addAndGet(duration);
+                    recorder.maxMillis.accumulateAndGet(duration, Math::max);
+                }, null, null);
+            }
+            return recorder;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.sms.dao;
+
+import com.sms.model.Student;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentDaoColumnarImpl.
+ * Tests that rows survive the column-wise encoding and stay consistent across
+ * growth, updates and deletes.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoColumnarImplTest {
+
+    private StudentDaoColumnarImpl dao;
+
+    @Before
+    public void setUp() {
+        dao = new StudentDaoColumnarImpl();
+    }
+
+    @After
+    public void tearDown() {
+        dao.clear();
+    }
+
+    @Test
+    public void testEveryFieldRoundTrips() throws DaoException {
+        Student created = dao.create(new Student("John", "Doe", "john@example.com", "5550101",
+                LocalDate.of(2005, 1, 15), "123 Main St", "Springfield", "IL", "62701",
+                LocalDate.of(2024, 9, 1), "SUSPENDED"));
+
+        Student found = dao.findById(created.getStudentId()).get();
+        assertEquals(created, found);
+        assertEquals("Doe", found.getLastName());
+        assertEquals("5550101", found.getPhoneNumber());
+        assertEquals(LocalDate.of(2005, 1, 15), found.getDateOfBirth());
+        assertEquals("123 Main St", found.getAddress());
+        assertEquals("Springfield", found.getCity());
+        assertEquals("IL", found.getState());
+        assertEquals("62701", found.getZipCode());
+        assertEquals(LocalDate.of(2024, 9, 1), found.getEnrollmentDate());
+        assertEquals("SUSPENDED", found.getEnrollmentStatus());
+    }
+
+    @Test
+    public void testNullsAndDefaults() throws DaoException {
+        Student created = dao.create(new Student("Jane", "Smith", "jane@example.com", null));
+
+        Student found = dao.findById(created.getStudentId()).get();
+        assertNull(found.getPhoneNumber());
+        assertNull(found.getDateOfBirth());
+        assertNull(found.getCity());
+        assertNull(found.getZipCode());
+        assertEquals(LocalDate.now(), found.getEnrollmentDate());
+        assertEquals("ACTIVE", found.getEnrollmentStatus());
+    }
+
+    @Test
+    public void testGrowthAndDeleteKeepLookupsConsistent() throws DaoException {
+        for (int i = 1; i <= 100; i++) {
+            dao.create(new Student("First" + i, "Last" + (i % 3), "s" + i + "@example.com", "555" + i));
+        }
+        assertTrue(dao.delete(50L));
+        assertTrue(dao.delete(1L));
+        assertFalse(dao.delete(50L));
+
+        assertEquals(98, dao.count());
+        assertFalse(dao.findById(50L).isPresent());
+        assertEquals("First51", dao.findById(51L).get().getFirstName());
+        assertEquals("s100@example.com", dao.findById(100L).get().getEmail());
+        List<Student> all = dao.findAll();
+        assertEquals(Long.valueOf(2L), all.get(0).getStudentId());
+        assertEquals(33, dao.findByLastName("last0").size());
+
+        Student next = dao.create(new Student("Late", "Comer", "late@example.com", "5550199"));
+        assertEquals(Long.valueOf(101L), next.getStudentId());
+    }
+
+    @Test
+    public void testUpdateReencodesDictionaryColumns() throws DaoException {
+        Student student = dao.create(new Student("John", "Doe", "john@example.com", "5550101",
+                null, null, "Springfield", "IL", "62701", null, "ACTIVE"));
+        student.setCity("Chicago");
+        student.setZipCode(null);
+        student.setEnrollmentStatus("INACTIVE");
+
+        assertTrue(dao.update(student));
+
+        Student found = dao.findById(student.getStudentId()).get();
+        assertEquals("Chicago", found.getCity());
+        assertEquals("IL", found.getState());
+        assertNull(found.getZipCode());
+        assertEquals("INACTIVE", found.getEnrollmentStatus());
+    }
+
+    @Test
+    public void testReturnedStudentsAreDetached() throws DaoException {
+        Student created = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        created.setFirstName("Changed");
+
+        assertEquals("John", dao.findById(created.getStudentId()).get().getFirstName());
+    }
+
+    @Test
+    public void testEmailIndexFollowsUpdatesAndDeletes() throws DaoException {
+        for (int i = 1; i <= 100; i++) {
+            dao.create(new Student("First" + i, "Last" + i, "s" + i + "@example.com", "555" + i));
+        }
+        Student moved = dao.findById(70L).get();
+        moved.setEmail("Moved@Example.com");
+        assertTrue(dao.update(moved));
+        assertTrue(dao.delete(10L));
+
+        assertFalse(dao.findByEmail("s70@example.com").isPresent());
+        assertEquals(Long.valueOf(70L), dao.findByEmail("moved@EXAMPLE.com").get().getStudentId());
+        assertFalse(dao.findByEmail("s10@example.com").isPresent());
+        assertEquals(Long.valueOf(90L), dao.findByEmail("S90@example.com").get().getStudentId());
+
+        // Freed emails can be taken again; uniqueness stays case-sensitive
+        assertNotNull(dao.create(new Student("New", "One", "s70@example.com", "5550170")));
+        assertNotNull(dao.create(new Student("New", "Two", "s10@example.com", "5550110")));
+        assertNotNull(dao.create(new Student("New", "Three", "moved@example.com", "5550103")));
+        assertEquals(Long.valueOf(70L), dao.findByEmail("MOVED@example.com").get().getStudentId());
+        try {
+            dao.create(new Student("New", "Four", "Moved@Example.com", "5550104"));
+            fail("Expected a duplicate email");
+        } catch (DuplicateEmailException expected) {
+            // expected
+        }
+    }
+
+    @Test(expected = DaoException.class)
+    public void testUpdateEmailToExistingEmail() throws DaoException {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        Student jane = dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+        jane.setEmail("john@example.com");
+
+        dao.update(jane);
+    }
+}
@@ -1,11 +1,17 @@
 package com.sms.dao;
 
 import com.sms.model.Student;
+import com.sms.model.StudentAggregates;
+import com.sms.model.StudentAggregates.AgeBand;
+import com.sms.util.SnowflakeIdGenerator;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,11 +63,46 @@ public class StudentDaoMemoryImplTest {
         dao.create(student2); // Should throw DaoException
     }
 
+    @Test
+    public void testDuplicateEmailIsStacklessExpectedOutcome() throws DaoException {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+
+        try {
+            dao.create(new Student("Jane", "Doe", "john@example.com", "5550102"));
+            fail("Expected DuplicateEmailException");
+        } catch (DuplicateEmailException e) {
+            assertTrue(e.isExpected());
+            assertEquals("john@example.com", e.getEmail());
+            assertEquals("Student with email 'john@example.com' already exists", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+
+    @Test
+    public void testCreateIfAbsentReportsDuplicateAsEmpty() throws DaoException {
+        assertTrue(dao.createIfAbsent(new Student("John", "Doe", "john@example.com", "5550101")).isPresent());
+
+        assertFalse(dao.createIfAbsent(new Student("Jane", "Doe", "john@example.com", "5550102")).isPresent());
+        assertEquals(1, dao.count());
+    }
+
     @Test(expected = DaoException.class)
     public void testCreateWithNullStudent() throws DaoException {
         dao.create(null);
     }
 
+    @Test
+    public void testCreateWithIdGenerator() throws DaoException {
+        dao = new StudentDaoMemoryImpl(new SnowflakeIdGenerator(7));
+
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        Student jane = dao.create(new Student("Jane", "Doe", "jane@example.com", "5550102"));
+
+        assertEquals(7, SnowflakeIdGenerator.nodeIdOf(john.getStudentId()));
+        assertTrue(jane.getStudentId() > john.getStudentId());
+        assertEquals("Jane", dao.findById(jane.getStudentId()).get().getFirstName());
+    }
+
     // ==================== READ TESTS ====================
 
     @Test
@@ -220,6 +261,94 @@ public class StudentDaoMemoryImplTest {
         assertEquals(0, count);
     }
 
+    // ==================== PAGING TESTS ====================
+
+    @Test
+    public void testPagesAndStreamFollowFindAllOrder() throws DaoException {
+        for (int i = 0; i < 25; i++) {
+            dao.create(new Student("First", "Last", "student" + i + "@example.com", "5550101"));
+        }
+        List<Student> all = dao.findAll();
+
+        List<Student> paged = new ArrayList<>();
+        for (long offset = 0; offset < 30; offset += 10) {
+            paged.addAll(dao.findPage(offset, 10));
+        }
+        List<Student> streamed = new ArrayList<>();
+        dao.forEach(streamed::add);
+
+        assertEquals(5, dao.findPage(20, 10).size());
+        assertTrue(dao.findPage(100, 10).isEmpty());
+        assertEquals(all, paged);
+        assertEquals(all, streamed);
+
+        // Streamed students are copies, like everything else the DAO returns
+        streamed.get(0).setFirstName("Changed");
+        assertEquals("First", dao.findById(all.get(0).getStudentId()).get().getFirstName());
+    }
+
+    // ==================== AGGREGATE TESTS ====================
+
+    @Test
+    public void testAggregateGroupsByStatusMonthAndAge() throws DaoException {
+        LocalDate asOf = LocalDate.of(2026, 2, 28);
+        dao.create(new Student(null, "Ann", "Lee", "ann@example.com", "5550101",
+                LocalDate.of(2008, 2, 28), null, null, null, null, LocalDate.of(2025, 9, 1), "ACTIVE"));
+        // Turns 18 on March 1 in a non-leap year
+        dao.create(new Student(null, "Bob", "Ray", "bob@example.com", "5550102",
+                LocalDate.of(2008, 2, 29), null, null, null, null, LocalDate.of(2025, 9, 30), "active"));
+        dao.create(new Student(null, "Cy", "Fox", "cy@example.com", "5550103",
+                LocalDate.of(1990, 6, 1), null, null, null, null, LocalDate.of(2026, 1, 15), "GRADUATED"));
+        dao.create(new Student(null, "Di", "Orr", "di@example.com", "5550104",
+                null, null, null, null, null, LocalDate.of(2025, 10, 1), "INACTIVE"));
+
+        StudentAggregates stats = dao.aggregate(asOf);
+
+        assertEquals(4, stats.getTotal());
+        assertEquals(2, stats.getCount("ACTIVE"));
+        assertEquals(Arrays.asList("ACTIVE", "GRADUATED", "INACTIVE"), new ArrayList<>(stats.getCountsByStatus().keySet()));
+        assertEquals(Arrays.asList(YearMonth.of(2025, 9), YearMonth.of(2025, 10), YearMonth.of(2026, 1)),
+                new ArrayList<>(stats.getEnrollmentsByMonth().keySet()));
+        assertEquals(Long.valueOf(2), stats.getEnrollmentsByMonth().get(YearMonth.of(2025, 9)));
+        assertEquals(Long.valueOf(1), stats.getAgeDistribution().get(AgeBand.UNDER_18));
+        assertEquals(Long.valueOf(1), stats.getAgeDistribution().get(AgeBand.AGE_18_TO_20));
+        assertEquals(Long.valueOf(1), stats.getAgeDistribution().get(AgeBand.AGE_30_AND_OVER));
+        assertEquals(Long.valueOf(1), stats.getAgeDistribution().get(AgeBand.UNKNOWN));
+        assertEquals(Long.valueOf(0), stats.getAgeDistribution().get(AgeBand.AGE_25_TO_29));
+    }
+
+    // ==================== RESTORE TESTS ====================
+
+    @Test
+    public void testRestoreReplacesInPlaceAndAdvancesIds() throws DaoException {
+        Student john = new Student("John", "Doe", "john@example.com", "5550101");
+        john.setStudentId(10L);
+        Student jane = new Student("Jane", "Smith", "jane@example.com", "5550102");
+        jane.setStudentId(20L);
+        dao.restore(john);
+        dao.restore(jane);
+
+        // Replaying many updates of one student must neither duplicate nor reorder it
+        for (int i = 0; i < 100_000; i++) {
+            john.setPhoneNumber(String.valueOf(5550000 + i % 1000));
+            dao.restore(john);
+        }
+
+        List<Student> all = dao.findAll();
+        assertEquals(2, all.size());
+        assertEquals(Long.valueOf(10L), all.get(0).getStudentId());
+        assertEquals("5550999", all.get(0).getPhoneNumber());
+        assertEquals(Long.valueOf(21L),
+                dao.create(new Student("Jim", "Beam", "jim@example.com", "5550103")).getStudentId());
+    }
+
+    @Test(expected = DaoException.class)
+    public void testCreateRejectsGeneratedIdInUse() throws DaoException {
+        dao = new StudentDaoMemoryImpl(() -> 5L);
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+    }
+
     // ==================== INTEGRATION TESTS ====================
 
     @Test
@@ -0,0 +1,131 @@
+package com.sms.dao;
+
+import com.sms.model.Student;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentDaoOffHeapImpl.
+ * Tests record encoding, the on-heap indexes and slot reuse in the arena.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoOffHeapImplTest {
+
+    private StudentDaoOffHeapImpl dao;
+
+    @Before
+    public void setUp() {
+        dao = new StudentDaoOffHeapImpl();
+    }
+
+    @After
+    public void tearDown() {
+        dao.close();
+    }
+
+    @Test
+    public void testEveryFieldRoundTrips() throws DaoException {
+        Student created = dao.create(new Student("Zoë", "Doe", "zoe@example.com", "5550101",
+                LocalDate.of(2005, 1, 15), "123 Main St", "Springfield", "IL", "62701",
+                LocalDate.of(2024, 9, 1), "SUSPENDED"));
+
+        Student found = dao.findById(created.getStudentId()).get();
+        assertEquals("Zoë", found.getFirstName());
+        assertEquals("Doe", found.getLastName());
+        assertEquals("5550101", found.getPhoneNumber());
+        assertEquals(LocalDate.of(2005, 1, 15), found.getDateOfBirth());
+        assertEquals("123 Main St", found.getAddress());
+        assertEquals("Springfield", found.getCity());
+        assertEquals("IL", found.getState());
+        assertEquals("62701", found.getZipCode());
+        assertEquals(LocalDate.of(2024, 9, 1), found.getEnrollmentDate());
+        assertEquals("SUSPENDED", found.getEnrollmentStatus());
+    }
+
+    @Test
+    public void testNullFieldsRoundTrip() throws DaoException {
+        Student created = dao.create(new Student("Jane", "Smith", "jane@example.com", null));
+
+        Student found = dao.findById(created.getStudentId()).get();
+        assertNull(found.getPhoneNumber());
+        assertNull(found.getDateOfBirth());
+        assertNull(found.getAddress());
+        assertEquals("ACTIVE", found.getEnrollmentStatus());
+    }
+
+    @Test
+    public void testEmailIndex() throws DaoException {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        Student jane = dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+
+        assertEquals(jane.getStudentId(), dao.findByEmail(" JANE@Example.com ").get().getStudentId());
+        assertFalse(dao.findByEmail("nobody@example.com").isPresent());
+
+        jane.setEmail("jane.smith@example.com");
+        dao.update(jane);
+        assertFalse(dao.findByEmail("jane@example.com").isPresent());
+        assertTrue(dao.findByEmail("jane.smith@example.com").isPresent());
+    }
+
+    @Test(expected = DaoException.class)
+    public void testCreateWithDuplicateEmail() throws DaoException {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.create(new Student("Jane", "Doe", "john@example.com", "5550102"));
+    }
+
+    @Test
+    public void testUpdateInPlaceAndMove() throws DaoException {
+        Student student = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        long used = dao.arenaUsage().getUsedBytes();
+
+        student.setFirstName("Jon");
+        dao.update(student);
+        assertEquals(0, dao.arenaUsage().getFreeBytes());
+
+        student.setAddress("A much longer street address that needs a bigger slot");
+        dao.update(student);
+        assertTrue(dao.arenaUsage().getUsedBytes() > used);
+        assertEquals(used, dao.arenaUsage().getFreeBytes());
+        assertEquals("Jon", dao.findById(student.getStudentId()).get().getFirstName());
+    }
+
+    @Test
+    public void testDeletedSlotsAreReused() throws DaoException {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        long reservedBefore = dao.arenaUsage().getReservedBytes();
+        assertTrue(dao.delete(john.getStudentId()));
+        assertTrue(dao.arenaUsage().getFreeBytes() > 0);
+
+        dao.create(new Student("Jack", "Doe", "jack@example.com", "5550102"));
+        assertEquals(0, dao.arenaUsage().getFreeBytes());
+        assertEquals(reservedBefore, dao.arenaUsage().getReservedBytes());
+        assertFalse(dao.findById(john.getStudentId()).isPresent());
+    }
+
+    @Test
+    public void testIndexesSurviveChurn() throws DaoException {
+        for (int i = 1; i <= 2000; i++) {
+            dao.create(new Student("First" + i, "Last" + (i % 7), "s" + i + "@example.com", "555" + i));
+        }
+        for (long id = 1; id <= 2000; id += 2) {
+            assertTrue(dao.delete(id));
+        }
+
+        assertEquals(1000, dao.count());
+        List<Student> all = dao.findAll();
+        assertEquals(Long.valueOf(2L), all.get(0).getStudentId());
+        assertEquals(Long.valueOf(2000L), all.get(999).getStudentId());
+        assertEquals("s1000@example.com", dao.findByEmail("s1000@example.com").get().getEmail());
+        assertFalse(dao.findByEmail("s999@example.com").isPresent());
+        assertEquals(142, dao.findByLastName("last0").size());
+    }
+}
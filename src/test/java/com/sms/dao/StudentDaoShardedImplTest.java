@@ -0,0 +1,274 @@
+package com.sms.dao;
+
+import com.sms.model.Student;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentDaoShardedImpl and ShardRebalancer.
+ * Each shard is a separate H2 file database in a temporary folder.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoShardedImplTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dir;
+    private List<JdbcShard> shards;
+    private StudentDaoShardedImpl dao;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = folder.newFolder("shards");
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(shard("shard" + i));
+        }
+        dao = new StudentDaoShardedImpl(shard("index"), shards);
+        dao.initializeSchema();
+    }
+
+    @After
+    public void tearDown() {
+        dao.close();
+    }
+
+    private JdbcShard shard(String name) {
+        return new JdbcShard(name, "jdbc:h2:file:" + new File(dir, name).getAbsolutePath()
+                + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private void createStudents(int count) throws DaoException {
+        for (int i = 1; i <= count; i++) {
+            dao.create(new Student("First" + (i % 10), "Last" + (i % 13), "s" + i + "@example.com", "555" + i));
+        }
+    }
+
+    private Map<String, Integer> distribution() throws DaoException {
+        Map<String, Integer> counts = new HashMap<>();
+        for (JdbcShard shard : dao.getShards()) {
+            counts.put(shard.getName(), dao.listIds(shard, 0, 10_000).size());
+        }
+        return counts;
+    }
+
+    @Test
+    public void testStudentsSpreadOverShards() throws DaoException {
+        createStudents(300);
+
+        assertEquals(300, dao.count());
+        for (int perShard : distribution().values()) {
+            assertTrue("unbalanced shard: " + perShard, perShard > 50);
+        }
+        Student found = dao.findByEmail("s42@example.com").get();
+        assertEquals("555" + 42, found.getPhoneNumber());
+        assertEquals("ACTIVE", dao.findById(found.getStudentId()).get().getEnrollmentStatus());
+    }
+
+    @Test
+    public void testEmailUniqueAcrossShards() throws DaoException {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        try {
+            // The next ID almost certainly lands on another shard
+            dao.create(new Student("Jane", "Doe", "john@example.com", "5550102"));
+            fail("Expected duplicate email to be rejected");
+        } catch (DaoException expected) {
+            assertTrue(expected.getMessage().contains("already exists"));
+        }
+        assertEquals(1, dao.count());
+    }
+
+    @Test
+    public void testEmailsMatchIgnoringCase() throws DaoException {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+
+        assertEquals(john.getStudentId(), dao.findByEmail("John@Example.com").get().getStudentId());
+        try {
+            dao.create(new Student("Jane", "Doe", "JOHN@example.com", "5550102"));
+            fail("Expected an email differing only in case to be rejected");
+        } catch (DuplicateEmailException expected) {
+        }
+
+        // Changing only the case keeps the student's own index entry
+        john.setEmail("John@Example.com");
+        assertTrue(dao.update(john));
+        assertEquals("John@Example.com", dao.findByEmail("john@example.com").get().getEmail());
+        assertEquals(1, dao.count());
+    }
+
+    @Test
+    public void testScatterGatherKeepsOrdering() throws DaoException {
+        createStudents(200);
+
+        List<Student> all = dao.findAll();
+        assertEquals(200, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            Student previous = all.get(i - 1);
+            Student current = all.get(i);
+            int byFirst = previous.getFirstName().compareTo(current.getFirstName());
+            assertTrue(byFirst < 0 || (byFirst == 0
+                    && previous.getLastName().compareTo(current.getLastName()) <= 0));
+        }
+
+        List<Student> byLastName = dao.findByLastName("Last3");
+        assertEquals(16, byLastName.size());
+        for (int i = 1; i < byLastName.size(); i++) {
+            assertTrue(byLastName.get(i - 1).getFirstName().compareTo(byLastName.get(i).getFirstName()) <= 0);
+        }
+        assertEquals(20, dao.findByFirstName("First7").size());
+    }
+
+    @Test
+    public void testPagesAndStreamMergeShardCursorsInOrder() throws DaoException {
+        createStudents(200);
+        List<Long> expected = new ArrayList<>();
+        dao.findAll().stream()
+                .sorted(Comparator.comparing(Student::getFirstName)
+                        .thenComparing(Student::getLastName)
+                        .thenComparing(Student::getStudentId))
+                .forEach(student -> expected.add(student.getStudentId()));
+
+        List<Long> paged = new ArrayList<>();
+        for (long offset = 0; ; offset += 30) {
+            List<Student> page = dao.findPage(offset, 30);
+            page.forEach(student -> paged.add(student.getStudentId()));
+            if (page.size() < 30) {
+                break;
+            }
+        }
+        assertEquals(expected, paged);
+
+        // Small pages force every shard cursor through many keyset round trips
+        List<Long> streamed = new ArrayList<>();
+        dao.forEach(student -> streamed.add(student.getStudentId()), 7);
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    public void testUpdateAndDeleteMaintainEmailIndex() throws DaoException {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+
+        john.setEmail("jane@example.com");
+        try {
+            dao.update(john);
+            fail("Expected email conflict");
+        } catch (DaoException expected) {
+            assertTrue(expected.getMessage().contains("already in use"));
+        }
+
+        john.setEmail("johnny@example.com");
+        assertTrue(dao.update(john));
+        assertFalse(dao.findByEmail("john@example.com").isPresent());
+        assertEquals(john.getStudentId(), dao.findByEmail("johnny@example.com").get().getStudentId());
+
+        assertTrue(dao.delete(john.getStudentId()));
+        assertFalse(dao.findByEmail("johnny@example.com").isPresent());
+        assertFalse(dao.delete(john.getStudentId()));
+        // The freed email can be taken again
+        dao.create(new Student("Other", "Person", "johnny@example.com", "5550103"));
+    }
+
+    @Test
+    public void testAddShardMovesOnlyItsShare() throws DaoException {
+        createStudents(400);
+        Map<String, Integer> before = distribution();
+
+        long moved = ShardRebalancer.addShard(dao, shard("shard3"), 37);
+
+        Map<String, Integer> after = distribution();
+        assertEquals(moved, (long) after.get("shard3"));
+        assertTrue("moved " + moved, moved > 50 && moved < 180);
+        for (String name : before.keySet()) {
+            assertTrue(after.get(name) <= before.get(name));
+        }
+        assertEquals(400, dao.count());
+        for (int i = 1; i <= 400; i++) {
+            assertTrue(dao.findByEmail("s" + i + "@example.com").isPresent());
+        }
+        Student created = dao.create(new Student("New", "Student", "new@example.com", "5550199"));
+        assertTrue(dao.findById(created.getStudentId()).isPresent());
+    }
+
+    @Test
+    public void testCreateInFlightWhenRebalanceStartsIsMoved() throws Exception {
+        // An ID the new ring hands to the new shard
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("shard0", "shard1", "shard2"),
+                ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        long id = 1_000_000;
+        while (!ring.withNode("shard3").nodeFor(id).equals("shard3")) {
+            id++;
+        }
+        long chosen = id;
+        JdbcShard oldOwner = shard(ring.nodeFor(id));
+        dao.close();
+        dao = new StudentDaoShardedImpl(shard("index"), shards, ConsistentHashRing.DEFAULT_VIRTUAL_NODES, () -> chosen);
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try (Connection blocker = oldOwner.connect();
+             Statement stmt = blocker.createStatement()) {
+            stmt.execute("SET DEFAULT_LOCK_TIMEOUT 10000");
+            // An uncommitted row with the same key stalls the create's insert on the old owner
+            blocker.setAutoCommit(false);
+            stmt.executeUpdate("INSERT INTO students (student_id, first_name, last_name, email, enrollment_date, "
+                    + "enrollment_status) VALUES (" + id + ", 'Lock', 'Holder', 'lock@example.com', CURRENT_DATE, 'ACTIVE')");
+            Future<Student> create = threads.submit(() ->
+                    dao.create(new Student("John", "Doe", "john@example.com", "5550101")));
+            Thread.sleep(300);
+            Future<Long> rebalance = threads.submit(() -> ShardRebalancer.addShard(dao, shard("shard3")));
+            try {
+                rebalance.get(500, TimeUnit.MILLISECONDS);
+                fail("Rebalance scanned the old shards while a create was still inserting on them");
+            } catch (TimeoutException expected) {
+            }
+            blocker.rollback();
+
+            assertEquals(Long.valueOf(id), create.get(10, TimeUnit.SECONDS).getStudentId());
+            assertEquals(Long.valueOf(1L), rebalance.get(10, TimeUnit.SECONDS));
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals("john@example.com", dao.findById(id).get().getEmail());
+        assertEquals(Arrays.asList(id), dao.listIds(shard("shard3"), 0, 10));
+        assertTrue(dao.listIds(oldOwner, 0, 10).isEmpty());
+    }
+
+    @Test
+    public void testRingMovesKeysOnlyToNewNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 160);
+        ConsistentHashRing extended = ring.withNode("d");
+        int moved = 0;
+        for (long id = 1; id <= 10_000; id++) {
+            String after = extended.nodeFor(id);
+            if (!after.equals(ring.nodeFor(id))) {
+                assertEquals("d", after);
+                moved++;
+            }
+        }
+        assertTrue("moved " + moved, moved > 1500 && moved < 3500);
+    }
+}
@@ -0,0 +1,229 @@
+package com.sms.dao;
+
+import com.sms.model.Student;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentSnapshot and StudentDaoSnapshotImpl.
+ * Tests the binary round trip, overlay semantics and rejection of damaged files.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoSnapshotImplTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private StudentDaoSnapshotImpl dao;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.getRoot().toPath().resolve("students.snap");
+        StudentSnapshot.write(file, Arrays.asList(
+                new Student(3L, "Jane", "Smith", "jane@example.com", "5550102", null,
+                        null, "Springfield", "IL", null, LocalDate.of(2024, 9, 1), "ACTIVE"),
+                new Student(1L, "John", "Doe", "john@example.com", "5550101", LocalDate.of(2005, 1, 15),
+                        "123 Main St", "Springfield", "IL", "62701", LocalDate.of(2024, 9, 1), "ACTIVE")));
+        dao = new StudentDaoSnapshotImpl(file);
+    }
+
+    // ==================== SNAPSHOT FORMAT TESTS ====================
+
+    @Test
+    public void testRoundTripSortsByIdAndKeepsNulls() throws Exception {
+        StudentSnapshot snapshot = StudentSnapshot.open(file);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(3L, snapshot.maxStudentId());
+        Student john = snapshot.get(0);
+        assertEquals(Long.valueOf(1L), john.getStudentId());
+        assertEquals("123 Main St", john.getAddress());
+        assertEquals(LocalDate.of(2005, 1, 15), john.getDateOfBirth());
+        Student jane = snapshot.findById(3L).get();
+        assertNull(jane.getDateOfBirth());
+        assertNull(jane.getZipCode());
+        assertEquals("Springfield", jane.getCity());
+        assertFalse(snapshot.findById(2L).isPresent());
+    }
+
+    @Test(expected = DaoException.class)
+    public void testCorruptHeaderIsRejected() throws Exception {
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(8);
+            raw.writeInt(12345);
+        }
+        StudentSnapshot.open(file);
+    }
+
+    @Test(expected = DaoException.class)
+    public void testTruncatedFileIsRejected() throws Exception {
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.setLength(raw.length() - 1);
+        }
+        StudentSnapshot.open(file);
+    }
+
+    // ==================== OVERLAY TESTS ====================
+
+    @Test
+    public void testCreateContinuesAfterSnapshotIds() throws Exception {
+        Student created = dao.create(new Student("Alice", "Brown", "alice@example.com", "5550103"));
+
+        assertEquals(Long.valueOf(4L), created.getStudentId());
+        assertEquals(3, dao.count());
+    }
+
+    @Test
+    public void testCreateTakesIdsFromGenerator() throws Exception {
+        long[] next = {2L, 1000L, 3L};
+        int[] calls = {0};
+        StudentDaoSnapshotImpl generated = new StudentDaoSnapshotImpl(file, () -> next[calls[0]++]);
+
+        assertEquals(Long.valueOf(2L), generated.create(
+                new Student("Alice", "Brown", "alice@example.com", "5550103")).getStudentId());
+        assertEquals(Long.valueOf(1000L), generated.create(
+                new Student("Bob", "Green", "bob@example.com", "5550104")).getStudentId());
+        assertEquals(Arrays.asList(1L, 2L, 3L, 1000L), Arrays.asList(generated.findAll().stream()
+                .map(Student::getStudentId).toArray(Long[]::new)));
+        try {
+            generated.create(new Student("Carol", "White", "carol@example.com", "5550105"));
+            fail("An ID already in the snapshot should be rejected");
+        } catch (DaoException expected) {
+            assertEquals(4, generated.count());
+        }
+    }
+
+    @Test(expected = DaoException.class)
+    public void testCreateRejectsEmailFromSnapshot() throws Exception {
+        dao.create(new Student("Johnny", "Doe", "john@example.com", "5550104"));
+    }
+
+    @Test
+    public void testUpdateAndDeleteDoNotTouchSnapshotFile() throws Exception {
+        byte[] before = Files.readAllBytes(file);
+        Student john = dao.findById(1L).get();
+        john.setCity("Chicago");
+        assertTrue(dao.update(john));
+        assertTrue(dao.delete(3L));
+        assertFalse(dao.delete(3L));
+
+        assertEquals("Chicago", dao.findById(1L).get().getCity());
+        assertFalse(dao.findById(3L).isPresent());
+        assertEquals(1, dao.count());
+        assertArrayEquals(before, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void testQueriesMergeOverlays() throws Exception {
+        Student john = dao.findById(1L).get();
+        john.setLastName("Smith");
+        dao.update(john);
+        dao.create(new Student("Alice", "Smith", "alice@example.com", "5550103"));
+
+        List<Student> smiths = dao.findByLastName("smith");
+        assertEquals(3, smiths.size());
+        assertEquals("jane@example.com", dao.findByEmail("JANE@example.com").get().getEmail());
+    }
+
+    @Test
+    public void testPagesAndStreamMergeOverlaysInIdOrder() throws Exception {
+        Student john = dao.findById(1L).get();
+        john.setFirstName("Jonathan");
+        dao.update(john);
+        dao.create(new Student("Alice", "Brown", "alice@example.com", "5550103"));
+        dao.create(new Student("Bob", "Green", "bob@example.com", "5550104"));
+        dao.delete(3L);
+
+        List<Student> all = dao.findAll();
+        assertEquals(Arrays.asList("Jonathan", "Alice", "Bob"),
+                Arrays.asList(all.get(0).getFirstName(), all.get(1).getFirstName(), all.get(2).getFirstName()));
+        assertEquals(Long.valueOf(4L), dao.findPage(1, 1).get(0).getStudentId());
+        assertEquals(2, dao.findPage(1, 5).size());
+        assertTrue(dao.findPage(3, 5).isEmpty());
+
+        List<String> streamed = new ArrayList<>();
+        dao.forEach(student -> streamed.add(student.getEmail()));
+        assertEquals(Arrays.asList("john@example.com", "alice@example.com", "bob@example.com"), streamed);
+    }
+
+    @Test
+    public void testEmailChecksUseIndexAndOverlays() throws Exception {
+        assertEquals(Long.valueOf(1L), dao.findByEmail("John@Example.com").get().getStudentId());
+        try {
+            dao.create(new Student("Johnny", "Doe", "JOHN@example.com", "5550104"));
+            fail("Email differing only in case should be rejected");
+        } catch (DuplicateEmailException expected) {
+        }
+
+        // Moving John to a new address frees the snapshot one and claims the new one
+        Student john = dao.findById(1L).get();
+        john.setEmail("johnny@example.com");
+        dao.update(john);
+        assertFalse(dao.findByEmail("john@example.com").isPresent());
+        assertEquals(Long.valueOf(1L), dao.findByEmail("JOHNNY@example.com").get().getStudentId());
+        Student reused = dao.create(new Student("John", "Other", "john@example.com", "5550105"));
+        assertEquals(reused.getStudentId(), dao.findByEmail("john@example.com").get().getStudentId());
+
+        dao.delete(3L);
+        dao.create(new Student("Jane", "Again", "Jane@Example.com", "5550106"));
+        assertEquals("Again", dao.findByEmail("jane@example.com").get().getLastName());
+    }
+
+    @Test
+    public void testSaveSnapshotPersistsMergedState() throws Exception {
+        dao.delete(1L);
+        dao.create(new Student("Alice", "Brown", "alice@example.com", "5550103"));
+        Path next = folder.getRoot().toPath().resolve("students-2.snap");
+        dao.saveSnapshot(next);
+
+        StudentDaoSnapshotImpl reopened = new StudentDaoSnapshotImpl(next);
+        assertEquals(2, reopened.count());
+        assertFalse(reopened.findById(1L).isPresent());
+        assertEquals("Alice", reopened.findById(4L).get().getFirstName());
+    }
+
+    @Test
+    public void testCatchUpCarriesWritesOntoNewSnapshot() throws Exception {
+        Student alice = dao.create(new Student("Alice", "Brown", "alice@example.com", "5550103"));
+        StudentDaoSnapshotImpl state = dao.copy();
+
+        // Written after the state was taken, as during a compaction
+        Student john = dao.findById(1L).get();
+        john.setEmail("johnny@example.com");
+        dao.update(john);
+        dao.delete(alice.getStudentId());
+        dao.delete(3L);
+        Student bob = dao.create(new Student("Bob", "Green", "bob@example.com", "5550104"));
+        dao.delete(dao.create(new Student("Carol", "White", "carol@example.com", "5550105")).getStudentId());
+
+        Path next = folder.getRoot().toPath().resolve("students-2.snap");
+        state.saveSnapshot(next);
+        assertEquals(3, state.count());
+        StudentDaoSnapshotImpl caughtUp = new StudentDaoSnapshotImpl(next);
+        caughtUp.catchUp(dao, new HashSet<>(Arrays.asList(1L, alice.getStudentId(), 3L,
+                bob.getStudentId(), bob.getStudentId() + 1)));
+
+        assertEquals(dao.findAll(), caughtUp.findAll());
+        assertEquals("johnny@example.com", caughtUp.findByEmail("Johnny@example.com").get().getEmail());
+        assertFalse(caughtUp.findByEmail("john@example.com").isPresent());
+        assertEquals(bob.getStudentId() + 2, (long) caughtUp.create(
+                new Student("Dan", "Black", "dan@example.com", "5550106")).getStudentId());
+    }
+}
@@ -0,0 +1,298 @@
+package com.sms.dao;
+
+import com.sms.model.Student;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentDaoWalImpl.
+ * Tests log replay, compaction and recovery from crashes mid-write.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentDaoWalImplTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+    private StudentDaoWalImpl dao;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = folder.newFolder("wal").toPath();
+        dao = new StudentDaoWalImpl(dir);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dao.close();
+    }
+
+    // ==================== REPLAY TESTS ====================
+
+    @Test
+    public void testStateSurvivesReopen() throws Exception {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101",
+                LocalDate.of(2005, 1, 15), "123 Main St", "Springfield", "IL", "62701",
+                LocalDate.of(2024, 9, 1), "ACTIVE"));
+        Student jane = dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+        john.setEnrollmentStatus("INACTIVE");
+        dao.update(john);
+        dao.delete(jane.getStudentId());
+
+        reopen();
+
+        assertEquals(1, dao.count());
+        Student found = dao.findById(john.getStudentId()).get();
+        assertEquals("INACTIVE", found.getEnrollmentStatus());
+        assertEquals(LocalDate.of(2005, 1, 15), found.getDateOfBirth());
+        assertEquals("62701", found.getZipCode());
+        assertFalse(dao.findById(jane.getStudentId()).isPresent());
+    }
+
+    @Test
+    public void testIdsContinueAfterReopen() throws Exception {
+        Student first = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+
+        reopen();
+
+        Student second = dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+        assertEquals(first.getStudentId() + 1, (long) second.getStudentId());
+    }
+
+    @Test
+    public void testGeneratedIdsSurviveReopen() throws Exception {
+        dao.close();
+        long[] next = {5000L};
+        dao = new StudentDaoWalImpl(dir, 1, 0, StudentDaoWalImpl.DEFAULT_COMPACT_THRESHOLD, () -> next[0]++);
+        Student created = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        assertEquals(Long.valueOf(5000L), created.getStudentId());
+
+        reopen();
+
+        assertEquals("john@example.com", dao.findById(5000L).get().getEmail());
+        // The built-in sequence continues after the highest replayed ID
+        assertEquals(Long.valueOf(5001L), dao.create(
+                new Student("Jane", "Smith", "jane@example.com", "5550102")).getStudentId());
+    }
+
+    @Test(expected = DaoException.class)
+    public void testDuplicateEmailIsNotLogged() throws Exception {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.create(new Student("Jane", "Doe", "john@example.com", "5550102"));
+    }
+
+    // ==================== COMPACTION TESTS ====================
+
+    @Test
+    public void testCompactionThenReplay() throws Exception {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+        dao.compact();
+
+        // The covered segment and the old snapshot are gone and writes go to a fresh, empty segment
+        List<Path> segments = StudentDaoWalImpl.segments(dir);
+        assertEquals(1, segments.size());
+        assertEquals(0, Files.size(segments.get(0)));
+        List<Path> snapshots = StudentDaoWalImpl.snapshots(dir);
+        assertEquals(1, snapshots.size());
+        assertEquals(2, StudentSnapshot.open(snapshots.get(0)).size());
+
+        john.setFirstName("Jonathan");
+        dao.update(john);
+        reopen();
+
+        assertEquals(2, dao.count());
+        assertEquals("Jonathan", dao.findById(john.getStudentId()).get().getFirstName());
+    }
+
+    @Test
+    public void testRecoveryWhenCompactionCrashedBeforeTheSnapshot() throws Exception {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.sync();
+        Path oldSegment = StudentDaoWalImpl.segments(dir).get(0);
+        byte[] oldLog = Files.readAllBytes(oldSegment);
+        Path oldSnapshot = StudentDaoWalImpl.snapshots(dir).get(0);
+        byte[] oldSnapshotBytes = Files.readAllBytes(oldSnapshot);
+
+        dao.compact();
+        Student jane = dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+        john.setLastName("Dough");
+        dao.update(john);
+        dao.close();
+
+        // Crash after the new segment was started but before the snapshot was renamed
+        for (Path snapshot : StudentDaoWalImpl.snapshots(dir)) {
+            Files.delete(snapshot);
+        }
+        Files.write(oldSnapshot, oldSnapshotBytes);
+        Files.write(oldSegment, oldLog);
+
+        dao = new StudentDaoWalImpl(dir);
+        assertEquals(2, dao.count());
+        assertEquals("Dough", dao.findById(john.getStudentId()).get().getLastName());
+        assertTrue(dao.findById(jane.getStudentId()).isPresent());
+    }
+
+    @Test
+    public void testSegmentLeftBehindByCompactionIsSkippedAndDropped() throws Exception {
+        Student john = dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.sync();
+        Path oldSegment = StudentDaoWalImpl.segments(dir).get(0);
+        byte[] oldLog = Files.readAllBytes(oldSegment);
+
+        john.setFirstName("Jonathan");
+        dao.update(john);
+        dao.compact();
+        dao.close();
+
+        // Crash after the snapshot was renamed but before the covered segment was deleted
+        Files.write(oldSegment, oldLog);
+
+        dao = new StudentDaoWalImpl(dir);
+        assertEquals(1, dao.count());
+        assertEquals("Jonathan", dao.findById(john.getStudentId()).get().getFirstName());
+
+        dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+        dao.compact();
+        assertFalse(Files.exists(oldSegment));
+        assertEquals(1, StudentDaoWalImpl.segments(dir).size());
+    }
+
+    @Test(expected = DaoException.class)
+    public void testSnapshotInUnsupportedFormatIsRejected() throws Exception {
+        dao.close();
+        Files.write(dir.resolve(StudentDaoWalImpl.SNAPSHOT_FILE), new byte[] {0x53, 0x4D, 0x53, 0x53});
+
+        dao = new StudentDaoWalImpl(dir);
+    }
+
+    @Test
+    public void testWritesDuringCompactionAreKept() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            dao.create(new Student("Bulk", "Student", "bulk" + i + "@example.com", "5550100"));
+        }
+        Thread compaction = new Thread(() -> {
+            try {
+                dao.compact();
+            } catch (DaoException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        compaction.start();
+        List<Long> written = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            written.add(dao.create(new Student("Concurrent", "Writer", "writer" + i + "@example.com",
+                    "5550100")).getStudentId());
+        }
+        compaction.join();
+
+        // Both after the switch to the new snapshot and after recovery
+        for (int round = 0; round < 2; round++) {
+            assertEquals(5200, dao.count());
+            for (Long id : written) {
+                assertTrue(dao.findById(id).isPresent());
+            }
+            reopen();
+        }
+    }
+
+    // ==================== CRASH RECOVERY TESTS ====================
+
+    @Test
+    public void testTornTailIsTruncated() throws Exception {
+        dao.create(new Student("John", "Doe", "john@example.com", "5550101"));
+        dao.close();
+
+        // Half-written record: plausible length prefix, then the process died
+        Files.write(StudentDaoWalImpl.segments(dir).get(0), new byte[] {0, 0, 0, 40, 0, 0, 0},
+                StandardOpenOption.APPEND);
+
+        dao = new StudentDaoWalImpl(dir);
+        assertEquals(1, dao.count());
+        Student jane = dao.create(new Student("Jane", "Smith", "jane@example.com", "5550102"));
+
+        reopen();
+        assertEquals(2, dao.count());
+        assertTrue(dao.findById(jane.getStudentId()).isPresent());
+    }
+
+    @Test
+    public void testRecoveryAfterProcessIsKilledMidWrite() throws Exception {
+        dao.close();
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process writer = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                CrashWriter.class.getName(), dir.toString())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        List<Long> acknowledged = new ArrayList<>();
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(writer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (acknowledged.size() < 500 && (line = out.readLine()) != null) {
+                if (line.startsWith("ACK ")) {
+                    acknowledged.add(Long.parseLong(line.substring(4)));
+                }
+            }
+            // SIGKILL while the writer is still appending
+            writer.destroyForcibly();
+            assertTrue(writer.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertEquals(500, acknowledged.size());
+
+        dao = new StudentDaoWalImpl(dir);
+        for (Long id : acknowledged) {
+            Optional<Student> student = dao.findById(id);
+            assertTrue("Acknowledged student " + id + " was lost", student.isPresent());
+            assertEquals("student" + id + "@example.com", student.get().getEmail());
+        }
+        // Still writable after recovery
+        Student next = dao.create(new Student("After", "Crash", "after.crash@example.com", "5550199"));
+        assertNotNull(next.getStudentId());
+    }
+
+    /**
+     * Child process for the crash test: fsyncs every write and acknowledges it on stdout
+     * until it is killed.
+     */
+    public static class CrashWriter {
+        public static void main(String[] args) throws Exception {
+            StudentDaoWalImpl dao = new StudentDaoWalImpl(new File(args[0]).toPath(), 1, 0,
+                    StudentDaoWalImpl.DEFAULT_COMPACT_THRESHOLD);
+            for (long i = 1; ; i++) {
+                Student student = dao.create(new Student("Crash", "Writer", "student" + i + "@example.com", "5550100"));
+                System.out.println("ACK " + student.getStudentId());
+                System.out.flush();
+            }
+        }
+    }
+
+    private void reopen() throws DaoException {
+        dao.close();
+        dao = new StudentDaoWalImpl(dir);
+    }
+}
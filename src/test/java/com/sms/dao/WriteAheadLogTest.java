@@ -0,0 +1,197 @@
+package com.sms.dao;
+
+import com.sms.model.Student;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for WriteAheadLog.
+ * Tests that a failed write or fsync keeps its records and fails the log closed.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class WriteAheadLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFailedSyncIsRethrownAndKeepsBatch() throws Exception {
+        Path file = folder.newFile("students.wal").toPath();
+        FailingChannel[] channel = new FailingChannel[1];
+        WriteAheadLog wal = WriteAheadLog.open(file, 0, 100, new RecordingReplayer(),
+                f -> channel[0] = new FailingChannel(FileChannel.open(f, StandardOpenOption.WRITE)));
+
+        wal.appendUpsert(student(1L));
+        wal.sync();
+        wal.appendUpsert(student(2L));
+
+        channel[0].failForce = true;
+        try {
+            wal.sync();
+            fail("sync should report the failed fsync");
+        } catch (IOException expected) {
+            assertSame(expected, wal.failure());
+        }
+
+        // Even once the disk recovers, the log stays failed instead of dropping the error
+        channel[0].failForce = false;
+        try {
+            wal.appendDelete(1L);
+            fail("append should rethrow the earlier failure");
+        } catch (IOException expected) {
+            assertSame(wal.failure(), expected.getCause());
+        }
+        try {
+            wal.sync();
+            fail("sync should rethrow the earlier failure");
+        } catch (IOException expected) {
+            assertSame(wal.failure(), expected.getCause());
+        }
+        channel[0].close();
+
+        // The rejected delete never reached the file
+        RecordingReplayer replayed = new RecordingReplayer();
+        WriteAheadLog.open(file, 0, 100, replayed).close();
+        assertEquals(2, replayed.upserts.size());
+        assertEquals(Long.valueOf(1L), replayed.upserts.get(0));
+    }
+
+    private static Student student(long id) {
+        Student student = new Student("Wal", "Student", "wal" + id + "@example.com", "5550100");
+        student.setStudentId(id);
+        return student;
+    }
+
+    private static class RecordingReplayer implements WriteAheadLog.Replayer {
+        final List<Long> upserts = new ArrayList<>();
+
+        @Override
+        public void upsert(Student student) {
+            upserts.add(student.getStudentId());
+        }
+
+        @Override
+        public void delete(long studentId) {
+        }
+    }
+
+    /**
+     * File channel whose fsync can be made to fail on demand.
+     */
+    private static class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        volatile boolean failForce;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Injected fsync failure");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.sms.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentDTO.
+ * Tests that 64-bit IDs are written as JSON strings and read back from strings or numbers.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class StudentDTOTest {
+
+    // Above 2^53, so a JavaScript number would round it
+    private static final long SNOWFLAKE_ID = 371_447_289_013_571_585L;
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    public void testIdIsWrittenAsString() throws Exception {
+        StudentDTO dto = new StudentDTO();
+        dto.setId(SNOWFLAKE_ID);
+        dto.setName("John Doe");
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(dto));
+        assertTrue(json.get("id").isTextual());
+        assertEquals(String.valueOf(SNOWFLAKE_ID), json.get("id").asText());
+
+        JsonNode suggestion = mapper.readTree(mapper.writeValueAsString(
+                new StudentSuggestionDTO(SNOWFLAKE_ID, "John Doe", null)));
+        assertEquals(String.valueOf(SNOWFLAKE_ID), suggestion.get("id").textValue());
+    }
+
+    @Test
+    public void testIdIsReadFromStringOrNumber() throws Exception {
+        assertEquals(Long.valueOf(SNOWFLAKE_ID),
+                mapper.readValue("{\"id\":\"" + SNOWFLAKE_ID + "\"}", StudentDTO.class).getId());
+        assertEquals(Long.valueOf(42L), mapper.readValue("{\"id\":42}", StudentDTO.class).getId());
+    }
+}
@@ -0,0 +1,73 @@
+package com.sms.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for Student.
+ * Tests that the compact representation (packed dates, enum-backed status and
+ * pooled location strings) returns exactly what was set.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentTest {
+
+    private static Student student(String city, String status) {
+        return new Student(1L, "John", "Doe", "john@example.com", "5550100000",
+                LocalDate.of(2001, 2, 28), "1 Main St", city, "IL", "62701",
+                LocalDate.of(2024, 9, 1), status);
+    }
+
+    @Test
+    public void testStatusKeepsTheTextThatWasSet() {
+        assertEquals("ACTIVE", student("Springfield", "ACTIVE").getEnrollmentStatus());
+        assertEquals(StudentStatus.ACTIVE, student("Springfield", "ACTIVE").getStatus());
+
+        Student student = student("Springfield", "inactive");
+        assertEquals("inactive", student.getEnrollmentStatus());
+        assertEquals(StudentStatus.INACTIVE, student.getStatus());
+
+        student.setEnrollmentStatus("ON_LEAVE");
+        assertEquals("ON_LEAVE", student.getEnrollmentStatus());
+        assertNull(student.getStatus());
+
+        student.setStatus(StudentStatus.SUSPENDED);
+        assertEquals("SUSPENDED", student.getEnrollmentStatus());
+        student.setEnrollmentStatus(null);
+        assertNull(student.getEnrollmentStatus());
+        assertNull(student.getStatus());
+    }
+
+    @Test
+    public void testDatesRoundTripThroughEpochDays() {
+        Student student = student("Springfield", "ACTIVE");
+        assertEquals(LocalDate.of(2001, 2, 28), student.getDateOfBirth());
+        assertEquals(LocalDate.of(2024, 9, 1).toEpochDay(), student.getEnrollmentEpochDay());
+
+        student.setDateOfBirth(null);
+        assertNull(student.getDateOfBirth());
+        assertEquals(Student.NO_DATE, student.getDateOfBirthEpochDay());
+        student.setEnrollmentEpochDay(0);
+        assertEquals(LocalDate.of(1970, 1, 1), student.getEnrollmentDate());
+        assertNull(new Student().getEnrollmentDate());
+    }
+
+    @Test
+    public void testLocationsShareOneInstancePerValue() {
+        Student first = student(new String("Springfield"), "ACTIVE");
+        Student second = student(new String("Springfield"), "ACTIVE");
+        assertSame(first.getCity(), second.getCity());
+
+        second.setZipCode(new String("62701"));
+        assertSame(first.getZipCode(), second.getZipCode());
+
+        Student copy = new Student(second);
+        assertEquals(second.toString(), copy.toString());
+        assertEquals("Springfield", copy.getCity());
+    }
+}
@@ -0,0 +1,122 @@
+package com.sms.service;
+
+import com.sms.exception.PreconditionFailedException;
+import com.sms.model.StudentEntity;
+import com.sms.repository.StudentChangeEventRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.service.StudentApiServiceStatementCountTest.CapturingInspector;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration test for StudentApiService write paths with the change recorder present,
+ * as in the running application. Counts the JDBC statements each operation issues.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.sms.service.StudentApiServiceStatementCountTest$CapturingInspector"
+})
+public class StudentApiServiceRecordedStatementCountTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = StudentEntity.class)
+    @EnableJpaRepositories(basePackageClasses = StudentRepository.class)
+    @Import({StudentApiService.class, StudentChangeRecorder.class})
+    static class RecordingConfig {
+    }
+
+    @Autowired
+    private StudentApiService service;
+
+    @Autowired
+    private StudentRepository repository;
+
+    @Autowired
+    private StudentChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private StudentEntity saved;
+
+    @Before
+    public void setUp() {
+        saved = repository.saveAndFlush(new StudentEntity("John Doe", "john@example.com", "5550101000", 3.0));
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    public void testDeleteLocksThenDeletesThenRecords() {
+        long events = changeEventRepository.count();
+        statistics.clear();
+        CapturingInspector.STATEMENTS.clear();
+
+        assertTrue(service.deleteStudent(saved.getId()));
+        entityManager.flush();
+
+        List<String> statements = CapturingInspector.STATEMENTS;
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertTrue(statements.get(0), statements.get(0).startsWith("select") && statements.get(0).contains("for update"));
+        assertTrue(statements.get(1), statements.get(1).startsWith("delete"));
+        assertTrue(statements.get(2), statements.get(2).startsWith("insert"));
+        assertEquals(events + 1, changeEventRepository.count());
+    }
+
+    @Test
+    public void testDeleteMissingStudentIssuesOnlyTheLockingSelect() {
+        assertFalse(service.deleteStudent(saved.getId() + 1000));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void testVersionedDeleteWithStaleVersion() {
+        service.deleteStudent(saved.getId(), saved.getVersion() + 1);
+    }
+
+    @Test
+    public void testUpdateLocksThenUpdatesThenReadsThenRecords() {
+        StudentEntity changes = new StudentEntity("John Doe", "john@example.com", "5550101000", 3.9);
+
+        assertTrue(service.updateStudent(saved.getId(), changes, saved.getVersion()).isPresent());
+        entityManager.flush();
+
+        List<String> statements = CapturingInspector.STATEMENTS;
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertTrue(statements.get(0), statements.get(0).contains("for update"));
+        assertTrue(statements.get(1), statements.get(1).startsWith("update"));
+        assertTrue(statements.get(2), statements.get(2).startsWith("select"));
+        assertTrue(statements.get(3), statements.get(3).startsWith("insert"));
+    }
+}
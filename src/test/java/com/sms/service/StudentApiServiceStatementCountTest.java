@@ -0,0 +1,188 @@
+package com.sms.service;
+
+import com.sms.exception.PreconditionFailedException;
+import com.sms.model.StudentEntity;
+import com.sms.model.StudentStatus;
+import com.sms.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration test for StudentApiService write paths.
+ * Counts the JDBC statements each operation issues against an embedded H2 database.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.sms.service.StudentApiServiceStatementCountTest$CapturingInspector"
+})
+public class StudentApiServiceStatementCountTest {
+
+    /**
+     * JPA-only context; SpringBootApp's explicit component scan would pull in web and security config.
+     */
+    @Configuration
+    @EntityScan(basePackageClasses = StudentEntity.class)
+    @EnableJpaRepositories(basePackageClasses = StudentRepository.class)
+    @Import(StudentApiService.class)
+    static class JpaOnlyConfig {
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares.
+     */
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    private StudentApiService service;
+
+    @Autowired
+    private StudentRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private StudentEntity saved;
+
+    @Before
+    public void setUp() {
+        saved = repository.saveAndFlush(new StudentEntity("John Doe", "john@example.com", "5550101000", 3.0));
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    // ==================== DELETE ====================
+
+    @Test
+    public void testDeleteIssuesSingleStatement() {
+        assertTrue(service.deleteStudent(saved.getId()));
+        entityManager.flush();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(repository.existsById(saved.getId()));
+    }
+
+    @Test
+    public void testDeleteMissingStudentReturnsFalseInSingleStatement() {
+        assertFalse(service.deleteStudent(saved.getId() + 1000));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testVersionedDeleteIssuesSingleStatement() {
+        assertTrue(service.deleteStudent(saved.getId(), saved.getVersion()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void testVersionedDeleteWithStaleVersion() {
+        service.deleteStudent(saved.getId(), saved.getVersion() + 1);
+    }
+
+    // ==================== UPDATE ====================
+
+    @Test
+    public void testUpdateIssuesUpdateThenSelect() {
+        StudentEntity changes = new StudentEntity("John Doe", "john@example.com", "5550101000", 3.9);
+
+        Optional<StudentEntity> updated = service.updateStudent(saved.getId(), changes);
+
+        assertTrue(updated.isPresent());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(Double.valueOf(3.9), updated.get().getGpa());
+        assertEquals(StudentStatus.ACTIVE, updated.get().getStatus());
+        assertEquals(Long.valueOf(saved.getVersion() + 1), updated.get().getVersion());
+    }
+
+    @Test
+    public void testUpdateMissingStudentReturnsEmptyInSingleStatement() {
+        StudentEntity changes = new StudentEntity("John Doe", "john@example.com", "5550101000", 3.9);
+
+        assertFalse(service.updateStudent(saved.getId() + 1000, changes).isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void testVersionedUpdateWithStaleVersion() {
+        StudentEntity changes = new StudentEntity("John Doe", "john@example.com", "5550101000", 3.9);
+
+        service.updateStudent(saved.getId(), changes, saved.getVersion() + 1);
+    }
+
+    // ==================== PATCH ====================
+
+    @Test
+    public void testPatchUpdatesOnlyChangedColumns() {
+        Optional<StudentEntity> patched = service.patchStudent(saved.getId(), Map.of("gpa", 3.7), null);
+        entityManager.flush();
+
+        assertTrue(patched.isPresent());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        String update = CapturingInspector.STATEMENTS.get(1);
+        assertTrue(update, update.startsWith("update"));
+        assertTrue(update, update.contains("gpa"));
+        assertFalse(update, update.contains("name"));
+        assertFalse(update, update.contains("email"));
+        assertFalse(update, update.contains("phone"));
+        assertFalse(update, update.contains("status"));
+    }
+
+    @Test
+    public void testNoOpPatchSkipsWrite() {
+        Optional<StudentEntity> patched = service.patchStudent(saved.getId(),
+                Map.of("gpa", 3.0, "name", "John Doe"), null);
+        entityManager.flush();
+
+        assertTrue(patched.isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(saved.getVersion(), patched.get().getVersion());
+    }
+
+    @Test(expected = PreconditionFailedException.class)
+    public void testPatchWithStaleVersion() {
+        service.patchStudent(saved.getId(), Map.of("gpa", 3.7), saved.getVersion() + 1);
+    }
+}
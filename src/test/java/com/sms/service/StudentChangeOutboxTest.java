@@ -0,0 +1,169 @@
+package com.sms.service;
+
+import com.sms.controller.StudentChangeController;
+import com.sms.dto.StudentChangeEventDTO;
+import com.sms.model.ChangeType;
+import com.sms.model.StudentEntity;
+import com.sms.repository.StudentChangeEventRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.util.ApiResponseWrapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration test for the student change event outbox.
+ * Runs the service writes in real transactions against an embedded H2 database and
+ * checks what the relay publishes.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StudentChangeOutboxTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = StudentEntity.class)
+    @EnableJpaRepositories(basePackageClasses = StudentRepository.class)
+    @Import({StudentApiService.class, StudentChangeRecorder.class, StudentChangeRelay.class,
+            StudentChangeController.class})
+    static class OutboxConfig {
+    }
+
+    @Autowired
+    private StudentApiService service;
+
+    @Autowired
+    private StudentChangeRelay relay;
+
+    @Autowired
+    private StudentChangeController controller;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long start;
+
+    @Before
+    public void setUp() {
+        studentRepository.deleteAllInBatch();
+        relay.publishPending();
+        start = changeEventRepository.findLastSequence();
+    }
+
+    @Test
+    public void testWritesPublishOrderedEventsWithImages() {
+        StudentEntity created = service.createStudent(
+                new StudentEntity("John Doe", "john@example.com", "5550101000", 3.0));
+        service.updateStudent(created.getId(),
+                new StudentEntity("John Doe", "john@example.com", "5550101000", 3.5));
+        service.patchStudent(created.getId(), Map.of("name", "Johnny Doe"), null);
+        service.deleteStudent(created.getId());
+        relay.publishPending();
+
+        List<StudentChangeEventDTO> events = relay.eventsAfter(start, 10);
+        assertEquals(4, events.size());
+        assertEquals(ChangeType.CREATED, events.get(0).getType());
+        assertNull(events.get(0).getBefore());
+        assertTrue(events.get(0).getAfter().contains("\"gpa\":3.0"));
+
+        assertEquals(ChangeType.UPDATED, events.get(1).getType());
+        assertTrue(events.get(1).getBefore().contains("\"gpa\":3.0"));
+        assertTrue(events.get(1).getAfter().contains("\"gpa\":3.5"));
+
+        assertEquals(ChangeType.UPDATED, events.get(2).getType());
+        assertTrue(events.get(2).getBefore().contains("\"name\":\"John Doe\""));
+        assertTrue(events.get(2).getAfter().contains("\"name\":\"Johnny Doe\""));
+
+        assertEquals(ChangeType.DELETED, events.get(3).getType());
+        assertTrue(events.get(3).getBefore().contains("\"name\":\"Johnny Doe\""));
+        assertNull(events.get(3).getAfter());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(start + i + 1, events.get(i).getSequence());
+            assertEquals(created.getId(), events.get(i).getStudentId());
+        }
+    }
+
+    @Test
+    public void testRolledBackWriteEmitsNoEvent() {
+        long outboxRows = changeEventRepository.count();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.createStudent(new StudentEntity("Jane Doe", "jane@example.com", "5550102000", 3.2));
+            status.setRollbackOnly();
+        });
+        relay.publishPending();
+
+        assertEquals(outboxRows, changeEventRepository.count());
+        assertTrue(relay.eventsAfter(start, 10).isEmpty());
+    }
+
+    @Test
+    public void testNoOpWritesEmitNoEvent() {
+        StudentEntity created = service.createStudent(
+                new StudentEntity("John Doe", "john@example.com", "5550101000", 3.0));
+        service.patchStudent(created.getId(), Map.of("gpa", 3.0), null);
+        service.deleteStudent(created.getId() + 1000);
+        relay.publishPending();
+
+        assertEquals(1, relay.eventsAfter(start, 10).size());
+    }
+
+    @Test
+    public void testLongPollReturnsBatchesAndWaitsForNextEvent() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            service.createStudent(new StudentEntity("Student " + i, "s" + i + "@example.com", "555010100" + i, 3.0));
+        }
+        relay.publishPending();
+
+        Map<String, Object> first = batch(controller.pollEvents(start, 2, 0));
+        assertEquals(2, ((List<?>) first.get("events")).size());
+        assertEquals(start + 2, first.get("nextAfter"));
+        Map<String, Object> second = batch(controller.pollEvents(start + 2, 2, 0));
+        assertEquals(1, ((List<?>) second.get("events")).size());
+
+        DeferredResult<ResponseEntity<?>> waiting = controller.pollEvents(start + 3, 10, 10);
+        assertFalse(waiting.hasResult());
+        service.createStudent(new StudentEntity("Late Student", "late@example.com", "5550109999", 3.0));
+        // The commit nudges the relay, which completes the waiting poll
+        for (int i = 0; i < 100 && !waiting.hasResult(); i++) {
+            Thread.sleep(50);
+        }
+        Map<String, Object> woken = batch(waiting);
+        assertEquals(1, ((List<?>) woken.get("events")).size());
+        assertEquals(start + 4, woken.get("nextAfter"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> batch(DeferredResult<ResponseEntity<?>> result) {
+        assertTrue("poll did not complete", result.hasResult());
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        return (Map<String, Object>) ((ApiResponseWrapper) response.getBody()).getData();
+    }
+}
@@ -0,0 +1,124 @@
+package com.sms.service;
+
+import com.sms.dao.StudentDaoMemoryImpl;
+import com.sms.model.Student;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentImporter.
+ * Tests parsing across chunk boundaries, deduplication in file order and the error file.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentImporterTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private StudentDaoMemoryImpl studentDao;
+    private StudentService studentService;
+    
+    @Before
+    public void setUp() {
+        studentDao = new StudentDaoMemoryImpl();
+        studentService = new StudentService(studentDao);
+    }
+    
+    @Test
+    public void testImportsCsvWithHeaderAndReportsRejectedLines() throws Exception {
+        studentService.addStudent("Jane", "Smith", "jane@example.com", "555-987-6543");
+        Path file = write("students.csv",
+                "email,first_name,last_name,phone,city,dob\n"
+                + "john@example.com,John,Doe,555-123-4567,\"Springfield, IL\",2001-02-03\n"
+                + "\n"
+                + "jane@example.com,Jane,Again,555-987-6543,,\n"
+                + "not-an-email,X,Doe,123,,\n"
+                + "JOHN@example.com,Johnny,Doe,555-123-4567,,\n"
+                + "mary@example.com,Mary,\"O'Brien\",555-222-3333,,1999-13-01\n"
+                + "ann@example.com,Ann,Lee\n"
+                + "bob@example.com,Bob,Stone,555-444-5555,,\r\n");
+        
+        StudentImporter.ImportResult result = importer(16, 2).importFile(file, null);
+        
+        assertEquals(7, result.getRecords());
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getInvalid());
+        assertEquals(1, result.getDuplicatesInFile());
+        assertEquals(1, result.getDuplicatesInStore());
+        Student john = studentService.searchByEmail("john@example.com").get();
+        assertEquals("Springfield, IL", john.getCity());
+        assertEquals(LocalDate.of(2001, 2, 3), john.getDateOfBirth());
+        assertTrue(studentService.searchByEmail("bob@example.com").isPresent());
+        
+        List<String> errors = Files.readAllLines(result.getErrorFile());
+        assertEquals("line,error,record", errors.get(0));
+        assertEquals(6, errors.size());
+        assertTrue(errors.contains("5,\"firstName: First name must be 2-50 characters and contain only letters, "
+                + "spaces, hyphens, or apostrophes; email: Invalid email format; phoneNumber: Phone number "
+                + "must contain at least 10 digits\",\"not-an-email,X,Doe,123,,\""));
+        assertTrue(errors.contains("6,\"email: Duplicate of line 2\",\"JOHN@example.com,Johnny,Doe,555-123-4567,,\""));
+        assertTrue(errors.contains("7,\"dateOfBirth: Invalid date (expected yyyy-MM-dd)\","
+                + "\"mary@example.com,Mary,\"\"O'Brien\"\",555-222-3333,,1999-13-01\""));
+        assertTrue(errors.contains("8,\"Expected at least 4 fields, found 3\",\"ann@example.com,Ann,Lee\""));
+        assertTrue(errors.contains("4,\"email: Already exists\",\"jane@example.com,Jane,Again,555-987-6543,,\""));
+    }
+    
+    @Test
+    public void testSmallChunksMatchOneChunk() throws Exception {
+        StringBuilder tsv = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            String email = i % 13 == 0 ? "broken" + i : "student" + (i % 7_500) + "@example.com";
+            tsv.append("First\tLast\t").append(email).append("\t555-010-").append(1000 + i % 9000).append('\n');
+        }
+        Path file = write("students.tsv", tsv.toString());
+        AtomicInteger progressCalls = new AtomicInteger();
+        
+        StudentImporter.ImportResult chunked = importer(4096, 3).importFile(file,
+                folder.getRoot().toPath().resolve("chunked.errors.csv"), progress -> progressCalls.incrementAndGet());
+        StudentService single = new StudentService(new StudentDaoMemoryImpl());
+        StudentImporter.ImportResult whole = new StudentImporter(single, ForkJoinPool.commonPool(),
+                Integer.MAX_VALUE, 500, 1).importFile(file, folder.getRoot().toPath().resolve("whole.errors.csv"), null);
+        
+        assertEquals(10_000, chunked.getRecords());
+        assertEquals(whole.getImported(), chunked.getImported());
+        assertEquals(whole.getInvalid(), chunked.getInvalid());
+        assertEquals(whole.getDuplicatesInFile(), chunked.getDuplicatesInFile());
+        assertEquals(studentDao.count(), chunked.getImported());
+        // Same rejected lines; the order of the file differs with the chunking
+        assertEquals(sorted(whole.getErrorFile()), sorted(chunked.getErrorFile()));
+        assertTrue(progressCalls.get() > 10);
+        assertEquals(file.toFile().length(), chunked.getBytesRead());
+    }
+    
+    private StudentImporter importer(int chunkBytes, int maxInFlight) {
+        return new StudentImporter(studentService, ForkJoinPool.commonPool(), chunkBytes, 7, maxInFlight);
+    }
+    
+    private static List<String> sorted(Path file) throws Exception {
+        List<String> lines = Files.readAllLines(file);
+        Collections.sort(lines);
+        return lines;
+    }
+    
+    private Path write(String name, String content) throws Exception {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
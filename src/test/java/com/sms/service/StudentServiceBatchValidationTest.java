@@ -0,0 +1,115 @@
+package com.sms.service;
+
+import com.sms.dao.StudentDaoMemoryImpl;
+import com.sms.model.Student;
+import com.sms.util.BatchValidator;
+import com.sms.util.ValidationReport;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for batch validation in StudentService and BatchValidator.
+ * Tests that every field error is collected and that parallel validation
+ * reports the same records, in order, as sequential validation.
+ * 
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class StudentServiceBatchValidationTest {
+    
+    private StudentDaoMemoryImpl studentDao;
+    private StudentService studentService;
+    
+    @Before
+    public void setUp() {
+        studentDao = new StudentDaoMemoryImpl();
+        studentService = new StudentService(studentDao);
+    }
+    
+    @Test
+    public void testCollectsAllFieldErrorsPerRecord() {
+        List<Student> students = Arrays.asList(
+                new Student("John", "Doe", "john@example.com", "555-123-4567"),
+                new Student("", "D", "not-an-email", "123"),
+                null);
+        
+        ValidationReport report = studentService.validateStudents(students);
+        
+        assertFalse(report.isValid());
+        assertEquals(3, report.getRecordCount());
+        assertEquals(2, report.getInvalidCount());
+        assertTrue(report.isValid(0));
+        Map<String, String> errors = report.getInvalidRecords().get(0).getFieldErrors();
+        assertEquals(1, report.getInvalidRecords().get(0).getIndex());
+        assertEquals(Arrays.asList("firstName", "lastName", "email", "phoneNumber"),
+                new ArrayList<>(errors.keySet()));
+        assertEquals("First name cannot be empty", errors.get("firstName"));
+        assertEquals("Invalid email format", errors.get("email"));
+        assertEquals("Phone number must contain at least 10 digits", errors.get("phoneNumber"));
+        assertEquals("Invalid student data", report.getInvalidRecords().get(1).getFieldErrors().get("student"));
+    }
+    
+    @Test
+    public void testParallelValidationMatchesSequential() {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            String email = i % 7 == 0 ? "broken" + i : "student" + i + "@example.com";
+            String phone = i % 11 == 0 ? "12" : "555-000-" + (1000 + i % 9000);
+            students.add(new Student("First", "Last", email, phone));
+        }
+        BatchValidator<Student> sequential = new BatchValidator<>(StudentServiceBatchValidationTest::check,
+                Integer.MAX_VALUE);
+        BatchValidator<Student> parallel = new BatchValidator<>(StudentServiceBatchValidationTest::check, 1);
+        
+        ValidationReport expected = sequential.validateAll(students);
+        ValidationReport actual = parallel.validateAll(students);
+        
+        assertEquals(expected.getInvalidCount(), actual.getInvalidCount());
+        for (int i = 0; i < expected.getInvalidCount(); i++) {
+            assertEquals(expected.getInvalidRecords().get(i).getIndex(), actual.getInvalidRecords().get(i).getIndex());
+            assertEquals(expected.getInvalidRecords().get(i).getFieldErrors(),
+                    actual.getInvalidRecords().get(i).getFieldErrors());
+        }
+        ValidationReport service = studentService.validateStudents(students);
+        assertEquals(expected.getInvalidCount(), service.getInvalidCount());
+        for (int i = 0; i < students.size(); i++) {
+            assertEquals(i % 7 != 0 && i % 11 != 0, service.isValid(i));
+        }
+    }
+    
+    @Test
+    public void testAddStudentsAddsValidRecordsAndReportsTheRest() throws Exception {
+        studentDao.create(new Student("Jane", "Smith", "jane@example.com", "555-987-6543"));
+        List<Student> students = Arrays.asList(
+                new Student("John", "Doe", "john@example.com", "555-123-4567"),
+                new Student("Jane", "Again", "jane@example.com", "555-987-6543"),
+                new Student("Bad", "Phone", "bad@example.com", ""));
+        
+        ValidationReport report = studentService.addStudents(students);
+        
+        assertEquals(2, report.getInvalidCount());
+        assertEquals(1, report.getInvalidRecords().get(0).getIndex());
+        assertTrue(report.getInvalidRecords().get(0).getFieldErrors().get("student").contains("already exists"));
+        assertEquals(2, report.getInvalidRecords().get(1).getIndex());
+        assertEquals("Phone number cannot be empty",
+                report.getInvalidRecords().get(1).getFieldErrors().get("phoneNumber"));
+        assertEquals(2, studentService.getStudentCount());
+    }
+    
+    private static void check(Student student, BatchValidator.FieldErrors errors) {
+        if (!student.getEmail().contains("@")) {
+            errors.add("email", "Invalid email format");
+        }
+        if (student.getPhoneNumber().length() < 10) {
+            errors.add("phoneNumber", "Phone number must contain at least 10 digits");
+        }
+    }
+}
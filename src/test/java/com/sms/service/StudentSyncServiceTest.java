@@ -0,0 +1,136 @@
+package com.sms.service;
+
+import com.sms.model.StudentEntity;
+import com.sms.repository.StudentRepository;
+import com.sms.util.SyncWatermark;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration test for StudentSyncService.
+ * Runs writes through StudentApiService and syncs them back out with keyset paging.
+ * 
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "app.sync.settle-window=0s")
+public class StudentSyncServiceTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = StudentEntity.class)
+    @EnableJpaRepositories(basePackageClasses = StudentRepository.class)
+    @Import({StudentApiService.class, StudentChangeRecorder.class, StudentSyncService.class})
+    static class SyncConfig {
+    }
+
+    @Autowired
+    private StudentApiService service;
+
+    @Autowired
+    private StudentSyncService syncService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Before
+    public void setUp() {
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testFullSyncPagesThroughAllStudents() {
+        for (int i = 0; i < 5; i++) {
+            create(i);
+        }
+
+        Set<Long> seen = new HashSet<>();
+        SyncWatermark watermark = null;
+        int batches = 0;
+        StudentSyncService.Delta delta;
+        do {
+            delta = syncService.changesSince(watermark, 2);
+            delta.getUpserts().forEach(student -> assertTrue("duplicate", seen.add(student.getId())));
+            watermark = delta.getWatermark();
+            batches++;
+        } while (delta.isHasMore());
+
+        assertEquals(5, seen.size());
+        assertEquals(3, batches);
+    }
+
+    @Test
+    public void testIncrementalSyncReturnsChangesAndTombstones() throws InterruptedException {
+        StudentEntity kept = create(1);
+        StudentEntity updated = create(2);
+        StudentEntity deleted = create(3);
+        SyncWatermark watermark = syncService.changesSince(null, 100).getWatermark();
+        Thread.sleep(5);
+
+        service.updateStudent(updated.getId(),
+                new StudentEntity("Renamed Student", updated.getEmail(), updated.getPhone(), 3.9));
+        service.deleteStudent(deleted.getId());
+        StudentEntity added = create(4);
+        Thread.sleep(5);
+
+        StudentSyncService.Delta delta = syncService.changesSince(
+                SyncWatermark.decode(watermark.encode()), 100);
+        assertEquals(2, delta.getUpserts().size());
+        assertEquals(updated.getId(), delta.getUpserts().get(0).getId());
+        assertEquals("Renamed Student", delta.getUpserts().get(0).getName());
+        assertEquals(added.getId(), delta.getUpserts().get(1).getId());
+        assertEquals(1, delta.getDeletes().size());
+        assertEquals(deleted.getId(), delta.getDeletes().get(0).getStudentId());
+        assertFalse(delta.isHasMore());
+        assertTrue(delta.getUpserts().stream().noneMatch(student -> student.getId().equals(kept.getId())));
+
+        StudentSyncService.Delta next = syncService.changesSince(delta.getWatermark(), 100);
+        assertTrue(next.getUpserts().isEmpty());
+        assertTrue(next.getDeletes().isEmpty());
+    }
+
+    @Test
+    public void testDeltaQueryUsesUpdatedAtIndex() {
+        String plan = new JdbcTemplate(dataSource).queryForObject(
+                "EXPLAIN SELECT * FROM students WHERE updated_at >= ? AND (updated_at > ? OR id > ?) "
+                        + "AND updated_at < ? ORDER BY updated_at, id FETCH FIRST 500 ROWS ONLY",
+                String.class, LocalDateTime.MIN, LocalDateTime.MIN, 0L, LocalDateTime.now());
+
+        assertTrue(plan, plan.toUpperCase().contains("IDX_UPDATED_AT_ID"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedWatermarkRejected() {
+        SyncWatermark.decode("not-a-watermark");
+    }
+
+    private StudentEntity create(int i) {
+        return service.createStudent(new StudentEntity("Student " + i, "student" + i + "@example.com",
+                "555010100" + i, 3.0));
+    }
+}
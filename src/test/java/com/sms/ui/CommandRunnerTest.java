@@ -0,0 +1,93 @@
+package com.sms.ui;
+
+import com.sms.dao.StudentDaoMemoryImpl;
+import com.sms.service.StudentService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for CommandRunner.
+ * Tests single commands, batched adds and the output formats.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class CommandRunnerTest {
+
+    private StudentService studentService;
+
+    @Before
+    public void setUp() {
+        studentService = new StudentService(new StudentDaoMemoryImpl());
+    }
+
+    private String[] run(StringWriter err, String input, String... args) {
+        StringWriter out = new StringWriter();
+        int code = CommandRunner.run(args, studentService, out, new StringReader(input), err);
+        String[] lines = out.toString().split("\n");
+        String[] result = new String[lines.length + 1];
+        result[0] = String.valueOf(code);
+        System.arraycopy(lines, 0, result, 1, lines.length);
+        return result;
+    }
+
+    @Test
+    public void testSingleCommandWritesJsonLines() {
+        String[] result = run(new StringWriter(), "", "add", "firstName=Ann", "lastName=Lee",
+                "email=ann@example.com", "phone=5550100000", "city=New \"York\"");
+
+        assertEquals("0", result[0]);
+        assertTrue(result[1].startsWith("{\"seq\":1,\"student\":{\"studentId\":"));
+        assertTrue(result[1].contains("\"city\":\"New \\\"York\\\"\""));
+        assertTrue(result[2].startsWith("{\"seq\":1,\"command\":\"add\",\"ok\":true"));
+
+        result = run(new StringWriter(), "", "get", "12345");
+        assertEquals("1", result[0]);
+        assertEquals("{\"seq\":1,\"command\":\"get\",\"ok\":false,\"error\":\"Student not found: 12345\"}",
+                result[1]);
+    }
+
+    @Test
+    public void testBatchReportsEachLineInOrder() throws Exception {
+        String input = String.join("\n",
+                "# comment lines and blank lines are skipped",
+                "add firstName=Ann lastName=Lee email=ann@example.com phone=5550100000",
+                "add firstName=Ann lastName=Lee email=ann@example.com phone=5550100000",
+                "",
+                "add firstName=Bob lastName=Ray email=not-an-email phone=5550100001",
+                "add firstName='Mary Jo' lastName=Ray email=mj@example.com phone=5550100002",
+                "search lastName=Ray",
+                "stats");
+
+        String[] result = run(new StringWriter(), input, "--format=tsv", "batch", "-");
+
+        assertEquals("1", result[0]);
+        assertTrue(result[1].startsWith("student\t2\t"));
+        assertTrue(result[2].startsWith("ok\t2\tadd\tstudentId="));
+        assertEquals("error\t3\tadd\tFailed to add student: Student with email 'ann@example.com' already exists",
+                result[3]);
+        assertTrue(result[4].startsWith("error\t5\tadd\t"));
+        assertTrue(result[5].startsWith("student\t6\t") && result[5].contains("\tMary Jo\tRay\t"));
+        assertTrue(result[6].startsWith("ok\t6\tadd\t"));
+        assertTrue(result[7].startsWith("student\t7\t"));
+        assertEquals("ok\t7\tsearch\tcount=1", result[8]);
+        assertTrue(result[9].startsWith("ok\t8\tstats\ttotal=2\tactive=2\tinactive=0\tstatus.ACTIVE=2\t"));
+        assertEquals(10, result.length);
+        assertEquals(2, studentService.getStudentCount());
+    }
+
+    @Test
+    public void testUsageErrors() {
+        StringWriter err = new StringWriter();
+
+        assertEquals("2", run(err, "", "--format=xml", "stats")[0]);
+        assertTrue(err.toString().startsWith("Unknown option: --format=xml"));
+        assertEquals("2", run(new StringWriter(), "")[0]);
+    }
+}
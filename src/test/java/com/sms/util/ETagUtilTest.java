@@ -0,0 +1,73 @@
+package com.sms.util;
+
+import com.sms.exception.PreconditionFailedException;
+import com.sms.model.StudentEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for ETagUtil.
+ * Tests that each representation of a student gets its own strong tag and that
+ * If-Match accepts every one of them while rejecting weak, foreign and malformed tags.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class ETagUtilTest {
+
+    private StudentEntity student;
+
+    @Before
+    public void setUp() {
+        student = new StudentEntity("Ada Lovelace", "ada@example.com", "5550100", 3.9);
+        student.setId(42L);
+        student.setVersion(7L);
+    }
+
+    @Test
+    public void testRepresentationsGetDistinctStrongTags() {
+        List<String> tags = Arrays.asList(
+                ETagUtil.strongETag(student),
+                ETagUtil.strongETag(student, ETagUtil.LEAN),
+                ETagUtil.strongETag(student, ETagUtil.CBOR),
+                ETagUtil.strongETag(student, ETagUtil.SMILE),
+                ETagUtil.strongETag(student, ETagUtil.LEAN + "-" + ETagUtil.CBOR));
+        assertEquals(tags.size(), new HashSet<>(tags).size());
+        assertEquals("\"42-7\"", tags.get(0));
+        assertEquals("\"42-7-cbor\"", tags.get(2));
+        assertEquals(tags.get(0), ETagUtil.strongETag(student, null));
+        for (String tag : tags) {
+            assertFalse(tag.startsWith("W/"));
+        }
+    }
+
+    @Test
+    public void testExpectedVersionAcceptsEveryRepresentation() {
+        for (String representation : Arrays.asList(null, "lean", "cbor", "smile", "lean-cbor", "lean-smile")) {
+            String tag = ETagUtil.strongETag(student, representation);
+            assertEquals(tag, Long.valueOf(7L), ETagUtil.expectedVersion(tag, 42L));
+        }
+        assertNull(ETagUtil.expectedVersion(null, 42L));
+        assertNull(ETagUtil.expectedVersion(" * ", 42L));
+    }
+
+    @Test
+    public void testExpectedVersionRejectsOtherTags() {
+        for (String ifMatch : Arrays.asList("W/\"42-7\"", "\"4-7\"", "\"442-7\"", "\"42-7-xml\"",
+                "\"42-7-\"", "\"42-x\"", "\"42-\"", "42-7")) {
+            try {
+                ETagUtil.expectedVersion(ifMatch, 42L);
+                fail("Expected rejection of " + ifMatch);
+            } catch (PreconditionFailedException expected) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.sms.util;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Property-based test for FieldValidators.
+ * Checks the character-scanning rules against the regular expressions they replaced
+ * on several hundred thousand generated inputs (random, near-valid and mutated valid
+ * values, with whitespace, line terminators and non-ASCII characters mixed in), and
+ * checks that validating allocates nothing.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class FieldValidatorsPropertyTest {
+
+    private static final int SAMPLES = 200_000;
+
+    // The rules as they were written before FieldValidators
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z\\s'-]{2,50}$");
+    private static final Pattern ZIP_CODE_PATTERN = Pattern.compile("^\\d{5}(-\\d{4})?$");
+
+    private static final Predicate<String> OLD_NAME = name -> name != null && !name.trim().isEmpty()
+            && NAME_PATTERN.matcher(name.trim()).matches();
+    private static final Predicate<String> OLD_EMAIL = email -> email != null && !email.trim().isEmpty()
+            && email.length() <= 100 && EMAIL_PATTERN.matcher(email.trim()).matches();
+    private static final Predicate<String> OLD_PHONE = phone -> phone != null && !phone.trim().isEmpty()
+            && phone.replaceAll("[\\D]", "").length() >= 10;
+    private static final Predicate<String> OLD_ZIP = zip -> zip != null && !zip.trim().isEmpty()
+            && ZIP_CODE_PATTERN.matcher(zip.trim()).matches();
+
+    /** Characters the rules treat specially, weighted well above their natural frequency */
+    private static final char[] INTERESTING = {
+        'a', 'z', 'A', 'Z', 'm', '0', '9', '5', '+', '_', '.', '-', '@', '\'', '(', ')', ' ',
+        '\t', '\n', '\u000B', '\f', '\r', '\u0000', '\u001F', '\u0085', '\u00A0', '\u2028', '\u2029',
+        '\u00E9', '\u0660', '\uD83D', '\uDE00', '\u007F', '`', '{', '[', '/', ':'
+    };
+
+    @Test
+    public void testNameMatchesOldPattern() {
+        assertSameVerdicts("name", OLD_NAME, FieldValidators::checkName,
+                random -> random.nextInt(4) == 0 ? validName(random) : randomString(random, 60));
+    }
+
+    @Test
+    public void testEmailMatchesOldPattern() {
+        assertSameVerdicts("email", OLD_EMAIL, FieldValidators::checkEmail,
+                random -> random.nextInt(3) == 0 ? randomString(random, 110) : mutate(random, validEmail(random)));
+    }
+
+    @Test
+    public void testPhoneMatchesOldRule() {
+        assertSameVerdicts("phone", OLD_PHONE, FieldValidators::checkPhone,
+                random -> random.nextBoolean() ? randomString(random, 20) : mutate(random, "(555) 010-" + digits(random, 4)));
+    }
+
+    @Test
+    public void testZipCodeMatchesOldPattern() {
+        assertSameVerdicts("zip code", OLD_ZIP, FieldValidators::checkZipCode,
+                random -> random.nextBoolean() ? randomString(random, 12)
+                        : mutate(random, digits(random, 5) + (random.nextBoolean() ? "-" + digits(random, 4) : "")));
+    }
+
+    @Test
+    public void testEdgeCases() {
+        String[] samples = {
+            null, "", " ", "\t\n", "ab", "a", " ab ", "a\u000Bb", "O'Neil-Smith", "x".repeat(50), "x".repeat(51),
+            "a@b", "@b", "a@", "a@\n", " a@b\n", "a@b@c", "a b@c", "a@b\u2028", "a@" + "b".repeat(97),
+            "a@" + "b".repeat(98), "1234567890", "123456789", " 123-456-7890 ", "12345", "12345-6789",
+            "12345-678", "1234", "12345 ", "\u0660\u0661\u0662\u0663\u0664"
+        };
+        for (String sample : samples) {
+            assertEquals("name " + sample, OLD_NAME.test(sample), FieldValidators.checkName(sample) == null);
+            assertEquals("email " + sample, OLD_EMAIL.test(sample), FieldValidators.checkEmail(sample) == null);
+            assertEquals("phone " + sample, OLD_PHONE.test(sample), FieldValidators.checkPhone(sample) == null);
+            assertEquals("zip " + sample, OLD_ZIP.test(sample), FieldValidators.checkZipCode(sample) == null);
+        }
+    }
+
+    @Test
+    public void testValidationAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] names = {"John", "Mary-Jane O'Brien"};
+        String[] emails = {"john.doe@example.com", "bad-email"};
+        int violations = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            for (int i = 0; i < 100_000; i++) {
+                violations += FieldValidators.checkName(names[i & 1]) == null ? 0 : 1;
+                violations += FieldValidators.checkEmail(emails[i & 1]) == null ? 0 : 1;
+                violations += FieldValidators.checkPhone("555-010-1000") == null ? 0 : 1;
+                violations += FieldValidators.checkZipCode("12345-6789") == null ? 0 : 1;
+            }
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+            if (warmup == 1) {
+                assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+            }
+        }
+        assertEquals(2 * 50_000, violations);
+    }
+
+    private static void assertSameVerdicts(String field, Predicate<String> oldRule,
+                                           Function<String, FieldViolation> newRule,
+                                           Function<Random, String> generator) {
+        Random random = new Random(field.hashCode());
+        int accepted = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            String sample = generator.apply(random);
+            boolean expected = oldRule.test(sample);
+            assertEquals(field + " verdict differs for \"" + escape(sample) + "\"",
+                    expected, newRule.apply(sample) == null);
+            accepted += expected ? 1 : 0;
+        }
+        // Both verdicts must actually be exercised
+        assertTrue(field + " accepted " + accepted, accepted > SAMPLES / 50 && accepted < SAMPLES - SAMPLES / 50);
+    }
+
+    private static String randomString(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(randomChar(random));
+        }
+        return text.toString();
+    }
+
+    private static char randomChar(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return INTERESTING[random.nextInt(INTERESTING.length)];
+            case 1:
+                return (char) ('a' + random.nextInt(26));
+            case 2:
+                return (char) ('0' + random.nextInt(10));
+            default:
+                return (char) random.nextInt(0x3000);
+        }
+    }
+
+    private static String validName(Random random) {
+        int length = 2 + random.nextInt(50);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            name.append("abcXYZ '-\t".charAt(random.nextInt(10)));
+        }
+        return (random.nextBoolean() ? " " : "") + name;
+    }
+
+    private static String validEmail(Random random) {
+        StringBuilder email = new StringBuilder();
+        int local = 1 + random.nextInt(20);
+        for (int i = 0; i < local; i++) {
+            email.append("aZ09+_.-".charAt(random.nextInt(8)));
+        }
+        email.append('@');
+        int domain = 1 + random.nextInt(85);
+        for (int i = 0; i < domain; i++) {
+            email.append(random.nextInt(10) == 0 ? '.' : (char) ('a' + random.nextInt(26)));
+        }
+        return email.toString();
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    /** Leaves the value alone, or inserts, replaces or deletes one character, or pads it */
+    private static String mutate(Random random, String value) {
+        StringBuilder text = new StringBuilder(value);
+        switch (random.nextInt(6)) {
+            case 0:
+                text.insert(random.nextInt(text.length() + 1), randomChar(random));
+                break;
+            case 1:
+                if (text.length() > 0) {
+                    text.setCharAt(random.nextInt(text.length()), randomChar(random));
+                }
+                break;
+            case 2:
+                if (text.length() > 0) {
+                    text.deleteCharAt(random.nextInt(text.length()));
+                }
+                break;
+            case 3:
+                text.insert(0, randomChar(random)).append(randomChar(random));
+                break;
+            default:
+                break;
+        }
+        return text.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            escaped.append(c >= 0x20 && c < 0x7F ? String.valueOf(c) : String.format("\\u%04X", (int) c));
+        }
+        return escaped.toString();
+    }
+}
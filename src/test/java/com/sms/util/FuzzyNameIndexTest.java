@@ -0,0 +1,100 @@
+package com.sms.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for FuzzyNameIndex.
+ * Tests misspelled and sound-alike matches, ranking, index maintenance and the
+ * BK-tree search against a brute-force scan.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class FuzzyNameIndexTest {
+
+    private FuzzyNameIndex index;
+
+    @Before
+    public void setUp() {
+        index = new FuzzyNameIndex();
+        index.add(1, "Johnson");
+        index.add(2, "Jonson");
+        index.add(3, "Smith");
+        index.add(4, "Smyth");
+        index.add(5, "Mary Jo");
+        index.add(6, "Catherine");
+    }
+
+    private static List<Long> ids(List<FuzzyNameIndex.Match> matches) {
+        return matches.stream().map(FuzzyNameIndex.Match::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFindsMisspellingsClosestFirst() {
+        List<FuzzyNameIndex.Match> matches = index.search("johnson", 10);
+
+        assertEquals(List.of(1L, 2L), ids(matches));
+        assertEquals(0, matches.get(0).getDistance());
+        assertEquals(1, matches.get(1).getDistance());
+        assertTrue(ids(index.search("Kathryn", 10)).contains(6L));
+        assertEquals(List.of(3L, 4L), ids(index.search("Smith", 10)));
+        assertTrue(index.search("Zzyzx", 10).isEmpty());
+    }
+
+    @Test
+    public void testMultiWordQueriesMatchEveryWord() {
+        assertEquals(List.of(5L), ids(index.search("Marie Joe", 10)));
+        assertTrue(index.search("Mary Smith", 10).isEmpty());
+    }
+
+    @Test
+    public void testRemoveAndUpdate() {
+        index.remove(2, "Jonson");
+        assertEquals(List.of(1L), ids(index.search("Jonson", 10)));
+
+        index.update(1, "Johnson", "Catherine Johnson");
+        assertEquals(List.of(1L, 6L), ids(index.search("Catherine", 10)));
+        index.update(1, "Catherine Johnson", "Smith");
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("Smith", 10)));
+        assertTrue(index.search("Johnson", 10).isEmpty());
+    }
+
+    @Test
+    public void testTreeSearchAgreesWithScan() {
+        Random random = new Random(42);
+        String[] words = new String[2000];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int length = 3 + random.nextInt(6); word.length() < length; ) {
+                word.append((char) ('a' + random.nextInt(6)));
+            }
+            words[i] = word.toString();
+            index.add(100 + i, words[i]);
+        }
+        int[] row = new int[64];
+        int[] previous = new int[64];
+        for (int q = 0; q < 50; q++) {
+            String query = words[random.nextInt(words.length)];
+            List<Long> found = index.search(query, 2, Integer.MAX_VALUE).stream()
+                    .filter(match -> !match.isPhonetic() || match.getDistance() <= 2)
+                    .map(FuzzyNameIndex.Match::getId).filter(id -> id >= 100)
+                    .sorted().collect(Collectors.toList());
+            long expected = 0;
+            for (int i = 0; i < words.length; i++) {
+                if (FuzzyNameIndex.levenshtein(query, words[i], row, previous) <= 2) {
+                    expected++;
+                    assertTrue(query + " ~ " + words[i], found.contains(100L + i));
+                }
+            }
+            assertEquals(expected, found.size());
+        }
+    }
+}
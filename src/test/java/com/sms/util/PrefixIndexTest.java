@@ -0,0 +1,127 @@
+package com.sms.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for PrefixIndex.
+ * Tests normalization, ranking and de-duplication, and checks suggestions against a
+ * brute-force scan after a bulk load and while entries are added, rescored and removed
+ * across merges.
+ *
+ * @author SMS Development Team
+ * @version 1.0
+ * @since 2024
+ */
+public class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @Before
+    public void setUp() {
+        index = new PrefixIndex();
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(PrefixIndex.Suggestion::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("zoe o'neil", PrefixIndex.normalize("  Zoë   O'Neil "));
+        assertEquals("", PrefixIndex.normalize(null));
+        String normalized = "ann@example.com";
+        assertSame(normalized, PrefixIndex.normalize(normalized));
+    }
+
+    @Test
+    public void testRanksByScoreAndReturnsEachIdOnce() {
+        index.add(1, "John Smith", 1.0);
+        index.add(1, "Smith", 1.0);
+        index.add(2, "Johanna Lee", 3.0);
+        index.add(3, "Jo Smithers", 2.0);
+        index.add(3, "Smithers", 2.0);
+
+        assertEquals(List.of(2L, 3L, 1L), ids(index.suggest("JO", 10)));
+        assertEquals(List.of(2L, 3L), ids(index.suggest("jo", 2)));
+        assertEquals(List.of(3L, 1L), ids(index.suggest("smith", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("john s", 10)));
+        assertTrue(index.suggest("x", 10).isEmpty());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+
+        index.remove(3, "Smithers");
+        index.add(1, "Smith", 5.0);
+        index.add(1, "John Smith", 5.0);
+        assertTrue(index.suggest("smithe", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.suggest("smith", 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.suggest("jo", 10)));
+        assertEquals(4, index.size());
+        assertTrue(index.getMemoryFootprint() > 0);
+    }
+
+    @Test
+    public void testSuggestionsMatchScanAcrossMerges() {
+        Random random = new Random(7);
+        Map<String, Double> live = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        PrefixIndex.Batch batch = new PrefixIndex.Batch();
+        for (int i = 0; i < 3000; i++) {
+            String term = String.valueOf((char) ('a' + random.nextInt(4))) + (char) ('a' + random.nextInt(4));
+            double score = random.nextInt(100);
+            if (live.put(term + "#" + i % 1000, score) == null) {
+                keys.add(term + "#" + i % 1000);
+            }
+            batch.add(i % 1000, term, score);
+        }
+        index.addAll(batch);
+        for (int step = 0; step < 30_000; step++) {
+            if (keys.isEmpty() || random.nextInt(4) != 0) {
+                long id = random.nextInt(5000);
+                StringBuilder term = new StringBuilder();
+                for (int length = 1 + random.nextInt(5); term.length() < length; ) {
+                    term.append((char) ('a' + random.nextInt(4)));
+                }
+                double score = random.nextInt(100);
+                String key = term + "#" + id;
+                if (live.put(key, score) == null) {
+                    keys.add(key);
+                }
+                index.add(id, term.toString(), score);
+            } else {
+                String key = keys.remove(random.nextInt(keys.size()));
+                live.remove(key);
+                index.remove(Long.parseLong(key.substring(key.indexOf('#') + 1)), key.substring(0, key.indexOf('#')));
+            }
+            if (step % 1000 == 999) {
+                assertEquals(live.size(), index.size());
+                for (String prefix : new String[] {"a", "ab", "cd", "dda", "bcab"}) {
+                    assertEquals(prefix, scan(live, prefix, 7), ids(index.suggest(prefix, 7)));
+                }
+            }
+        }
+    }
+
+    /** Best score per ID among terms with the prefix, ranked like PrefixIndex.BEST_FIRST */
+    private static List<Long> scan(Map<String, Double> live, String prefix, int limit) {
+        Map<Long, PrefixIndex.Suggestion> best = new HashMap<>();
+        for (Map.Entry<String, Double> entry : live.entrySet()) {
+            String term = entry.getKey().substring(0, entry.getKey().indexOf('#'));
+            long id = Long.parseLong(entry.getKey().substring(entry.getKey().indexOf('#') + 1));
+            if (term.startsWith(prefix)) {
+                PrefixIndex.Suggestion candidate = new PrefixIndex.Suggestion(id, term, entry.getValue());
+                best.merge(id, candidate, (a, b) -> PrefixIndex.BEST_FIRST.compare(a, b) <= 0 ? a : b);
+            }
+        }
+        return best.values().stream().sorted(PrefixIndex.BEST_FIRST).limit(limit)
+                .map(PrefixIndex.Suggestion::getId).collect(Collectors.toList());
+    }
+}
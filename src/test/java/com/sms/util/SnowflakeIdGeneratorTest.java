@@ -0,0 +1,167 @@
+package com.sms.util;
+
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for SnowflakeIdGenerator and NodeIdLease.
+ * Tests uniqueness under concurrency, clock-skew handling and node ID leasing.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    // ==================== UNIQUENESS ====================
+
+    @Test
+    public void testIdsUniqueAcrossConcurrentGenerators() throws InterruptedException {
+        int threadsPerGenerator = 4;
+        int idsPerThread = 100_000;
+        SnowflakeIdGenerator[] generators = {
+            new SnowflakeIdGenerator(1), new SnowflakeIdGenerator(2), new SnowflakeIdGenerator(1023)
+        };
+        long[][] results = new long[generators.length * threadsPerGenerator][idsPerThread];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < results.length; t++) {
+            SnowflakeIdGenerator generator = generators[t % generators.length];
+            long[] ids = results[t];
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = new long[results.length * idsPerThread];
+        for (int t = 0; t < results.length; t++) {
+            for (int i = 1; i < idsPerThread; i++) {
+                assertTrue("IDs must increase within a thread", results[t][i] > results[t][i - 1]);
+            }
+            System.arraycopy(results[t], 0, all, t * idsPerThread, idsPerThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals("duplicate ID", all[i - 1], all[i]);
+        }
+        assertTrue(all[0] > 0);
+    }
+
+    @Test
+    public void testIdEncodesNodeAndTime() {
+        long before = System.currentTimeMillis();
+        long id = new SnowflakeIdGenerator(517).nextId();
+
+        assertEquals(517, SnowflakeIdGenerator.nodeIdOf(id));
+        long timestamp = SnowflakeIdGenerator.timestampOf(id);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+    }
+
+    // ==================== CLOCK SKEW ====================
+
+    @Test
+    public void testExhaustedSequenceBorrowsNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, null, 10, () -> NOW);
+        long previous = 0;
+        for (int i = 0; i < 3 * 4096; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(NOW + 2, SnowflakeIdGenerator.timestampOf(previous));
+    }
+
+    @Test
+    public void testBurstWaitsForClockAtSkewLimit() {
+        // The clock advances one millisecond every 1000 reads
+        AtomicLong reads = new AtomicLong();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, null, 0,
+                () -> NOW + reads.incrementAndGet() / 1000);
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testSmallBackwardStepKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, null, 1000, clock::get);
+        long before = generator.nextId();
+        clock.addAndGet(-500);
+
+        assertTrue(generator.nextId() > before);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLargeBackwardStepFails() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, null, 1000, clock::get);
+        generator.nextId();
+        clock.addAndGet(-5000);
+
+        generator.nextId();
+    }
+
+    // ==================== NODE ID LEASE ====================
+
+    @Test
+    public void testLeasesHandOutDistinctNodeIds() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:id_lease;DB_CLOSE_DELAY=-1", "sa", "");
+        // Released while the others are held, so it is closed by hand rather than by try-with-resources
+        NodeIdLease first = new NodeIdLease(dataSource, "host-a", Duration.ofSeconds(30));
+        try (NodeIdLease second = new NodeIdLease(dataSource, "host-b", Duration.ofSeconds(30))) {
+            try {
+                assertEquals(0, first.acquire());
+                assertEquals(1, second.acquire());
+                assertTrue(first.renew());
+            } finally {
+                first.close();
+            }
+            assertFalse(first.isHeld(System.currentTimeMillis()));
+            try (NodeIdLease third = new NodeIdLease(dataSource, "host-c", Duration.ofSeconds(30))) {
+                assertEquals(0, third.acquire());
+            }
+        }
+    }
+
+    @Test
+    public void testGeneratorStopsWhenLeaseIsLost() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:id_lease_lost;DB_CLOSE_DELAY=-1", "sa", "");
+        try (NodeIdLease lease = new NodeIdLease(dataSource, "host-a", Duration.ofSeconds(30))) {
+            lease.acquire();
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(lease);
+            assertEquals(0, SnowflakeIdGenerator.nodeIdOf(generator.nextId()));
+
+            new JdbcTemplate(dataSource)
+                    .update("UPDATE id_node_lease SET owner = 'host-b'");
+            assertFalse(lease.renew());
+            try {
+                generator.nextId();
+                fail("Expected the lost lease to stop ID generation");
+            } catch (IllegalStateException expected) {
+                assertTrue(expected.getMessage().contains("no longer held"));
+            }
+        }
+    }
+}
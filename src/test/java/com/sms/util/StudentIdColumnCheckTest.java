@@ -0,0 +1,45 @@
+package com.sms.util;
+
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test class for StudentIdColumnCheck.
+ * Tests that an INT id column left by an older version is rejected until it is migrated.
+ *
+ * @author SMS Development Team
+ * @version 2.0
+ * @since 2024
+ */
+public class StudentIdColumnCheckTest {
+
+    @Test
+    public void testIntColumnIsRejectedUntilMigrated() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:id_column;DB_CLOSE_DELAY=-1", "sa", "");
+        // A missing table will be created with the right type
+        StudentIdColumnCheck.verify(dataSource);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE students (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100))");
+        }
+        try {
+            StudentIdColumnCheck.verify(dataSource);
+            fail("INT id column was accepted");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains(StudentIdColumnCheck.MIGRATION));
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE students ALTER COLUMN id SET DATA TYPE BIGINT");
+        }
+        StudentIdColumnCheck.verify(dataSource);
+    }
+}